@@ -0,0 +1,37 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hssf.eventusermodel;
+
+/**
+ * Low allocation alternative to {@link HSSFListener}, which receives a reusable
+ * {@link HSSFRecordCursor} instead of a new record instance for every cell.
+ *
+ * @see HSSFEventFactory#processEvents(HSSFCursorListener, java.io.InputStream)
+ * @since POI 5.0.0
+ */
+@FunctionalInterface
+public interface HSSFCursorListener {
+
+    /**
+     * process the current HSSF record or cell. The cursor is only valid for the duration
+     * of the call and is updated in place for the next record.
+     *
+     * @param cursor the cursor positioned on the current record or cell
+     */
+    void processRecord(HSSFRecordCursor cursor);
+}
@@ -62,23 +62,51 @@ public class HSSFEventFactory {
     * @throws IOException if the workbook contained errors 
     */
     public void processWorkbookEvents(HSSFRequest req, DirectoryNode dir) throws IOException {
+        try (InputStream in = dir.createDocumentInputStream(getWorkbookDirEntryName(dir))) {
+            processEvents(req, in);
+        }
+    }
+
+    /**
+     * Processes a file into record events, without creating record instances for the cell values.
+     *
+     * @param listener the listener which receives the cursor for each record and cell
+     * @param fs  a POIFS filesystem containing your workbook
+     *
+     * @throws IOException if the workbook contained errors
+     *
+     * @since POI 5.0.0
+     */
+    public void processWorkbookEvents(HSSFCursorListener listener, POIFSFileSystem fs) throws IOException {
+        processWorkbookEvents(listener, fs.getRoot());
+    }
+
+    /**
+     * Processes a file into record events, without creating record instances for the cell values.
+     *
+     * @param listener the listener which receives the cursor for each record and cell
+     * @param dir  a DirectoryNode containing your workbook
+     *
+     * @throws IOException if the workbook contained errors
+     *
+     * @since POI 5.0.0
+     */
+    public void processWorkbookEvents(HSSFCursorListener listener, DirectoryNode dir) throws IOException {
+        try (InputStream in = dir.createDocumentInputStream(getWorkbookDirEntryName(dir))) {
+            processEvents(listener, in);
+        }
+    }
+
+    private static String getWorkbookDirEntryName(DirectoryNode dir) {
         // some old documents have "WORKBOOK" or "BOOK"
-        String name = null;
         Set<String> entryNames = dir.getEntryNames();
         for (String potentialName : WORKBOOK_DIR_ENTRY_NAMES) {
             if (entryNames.contains(potentialName)) {
-                name = potentialName;
-                break;
+                return potentialName;
             }
         }
         // If in doubt, go for the default
-        if (name == null) {
-            name = WORKBOOK_DIR_ENTRY_NAMES[0];
-        }
-
-        try (InputStream in = dir.createDocumentInputStream(name)) {
-            processEvents(req, in);
-        }
+        return WORKBOOK_DIR_ENTRY_NAMES[0];
     }
 
    /**
@@ -133,6 +161,37 @@ public class HSSFEventFactory {
 	}
 
 
+	/**
+	 * Processes a DocumentInputStream into record events, without creating record instances
+	 * for the cell values. Instead the cell values are decoded into a single reusable
+	 * {@link HSSFRecordCursor}, which is passed to the listener once per cell - the
+	 * cells of MulRK and MulBlank records are reported individually.
+	 *
+	 * @see org.apache.poi.poifs.filesystem.POIFSFileSystem#createDocumentInputStream(String)
+	 * @param listener the listener which receives the cursor for each record and cell
+	 * @param in  a DocumentInputStream obtained from POIFS's POIFSFileSystem object
+	 *
+	 * @since POI 5.0.0
+	 */
+	public void processEvents(HSSFCursorListener listener, InputStream in) {
+		RecordFactoryInputStream recordStream = new RecordFactoryInputStream(in, false);
+		HSSFRecordCursor cursor = new HSSFRecordCursor();
+
+		while (true) {
+			cursor.reset();
+			org.apache.poi.hssf.record.Record r = recordStream.nextRecord(cursor);
+			if (r != null) {
+				cursor.setRecord(r);
+			} else if (!cursor.isCellValue()) {
+				// end of stream
+				break;
+			}
+			do {
+				listener.processRecord(cursor);
+			} while (cursor.nextCell());
+		}
+	}
+
 	/**
 	 * Processes a DocumentInputStream into essentially Record events.
 	 *
@@ -0,0 +1,313 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hssf.eventusermodel;
+
+import java.util.Arrays;
+
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.FormulaSpecialCachedValue;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.RKRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
+import org.apache.poi.hssf.record.RecordInputStream;
+import org.apache.poi.hssf.util.RKUtil;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.util.Internal;
+
+/**
+ * Reusable view of the current record, as passed to a {@link HSSFCursorListener}.
+ * <p>
+ * The cell value records ({@link NumberRecord}, {@link RKRecord}, {@link MulRKRecord},
+ * {@link LabelSSTRecord}, {@link BoolErrRecord}, {@link BlankRecord}, {@link MulBlankRecord}
+ * and {@link FormulaRecord}) are decoded directly from the stream into the cursor without
+ * creating record instances. The multiple cell records ({@link MulRKRecord} and
+ * {@link MulBlankRecord}) are reported once per cell. All other records are created as
+ * usual and are available via {@link #getRecord()}.
+ * <p>
+ * For formula cells only the cached result is available - the formula string value
+ * follows in a separate {@link org.apache.poi.hssf.record.StringRecord}.
+ *
+ * @since POI 5.0.0
+ */
+public final class HSSFRecordCursor implements RecordFactoryInputStream.RawRecordReader {
+    private static final long SPECIAL_VALUE_MARKER = 0xFFFF000000000000L;
+
+    private int _sid;
+    private Record _record;
+    private boolean _rawRecord;
+
+    private int _row;
+    private int _column;
+    private CellType _cellType;
+    private CellType _cachedResultType;
+    private int _sstIndex;
+    private boolean _booleanValue;
+    private int _errorValue;
+
+    // cells of the current record, only MulRK and MulBlank records have more than one
+    private int _firstColumn;
+    private int _cellCount;
+    private int _cellIndex;
+    private int[] _xfIndexes = new int[256];
+    private double[] _values = new double[256];
+
+    private final byte[] _skipBuffer = new byte[RecordInputStream.MAX_RECORD_DATA_SIZE];
+
+    /**
+     * @return the sid of the current record
+     */
+    public int getSid() {
+        return _sid;
+    }
+
+    /**
+     * @return <code>true</code> if the cursor is positioned on a cell value, which is
+     *  decoded into the cursor instead of a record instance
+     */
+    public boolean isCellValue() {
+        return _rawRecord;
+    }
+
+    /**
+     * @return the current record, or <code>null</code> if the cursor is positioned on a cell value
+     */
+    public Record getRecord() {
+        return _record;
+    }
+
+    /**
+     * @return the 0-based row of the current cell
+     */
+    public int getRow() {
+        return _row;
+    }
+
+    /**
+     * @return the 0-based column of the current cell
+     */
+    public int getColumn() {
+        return _column;
+    }
+
+    /**
+     * @return the index of the extended format record of the current cell
+     */
+    public int getXFIndex() {
+        return _xfIndexes[_cellIndex];
+    }
+
+    /**
+     * @return the type of the current cell, i.e. one of NUMERIC, STRING (for SST references),
+     *  BOOLEAN, ERROR, BLANK or FORMULA, or <code>null</code> if the cursor is not positioned on a cell value
+     */
+    public CellType getCellType() {
+        return _cellType;
+    }
+
+    /**
+     * @return the type of the cached formula result, or <code>null</code> if the current cell is not a formula
+     */
+    public CellType getCachedFormulaResultType() {
+        return _cachedResultType;
+    }
+
+    /**
+     * @return the value of a numeric cell or the cached value of a numeric formula
+     */
+    public double getNumericValue() {
+        return _values[_cellIndex];
+    }
+
+    /**
+     * @return the index into the shared string table of a string cell
+     */
+    public int getSSTIndex() {
+        return _sstIndex;
+    }
+
+    /**
+     * @return the value of a boolean cell or the cached value of a boolean formula
+     */
+    public boolean getBooleanValue() {
+        return _booleanValue;
+    }
+
+    /**
+     * @return the error code of an error cell or the cached error code of a formula
+     */
+    public int getErrorValue() {
+        return _errorValue;
+    }
+
+    /**
+     * Positions the cursor on a created record
+     */
+    void setRecord(Record record) {
+        _sid = record.getSid();
+        _record = record;
+        _rawRecord = false;
+        _cellType = null;
+        _cachedResultType = null;
+        _cellCount = 0;
+        _cellIndex = 0;
+    }
+
+    /**
+     * Resets the raw record flag before the next record is read
+     */
+    void reset() {
+        _rawRecord = false;
+    }
+
+    /**
+     * Moves to the next cell of the current multiple cell record
+     *
+     * @return <code>false</code> if there are no more cells
+     */
+    boolean nextCell() {
+        if (_cellIndex + 1 >= _cellCount) {
+            return false;
+        }
+        _cellIndex++;
+        _column = _firstColumn + _cellIndex;
+        return true;
+    }
+
+    @Internal
+    @Override
+    public boolean readRawRecord(int sid, RecordInputStream in) {
+        switch (sid) {
+            case NumberRecord.sid:
+                readCell(sid, CellType.NUMERIC, in);
+                _values[0] = in.readDouble();
+                break;
+            case RKRecord.sid:
+                readCell(sid, CellType.NUMERIC, in);
+                _values[0] = RKUtil.decodeNumber(in.readInt());
+                break;
+            case LabelSSTRecord.sid:
+                readCell(sid, CellType.STRING, in);
+                _sstIndex = in.readInt();
+                break;
+            case BlankRecord.sid:
+                readCell(sid, CellType.BLANK, in);
+                break;
+            case BoolErrRecord.sid:
+                readBoolErr(sid, in);
+                break;
+            case FormulaRecord.sid:
+                readFormula(sid, in);
+                break;
+            case MulRKRecord.sid:
+                readMultipleCells(sid, CellType.NUMERIC, 6, in);
+                break;
+            case MulBlankRecord.sid:
+                readMultipleCells(sid, CellType.BLANK, 2, in);
+                break;
+            default:
+                return false;
+        }
+        _rawRecord = true;
+        return true;
+    }
+
+    private void readCell(int sid, CellType cellType, RecordInputStream in) {
+        _sid = sid;
+        _record = null;
+        _cellType = cellType;
+        _cachedResultType = null;
+        _row = in.readUShort();
+        _column = in.readUShort();
+        _firstColumn = _column;
+        _xfIndexes[0] = in.readUShort();
+        _cellCount = 1;
+        _cellIndex = 0;
+    }
+
+    private void readBoolErr(int sid, RecordInputStream in) {
+        readCell(sid, null, in);
+        // older files can have a 2 byte value
+        int value = (in.remaining() == 3) ? in.readUShort() : in.readUByte();
+        if (in.readUByte() == 0) {
+            _cellType = CellType.BOOLEAN;
+            _booleanValue = value != 0;
+        } else {
+            _cellType = CellType.ERROR;
+            _errorValue = value;
+        }
+    }
+
+    private void readFormula(int sid, RecordInputStream in) {
+        readCell(sid, CellType.FORMULA, in);
+        long valueLongBits = in.readLong();
+        if ((valueLongBits & SPECIAL_VALUE_MARKER) != SPECIAL_VALUE_MARKER) {
+            _cachedResultType = CellType.NUMERIC;
+            _values[0] = Double.longBitsToDouble(valueLongBits);
+        } else {
+            int data = (int)((valueLongBits >> 16) & 0xFF);
+            switch ((int)(valueLongBits & 0xFF)) {
+                case FormulaSpecialCachedValue.BOOLEAN:
+                    _cachedResultType = CellType.BOOLEAN;
+                    _booleanValue = data != 0;
+                    break;
+                case FormulaSpecialCachedValue.ERROR_CODE:
+                    _cachedResultType = CellType.ERROR;
+                    _errorValue = data;
+                    break;
+                default:
+                    // string and empty string
+                    _cachedResultType = CellType.STRING;
+                    break;
+            }
+        }
+        // skip the options and the parsed formula
+        in.readFully(_skipBuffer, 0, in.remaining());
+    }
+
+    private void readMultipleCells(int sid, CellType cellType, int cellSize, RecordInputStream in) {
+        _sid = sid;
+        _record = null;
+        _cellType = cellType;
+        _cachedResultType = null;
+        _row = in.readUShort();
+        _firstColumn = in.readUShort();
+        _column = _firstColumn;
+
+        int count = (in.remaining() - 2) / cellSize;
+        if (count > _xfIndexes.length) {
+            _xfIndexes = Arrays.copyOf(_xfIndexes, count);
+            _values = Arrays.copyOf(_values, count);
+        }
+        for (int i = 0; i < count; i++) {
+            _xfIndexes[i] = in.readUShort();
+            if (cellSize == 6) {
+                _values[i] = RKUtil.decodeNumber(in.readInt());
+            }
+        }
+        // last column
+        in.readUShort();
+        _cellCount = count;
+        _cellIndex = 0;
+    }
+}
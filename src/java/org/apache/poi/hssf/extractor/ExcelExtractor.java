@@ -28,7 +28,6 @@ import org.apache.poi.extractor.POIOLE2TextExtractor;
 import org.apache.poi.hssf.usermodel.HSSFCell;
 import org.apache.poi.hssf.usermodel.HSSFCellStyle;
 import org.apache.poi.hssf.usermodel.HSSFComment;
-import org.apache.poi.hssf.usermodel.HSSFDataFormatter;
 import org.apache.poi.hssf.usermodel.HSSFRichTextString;
 import org.apache.poi.hssf.usermodel.HSSFRow;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
@@ -36,6 +35,7 @@ import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.formula.eval.ErrorEval;
+import org.apache.poi.ss.usermodel.CompiledDataFormatter;
 import org.apache.poi.ss.usermodel.HeaderFooter;
 import org.apache.poi.ss.usermodel.Row.MissingCellPolicy;
 
@@ -55,7 +55,7 @@ import org.apache.poi.ss.usermodel.Row.MissingCellPolicy;
  */
 public class ExcelExtractor implements POIOLE2TextExtractor, org.apache.poi.ss.extractor.ExcelExtractor {
 	private final HSSFWorkbook _wb;
-	private final HSSFDataFormatter _formatter;
+	private final CompiledDataFormatter _formatter;
 	private boolean doCloseFilesystem = true;
 	private boolean _includeSheetNames = true;
 	private boolean _shouldEvaluateFormulas = true;
@@ -65,7 +65,7 @@ public class ExcelExtractor implements POIOLE2TextExtractor, org.apache.poi.ss.e
 
 	public ExcelExtractor(HSSFWorkbook wb) {
 		_wb = wb;
-		_formatter = new HSSFDataFormatter();
+		_formatter = new CompiledDataFormatter();
 	}
 
 	public ExcelExtractor(POIFSFileSystem fs) throws IOException {
@@ -321,7 +321,7 @@ public class ExcelExtractor implements POIOLE2TextExtractor, org.apache.poi.ss.e
 								text.append(cell.getRichStringCellValue().getString());
 								break;
 							case NUMERIC:
-								text.append(_formatter.formatCellValue(cell));
+								_formatter.formatCellValue(cell, text);
 								break;
 							case BOOLEAN:
 								text.append(cell.getBooleanCellValue());
@@ -343,9 +343,7 @@ public class ExcelExtractor implements POIOLE2TextExtractor, org.apache.poi.ss.e
 										case NUMERIC:
 											HSSFCellStyle style = cell.getCellStyle();
 											double nVal = cell.getNumericCellValue();
-											short df = style.getDataFormat();
-											String dfs = style.getDataFormatString();
-											text.append(_formatter.formatRawCellContents(nVal, df, dfs));
+											_formatter.getFormat(style).formatRawCellContents(nVal, false, text);
 											break;
 										case BOOLEAN:
 											text.append(cell.getBooleanCellValue());
@@ -36,6 +36,7 @@ import org.apache.poi.hssf.record.aggregates.RowRecordsAggregate;
 import org.apache.poi.hssf.record.aggregates.WorksheetProtectionBlock;
 import org.apache.poi.ss.formula.FormulaShifter;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellRangeAddressBase;
 import org.apache.poi.ss.util.PaneInformation;
 import org.apache.poi.util.Internal;
 import org.apache.poi.util.POILogFactory;
@@ -371,6 +372,9 @@ public final class InternalSheet {
      * @return the cloned sheet
      */
     public InternalSheet cloneSheet() {
+        if (_rowsAggregate.getFlushedRowCount() > 0) {
+            throw new IllegalStateException("Cannot clone a sheet with rows which have been flushed to disk");
+        }
         List<org.apache.poi.hssf.record.Record> clonedRecords = new ArrayList<>(_records.size());
         for (int i = 0; i < _records.size(); i++) {
             RecordBase rb = _records.get(i);
@@ -516,6 +520,14 @@ public final class InternalSheet {
     public int getNumMergedRegions() {
         return getMergedRecords().getNumberOfMergedRegions();
     }
+
+    /**
+     * @return the merged regions which intersect the given range, in the order of the regions
+     * @since POI 5.0.0
+     */
+    public List<CellRangeAddress> getMergedRegionsIntersecting(CellRangeAddressBase range) {
+        return getMergedRecords().getIntersecting(range);
+    }
     public ConditionalFormattingTable getConditionalFormattingTable() {
         if (condFormatting == null) {
             condFormatting = new ConditionalFormattingTable();
@@ -746,6 +758,43 @@ public final class InternalSheet {
     	return _rowsAggregate.getCellValueIterator();
     }
 
+    /**
+     * @param rowIndex the row of the cells
+     * @return Iterator of CellValueRecordInterface representing the value records of the row
+     *
+     * @since POI 5.0.0
+     */
+    public Iterator<CellValueRecordInterface> getCellValueIterator(int rowIndex) {
+        return _rowsAggregate.getCellValueIterator(rowIndex);
+    }
+
+    /**
+     * @return the index of the first row at or after startRow which has cells, or -1 if there is none
+     *
+     * @since POI 5.0.0
+     */
+    public int getNextRowWithCells(int startRow) {
+        return _rowsAggregate.getNextRowWithCells(startRow);
+    }
+
+    /**
+     * @return the first column of the given row which has a cell, or -1 if the row is empty
+     *
+     * @since POI 5.0.0
+     */
+    public int getFirstCellInRow(int rowIndex) {
+        return _rowsAggregate.getFirstCellInRow(rowIndex);
+    }
+
+    /**
+     * @return the last column of the given row which has a cell, or -1 if the row is empty
+     *
+     * @since POI 5.0.0
+     */
+    public int getLastCellInRow(int rowIndex) {
+        return _rowsAggregate.getLastCellInRow(rowIndex);
+    }
+
     /**
      * get the NEXT RowRecord (from LOC).  The first record that is a Row record
      * (starting at LOC) will be returned.
@@ -221,10 +221,44 @@ public final class RecordFactoryInputStream {
 		_lastRecordWasEOFLevelZero = false;
 	}
 
+	/**
+	 * Reads records directly from the underlying {@link RecordInputStream},
+	 * see {@link #nextRecord(RawRecordReader)}
+	 *
+	 * @since POI 5.0.0
+	 */
+	public interface RawRecordReader {
+		/**
+		 * Called for each record read from the stream, before a {@link Record} is created for it.
+		 * The reader can consume the record data itself, in which case no {@link Record} is created.
+		 * Records which affect the stream structure, like BOF, EOF and CONTINUE, must not be consumed.
+		 *
+		 * @param sid the sid of the current record
+		 * @param in the stream positioned at the start of the record data
+		 * @return <code>true</code> if the record data has been completely consumed by the reader,
+		 *  <code>false</code> if a {@link Record} should be created as usual
+		 */
+		boolean readRawRecord(int sid, RecordInputStream in);
+	}
+
 	/**
 	 * @return the next (complete) record from the stream, or null if there are no more.
 	 */
 	public Record nextRecord() {
+		return nextRecord(null);
+	}
+
+	/**
+	 * Like {@link #nextRecord()}, but offers each record to the given reader first, so
+	 * frequent records can be read without creating {@link Record} instances.
+	 *
+	 * @param reader the reader for raw records, may be <code>null</code>
+	 * @return the next (complete) record from the stream, or null if there are no more
+	 *  or if the record has been consumed by the reader
+	 *
+	 * @since POI 5.0.0
+	 */
+	public Record nextRecord(RawRecordReader reader) {
 		Record r;
 		r = getNextUnreadRecord();
 		if (r != null) {
@@ -252,6 +286,11 @@ public final class RecordFactoryInputStream {
             // step underlying RecordInputStream to the next record
             _recStream.nextRecord();
 
+			if (reader != null && reader.readRawRecord(_recStream.getSid(), _recStream)) {
+				_lastRecordWasEOFLevelZero = false;
+				return null;
+			}
+
 			r = readNextRecord();
 			if (r == null) {
 				// some record types may get skipped (e.g. DBCellRecord and ContinueRecord)
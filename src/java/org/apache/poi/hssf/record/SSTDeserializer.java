@@ -20,7 +20,6 @@
 package org.apache.poi.hssf.record;
 
 import org.apache.poi.hssf.record.common.UnicodeString;
-import org.apache.poi.util.IntMapper;
 import org.apache.poi.util.POILogFactory;
 import org.apache.poi.util.POILogger;
 
@@ -33,9 +32,9 @@ import org.apache.poi.util.POILogger;
 class SSTDeserializer
 {
 	private static POILogger logger = POILogFactory.getLogger(SSTDeserializer.class);
-    private IntMapper<UnicodeString> strings;
+    private SSTStringTable strings;
 
-    public SSTDeserializer( IntMapper<UnicodeString> strings )
+    public SSTDeserializer( SSTStringTable strings )
     {
         this.strings = strings;
     }
@@ -56,12 +55,7 @@ class SSTDeserializer
          } else {
             str = new UnicodeString(in);
          }
-         addToStringTable( strings, str );
+         strings.add( str );
       }
     }
-
-    static public void addToStringTable( IntMapper<UnicodeString> strings, UnicodeString string )
-    {
-      strings.add(string);
-    }
 }
@@ -25,7 +25,6 @@ import org.apache.poi.hssf.record.common.UnicodeString;
 import org.apache.poi.hssf.record.cont.ContinuableRecord;
 import org.apache.poi.hssf.record.cont.ContinuableRecordOutput;
 import org.apache.poi.util.GenericRecordUtil;
-import org.apache.poi.util.IntMapper;
 
 /**
  * Static String Table Record (0x00FC)<p>
@@ -49,7 +48,7 @@ public final class SSTRecord extends ContinuableRecord {
      * according to docs ONLY SST
      */
     private int field_2_num_unique_strings;
-    private IntMapper<UnicodeString> field_3_strings;
+    private SSTStringTable field_3_strings;
 
     private SSTDeserializer deserializer;
 
@@ -65,7 +64,7 @@ public final class SSTRecord extends ContinuableRecord {
     public SSTRecord() {
         field_1_num_strings = 0;
         field_2_num_unique_strings = 0;
-        field_3_strings = new IntMapper<>();
+        field_3_strings = new SSTStringTable();
         deserializer = new SSTDeserializer(field_3_strings);
     }
 
@@ -101,7 +100,7 @@ public final class SSTRecord extends ContinuableRecord {
             // strings we've already collected
             rval = field_3_strings.size();
             field_2_num_unique_strings++;
-            SSTDeserializer.addToStringTable( field_3_strings, ucs );
+            field_3_strings.add( ucs );
         }
         return rval;
     }
@@ -223,7 +222,7 @@ public final class SSTRecord extends ContinuableRecord {
         // we initialize our fields
         field_1_num_strings = in.readInt();
         field_2_num_unique_strings = in.readInt();
-        field_3_strings = new IntMapper<>();
+        field_3_strings = new SSTStringTable();
 
         deserializer = new SSTDeserializer(field_3_strings);
         // Bug 57456: some Excel Sheets send 0 as field=1, but have some random number in field_2,
@@ -238,7 +237,8 @@ public final class SSTRecord extends ContinuableRecord {
 
     /**
      * @return an iterator of the strings we hold. All instances are
-     *         UnicodeStrings
+     *         UnicodeStrings, strings which haven't been accessed by
+     *         {@link #getString(int)} are returned as transient copies
      */
     Iterator<UnicodeString> getStrings()
     {
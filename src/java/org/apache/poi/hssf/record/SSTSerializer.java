@@ -17,9 +17,7 @@
 
 package org.apache.poi.hssf.record;
 
-import org.apache.poi.hssf.record.common.UnicodeString;
 import org.apache.poi.hssf.record.cont.ContinuableRecordOutput;
-import org.apache.poi.util.IntMapper;
 
 /**
  * This class handles serialization of SST records.  It utilizes the record processor
@@ -32,14 +30,14 @@ final class SSTSerializer {
 	private final int _numStrings;
 	private final int _numUniqueStrings;
 
-    private final IntMapper<UnicodeString> strings;
+    private final SSTStringTable strings;
 
     /** Offsets from the beginning of the SST record (even across continuations) */
     private final int[] bucketAbsoluteOffsets;
     /** Offsets relative the start of the current SST or continue record */
     private final int[] bucketRelativeOffsets;
 
-    public SSTSerializer( IntMapper<UnicodeString> strings, int numStrings, int numUniqueStrings )
+    public SSTSerializer( SSTStringTable strings, int numStrings, int numUniqueStrings )
     {
         this.strings = strings;
 		_numStrings = numStrings;
@@ -66,22 +64,11 @@ final class SSTSerializer {
                  bucketRelativeOffsets[index] = rOff;
               }
           }
-          UnicodeString s = getUnicodeString(k);
-          s.serialize(out);
+          strings.serialize(k, out);
         }
     }
 
 
-    private UnicodeString getUnicodeString( int index )
-    {
-        return getUnicodeString(strings, index);
-    }
-
-    private static UnicodeString getUnicodeString( IntMapper<UnicodeString> strings, int index )
-    {
-        return ( strings.get( index ) );
-    }
-
     public int[] getBucketAbsoluteOffsets()
     {
         return bucketAbsoluteOffsets;
@@ -0,0 +1,352 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hssf.record;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.poi.common.Duplicatable;
+import org.apache.poi.hssf.record.common.UnicodeString;
+import org.apache.poi.hssf.record.cont.ContinuableRecordOutput;
+import org.apache.poi.util.StringUtil;
+
+/**
+ * Compact storage of the strings of a {@link SSTRecord}.
+ * <p>
+ * Plain strings (without formatting runs and extended data) are packed into a single
+ * byte arena in their record encoding, i.e. one byte per character for compressed strings
+ * and two bytes per character for 16-bit strings. {@link UnicodeString} instances are only
+ * created when a string is requested and then kept, so that changes to the returned
+ * instance are reflected when the record is serialized. Rich text strings are kept as instances.
+ * <p>
+ * The index needed to look up duplicates is only built on the first call to
+ * {@link #getIndex(UnicodeString)}, so workbooks which are only read don't pay for it.
+ */
+final class SSTStringTable implements Duplicatable {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private byte[] _data;
+    private int _dataSize;
+    /** start of entry i in the arena, the end is the start of entry i+1 */
+    private int[] _offsets;
+    /** entries encoded with two bytes per character */
+    private final BitSet _wide;
+    /** materialized strings, entries without arena data are always materialized */
+    private UnicodeString[] _strings;
+    private int _size;
+
+    /** open addressing hash index, holding entry index + 1, or 0 for free slots */
+    private int[] _indexSlots;
+    private int[] _indexHashes;
+
+    SSTStringTable() {
+        _data = new byte[DEFAULT_CAPACITY * 8];
+        _offsets = new int[DEFAULT_CAPACITY + 1];
+        _wide = new BitSet();
+        _strings = new UnicodeString[DEFAULT_CAPACITY];
+    }
+
+    SSTStringTable(SSTStringTable other) {
+        _data = Arrays.copyOf(other._data, other._dataSize);
+        _dataSize = other._dataSize;
+        _offsets = other._offsets.clone();
+        _wide = (BitSet)other._wide.clone();
+        _strings = other._strings.clone();
+        _size = other._size;
+    }
+
+    int size() {
+        return _size;
+    }
+
+    /**
+     * Appends a string
+     *
+     * @param string the string to be appended
+     */
+    void add(UnicodeString string) {
+        if (_size == _strings.length) {
+            int newLen = _size * 2;
+            _strings = Arrays.copyOf(_strings, newLen);
+            _offsets = Arrays.copyOf(_offsets, newLen + 1);
+        }
+        int index = _size;
+        String text = string.getString();
+        boolean wide = (string.getOptionFlags() & 1) != 0;
+        if (isPlain(string) && (wide || !StringUtil.hasMultibyte(text))) {
+            int len = text.length();
+            ensureDataCapacity(_dataSize + (wide ? len * 2 : len));
+            if (wide) {
+                _wide.set(index);
+                for (int i = 0; i < len; i++) {
+                    char ch = text.charAt(i);
+                    _data[_dataSize++] = (byte)ch;
+                    _data[_dataSize++] = (byte)(ch >>> 8);
+                }
+            } else {
+                for (int i = 0; i < len; i++) {
+                    _data[_dataSize++] = (byte)text.charAt(i);
+                }
+            }
+        } else {
+            _strings[index] = string;
+        }
+        _size++;
+        _offsets[_size] = _dataSize;
+
+        if (_indexSlots != null) {
+            addToIndex(index);
+        }
+    }
+
+    /**
+     * @param index the index of the string
+     * @return the string, which is materialized and kept on first access
+     */
+    UnicodeString get(int index) {
+        checkIndex(index);
+        UnicodeString us = _strings[index];
+        if (us == null) {
+            us = materialize(index);
+            _strings[index] = us;
+        }
+        return us;
+    }
+
+    /**
+     * @param string the string to look up
+     * @return the index of the last string equal to the given one, or -1 if the string is not in the table
+     */
+    int getIndex(UnicodeString string) {
+        if (_indexSlots == null) {
+            buildIndex();
+        }
+        int hash = string.getString().hashCode();
+        int mask = _indexSlots.length - 1;
+        for (int slot = mix(hash) & mask; _indexSlots[slot] != 0; slot = (slot + 1) & mask) {
+            int index = _indexSlots[slot] - 1;
+            if (_indexHashes[slot] == hash && entryEquals(index, string)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Serializes a string without materializing it
+     */
+    void serialize(int index, ContinuableRecordOutput out) {
+        checkIndex(index);
+        UnicodeString us = _strings[index];
+        if (us != null) {
+            us.serialize(out);
+        } else {
+            out.writeString(getText(index), 0, 0);
+        }
+    }
+
+    /**
+     * @return an iterator over the strings, which doesn't materialize the returned instances
+     */
+    Iterator<UnicodeString> iterator() {
+        return new Iterator<UnicodeString>() {
+            private int _next;
+
+            @Override
+            public boolean hasNext() {
+                return _next < _size;
+            }
+
+            @Override
+            public UnicodeString next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int index = _next++;
+                UnicodeString us = _strings[index];
+                return (us == null) ? materialize(index) : us;
+            }
+        };
+    }
+
+    List<UnicodeString> getElements() {
+        List<UnicodeString> list = new ArrayList<>(_size);
+        iterator().forEachRemaining(list::add);
+        return list;
+    }
+
+    @Override
+    public SSTStringTable copy() {
+        return new SSTStringTable(this);
+    }
+
+    private static boolean isPlain(UnicodeString string) {
+        // anything but the 16-bit flag requires the full record
+        return (string.getOptionFlags() & ~1) == 0
+            && string.getFormatRunCount() == 0
+            && string.getExtendedRst() == null;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= _size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + _size);
+        }
+    }
+
+    private void ensureDataCapacity(int minCapacity) {
+        if (minCapacity > _data.length) {
+            _data = Arrays.copyOf(_data, Math.max(minCapacity, _data.length * 2));
+        }
+    }
+
+    private UnicodeString materialize(int index) {
+        UnicodeString us = new UnicodeString(getText(index));
+        // keep the encoding of the record, even if the characters would fit into one byte
+        if (_wide.get(index)) {
+            us.setOptionFlags((byte)1);
+        }
+        return us;
+    }
+
+    private String getText(int index) {
+        int start = _offsets[index];
+        int end = _offsets[index + 1];
+        char[] chars;
+        if (_wide.get(index)) {
+            chars = new char[(end - start) / 2];
+            for (int i = 0, pos = start; pos < end; i++, pos += 2) {
+                chars[i] = (char)((_data[pos] & 0xFF) | ((_data[pos + 1] & 0xFF) << 8));
+            }
+        } else {
+            chars = new char[end - start];
+            for (int i = 0, pos = start; pos < end; i++, pos++) {
+                chars[i] = (char)(_data[pos] & 0xFF);
+            }
+        }
+        return new String(chars);
+    }
+
+    private int hashEntry(int index) {
+        UnicodeString us = _strings[index];
+        if (us != null) {
+            return us.getString().hashCode();
+        }
+        // same as String.hashCode() of the decoded text
+        int start = _offsets[index];
+        int end = _offsets[index + 1];
+        int h = 0;
+        if (_wide.get(index)) {
+            for (int pos = start; pos < end; pos += 2) {
+                h = 31 * h + ((_data[pos] & 0xFF) | ((_data[pos + 1] & 0xFF) << 8));
+            }
+        } else {
+            for (int pos = start; pos < end; pos++) {
+                h = 31 * h + (_data[pos] & 0xFF);
+            }
+        }
+        return h;
+    }
+
+    private boolean entryEquals(int index, UnicodeString string) {
+        UnicodeString us = _strings[index];
+        if (us != null) {
+            return us.equals(string);
+        }
+        if (!isPlain(string) || _wide.get(index) != ((string.getOptionFlags() & 1) != 0)) {
+            return false;
+        }
+        String text = string.getString();
+        int start = _offsets[index];
+        int end = _offsets[index + 1];
+        boolean wide = _wide.get(index);
+        if ((end - start) != (wide ? text.length() * 2 : text.length())) {
+            return false;
+        }
+        for (int i = 0, pos = start; pos < end; i++) {
+            int ch;
+            if (wide) {
+                ch = (_data[pos] & 0xFF) | ((_data[pos + 1] & 0xFF) << 8);
+                pos += 2;
+            } else {
+                ch = _data[pos++] & 0xFF;
+            }
+            if (ch != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean entryEquals(int index1, int index2) {
+        UnicodeString us = _strings[index2];
+        return entryEquals(index1, (us == null) ? materialize(index2) : us);
+    }
+
+    private void buildIndex() {
+        int capacity = Integer.highestOneBit(Math.max(_size, DEFAULT_CAPACITY) * 2 - 1) << 1;
+        _indexSlots = new int[capacity];
+        _indexHashes = new int[capacity];
+        for (int i = 0; i < _size; i++) {
+            addToIndex(i);
+        }
+    }
+
+    private void addToIndex(int index) {
+        if ((_size * 2) > _indexSlots.length) {
+            rehash(_indexSlots.length * 2);
+        }
+        int hash = hashEntry(index);
+        int mask = _indexSlots.length - 1;
+        int slot = mix(hash) & mask;
+        for (; _indexSlots[slot] != 0; slot = (slot + 1) & mask) {
+            // duplicates in the table are indexed by their last occurrence
+            if (_indexHashes[slot] == hash && entryEquals(_indexSlots[slot] - 1, index)) {
+                break;
+            }
+        }
+        _indexSlots[slot] = index + 1;
+        _indexHashes[slot] = hash;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldSlots = _indexSlots;
+        int[] oldHashes = _indexHashes;
+        _indexSlots = new int[capacity];
+        _indexHashes = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != 0) {
+                int slot = mix(oldHashes[i]) & mask;
+                while (_indexSlots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                _indexSlots[slot] = oldSlots[i];
+                _indexHashes[slot] = oldHashes[i];
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -23,13 +23,17 @@ import java.util.List;
 import org.apache.poi.hssf.model.RecordStream;
 import org.apache.poi.hssf.record.MergeCellsRecord;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellRangeAddressBase;
 import org.apache.poi.ss.util.CellRangeAddressList;
+import org.apache.poi.ss.util.CellRangeIndex;
 
 public final class MergedCellsTable extends RecordAggregate {
 	// enforced by the 8224 byte limit
 	private static final int MAX_MERGED_REGIONS = 1027;
 
 	private final List<CellRangeAddress> _mergedRegions;
+	/** the merged regions by their position, built on first lookup */
+	private CellRangeIndex<CellRangeAddress> _index;
 
 	/**
 	 * Creates an empty aggregate
@@ -51,6 +55,7 @@ public final class MergedCellsTable extends RecordAggregate {
 				_mergedRegions.add(cra);
 			}
 		}
+		_index = null;
 	}
 
 	public int getRecordSize() {
@@ -101,16 +106,37 @@ public final class MergedCellsTable extends RecordAggregate {
 			CellRangeAddress cra = mcr.getAreaAt(i);
 			_mergedRegions.add(cra);
 		}
+		_index = null;
 	}
 
+	/**
+	 * @return the merged region at the given index, which may be changed by the caller
+	 */
 	public CellRangeAddress get(int index) {
 		checkIndex(index);
+		if (_index != null) {
+			return _index.getMutable(index);
+		}
 		return _mergedRegions.get(index);
 	}
 
 	public void remove(int index) {
 		checkIndex(index);
 		_mergedRegions.remove(index);
+		if (_index != null) {
+			_index.remove(index);
+		}
+	}
+
+	/**
+	 * @return the merged regions which intersect the given range, in the order of the regions
+	 * @since POI 5.0.0
+	 */
+	public List<CellRangeAddress> getIntersecting(CellRangeAddressBase range) {
+		if (_index == null) {
+			_index = new CellRangeIndex<>(_mergedRegions);
+		}
+		return _index.getIntersecting(range);
 	}
 
 	private void checkIndex(int index) {
@@ -121,7 +147,11 @@ public final class MergedCellsTable extends RecordAggregate {
 	}
 
 	public void addArea(int rowFrom, int colFrom, int rowTo, int colTo) {
-		_mergedRegions.add(new CellRangeAddress(rowFrom, rowTo, colFrom, colTo));
+		CellRangeAddress cra = new CellRangeAddress(rowFrom, rowTo, colFrom, colTo);
+		_mergedRegions.add(cra);
+		if (_index != null) {
+			_index.add(cra);
+		}
 	}
 
 	public int getNumberOfMergedRegions() {
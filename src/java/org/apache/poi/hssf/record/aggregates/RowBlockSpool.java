@@ -0,0 +1,167 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hssf.record.aggregates;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.poi.hssf.record.HSSFRecordTypes;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.aggregates.RecordAggregate.RecordVisitor;
+import org.apache.poi.util.GenericRecordUtil;
+import org.apache.poi.util.TempFile;
+
+/**
+ * Temporary file holding the serialized form of row blocks (ROW records, cell records
+ * and the trailing DBCELL record) which have been flushed out of a {@link RowRecordsAggregate}.
+ * <p>
+ * The blocks are kept position independent - DBCELL offsets are relative to the block - so
+ * they can be copied verbatim into the sheet stream when the workbook is written.
+ */
+final class RowBlockSpool implements Closeable {
+    private final File _file;
+    private final RandomAccessFile _raf;
+    private long _length;
+
+    private long[] _offsets = new long[16];
+    private int[] _sizes = new int[16];
+    private int[] _dbCellSizes = new int[16];
+    private int _blockCount;
+
+    RowBlockSpool() throws IOException {
+        _file = TempFile.createTempFile("poi-hssf-rows", ".tmp");
+        _raf = new RandomAccessFile(_file, "rw");
+    }
+
+    /**
+     * Appends a serialized row block
+     *
+     * @param data the serialized records of the block, ending with its DBCELL record
+     * @param dbCellSize the size of the trailing DBCELL record
+     */
+    void addBlock(byte[] data, int dbCellSize) throws IOException {
+        if (_blockCount == _offsets.length) {
+            int newLen = _blockCount * 2;
+            _offsets = Arrays.copyOf(_offsets, newLen);
+            _sizes = Arrays.copyOf(_sizes, newLen);
+            _dbCellSizes = Arrays.copyOf(_dbCellSizes, newLen);
+        }
+        _raf.seek(_length);
+        _raf.write(data);
+        _offsets[_blockCount] = _length;
+        _sizes[_blockCount] = data.length;
+        _dbCellSizes[_blockCount] = dbCellSize;
+        _blockCount++;
+        _length += data.length;
+    }
+
+    int getBlockCount() {
+        return _blockCount;
+    }
+
+    /**
+     * @return the size of the row and cell records of the block, i.e. the distance from the
+     * start of the block to its DBCELL record
+     */
+    int getRowAndCellSize(int block) {
+        return _sizes[block] - _dbCellSizes[block];
+    }
+
+    int getDbCellSize(int block) {
+        return _dbCellSizes[block];
+    }
+
+    void visitBlocks(RecordVisitor rv) {
+        for (int i = 0; i < _blockCount; i++) {
+            rv.visitRecord(new SpooledRowBlock(i));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            _raf.close();
+        } finally {
+            if (!_file.delete() && _file.exists()) {
+                _file.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Stand-in record for a spooled row block. The block is only read back from the
+     * temporary file when it is serialized.
+     */
+    private final class SpooledRowBlock extends org.apache.poi.hssf.record.Record {
+        private final int _block;
+
+        SpooledRowBlock(int block) {
+            _block = block;
+        }
+
+        /**
+         * @return the sid of the first record of the block, which is always a ROW record
+         */
+        @Override
+        public short getSid() {
+            return RowRecord.sid;
+        }
+
+        @Override
+        public int getRecordSize() {
+            return _sizes[_block];
+        }
+
+        @Override
+        public int serialize(int offset, byte[] data) {
+            int size = _sizes[_block];
+            try {
+                _raf.seek(_offsets[_block]);
+                _raf.readFully(data, offset, size);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read spooled row block " + _block, e);
+            }
+            return size;
+        }
+
+        @Override
+        public SpooledRowBlock copy() {
+            // safe because immutable
+            return this;
+        }
+
+        @Override
+        public HSSFRecordTypes getGenericRecordType() {
+            return HSSFRecordTypes.UNKNOWN;
+        }
+
+        @Override
+        public Map<String, Supplier<?>> getGenericProperties() {
+            return GenericRecordUtil.getGenericProperties(
+                "block", () -> _block,
+                "offset", () -> _offsets[_block],
+                "size", this::getRecordSize
+            );
+        }
+    }
+}
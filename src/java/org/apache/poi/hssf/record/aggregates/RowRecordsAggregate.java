@@ -17,6 +17,7 @@
 
 package org.apache.poi.hssf.record.aggregates;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -59,6 +60,11 @@ public final class RowRecordsAggregate extends RecordAggregate {
     // getStartRowNumberForBlock / getEndRowNumberForBlock, see Bugzilla 47405
     private RowRecord[] _rowRecordValues;
 
+    // row blocks which have been serialized to a temporary file, see flushRowBlocks
+    private RowBlockSpool _spool;
+    private int _lastFlushedRow = -1;
+    private int _flushedRowCount;
+
     /** Creates a new instance of ValueRecordsAggregate */
     public RowRecordsAggregate() {
         this(SharedValueManager.createEmpty());
@@ -127,6 +133,7 @@ public final class RowRecordsAggregate extends RecordAggregate {
         _unknownRecords.add(rec);
     }
     public void insertRow(RowRecord row) {
+        checkNotFlushed(row.getRowNumber());
         // Integer integer = Integer.valueOf(row.getRowNumber());
         _rowRecords.put(Integer.valueOf(row.getRowNumber()), row);
         // Clear the cached values
@@ -260,45 +267,143 @@ public final class RowRecordsAggregate extends RecordAggregate {
 
     @Override
     public void visitContainedRecords(RecordVisitor rv) {
+        // flushed blocks precede the ones still held in memory
+        if (_spool != null) {
+            _spool.visitBlocks(rv);
+        }
 
-        PositionTrackingVisitor stv = new PositionTrackingVisitor(rv, 0);
-        //DBCells are serialized before row records.
         final int blockCount = getRowBlockCount();
         for (int blockIndex = 0; blockIndex < blockCount; blockIndex++) {
-            // Serialize a block of rows.
-            // Hold onto the position of the first row in the block
-            int pos=0;
-            // Hold onto the size of this block that was serialized
-            final int rowBlockSize = visitRowRecordsForBlock(blockIndex, rv);
-            pos += rowBlockSize;
-            // Serialize a block of cells for those rows
-            final int startRowNumber = getStartRowNumberForBlock(blockIndex);
-            final int endRowNumber = getEndRowNumberForBlock(blockIndex);
-
-            final List<Short> cellOffsets = new ArrayList<>();
-
-            // Note: Cell references start from the second row...
-            int cellRefOffset = (rowBlockSize - RowRecord.ENCODED_SIZE);
-            for (int row = startRowNumber; row <= endRowNumber; row++) {
-                if (_valuesAgg.rowHasCells(row)) {
-                    stv.setPosition(0);
-                    _valuesAgg.visitCellsForRow(row, stv);
-                    int rowCellSize = stv.getPosition();
-                    pos += rowCellSize;
-                    // Add the offset to the first cell for the row into the
-                    // DBCellRecord.
-                    cellOffsets.add((short)cellRefOffset);
-                    cellRefOffset = rowCellSize;
-                }
-            }
-            // Calculate Offset from the start of a DBCellRecord to the first Row
-            rv.visitRecord(new DBCellRecord(pos, shortListToArray(cellOffsets)));
+            visitRowBlock(blockIndex, rv);
         }
 
         // Potentially breaking the file here since we don't know exactly where to write these records
         _unknownRecords.forEach(rv::visitRecord);
     }
 
+    private void visitRowBlock(int blockIndex, RecordVisitor rv) {
+        PositionTrackingVisitor stv = new PositionTrackingVisitor(rv, 0);
+        //DBCells are serialized before row records.
+
+        // Serialize a block of rows.
+        // Hold onto the position of the first row in the block
+        int pos=0;
+        // Hold onto the size of this block that was serialized
+        final int rowBlockSize = visitRowRecordsForBlock(blockIndex, rv);
+        pos += rowBlockSize;
+        // Serialize a block of cells for those rows
+        final int startRowNumber = getStartRowNumberForBlock(blockIndex);
+        final int endRowNumber = getEndRowNumberForBlock(blockIndex);
+
+        final List<Short> cellOffsets = new ArrayList<>();
+
+        // Note: Cell references start from the second row...
+        int cellRefOffset = (rowBlockSize - RowRecord.ENCODED_SIZE);
+        for (int row = startRowNumber; row <= endRowNumber; row++) {
+            if (_valuesAgg.rowHasCells(row)) {
+                stv.setPosition(0);
+                _valuesAgg.visitCellsForRow(row, stv);
+                int rowCellSize = stv.getPosition();
+                pos += rowCellSize;
+                // Add the offset to the first cell for the row into the
+                // DBCellRecord.
+                cellOffsets.add((short)cellRefOffset);
+                cellRefOffset = rowCellSize;
+            }
+        }
+        // Calculate Offset from the start of a DBCellRecord to the first Row
+        rv.visitRecord(new DBCellRecord(pos, shortListToArray(cellOffsets)));
+    }
+
+    /**
+     * Serializes the first <tt>blockCount</tt> row blocks (up to {@link DBCellRecord#BLOCK_SIZE}
+     * rows each, together with their cells) to a temporary file and releases the records from
+     * memory. The flushed blocks are copied back verbatim when the sheet is serialized, so the
+     * memory needed for building a large sheet is bounded by the rows which have not been flushed.
+     * <p>
+     * Flushed rows and cells can't be accessed or modified anymore and rows can only be added
+     * after the last flushed row.
+     *
+     * @param blockCount the number of leading row blocks to flush
+     * @return the row number of the last flushed row, or -1 if no rows have been flushed
+     * @throws IOException if the temporary file can't be written
+     *
+     * @since POI 5.0.0
+     */
+    public int flushRowBlocks(int blockCount) throws IOException {
+        final int count = Math.min(blockCount, getRowBlockCount());
+        for (int i = 0; i < count; i++) {
+            if (_spool == null) {
+                _spool = new RowBlockSpool();
+            }
+
+            // the first in-memory block is always the next one to flush
+            final List<org.apache.poi.hssf.record.Record> recs = new ArrayList<>();
+            visitRowBlock(0, recs::add);
+            int size = 0;
+            for (org.apache.poi.hssf.record.Record rec : recs) {
+                size += rec.getRecordSize();
+            }
+            byte[] data = new byte[size];
+            int pos = 0;
+            for (org.apache.poi.hssf.record.Record rec : recs) {
+                pos += rec.serialize(pos, data);
+            }
+            _spool.addBlock(data, recs.get(recs.size()-1).getRecordSize());
+
+            final int rowCount = getRowCountForBlock(0);
+            Iterator<RowRecord> rowIterator = _rowRecords.values().iterator();
+            for (int r = 0; r < rowCount; r++) {
+                RowRecord row = rowIterator.next();
+                _valuesAgg.removeAllCellsValuesForRow(row.getRowNumber());
+                _lastFlushedRow = row.getRowNumber();
+                rowIterator.remove();
+            }
+            _flushedRowCount += rowCount;
+            // Clear the cached values
+            _rowRecordValues = null;
+        }
+        return _lastFlushedRow;
+    }
+
+    /**
+     * @return the row number of the last row flushed by {@link #flushRowBlocks(int)},
+     * or -1 if no rows have been flushed
+     *
+     * @since POI 5.0.0
+     */
+    public int getLastFlushedRowNum() {
+        return _lastFlushedRow;
+    }
+
+    /**
+     * @return the number of rows flushed by {@link #flushRowBlocks(int)}
+     *
+     * @since POI 5.0.0
+     */
+    public int getFlushedRowCount() {
+        return _flushedRowCount;
+    }
+
+    /**
+     * Deletes the temporary file of the flushed row blocks. The aggregate can't be
+     * serialized afterwards, if rows have been flushed.
+     *
+     * @since POI 5.0.0
+     */
+    public void dispose() throws IOException {
+        if (_spool != null) {
+            _spool.close();
+        }
+    }
+
+    private void checkNotFlushed(int rowIndex) {
+        if (rowIndex <= _lastFlushedRow) {
+            throw new IllegalArgumentException("Attempting to write a row[" + rowIndex + "] " +
+                    "in the range [0," + _lastFlushedRow + "] that is already written to disk.");
+        }
+    }
+
     private static short[] shortListToArray(List<Short> list) {
         final short[] arr = new short[list.size()];
         int idx = 0;
@@ -466,6 +571,42 @@ public final class RowRecordsAggregate extends RecordAggregate {
         return _valuesAgg.iterator();
     }
 
+    /**
+     * Returns an iterator for the cell values of a single row
+     *
+     * @since POI 5.0.0
+     */
+    public Iterator<CellValueRecordInterface> getCellValueIterator(int rowIndex) {
+        return _valuesAgg.getRowCellIterator(rowIndex);
+    }
+
+    /**
+     * @return the index of the first row at or after startRow which has cells, or -1 if there is none
+     *
+     * @since POI 5.0.0
+     */
+    public int getNextRowWithCells(int startRow) {
+        return _valuesAgg.getNextRowWithCells(startRow);
+    }
+
+    /**
+     * @return the first column of the given row which has a cell, or -1 if the row is empty
+     *
+     * @since POI 5.0.0
+     */
+    public int getFirstCellInRow(int rowIndex) {
+        return _valuesAgg.getFirstCellInRow(rowIndex);
+    }
+
+    /**
+     * @return the last column of the given row which has a cell, or -1 if the row is empty
+     *
+     * @since POI 5.0.0
+     */
+    public int getLastCellInRow(int rowIndex) {
+        return _valuesAgg.getLastCellInRow(rowIndex);
+    }
+
     public IndexRecord createIndexRecord(int indexRecordOffset, int sizeOfInitialSheetRecords) {
         IndexRecord result = new IndexRecord();
         result.setFirstRow(_firstrow);
@@ -478,11 +619,19 @@ public final class RowRecordsAggregate extends RecordAggregate {
         // 0 for now.....
 
         int blockCount = getRowBlockCount();
+        int spooledBlockCount = (_spool == null) ? 0 : _spool.getBlockCount();
         // Calculate the size of this IndexRecord
-        int indexRecSize = IndexRecord.getRecordSizeForBlockCount(blockCount);
+        int indexRecSize = IndexRecord.getRecordSizeForBlockCount(spooledBlockCount + blockCount);
 
         int currentOffset = indexRecordOffset + indexRecSize + sizeOfInitialSheetRecords;
 
+        // the flushed blocks come first
+        for (int block = 0; block < spooledBlockCount; block++) {
+            currentOffset += _spool.getRowAndCellSize(block);
+            result.addDbcell(currentOffset);
+            currentOffset += _spool.getDbCellSize(block);
+        }
+
         for (int block = 0; block < blockCount; block++) {
             // each row-block has a DBCELL record.
             // The offset of each DBCELL record needs to be updated in the INDEX record
@@ -501,6 +650,7 @@ public final class RowRecordsAggregate extends RecordAggregate {
         return result;
     }
     public void insertCell(CellValueRecordInterface cvRec) {
+        checkNotFlushed(cvRec.getRow());
         _valuesAgg.insertCell(cvRec);
     }
     public void removeCell(CellValueRecordInterface cvRec) {
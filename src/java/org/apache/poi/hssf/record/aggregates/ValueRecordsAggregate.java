@@ -17,6 +17,7 @@
 
 package org.apache.poi.hssf.record.aggregates;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -24,7 +25,9 @@ import org.apache.poi.hssf.model.RecordStream;
 import org.apache.poi.hssf.record.BlankRecord;
 import org.apache.poi.hssf.record.CellValueRecordInterface;
 import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
 import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.NumberRecord;
 import org.apache.poi.hssf.record.Record;
 import org.apache.poi.hssf.record.RecordBase;
 import org.apache.poi.hssf.record.StringRecord;
@@ -49,6 +52,17 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 	private int lastcell  = INDEX_NOT_SET;
 	private CellValueRecordInterface[][] records;
 
+	private static final byte PACKED_NONE = 0;
+	private static final byte PACKED_NUMBER = 1;
+	private static final byte PACKED_LABEL_SST = 2;
+	private static final byte PACKED_BLANK = 3;
+
+	/**
+	 * Number, string and blank cells read from a file are kept as primitive values and only
+	 * turned into records when they are accessed. Each cell is either held here or in {@link #records}.
+	 */
+	private PackedRow[] packedRows;
+
 	/** Creates a new instance of ValueRecordsAggregate */
 
 	public ValueRecordsAggregate() {
@@ -90,6 +104,7 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 			records[row] = rowCells;
 		}
 		rowCells[column] = cell;
+		clearPackedCell(row, column);
 
 		if (column < firstcell || firstcell == INDEX_NOT_SET) {
 			firstcell = column;
@@ -116,6 +131,7 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 			throw new RuntimeException("cell column is out of range");
 		}
 		rowCells[column] = null;
+		clearPackedCell(row, column);
 	}
 
 	public void removeAllCellsValuesForRow(int rowIndex) {
@@ -123,6 +139,9 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 			throw new IllegalArgumentException("Specified rowIndex " + rowIndex
 					+ " is outside the allowable range (0.." +MAX_ROW_INDEX + ")");
 		}
+		if (packedRows != null && rowIndex < packedRows.length) {
+			packedRows[rowIndex] = null;
+		}
 		if (rowIndex >= records.length) {
 			// this can happen when the client code has created a row,
 			// and then removes/replaces it before adding any cells. (see bug 46312)
@@ -144,6 +163,16 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 				}
 			}
 		}
+		if (packedRows != null) {
+			for (PackedRow packedRow : packedRows) {
+				if (packedRow != null) {
+					for (byte type : packedRow.types) {
+						if (type != PACKED_NONE)
+							count++;
+					}
+				}
+			}
+		}
 		return count;
 	}
 
@@ -157,12 +186,7 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 
 	public void addMultipleBlanks(MulBlankRecord mbr) {
 		for (int j = 0; j < mbr.getNumColumns(); j++) {
-			BlankRecord br = new BlankRecord();
-
-			br.setColumn(( short ) (j + mbr.getFirstColumn()));
-			br.setRow(mbr.getRow());
-			br.setXFIndex(mbr.getXFAt(j));
-			insertCell(br);
+			insertPackedCell(mbr.getRow(), j + mbr.getFirstColumn(), PACKED_BLANK, mbr.getXFAt(j), 0);
 		}
 	}
 
@@ -182,51 +206,216 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 				cachedText = null;
 			}
 			insertCell(new FormulaRecordAggregate(formulaRec, cachedText, sfh));
+		} else if (rec instanceof NumberRecord) {
+			NumberRecord nr = (NumberRecord)rec;
+			insertPackedCell(nr.getRow(), nr.getColumn(), PACKED_NUMBER, nr.getXFIndex(),
+				Double.doubleToRawLongBits(nr.getValue()));
+		} else if (rec instanceof LabelSSTRecord) {
+			LabelSSTRecord lr = (LabelSSTRecord)rec;
+			insertPackedCell(lr.getRow(), lr.getColumn(), PACKED_LABEL_SST, lr.getXFIndex(), lr.getSSTIndex());
+		} else if (rec instanceof BlankRecord) {
+			insertPackedCell(rec.getRow(), rec.getColumn(), PACKED_BLANK, rec.getXFIndex(), 0);
 		} else {
 			insertCell(rec);
 		}
 	}
 
+	private void insertPackedCell(int row, int column, byte type, short xfIndex, long value) {
+		// replaces a previous cell like insertCell()
+		if (row < records.length && records[row] != null && column < records[row].length) {
+			records[row][column] = null;
+		}
+		if (packedRows == null) {
+			packedRows = new PackedRow[Math.max(records.length, row + 1)];
+		} else if (row >= packedRows.length) {
+			PackedRow[] oldRows = packedRows;
+			packedRows = new PackedRow[Math.max(oldRows.length * 2, row + 1)];
+			System.arraycopy(oldRows, 0, packedRows, 0, oldRows.length);
+		}
+		PackedRow packedRow = packedRows[row];
+		if (packedRow == null) {
+			packedRow = new PackedRow(Math.max(column + 1, 10));
+			packedRows[row] = packedRow;
+		} else if (column >= packedRow.types.length) {
+			packedRow.grow(Math.max(packedRow.types.length * 2, column + 1));
+		}
+		packedRow.types[column] = type;
+		packedRow.xfs[column] = xfIndex;
+		packedRow.values[column] = value;
+
+		if (column < firstcell || firstcell == INDEX_NOT_SET) {
+			firstcell = column;
+		}
+		if (column > lastcell || lastcell == INDEX_NOT_SET) {
+			lastcell = column;
+		}
+	}
+
+	private byte getPackedType(int row, int column) {
+		if (packedRows == null || row >= packedRows.length) {
+			return PACKED_NONE;
+		}
+		PackedRow packedRow = packedRows[row];
+		return (packedRow == null || column >= packedRow.types.length) ? PACKED_NONE : packedRow.types[column];
+	}
+
+	private void clearPackedCell(int row, int column) {
+		if (getPackedType(row, column) != PACKED_NONE) {
+			packedRows[row].types[column] = PACKED_NONE;
+		}
+	}
+
+	private CellValueRecordInterface getCellRecord(int row, int column) {
+		if (row >= records.length) {
+			return null;
+		}
+		CellValueRecordInterface[] rowCells = records[row];
+		return (rowCells == null || column >= rowCells.length) ? null : rowCells[column];
+	}
+
+	/**
+	 * @return the number of columns which may hold cells in the given row
+	 */
+	private int getRowLength(int row) {
+		int len = 0;
+		if (row < records.length && records[row] != null) {
+			len = records[row].length;
+		}
+		if (packedRows != null && row < packedRows.length && packedRows[row] != null) {
+			len = Math.max(len, packedRows[row].types.length);
+		}
+		return len;
+	}
+
+	private int getRowCount() {
+		return (packedRows == null) ? records.length : Math.max(records.length, packedRows.length);
+	}
+
+	/**
+	 * Creates a record for a packed cell, without changing the storage of the cell
+	 */
+	private CellValueRecordInterface createPackedRecord(int row, int column) {
+		PackedRow packedRow = packedRows[row];
+		short xfIndex = packedRow.xfs[column];
+		switch (packedRow.types[column]) {
+			case PACKED_NUMBER:
+				NumberRecord nr = new NumberRecord();
+				nr.setRow(row);
+				nr.setColumn((short)column);
+				nr.setXFIndex(xfIndex);
+				nr.setValue(Double.longBitsToDouble(packedRow.values[column]));
+				return nr;
+			case PACKED_LABEL_SST:
+				LabelSSTRecord lr = new LabelSSTRecord();
+				lr.setRow(row);
+				lr.setColumn((short)column);
+				lr.setXFIndex(xfIndex);
+				lr.setSSTIndex((int)packedRow.values[column]);
+				return lr;
+			case PACKED_BLANK:
+				BlankRecord br = new BlankRecord();
+				br.setRow(row);
+				br.setColumn((short)column);
+				br.setXFIndex(xfIndex);
+				return br;
+			default:
+				throw new IllegalStateException("No packed cell at row " + row + ", column " + column);
+		}
+	}
+
+	/**
+	 * Moves a packed cell into the records, so that changes to the returned record are kept
+	 */
+	private CellValueRecordInterface unpackCell(int row, int column) {
+		CellValueRecordInterface cell = createPackedRecord(row, column);
+		insertCell(cell);
+		return cell;
+	}
+
+	private static int getPackedRecordSize(byte type) {
+		// 4 byte record header, 6 bytes for row, column and xf index plus the value
+		switch (type) {
+			case PACKED_NUMBER:
+				return 18;
+			case PACKED_LABEL_SST:
+				return 14;
+			default:
+				return 10;
+		}
+	}
+
+	/**
+	 * @return the index of the first row at or after startRow which has cells, or -1 if there is none
+	 */
+	public int getNextRowWithCells(int startRow) {
+		int rowCount = getRowCount();
+		for (int row = Math.max(startRow, 0); row < rowCount; row++) {
+			if (rowHasCells(row)) {
+				return row;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the first column of the given row which has a cell, or -1 if the row is empty
+	 */
+	public int getFirstCellInRow(int row) {
+		int len = getRowLength(row);
+		for (int col = 0; col < len; col++) {
+			if (getCellRecord(row, col) != null || getPackedType(row, col) != PACKED_NONE) {
+				return col;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the last column of the given row which has a cell, or -1 if the row is empty
+	 */
+	public int getLastCellInRow(int row) {
+		for (int col = getRowLength(row) - 1; col >= 0; col--) {
+			if (getCellRecord(row, col) != null || getPackedType(row, col) != PACKED_NONE) {
+				return col;
+			}
+		}
+		return -1;
+	}
+
 	/** Tallies a count of the size of the cell records
 	 *  that are attached to the rows in the range specified.
 	 */
 	public int getRowCellBlockSize(int startRow, int endRow) {
 		int result = 0;
-		for(int rowIx=startRow; rowIx<=endRow && rowIx<records.length; rowIx++) {
-			result += getRowSerializedSize(records[rowIx]);
+		int rowCount = getRowCount();
+		for(int rowIx=startRow; rowIx<=endRow && rowIx<rowCount; rowIx++) {
+			result += getRowSerializedSize(rowIx);
 		}
 		return result;
 	}
 
 	/** Returns true if the row has cells attached to it */
 	public boolean rowHasCells(int row) {
-		if (row >= records.length) {
-			return false;
-		}
-		CellValueRecordInterface[] rowCells=records[row];
-		if(rowCells==null) return false;
-		for(int col=0;col<rowCells.length;col++) {
-			if(rowCells[col]!=null) return true;
-		}
-		return false;
+		return getFirstCellInRow(row) != -1;
 	}
 
-	private static int getRowSerializedSize(CellValueRecordInterface[] rowCells) {
-		if(rowCells == null) {
-			return 0;
-		}
+	private int getRowSerializedSize(int row) {
+		int len = getRowLength(row);
 		int result = 0;
-		for (int i = 0; i < rowCells.length; i++) {
-			RecordBase cvr = (RecordBase) rowCells[i];
-			if(cvr == null) {
+		for (int i = 0; i < len; i++) {
+			RecordBase cvr = (RecordBase) getCellRecord(row, i);
+			byte packedType = getPackedType(row, i);
+			if(cvr == null && packedType == PACKED_NONE) {
 				continue;
 			}
-			int nBlank = countBlanks(rowCells, i);
+			int nBlank = countBlanks(row, i);
 			if (nBlank > 1) {
 				result += (10 + 2*nBlank);
 				i+=nBlank-1;
-			} else {
+			} else if (cvr != null) {
 				result += cvr.getRecordSize();
+			} else {
+				result += getPackedRecordSize(packedType);
 			}
 		}
 		return result;
@@ -234,20 +423,23 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 
 	public void visitCellsForRow(int rowIndex, RecordVisitor rv) {
 
-		CellValueRecordInterface[] rowCells = records[rowIndex];
-		if(rowCells == null) {
+		if(!rowHasCells(rowIndex)) {
 			throw new IllegalArgumentException("Row [" + rowIndex + "] is empty");
 		}
 
-
-		for (int i = 0; i < rowCells.length; i++) {
-			RecordBase cvr = (RecordBase) rowCells[i];
+		int len = getRowLength(rowIndex);
+		for (int i = 0; i < len; i++) {
+			RecordBase cvr = (RecordBase) getCellRecord(rowIndex, i);
 			if(cvr == null) {
-				continue;
+				if (getPackedType(rowIndex, i) == PACKED_NONE) {
+					continue;
+				}
+				// the record is only needed for writing, so the cell stays packed
+				cvr = (RecordBase) createPackedRecord(rowIndex, i);
 			}
-			int nBlank = countBlanks(rowCells, i);
+			int nBlank = countBlanks(rowIndex, i);
 			if (nBlank > 1) {
-				rv.visitRecord(createMBR(rowCells, i, nBlank));
+				rv.visitRecord(createMBR(rowIndex, i, nBlank));
 				i+=nBlank-1;
 			} else if (cvr instanceof RecordAggregate) {
 				RecordAggregate agg = (RecordAggregate) cvr;
@@ -259,14 +451,14 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 	}
 
 	/**
-	 * @return the number of <em>consecutive</em> {@link BlankRecord}s in the specified row
+	 * @return the number of <em>consecutive</em> blank cells in the specified row
 	 * starting from startIx.
 	 */
-	private static int countBlanks(CellValueRecordInterface[] rowCellValues, int startIx) {
+	private int countBlanks(int row, int startIx) {
+		int len = getRowLength(row);
 		int i = startIx;
-		while(i < rowCellValues.length) {
-			CellValueRecordInterface cvr = rowCellValues[i];
-			if (!(cvr instanceof BlankRecord)) {
+		while(i < len) {
+			if (!(getCellRecord(row, i) instanceof BlankRecord) && getPackedType(row, i) != PACKED_BLANK) {
 				break;
 			}
 			i++;
@@ -274,14 +466,14 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 		return i - startIx;
 	}
 
-	private MulBlankRecord createMBR(CellValueRecordInterface[] cellValues, int startIx, int nBlank) {
+	private MulBlankRecord createMBR(int row, int startIx, int nBlank) {
 
 		short[] xfs = new short[nBlank];
 		for (int i = 0; i < xfs.length; i++) {
-			xfs[i] = cellValues[startIx + i].getXFIndex();
+			CellValueRecordInterface cvr = getCellRecord(row, startIx + i);
+			xfs[i] = (cvr != null) ? cvr.getXFIndex() : packedRows[row].xfs[startIx + i];
 		}
-		int rowIx = cellValues[startIx].getRow();
-		return new MulBlankRecord(rowIx, startIx, xfs);
+		return new MulBlankRecord(row, startIx, xfs);
 	}
 
 	public void updateFormulasAfterRowShift(FormulaShifter shifter, int currentExternSheetIndex) {
@@ -306,37 +498,45 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 	}
 
 	/**
-	 * iterator for CellValueRecordInterface
+	 * iterator for CellValueRecordInterface, packed cells are turned into records when they are returned
 	 */
 	class ValueIterator implements Iterator<CellValueRecordInterface> {
 
+		private final int endRowIndex;
 		int curRowIndex, curColIndex = -1;
 		int nextRowIndex, nextColIndex = -1;
 
 		public ValueIterator() {
+			this(0, Integer.MAX_VALUE);
+		}
+
+		ValueIterator(int startRowIndex, int endRowIndex) {
+			this.nextRowIndex = startRowIndex;
+			this.endRowIndex = Math.min(endRowIndex, getRowCount() - 1);
 			getNextPos();
 		}
 
 		void getNextPos() {
-			if (nextRowIndex >= records.length)
+			if (nextRowIndex > endRowIndex)
 				return; // no next already
 
-			while (nextRowIndex < records.length) {
+			while (nextRowIndex <= endRowIndex) {
 				++nextColIndex;
-				if (records[nextRowIndex] == null || nextColIndex >= records[nextRowIndex].length) {
+				if (nextColIndex >= getRowLength(nextRowIndex)) {
 					++nextRowIndex;
 					nextColIndex = -1;
 					continue;
 				}
 
-				if (records[nextRowIndex][nextColIndex] != null)
+				if (getCellRecord(nextRowIndex, nextColIndex) != null
+						|| getPackedType(nextRowIndex, nextColIndex) != PACKED_NONE)
 					return; // next cell found
 			}
 			// no next found
 		}
 
 		public boolean hasNext() {
-			return nextRowIndex < records.length;
+			return nextRowIndex <= endRowIndex;
 		}
 
 		public CellValueRecordInterface next() {
@@ -346,7 +546,10 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 
 			curRowIndex = nextRowIndex;
 			curColIndex = nextColIndex;
-			final CellValueRecordInterface ret = records[curRowIndex][curColIndex];
+			CellValueRecordInterface ret = getCellRecord(curRowIndex, curColIndex);
+			if (ret == null) {
+				ret = unpackCell(curRowIndex, curColIndex);
+			}
 			getNextPos();
 			return ret;
 		}
@@ -361,6 +564,37 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 		return new ValueIterator();
 	}
 
+	/**
+	 * @param rowIndex the row of the cells
+	 * @return an iterator over the cells of the given row
+	 *
+	 * @since POI 5.0.0
+	 */
+	public Iterator<CellValueRecordInterface> getRowCellIterator(int rowIndex) {
+		return new ValueIterator(rowIndex, rowIndex);
+	}
+
+	/**
+	 * Cells of a row, which are kept as primitive values until they are accessed
+	 */
+	private static final class PackedRow {
+		private byte[] types;
+		private short[] xfs;
+		private long[] values;
+
+		PackedRow(int capacity) {
+			types = new byte[capacity];
+			xfs = new short[capacity];
+			values = new long[capacity];
+		}
+
+		void grow(int capacity) {
+			types = Arrays.copyOf(types, capacity);
+			xfs = Arrays.copyOf(xfs, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+	}
+
 	/**
 	 * @deprecated use {@link org.apache.poi.hssf.usermodel.HSSFSheet#cloneSheet(HSSFWorkbook)} instead
 	 */
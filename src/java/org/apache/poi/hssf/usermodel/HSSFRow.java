@@ -42,6 +42,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
     public final static int INITIAL_CAPACITY = Configurator.getIntValue("HSSFRow.ColInitialCapacity", 5);
 
     private int rowNum;
+    /** the cells of a row read from a file are only created on first access, until then this is <code>null</code> */
     private HSSFCell[] cells;
 
     /**
@@ -69,6 +70,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      */
     HSSFRow(HSSFWorkbook book, HSSFSheet sheet, int rowNum) {
         this(book, sheet, new RowRecord(rowNum));
+        cells = new HSSFCell[INITIAL_CAPACITY];
     }
 
     /**
@@ -83,18 +85,41 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
     HSSFRow(HSSFWorkbook book, HSSFSheet sheet, RowRecord record) {
         this.book = book;
         this.sheet = sheet;
-        row = record;
         setRowNum(record.getRowNumber());
+        row = record;
+
+        // Don't trust colIx boundaries as read by other apps
+        // set the RowRecord empty for the moment
+        record.setEmpty();
+        // HSSFSheet sets the colIx boundaries from the cell records, the cells are created by ensureCells()
+    }
 
+    /**
+     * Creates the high level cells from the cell records of the row on first access
+     */
+    private void ensureCells() {
+        if (cells != null) {
+            return;
+        }
         // Size the initial cell list such that a read only case won't waste
         //  lots of memory, and a create/read followed by adding new cells can
         //  add a bit without needing a resize
-        cells = new HSSFCell[record.getLastCol()+INITIAL_CAPACITY];
+        cells = new HSSFCell[(row.isEmpty() ? 0 : row.getLastCol()) + INITIAL_CAPACITY];
+        Iterator<CellValueRecordInterface> iter = sheet.getSheet().getCellValueIterator(rowNum);
+        while (iter.hasNext()) {
+            createCellFromRecord(iter.next());
+        }
+    }
 
-        // Don't trust colIx boundaries as read by other apps
-        // set the RowRecord empty for the moment
-        record.setEmpty();
-        // subsequent calls to createCellFromRecord() will update the colIx boundaries properly
+    /**
+     * Sets the colIx boundaries of a row read from a file, before its cells are created
+     *
+     * @param firstCol the first column with a cell
+     * @param lastCol the last column with a cell
+     */
+    void setCellBounds(int firstCol, int lastCol) {
+        row.setFirstCol(firstCol);
+        row.setLastCol(lastCol + 1);
     }
 
     /**
@@ -155,6 +180,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
         removeCell((HSSFCell)cell, true);
     }
     private void removeCell(HSSFCell cell, boolean alsoRemoveRecords) {
+        ensureCells();
 
         int column=cell.getColumnIndex();
         if(column < 0) {
@@ -186,6 +212,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      *  records too.
      */
     protected void removeAllCells() {
+        ensureCells();
         for (HSSFCell cell : cells) {
             if (cell != null) {
                 removeCell(cell, true);
@@ -201,6 +228,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      * @return HSSFCell representing the low level record passed in
      */
     HSSFCell createCellFromRecord(CellValueRecordInterface cell) {
+        ensureCells();
         HSSFCell hcell = new HSSFCell(book, sheet, cell);
 
         addCell(hcell);
@@ -233,6 +261,10 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
           throw new IllegalArgumentException("Invalid row number (" + rowIndex
                   + ") outside allowable range (0.." + maxrow + ")");
         }
+        if (row != null) {
+            // the cell records are looked up by the current row number
+            ensureCells();
+        }
         rowNum = rowIndex;
         if (row != null) {
             row.setRowNumber(rowIndex);   // used only for KEY comparison (HSSFRow)
@@ -277,6 +309,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      * @param newColumn The new column number (0 based)
      */
     public void moveCell(HSSFCell cell, short newColumn) {
+        ensureCells();
         // Ensure the destination is free
         if(cells.length > newColumn && cells[newColumn] != null) {
             throw new IllegalArgumentException("Asked to move cell to column " + newColumn + " but there's already a cell there");
@@ -298,6 +331,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      * used internally to add a cell.
      */
     private void addCell(HSSFCell cell) {
+        ensureCells();
 
         int column=cell.getColumnIndex();
         // re-allocate cells array as required.
@@ -333,6 +367,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      * @return HSSFCell representing that column or null if undefined.
      */
     private HSSFCell retrieveCell(int cellIndex) {
+        ensureCells();
         if(cellIndex<0||cellIndex>=cells.length) {
             return null;
         }
@@ -427,6 +462,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
     @Override
     public int getPhysicalNumberOfCells()
     {
+        ensureCells();
         int count = 0;
         for (HSSFCell cell : cells) {
             if (cell != null) {
@@ -555,6 +591,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      * @return 0 when row contains no cells (also when first cell is occupied)
      */
     private int calculateNewFirstCell(int firstcell) {
+        ensureCells();
         int cellIx = firstcell + 1;
         HSSFCell r = retrieveCell(cellIx);
 
@@ -633,6 +670,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
       int nextId=-1;
 
       public CellIterator() {
+          ensureCells();
           findNext();
       }
 
@@ -728,6 +766,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      */
     @Override
     public void shiftCellsRight(int firstShiftColumnIndex, int lastShiftColumnIndex, int step) {
+        ensureCells();
         RowShifter.validateShiftParameters(firstShiftColumnIndex, lastShiftColumnIndex, step);
 
         if (lastShiftColumnIndex + step + 1 > cells.length) {
@@ -760,6 +799,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      */
     @Override
     public void shiftCellsLeft(int firstShiftColumnIndex, int lastShiftColumnIndex, int step) {
+        ensureCells();
         RowShifter.validateShiftLeftParameters(firstShiftColumnIndex, lastShiftColumnIndex, step);
 
         for (int columnIndex = firstShiftColumnIndex; columnIndex <= lastShiftColumnIndex; columnIndex++){
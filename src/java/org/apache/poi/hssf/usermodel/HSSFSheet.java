@@ -17,6 +17,7 @@
 
 package org.apache.poi.hssf.usermodel;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -33,6 +34,7 @@ import org.apache.poi.hssf.model.InternalSheet;
 import org.apache.poi.hssf.model.InternalWorkbook;
 import org.apache.poi.hssf.record.AutoFilterInfoRecord;
 import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DBCellRecord;
 import org.apache.poi.hssf.record.DVRecord;
 import org.apache.poi.hssf.record.DimensionsRecord;
 import org.apache.poi.hssf.record.DrawingRecord;
@@ -40,7 +42,6 @@ import org.apache.poi.hssf.record.EscherAggregate;
 import org.apache.poi.hssf.record.ExtendedFormatRecord;
 import org.apache.poi.hssf.record.HyperlinkRecord;
 import org.apache.poi.hssf.record.NameRecord;
-import org.apache.poi.hssf.record.Record;
 import org.apache.poi.hssf.record.RecordBase;
 import org.apache.poi.hssf.record.RowRecord;
 import org.apache.poi.hssf.record.SCLRecord;
@@ -116,6 +117,7 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
     private HSSFPatriarch _patriarch;
     private int _firstrow = -1;
     private int _lastrow = -1;
+    private int _randomAccessWindowSize = -1;
 
     /**
      * Creates new HSSFSheet   - called by HSSFWorkbook to create a sheet from
@@ -195,58 +197,37 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
             row = sheet.getNextRow();
         }
 
-        Iterator<CellValueRecordInterface> iter = sheet.getCellValueIterator();
         long timestart = System.currentTimeMillis();
 
         if (log.check( POILogger.DEBUG )) {
             log.log(DEBUG, "Time at start of cell creating in HSSF sheet = ",
                     Long.valueOf(timestart));
         }
-        HSSFRow lastrow = null;
-
-        // Add every cell to its row
-        while (iter.hasNext()) {
-            CellValueRecordInterface cval = iter.next();
-
-            long cellstart = System.currentTimeMillis();
-            HSSFRow hrow = lastrow;
-
-            if (hrow == null || hrow.getRowNum() != cval.getRow()) {
-                hrow = getRow(cval.getRow());
-                lastrow = hrow;
-                if (hrow == null) {
-                    /* we removed this check, see bug 47245 for the discussion around this
-                    // Some tools (like Perl module Spreadsheet::WriteExcel - bug 41187) skip the RowRecords
-                    // Excel, OpenOffice.org and GoogleDocs are all OK with this, so POI should be too.
-                    if (rowRecordsAlreadyPresent) {
-                        // if at least one row record is present, all should be present.
-                        throw new RuntimeException("Unexpected missing row when some rows already present");
-                    }*/
-
-                    // create the row record on the fly now.
-                    RowRecord rowRec = new RowRecord(cval.getRow());
-                    sheet.addRow(rowRec);
-                    hrow = createRowFromRecord(rowRec);
-                }
-            }
-            if (log.check( POILogger.DEBUG )) {
-                if (cval instanceof Record) {
-                log.log( DEBUG, "record id = " + Integer.toHexString( ( (org.apache.poi.hssf.record.Record) cval ).getSid() ) );
-                } else {
-                    log.log( DEBUG, "record = " + cval );
-                }
-            }
-            hrow.createCellFromRecord( cval );
-            if (log.check( POILogger.DEBUG )) {
-                log.log( DEBUG, "record took ",
-                    Long.valueOf( System.currentTimeMillis() - cellstart ) );
-            }
 
+        // Only the column boundaries of the rows are set here, the cells of a row
+        // are created from its cell records when the row is first accessed
+        for (int rowIx = sheet.getNextRowWithCells(0); rowIx != -1; rowIx = sheet.getNextRowWithCells(rowIx + 1)) {
+            HSSFRow hrow = getRow(rowIx);
+            if (hrow == null) {
+                /* we removed this check, see bug 47245 for the discussion around this
+                // Some tools (like Perl module Spreadsheet::WriteExcel - bug 41187) skip the RowRecords
+                // Excel, OpenOffice.org and GoogleDocs are all OK with this, so POI should be too.
+                if (rowRecordsAlreadyPresent) {
+                    // if at least one row record is present, all should be present.
+                    throw new RuntimeException("Unexpected missing row when some rows already present");
+                }*/
+
+                // create the row record on the fly now.
+                RowRecord rowRec = new RowRecord(rowIx);
+                sheet.addRow(rowRec);
+                hrow = createRowFromRecord(rowRec);
+            }
+            hrow.setCellBounds(sheet.getFirstCellInRow(rowIx), sheet.getLastCellInRow(rowIx));
         }
         if (log.check( POILogger.DEBUG )) {
             log.log(DEBUG, "total sheet cell creation took ",
                 Long.valueOf(System.currentTimeMillis() - timestart));
-    }
+        }
     }
 
     /**
@@ -259,15 +240,107 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
      */
     @Override
     public HSSFRow createRow(int rownum) {
+        int lastFlushedRow = getLastFlushedRowNum();
+        if (lastFlushedRow >= 0 && rownum <= lastFlushedRow) {
+            throw new IllegalArgumentException("Attempting to write a row[" + rownum + "] " +
+                    "in the range [0," + lastFlushedRow + "] that is already written to disk.");
+        }
+
         HSSFRow row = new HSSFRow(_workbook, this, rownum);
         // new rows inherit default height from the sheet
         row.setHeight(getDefaultRowHeight());
         row.getRowRecord().setBadFontHeight(false);
 
         addRow(row, true);
+
+        if (_randomAccessWindowSize >= 0 && _rows.size() > _randomAccessWindowSize) {
+            try {
+                flushRows(_randomAccessWindowSize);
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+        }
         return row;
     }
 
+    /**
+     * Specifies how many rows can be accessed at most via {@link #getRow(int)}.
+     * When a new row is created via {@link #createRow(int)} and the total number
+     * of unflushed rows exceeds the specified value, the rows with the lowest index
+     * values are flushed to a temporary file and cannot be accessed via
+     * {@link #getRow(int)} anymore, see {@link #flushRows(int)}.
+     * <p>
+     * This allows writing large xls files with a bounded amount of memory, similar to
+     * what SXSSFWorkbook provides for xlsx files.
+     *
+     * @param value the row window size, or -1 (the default) to keep all rows in memory.
+     *   A value of 0 is not allowed because it would flush any newly created row
+     *   without having a chance to specify any cells.
+     *
+     * @since POI 5.0.0
+     */
+    public void setRandomAccessWindowSize(int value) {
+        if (value == 0 || value < -1) {
+            throw new IllegalArgumentException("RandomAccessWindowSize must be either -1 or a positive integer");
+        }
+        _randomAccessWindowSize = value;
+    }
+
+    /**
+     * @return the row window size, or -1 if all rows are kept in memory
+     *
+     * @since POI 5.0.0
+     */
+    public int getRandomAccessWindowSize() {
+        return _randomAccessWindowSize;
+    }
+
+    /**
+     * Specifies how many rows can be accessed at most via {@link #getRow(int)}.
+     * The exceeding rows are serialized to a temporary file while rows with lower
+     * index values are flushed first.
+     * <p>
+     * Rows are flushed in complete row blocks of {@link DBCellRecord#BLOCK_SIZE} rows,
+     * as they are laid out in the file, so up to <tt>BLOCK_SIZE - 1</tt> more rows than
+     * requested may stay in memory. Flushed rows must not be modified anymore and new rows
+     * can only be created after the last flushed row. The temporary file is removed when
+     * the workbook is closed.
+     *
+     * @param remaining the number of rows to keep in memory
+     * @throws IOException if the temporary file can't be written
+     *
+     * @since POI 5.0.0
+     */
+    public void flushRows(int remaining) throws IOException {
+        int blockCount = (_rows.size() - remaining) / DBCellRecord.BLOCK_SIZE;
+        if (blockCount <= 0) {
+            return;
+        }
+        int lastFlushedRow = _sheet.getRowsAggregate().flushRowBlocks(blockCount);
+        _rows.headMap(lastFlushedRow, true).clear();
+    }
+
+    /**
+     * Flushes all complete row blocks to a temporary file
+     *
+     * @throws IOException if the temporary file can't be written
+     * @see #flushRows(int)
+     *
+     * @since POI 5.0.0
+     */
+    public void flushRows() throws IOException {
+        flushRows(0);
+    }
+
+    /**
+     * @return the last row number which has been flushed to disk, or -1 if no rows have been flushed
+     *
+     * @since POI 5.0.0
+     */
+    public int getLastFlushedRowNum() {
+        return _sheet.getRowsAggregate().getLastFlushedRowNum();
+    }
+
     /**
      * Used internally to create a high level Row object from a low level row object.
      * USed when reading an existing file
@@ -310,7 +383,8 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
                 throw new IllegalArgumentException("Specified row does not belong to this sheet");
             }
             if (hrow.getRowNum() == getLastRowNum()) {
-                _lastrow = findLastRow(_lastrow);
+                // flushed rows aren't available via getRow() anymore
+                _lastrow = Math.max(findLastRow(_lastrow), getLastFlushedRowNum());
             }
             if (hrow.getRowNum() == getFirstRowNum()) {
                 _firstrow = findFirstRow(_firstrow);
@@ -318,7 +392,7 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
             _sheet.removeRow(hrow.getRowRecord());
 
             // if there are no more rows, then reset first/last
-            if(_rows.size() == 0) {
+            if(_rows.size() == 0 && getLastFlushedRowNum() == -1) {
                 _firstrow = -1;
                 _lastrow = -1;
             }
@@ -373,7 +447,8 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
         if (addLow) {
             _sheet.addRow(row.getRowRecord());
         }
-        boolean firstRow = _rows.size() == 1;
+        // after flushing, the first and last row also account for the flushed rows
+        boolean firstRow = _rows.size() == 1 && getLastFlushedRowNum() == -1;
         if (row.getRowNum() > getLastRowNum() || firstRow) {
             _lastrow = row.getRowNum();
         }
@@ -686,7 +761,7 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
      * with this formula, which may result in a corrupt workbook.
      *
      * To check for merged regions overlapping array formulas or other merged regions
-     * after addMergedRegionUnsafe has been called, call {@link #validateMergedRegions()}, which runs in O(n^2) time.
+     * after addMergedRegionUnsafe has been called, call {@link #validateMergedRegions()}, which runs in O(n log n) time.
      *
      * @param region to merge
      * @return index of this region
@@ -782,11 +857,10 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
     }
 
     private void validateMergedRegions(CellRangeAddress candidateRegion) {
-        for (final CellRangeAddress existingRegion : getMergedRegions()) {
-            if (existingRegion.intersects(candidateRegion)) {
-                throw new IllegalStateException("Cannot add merged region " + candidateRegion.formatAsString() +
-                        " to sheet because it overlaps with an existing merged region (" + existingRegion.formatAsString() + ").");
-            }
+        final List<CellRangeAddress> existingRegions = _sheet.getMergedRegionsIntersecting(candidateRegion);
+        if (!existingRegions.isEmpty()) {
+            throw new IllegalStateException("Cannot add merged region " + candidateRegion.formatAsString() +
+                    " to sheet because it overlaps with an existing merged region (" + existingRegions.get(0).formatAsString() + ").");
         }
     }
 
@@ -796,19 +870,29 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
      * @throws IllegalStateException if at least one region intersects with another merged region in this sheet
      */
     private void checkForIntersectingMergedRegions() {
-        final List<CellRangeAddress> regions = getMergedRegions();
-        final int size = regions.size();
+        final int size = _sheet.getNumMergedRegions();
         for (int i=0; i < size; i++) {
-            final CellRangeAddress region = regions.get(i);
-            for (final CellRangeAddress other : regions.subList(i+1, regions.size())) {
-                if (region.intersects(other)) {
-                    String msg = "The range " + region.formatAsString() +
-                                " intersects with another merged region " +
-                                other.formatAsString() + " in this sheet";
-                    throw new IllegalStateException(msg);
-                }
+            final CellRangeAddress region = _sheet.getMergedRegionAt(i);
+            // the regions are found in their order, so the region itself is followed by the later ones
+            final List<CellRangeAddress> intersecting = _sheet.getMergedRegionsIntersecting(region);
+            final int self = indexOfIdentical(intersecting, region);
+            if (self + 1 < intersecting.size()) {
+                final CellRangeAddress other = intersecting.get(self + 1);
+                String msg = "The range " + region.formatAsString() +
+                            " intersects with another merged region " +
+                            other.formatAsString() + " in this sheet";
+                throw new IllegalStateException(msg);
+            }
+        }
+    }
+
+    private static int indexOfIdentical(List<CellRangeAddress> regions, CellRangeAddress region) {
+        for (int i = 0; i < regions.size(); i++) {
+            if (regions.get(i) == region) {
+                return i;
             }
         }
+        return -1;
     }
 
     /**
@@ -953,6 +1037,20 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
         return addresses;
     }
 
+    /**
+     * @return the merged regions containing the given cell, in the order of the merged regions
+     * @since POI 5.0.0
+     */
+    @Override
+    public List<CellRangeAddress> getMergedRegionsContaining(int rowIndex, int columnIndex) {
+        List<CellRangeAddress> addresses = new ArrayList<>();
+        for (CellRangeAddress region : _sheet.getMergedRegionsIntersecting(
+                new CellRangeAddress(rowIndex, rowIndex, columnIndex, columnIndex))) {
+            addresses.add(region.copy());
+        }
+        return addresses;
+    }
+
     /**
      * @return an iterator of the PHYSICAL rows.  Meaning the 3rd element may not
      *         be the third row if say for instance the second row is undefined.
@@ -28,7 +28,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.security.GeneralSecurityException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -41,6 +43,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.regex.Pattern;
 
 import org.apache.commons.codec.digest.DigestUtils;
@@ -64,20 +69,30 @@ import org.apache.poi.hssf.model.InternalWorkbook;
 import org.apache.poi.hssf.model.RecordStream;
 import org.apache.poi.hssf.model.WorkbookRecordList;
 import org.apache.poi.hssf.record.AbstractEscherHolderRecord;
+import org.apache.poi.hssf.record.BOFRecord;
 import org.apache.poi.hssf.record.BackupRecord;
 import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.ContinueRecord;
+import org.apache.poi.hssf.record.DBCellRecord;
 import org.apache.poi.hssf.record.DrawingGroupRecord;
+import org.apache.poi.hssf.record.DrawingRecord;
+import org.apache.poi.hssf.record.EOFRecord;
 import org.apache.poi.hssf.record.ExtendedFormatRecord;
 import org.apache.poi.hssf.record.FilePassRecord;
 import org.apache.poi.hssf.record.FontRecord;
 import org.apache.poi.hssf.record.LabelRecord;
 import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
 import org.apache.poi.hssf.record.NameRecord;
+import org.apache.poi.hssf.record.ObjRecord;
+import org.apache.poi.hssf.record.RKRecord;
 import org.apache.poi.hssf.record.RecalcIdRecord;
 import org.apache.poi.hssf.record.Record;
 import org.apache.poi.hssf.record.RecordFactory;
 import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.TextObjectRecord;
 import org.apache.poi.hssf.record.UnknownRecord;
+import org.apache.poi.hssf.record.WriteProtectRecord;
 import org.apache.poi.hssf.record.aggregates.RecordAggregate.RecordVisitor;
 import org.apache.poi.hssf.record.common.UnicodeString;
 import org.apache.poi.hssf.record.crypto.Biff8DecryptingStream;
@@ -97,6 +112,7 @@ import org.apache.poi.poifs.filesystem.FilteringDirectoryNode;
 import org.apache.poi.poifs.filesystem.Ole10Native;
 import org.apache.poi.poifs.filesystem.POIFSDocument;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.poifs.filesystem.POIFSWriterListener;
 import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.formula.FormulaShifter;
 import org.apache.poi.ss.formula.FormulaType;
@@ -118,6 +134,7 @@ import org.apache.poi.util.LittleEndian;
 import org.apache.poi.util.LittleEndianByteArrayInputStream;
 import org.apache.poi.util.LittleEndianByteArrayOutputStream;
 import org.apache.poi.util.POILogFactory;
+import org.apache.poi.util.TempFile;
 import org.apache.poi.util.POILogger;
 
 /**
@@ -321,6 +338,33 @@ public final class HSSFWorkbook extends POIDocument implements org.apache.poi.ss
      */
     public HSSFWorkbook(DirectoryNode directory, boolean preserveNodes)
             throws IOException {
+        this(directory, preserveNodes, null);
+    }
+
+    /**
+     * given a POI POIFSFileSystem object, and a specific directory
+     * within it, read in its Workbook and populate the high and
+     * low level models, parsing the sheets concurrently.
+     * <p>
+     * The workbook stream is read into memory and split into the workbook globals and
+     * the sheet substreams. The records of the sheets are then read by tasks on the given
+     * executor, while the workbook globals are read by the calling thread. Encrypted
+     * workbooks and streams which can't be split are read sequentially.
+     *
+     * @param directory     the POI filesystem directory to process from
+     * @param preserveNodes whether to preserve other nodes, such as
+     *                      macros.  This takes more memory, so only say yes if you
+     *                      need to. If set, will store all of the POIFSFileSystem
+     *                      in memory
+     * @param executor      the executor for reading the sheets, or {@code null}
+     *                      to read the workbook sequentially
+     * @throws IOException if the stream cannot be read
+     * @see org.apache.poi.poifs.filesystem.POIFSFileSystem
+     *
+     * @since POI 5.0.0
+     */
+    public HSSFWorkbook(DirectoryNode directory, boolean preserveNodes, Executor executor)
+            throws IOException {
         super(directory);
         String workbookName = getWorkbookDirEntryName(directory);
 
@@ -336,26 +380,15 @@ public final class HSSFWorkbook extends POIDocument implements org.apache.poi.ss
         names = new ArrayList<>(INITIAL_CAPACITY);
 
         // Grab the data from the workbook stream, however
-        //  it happens to be spelled.
-        InputStream stream = directory.createDocumentInputStream(workbookName);
-
-        List<org.apache.poi.hssf.record.Record> records = RecordFactory.createRecords(stream);
-
-        workbook = InternalWorkbook.createWorkbook(records);
-        setPropertiesFromWorkbook(workbook);
-        int recOffset = workbook.getNumRecords();
+        //  it happens to be spelled. Files opened from a File are
+        //  read directly from the mapped file.
+        InputStream stream = directory.createMappedDocumentInputStream(workbookName);
 
-        // convert all LabelRecord records to LabelSSTRecord
-        convertLabelRecords(records, recOffset);
-        RecordStream rs = new RecordStream(records, recOffset);
-        while (rs.hasNext()) {
-            try {
-                InternalSheet sheet = InternalSheet.createSheet(rs);
-                _sheets.add(new HSSFSheet(this, sheet));
-            } catch (UnsupportedBOFType eb) {
-                // Hopefully there's a supported one after this!
-                log.log(POILogger.WARN, "Unsupported BOF found of type " + eb.getType());
-            }
+        List<InternalSheet> sheets = (executor == null)
+            ? readRecords(RecordFactory.createRecords(stream))
+            : readRecords(IOUtils.toByteArray(stream), executor);
+        for (InternalSheet sheet : sheets) {
+            _sheets.add(new HSSFSheet(this, sheet));
         }
 
         for (int i = 0; i < workbook.getNumNames(); ++i) {
@@ -408,6 +441,172 @@ public final class HSSFWorkbook extends POIDocument implements org.apache.poi.ss
         // none currently
     }
 
+    /**
+     * Creates the workbook and the sheets from the records of the workbook stream
+     */
+    private List<InternalSheet> readRecords(List<org.apache.poi.hssf.record.Record> records) {
+        workbook = InternalWorkbook.createWorkbook(records);
+        setPropertiesFromWorkbook(workbook);
+        int recOffset = workbook.getNumRecords();
+
+        // convert all LabelRecord records to LabelSSTRecord
+        convertLabelRecords(records, recOffset);
+        return createSheets(new RecordStream(records, recOffset));
+    }
+
+    /**
+     * Creates the workbook and the sheets from the workbook stream, reading the sheet
+     * substreams concurrently
+     */
+    private List<InternalSheet> readRecords(byte[] data, Executor executor) throws IOException {
+        int[] substreams = findSubstreams(data);
+        if (substreams == null) {
+            return readRecords(RecordFactory.createRecords(new LittleEndianByteArrayInputStream(data)));
+        }
+
+        List<CompletableFuture<List<org.apache.poi.hssf.record.Record>>> sheetRecords = new ArrayList<>();
+        for (int i = 1; i < substreams.length; i++) {
+            int start = substreams[i];
+            int end = (i + 1 < substreams.length) ? substreams[i + 1] : data.length;
+            sheetRecords.add(CompletableFuture.supplyAsync(
+                () -> RecordFactory.createRecords(new LittleEndianByteArrayInputStream(data, start, end - start)), executor));
+        }
+
+        int globalsEnd = (substreams.length > 1) ? substreams[1] : data.length;
+        List<org.apache.poi.hssf.record.Record> records =
+            RecordFactory.createRecords(new LittleEndianByteArrayInputStream(data, 0, globalsEnd));
+        workbook = InternalWorkbook.createWorkbook(records);
+        setPropertiesFromWorkbook(workbook);
+        int recOffset = workbook.getNumRecords();
+
+        List<List<org.apache.poi.hssf.record.Record>> substreamRecords = new ArrayList<>();
+        for (CompletableFuture<List<org.apache.poi.hssf.record.Record>> f : sheetRecords) {
+            substreamRecords.add(join(f));
+        }
+
+        if (recOffset != records.size()) {
+            // the workbook globals didn't end where expected, so continue as usual
+            for (List<org.apache.poi.hssf.record.Record> recs : substreamRecords) {
+                records.addAll(recs);
+            }
+            convertLabelRecords(records, recOffset);
+            return createSheets(new RecordStream(records, recOffset));
+        }
+
+        // the string table is updated in sheet order, so the SST indexes don't depend on the threads
+        for (List<org.apache.poi.hssf.record.Record> recs : substreamRecords) {
+            convertLabelRecords(recs, 0);
+        }
+        List<CompletableFuture<List<InternalSheet>>> sheetTasks = new ArrayList<>();
+        for (List<org.apache.poi.hssf.record.Record> recs : substreamRecords) {
+            sheetTasks.add(CompletableFuture.supplyAsync(
+                () -> createSheets(new RecordStream(recs, 0)), executor));
+        }
+        List<InternalSheet> sheets = new ArrayList<>();
+        for (CompletableFuture<List<InternalSheet>> f : sheetTasks) {
+            sheets.addAll(join(f));
+        }
+        return sheets;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static List<InternalSheet> createSheets(RecordStream rs) {
+        List<InternalSheet> sheets = new ArrayList<>();
+        while (rs.hasNext()) {
+            try {
+                sheets.add(InternalSheet.createSheet(rs));
+            } catch (UnsupportedBOFType eb) {
+                // Hopefully there's a supported one after this!
+                log.log(POILogger.WARN, "Unsupported BOF found of type " + eb.getType());
+            }
+        }
+        return sheets;
+    }
+
+    /**
+     * Finds the top level substreams of the workbook stream, i.e. the workbook globals
+     * followed by the sheets, by walking the record headers. Like {@link RecordFactory#createRecords(InputStream)}
+     * a substream ends with an EOF record on the outermost BOF level and the stream ends if the
+     * next record is not a BOF record.
+     *
+     * @return the start offsets of the substreams, or {@code null} if the stream can't be split,
+     *  e.g. because it is encrypted
+     */
+    private static int[] findSubstreams(byte[] data) {
+        if (data.length < 4 || LittleEndian.getUShort(data, 0) != BOFRecord.sid) {
+            return null;
+        }
+        List<Integer> offsets = new ArrayList<>();
+        offsets.add(0);
+        int pos = 0;
+        int bofDepth = 0;
+        int substreamRecord = 0;
+        boolean lastRecordWasEOFLevelZero = false;
+        while (pos + 4 <= data.length) {
+            int sid = LittleEndian.getUShort(data, pos);
+            int len = LittleEndian.getUShort(data, pos + 2);
+            if (lastRecordWasEOFLevelZero) {
+                if (sid != BOFRecord.sid) {
+                    break;
+                }
+                offsets.add(pos);
+                substreamRecord = 0;
+            }
+            if (pos + 4 + len > data.length) {
+                return null;
+            }
+            // the records following the BOF are read ahead to check for encryption,
+            // so they can't need any context of the preceding substream
+            if (substreamRecord == 1 || substreamRecord == 2) {
+                switch (sid) {
+                    case FilePassRecord.sid:
+                    case WriteProtectRecord.sid:
+                    case EOFRecord.sid:
+                    case ContinueRecord.sid:
+                    case DBCellRecord.sid:
+                    case RKRecord.sid:
+                    case MulRKRecord.sid:
+                    case DrawingRecord.sid:
+                    case DrawingGroupRecord.sid:
+                    case ObjRecord.sid:
+                    case TextObjectRecord.sid:
+                        return null;
+                    default:
+                        break;
+                }
+            }
+
+            lastRecordWasEOFLevelZero = false;
+            if (sid == BOFRecord.sid) {
+                bofDepth++;
+            } else if (sid == EOFRecord.sid) {
+                bofDepth--;
+                lastRecordWasEOFLevelZero = (bofDepth < 1);
+            }
+            pos += 4 + len;
+            substreamRecord++;
+        }
+
+        int[] result = new int[offsets.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = offsets.get(i);
+        }
+        return result;
+    }
+
     /**
      * This is basically a kludge to deal with the now obsolete Label records.  If
      * you have to read in a sheet that contains Label records, be aware that the rest
@@ -487,6 +686,7 @@ public final class HSSFWorkbook extends POIDocument implements org.apache.poi.ss
 
     @Override
     public void setSheetOrder(String sheetname, int pos) {
+        checkNoFlushedRows("reorder sheets");
         int oldSheetIndex = getSheetIndex(sheetname);
         _sheets.add(pos, _sheets.remove(oldSheetIndex));
         workbook.setSheetOrder(sheetname, pos);
@@ -1043,6 +1243,7 @@ public final class HSSFWorkbook extends POIDocument implements org.apache.poi.ss
     @Override
     public void removeSheetAt(int index) {
         validateSheetIndex(index);
+        checkNoFlushedRows("remove sheets");
         boolean wasSelected = getSheetAt(index).isSelected();
 
         _sheets.remove(index);
@@ -1287,7 +1488,14 @@ public final class HSSFWorkbook extends POIDocument implements org.apache.poi.ss
      */
     @Override
     public void close() throws IOException {
-        super.close();
+        try {
+            // remove the temporary files of flushed rows
+            for (HSSFSheet sheet : _sheets) {
+                sheet.getSheet().getRowsAggregate().dispose();
+            }
+        } finally {
+            super.close();
+        }
     }
 
     /**
@@ -1356,12 +1564,44 @@ public final class HSSFWorkbook extends POIDocument implements org.apache.poi.ss
      */
     @Override
     public void write(OutputStream stream) throws IOException {
+        if (hasFlushedRows()) {
+            // don't buffer the whole file in memory, if the rows were flushed to keep it low
+            File tmpFile = TempFile.createTempFile("poi-hssf-write", ".xls");
+            try {
+                write(tmpFile);
+                Files.copy(tmpFile.toPath(), stream);
+            } finally {
+                if (!tmpFile.delete() && tmpFile.exists()) {
+                    tmpFile.deleteOnExit();
+                }
+            }
+            return;
+        }
+
         try (POIFSFileSystem fs = new POIFSFileSystem()) {
             write(fs);
             fs.writeFilesystem(stream);
         }
     }
 
+    /**
+     * The formulas of rows, which have been flushed to disk, can't be updated anymore
+     */
+    private void checkNoFlushedRows(String operation) {
+        if (hasFlushedRows()) {
+            throw new IllegalStateException("Cannot " + operation + " of a workbook with rows which have been flushed to disk");
+        }
+    }
+
+    private boolean hasFlushedRows() {
+        for (HSSFSheet sheet : _sheets) {
+            if (sheet.getLastFlushedRowNum() != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Writes the workbook out to a brand new, empty POIFS
      */
@@ -1371,7 +1611,12 @@ public final class HSSFWorkbook extends POIDocument implements org.apache.poi.ss
         List<String> excepts = new ArrayList<>(1);
 
         // Write out the Workbook stream
-        fs.createDocument(new ByteArrayInputStream(getBytes()), "Workbook");
+        if (getEncryptionInfo() == null) {
+            writeWorkbookStream(fs);
+        } else {
+            // the encryption is applied to the whole stream
+            fs.createDocument(new ByteArrayInputStream(getBytes()), "Workbook");
+        }
 
         // Write out our HPFS properties, if we have them
         writeProperties(fs, excepts);
@@ -1409,6 +1654,7 @@ public final class HSSFWorkbook extends POIDocument implements org.apache.poi.ss
 
         private List<org.apache.poi.hssf.record.Record> _list;
         private int _totalSize;
+        private int _maxRecordSize;
 
         public SheetRecordCollector() {
             _totalSize = 0;
@@ -1419,11 +1665,19 @@ public final class HSSFWorkbook extends POIDocument implements org.apache.poi.ss
             return _totalSize;
         }
 
+        /**
+         * @return the size of the biggest record, i.e. the size of the buffer needed to serialize the records
+         */
+        public int getMaxRecordSize() {
+            return _maxRecordSize;
+        }
+
         @Override
         public void visitRecord(org.apache.poi.hssf.record.Record r) {
             _list.add(r);
-            _totalSize += r.getRecordSize();
-
+            int size = r.getRecordSize();
+            _totalSize += size;
+            _maxRecordSize = Math.max(_maxRecordSize, size);
         }
 
         public int serialize(int offset, byte[] data) {
@@ -1433,21 +1687,33 @@ public final class HSSFWorkbook extends POIDocument implements org.apache.poi.ss
             }
             return result;
         }
-    }
 
+        /**
+         * Serializes the records one by one to the given stream
+         *
+         * @param buf the serialization buffer, which needs to hold the {@link #getMaxRecordSize() biggest record}
+         * @return the number of written bytes
+         */
+        public int serialize(OutputStream os, byte[] buf) throws IOException {
+            int result = 0;
+            for (org.apache.poi.hssf.record.Record rec : _list) {
+                // some records rely on zero-filled padding bytes
+                Arrays.fill(buf, 0, rec.getRecordSize(), (byte)0);
+                int written = rec.serialize(0, buf);
+                os.write(buf, 0, written);
+                result += written;
+            }
+            return result;
+        }
+    }
 
     /**
-     * Method getBytes - get the bytes of just the HSSF portions of the XLS file.
-     * Use this to construct a POI POIFSFileSystem yourself.
+     * Performs the pre-serialization steps and collects the records of all sheets.
+     * This also sets the BOF offsets of the sheets.
      *
-     * @return byte[] array containing the binary representation of this workbook and all contained
-     * sheets, rows, cells, etc.
+     * @return the record collectors of the sheets
      */
-    public byte[] getBytes() {
-        if (log.check(POILogger.DEBUG)) {
-            log.log(DEBUG, "HSSFWorkbook.getBytes()");
-        }
-
+    private SheetRecordCollector[] collectSheetRecords() {
         HSSFSheet[] sheets = getSheets();
         int nSheets = sheets.length;
 
@@ -1472,6 +1738,75 @@ public final class HSSFWorkbook extends POIDocument implements org.apache.poi.ss
             totalsize += src.getTotalSize();
             srCollectors[k] = src;
         }
+        return srCollectors;
+    }
+
+    /**
+     * Writes the unencrypted workbook stream record by record into the POIFS document,
+     * instead of serializing it into a single byte array first.
+     */
+    private void writeWorkbookStream(POIFSFileSystem fs) throws IOException {
+        final SheetRecordCollector[] srCollectors = collectSheetRecords();
+
+        final int workbookSize = workbook.getSize();
+        long totalsize = workbookSize;
+        int bufferSize = Math.max(workbookSize, MAX_RECORD_LENGTH);
+        for (SheetRecordCollector src : srCollectors) {
+            totalsize += src.getTotalSize();
+            bufferSize = Math.max(bufferSize, src.getMaxRecordSize());
+        }
+        if (totalsize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The workbook stream exceeds the maximum size of 2GB");
+        }
+
+        final byte[] buf = new byte[bufferSize];
+        POIFSWriterListener writer = event -> {
+            try {
+                OutputStream os = event.getStream();
+                int pos = workbook.serialize(0, buf);
+                os.write(buf, 0, pos);
+                for (int k = 0; k < srCollectors.length; k++) {
+                    SheetRecordCollector src = srCollectors[k];
+                    int serializedSize = src.serialize(os, buf);
+                    if (serializedSize != src.getTotalSize()) {
+                        // see getBytes(), the BOF offsets of the following sheets would be wrong
+                        throw new IllegalStateException("Actual serialized sheet size (" + serializedSize
+                                + ") differs from pre-calculated size (" + src.getTotalSize()
+                                + ") for sheet (" + k + ")");
+                    }
+                }
+            } catch (IOException e) {
+                // the listener can't throw checked exceptions, so the exception is unwrapped below
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            fs.createDocument("Workbook", (int)totalsize, writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+
+    /**
+     * Method getBytes - get the bytes of just the HSSF portions of the XLS file.
+     * Use this to construct a POI POIFSFileSystem yourself.
+     *
+     * @return byte[] array containing the binary representation of this workbook and all contained
+     * sheets, rows, cells, etc.
+     */
+    public byte[] getBytes() {
+        if (log.check(POILogger.DEBUG)) {
+            log.log(DEBUG, "HSSFWorkbook.getBytes()");
+        }
+
+        SheetRecordCollector[] srCollectors = collectSheetRecords();
+        int nSheets = srCollectors.length;
+
+        int totalsize = workbook.getSize();
+        for (SheetRecordCollector src : srCollectors) {
+            totalsize += src.getTotalSize();
+        }
 
         byte[] retval = new byte[totalsize];
         int pos = workbook.serialize(0, retval);
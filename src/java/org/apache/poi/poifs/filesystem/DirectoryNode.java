@@ -22,6 +22,7 @@ package org.apache.poi.poifs.filesystem;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -34,6 +35,8 @@ import org.apache.poi.poifs.dev.POIFSViewable;
 import org.apache.poi.poifs.property.DirectoryProperty;
 import org.apache.poi.poifs.property.DocumentProperty;
 import org.apache.poi.poifs.property.Property;
+import org.apache.poi.util.LittleEndianByteBufferInputStream;
+import org.apache.poi.util.LittleEndianInput;
 
 /**
  * Simple implementation of DirectoryEntry
@@ -136,6 +139,33 @@ public class DirectoryNode
         return createDocumentInputStream(getEntry(documentName));
     }
 
+    /**
+     * open a document in the directory's entry's list of entries, reading it
+     * directly from the memory mapped file if the filesystem was opened from a File.
+     * This avoids copying the contents block by block, but the returned stream must not
+     * be used after the filesystem is closed.
+     *
+     * @param documentName the name of the document to be opened
+     *
+     * @return a stream over the mapped document, or a newly opened DocumentInputStream
+     *         if the document can't be mapped. Both implement {@link LittleEndianInput}.
+     *
+     * @exception IOException if the document does not exist or the
+     *            name is that of a DirectoryEntry
+     *
+     * @since POI 5.0.0
+     */
+    public InputStream createMappedDocumentInputStream(final String documentName) throws IOException {
+        Entry document = getEntry(documentName);
+        if (document instanceof DocumentNode) {
+            ByteBuffer[] contents = new POIFSDocument((DocumentNode)document).mapContents();
+            if (contents != null) {
+                return new LittleEndianByteBufferInputStream(contents);
+            }
+        }
+        return createDocumentInputStream(document);
+    }
+
     /**
      * open a document in the directory's entry's list of entries
      *
@@ -24,10 +24,8 @@ import static org.apache.poi.util.LittleEndianConsts.SHORT_SIZE;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.util.Iterator;
 
 import org.apache.poi.poifs.property.DocumentProperty;
-import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.LittleEndian;
 import org.apache.poi.util.LittleEndianInput;
 
@@ -41,13 +39,11 @@ public final class DocumentInputStream extends InputStream implements LittleEndi
 
     /** current offset into the Document */
     private int _current_offset;
-    /** current block count */
+    /** current block count, i.e. the index of the next block */
     private int _current_block_count;
 
     /** current marked offset into the Document (used by mark and reset) */
     private int _marked_offset;
-    /** and the block count for it */
-    private int _marked_offset_count;
 
     /** the Document's size */
     private final int _document_size;
@@ -58,9 +54,11 @@ public final class DocumentInputStream extends InputStream implements LittleEndi
     /** the actual Document */
     private final POIFSDocument _document;
 
-    private Iterator<ByteBuffer> _data;
     private ByteBuffer _buffer;
 
+    /** reused buffer for reading primitive values */
+    private final byte[] _value = new byte[LONG_SIZE];
+
     /**
      * Create an InputStream from the specified DocumentEntry
      *
@@ -76,7 +74,6 @@ public final class DocumentInputStream extends InputStream implements LittleEndi
         _current_offset = 0;
         _current_block_count = 0;
         _marked_offset = 0;
-        _marked_offset_count = 0;
         _document_size = document.getSize();
         _closed = false;
 
@@ -89,7 +86,6 @@ public final class DocumentInputStream extends InputStream implements LittleEndi
                 property,
                 ((DirectoryNode)doc.getParent()).getFileSystem()
         );
-        _data = _document.getBlockIterator();
     }
 
     /**
@@ -101,11 +97,9 @@ public final class DocumentInputStream extends InputStream implements LittleEndi
         _current_offset = 0;
         _current_block_count = 0;
         _marked_offset = 0;
-        _marked_offset_count = 0;
         _document_size = document.getSize();
         _closed = false;
         _document = document;
-        _data = _document.getBlockIterator();
     }
 
     @Override
@@ -143,7 +137,6 @@ public final class DocumentInputStream extends InputStream implements LittleEndi
     @Override
     public synchronized void mark(int ignoredReadlimit) {
         _marked_offset = _current_offset;
-        _marked_offset_count = Math.max(0, _current_block_count - 1);
     }
 
     @Override
@@ -152,9 +145,7 @@ public final class DocumentInputStream extends InputStream implements LittleEndi
         if (atEOD()) {
             return EOF;
         }
-        byte[] b = new byte[1];
-        int result = read(b, 0, 1);
-        return (result == EOF) ? EOF : (b[0] & 0xFF);
+        return readUByte();
     }
 
     @Override
@@ -189,64 +180,108 @@ public final class DocumentInputStream extends InputStream implements LittleEndi
      */
     @Override
     public synchronized void reset() {
-        // Special case for reset to the start
-        if(_marked_offset == 0 && _marked_offset_count == 0) {
-            _current_block_count = _marked_offset_count;
-            _current_offset = _marked_offset;
-            _data = _document.getBlockIterator();
-            _buffer = null;
-            return;
-        }
-
-        // Start again, then wind on to the required block
-        _data = _document.getBlockIterator();
-        _current_offset = 0;
-		for(int i=0; i<_marked_offset_count; i++) {
-		   _buffer = _data.next();
-		   _current_offset += _buffer.remaining();
-		}
-
-      _current_block_count = _marked_offset_count;
+        moveTo(_marked_offset);
+    }
 
-      // Do we need to position within it?
-      if(_current_offset != _marked_offset) {
-   		// Grab the right block
-         _buffer = _data.next();
-         _current_block_count++;
+    @Override
+    public long skip(long n) throws IOException {
+        dieIfClosed();
+        if (n < 0) {
+            return 0;
+        }
+        long new_offset = _current_offset + n;
 
-   		// Skip to the right place in it
-         // (It should be positioned already at the start of the block,
-         //  we need to move further inside the block)
-         int skipBy = _marked_offset - _current_offset;
-   		_buffer.position(_buffer.position() + skipBy);
-      }
+        if (new_offset < _current_offset) {
+            // wrap around in converting a VERY large long to an int
+            new_offset = _document_size;
+        } else if (new_offset > _document_size) {
+            new_offset = _document_size;
+        }
 
-      // All done
-      _current_offset = _marked_offset;
-	}
+        long rval = new_offset - _current_offset;
+        moveTo((int)new_offset);
+        return rval;
+    }
 
-   @Override
-	public long skip(long n) throws IOException {
-		dieIfClosed();
-		if (n < 0) {
-			return 0;
-		}
-		long new_offset = _current_offset + n;
+    /**
+     * Moves to the given offset within the document. The block is looked up directly,
+     * so seeking doesn't depend on the distance to the current offset.
+     *
+     * @param offset the new offset, between 0 and the document size
+     * @throws IOException if the stream is closed
+     * @throws IndexOutOfBoundsException if the offset is outside of the document
+     *
+     * @since POI 5.0.0
+     */
+    public void seek(int offset) throws IOException {
+        dieIfClosed();
+        if (offset < 0 || offset > _document_size) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " is outside of the document of size " + _document_size);
+        }
+        moveTo(offset);
+    }
 
-		if (new_offset < _current_offset) {
-			// wrap around in converting a VERY large long to an int
-			new_offset = _document_size;
-		} else if (new_offset > _document_size) {
-			new_offset = _document_size;
-		}
+    /**
+     * Reads bytes from the given offset within the document, without changing the
+     * current offset of the stream.
+     *
+     * @param offset the offset within the document
+     * @param b the buffer to read into
+     * @param off the start offset in the buffer
+     * @param len the maximum number of bytes to read
+     * @return the number of bytes read, or -1 if the offset is at the end of the document
+     * @throws IOException if the stream is closed
+     *
+     * @since POI 5.0.0
+     */
+    public int read(int offset, byte[] b, int off, int len) throws IOException {
+        dieIfClosed();
+        if (off < 0 || len < 0 || b.length < off + len) {
+            throw new IndexOutOfBoundsException("can't read past buffer boundaries");
+        }
+        if (offset < 0 || offset > _document_size) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " is outside of the document of size " + _document_size);
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (offset == _document_size) {
+            return EOF;
+        }
+        int limit = Math.min(_document_size - offset, len);
+        int blockSize = _document.getDocumentBlockSize();
+        for (int read = 0; read < limit; ) {
+            int pos = offset + read;
+            ByteBuffer block = _document.getBlock(pos / blockSize);
+            block.position(block.position() + pos % blockSize);
+            int count = Math.min(limit - read, block.remaining());
+            block.get(b, off + read, count);
+            read += count;
+        }
+        return limit;
+    }
 
-		long rval = new_offset - _current_offset;
+    private void moveTo(int offset) {
+        int blockSize = _document.getDocumentBlockSize();
+        _current_offset = offset;
+        _current_block_count = offset / blockSize;
+        _buffer = null;
+        int skipBy = offset % blockSize;
+        if (skipBy != 0) {
+            // position within the block
+            // (It's positioned at the start of the block, we need to move further inside the block)
+            nextBlock();
+            _buffer.position(_buffer.position() + skipBy);
+        }
+    }
 
-		// TODO Do this better
-		byte[] skip = IOUtils.safelyAllocate(rval, Integer.MAX_VALUE);
-		readFully(skip);
-		return rval;
-	}
+    private void nextBlock() {
+        try {
+            _buffer = _document.getBlock(_current_block_count++);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
 	private void dieIfClosed() throws IOException {
 		if (_closed) {
@@ -284,8 +319,7 @@ public final class DocumentInputStream extends InputStream implements LittleEndi
 		int read = 0;
 		while(read < len) {
 		   if(_buffer == null || _buffer.remaining() == 0) {
-		      _current_block_count++;
-		      _buffer = _data.next();
+		      nextBlock();
 		   }
 
 		   int limit = Math.min(len-read, _buffer.remaining());
@@ -302,38 +336,32 @@ public final class DocumentInputStream extends InputStream implements LittleEndi
 
 
     @Override
-   public byte readByte() {
-      return (byte) readUByte();
-   }
-
-   @Override
-   public double readDouble() {
-      return Double.longBitsToDouble(readLong());
-   }
-
-   @Override
-	public long readLong() {
-		checkAvaliable(LONG_SIZE);
-		byte[] data = new byte[LONG_SIZE];
-		readFully(data, 0, LONG_SIZE);
-		return LittleEndian.getLong(data, 0);
-	}
+    public byte readByte() {
+        return (byte) readUByte();
+    }
 
-   @Override
-   public short readShort() {
-      checkAvaliable(SHORT_SIZE);
-      byte[] data = new byte[SHORT_SIZE];
-      readFully(data, 0, SHORT_SIZE);
-      return LittleEndian.getShort(data);
-   }
-
-   @Override
-	public int readInt() {
-		checkAvaliable(INT_SIZE);
-      byte[] data = new byte[INT_SIZE];
-      readFully(data, 0, INT_SIZE);
-      return LittleEndian.getInt(data);
-	}
+    @Override
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    @Override
+    public long readLong() {
+        readValue(LONG_SIZE);
+        return LittleEndian.getLong(_value, 0);
+    }
+
+    @Override
+    public short readShort() {
+        readValue(SHORT_SIZE);
+        return LittleEndian.getShort(_value, 0);
+    }
+
+    @Override
+    public int readInt() {
+        readValue(INT_SIZE);
+        return LittleEndian.getInt(_value, 0);
+    }
 
     public long readUInt() {
         int i = readInt();
@@ -341,20 +369,26 @@ public final class DocumentInputStream extends InputStream implements LittleEndi
     }
 
     @Override
-	public int readUShort() {
-		checkAvaliable(SHORT_SIZE);
-      byte[] data = new byte[SHORT_SIZE];
-      readFully(data, 0, SHORT_SIZE);
-      return LittleEndian.getUShort(data);
-	}
+    public int readUShort() {
+        readValue(SHORT_SIZE);
+        return LittleEndian.getUShort(_value, 0);
+    }
 
     @Override
     public int readUByte() {
         checkAvaliable(1);
-        byte[] data = new byte[1];
-        readFully(data, 0, 1);
-        if (data[0] >= 0)
-            return data[0];
-        return data[0] + 256;
+        if (_buffer == null || _buffer.remaining() == 0) {
+            nextBlock();
+        }
+        _current_offset++;
+        return _buffer.get() & 0xFF;
+    }
+
+    /**
+     * Reads a primitive value into the reused value buffer
+     */
+    private void readValue(int size) {
+        checkAvaliable(size);
+        readFully(_value, 0, size);
     }
 }
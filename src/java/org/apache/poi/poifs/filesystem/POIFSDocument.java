@@ -27,6 +27,7 @@ import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import org.apache.poi.poifs.common.POIFSConstants;
 import org.apache.poi.poifs.dev.POIFSViewable;
@@ -119,7 +120,9 @@ public final class POIFSDocument implements POIFSViewable, Iterable<ByteBuffer>
    }
    
    /**
-    * Stores the given data for this Document
+    * Stores the given data for this Document. If the Document already has
+    *  blocks in the right store, they are overwritten in place, so that only
+    *  the changed blocks are written when the file is saved in place.
     */
    private int store(InputStream stream) throws IOException {
        final int bigBlockSize = POIFSConstants.BIG_BLOCK_MINIMUM_DOCUMENT_SIZE;
@@ -128,14 +131,28 @@ public final class POIFSDocument implements POIFSViewable, Iterable<ByteBuffer>
 
        // Do we need to store as a mini stream or a full one?
        long streamBlockSize = IOUtils.skipFully(bis, bigBlockSize);
+       BlockStore blockStore;
        if (streamBlockSize < bigBlockSize) {
-          _stream = new POIFSStream(_filesystem.getMiniStore());
+          blockStore = _filesystem.getMiniStore();
           _block_size = _filesystem.getMiniStore().getBlockStoreBlockSize();
        } else {
-          _stream = new POIFSStream(_filesystem);
+          blockStore = _filesystem;
           _block_size = _filesystem.getBlockStoreBlockSize();
        }
 
+       int existingBlocks = 0;
+       if (streamBlockSize > 0 && _stream != null && _stream.getBlockStore() == blockStore) {
+          // Re-use the existing blocks, any left over ones are freed on close.
+          //  Empty contents have no chain, so they always get a fresh stream
+          _stream = new POIFSStream(blockStore, _stream.getStartBlock());
+          existingBlocks = (getSize() + _block_size - 1) / _block_size;
+       } else {
+          if (_stream != null) {
+             _stream.free();
+          }
+          _stream = new POIFSStream(blockStore);
+       }
+
        // start from the beginning 
        bis.reset();
        
@@ -144,9 +161,10 @@ public final class POIFSDocument implements POIFSViewable, Iterable<ByteBuffer>
        try (OutputStream os = _stream.getOutputStream()) {
            length = IOUtils.copy(bis, os);
 
-           // Pad to the end of the block with -1s
+           // Pad to the end of the block with -1s. The padding of an
+           //  existing block is left as it is
            int usedInBlock = (int) (length % _block_size);
-           if (usedInBlock != 0 && usedInBlock != _block_size) {
+           if (usedInBlock != 0 && length / _block_size >= existingBlocks) {
                int toBlockEnd = _block_size - usedInBlock;
                byte[] padding = IOUtils.safelyAllocate(toBlockEnd, MAX_RECORD_LENGTH);
                Arrays.fill(padding, (byte) 0xFF);
@@ -183,6 +201,89 @@ public final class POIFSDocument implements POIFSViewable, Iterable<ByteBuffer>
        return (getSize() > 0 ? _stream : Collections.<ByteBuffer>emptyList()).iterator();
     }
 
+   /**
+    * Returns a block of the document. The block indexes are looked up once,
+    *  so the blocks can be accessed in any order without following the chain again.
+    *
+    * @param index the 0-based index of the block within the document
+    * @return the block, positioned at its start
+    * @throws NoSuchElementException if the chain ends before the block
+    */
+   ByteBuffer getBlock(int index) throws IOException {
+       int blockCount = (int)((getSize() + (long)_block_size - 1) / _block_size);
+       int[] table = (index < blockCount) ? _stream.getBlockTable(blockCount) : new int[0];
+       if (index < 0 || index >= table.length) {
+           throw new NoSuchElementException("Can't read past the end of the stream");
+       }
+       return _stream.getBlockStore().getBlockAt(table[index]);
+   }
+
+   /**
+    * Maps the contents into memory, if the document is stored in the big blocks
+    * of a file backed filesystem. The file region spanned by the blocks is mapped once.
+    *
+    * @return the runs of consecutive blocks of the document in stream order, or
+    *  {@code null} if the document can't be mapped
+    */
+   ByteBuffer[] mapContents() throws IOException {
+       int size = getSize();
+       if (size < POIFSConstants.BIG_BLOCK_MINIMUM_DOCUMENT_SIZE) {
+           return null;
+       }
+       int blockSize = _filesystem.getBigBlockSize();
+       int blockCount = (size + blockSize - 1) / blockSize;
+       int[] runStarts = new int[16];
+       int[] runLengths = new int[16];
+       int runCount = 0;
+       int minBlock = Integer.MAX_VALUE, maxBlock = -1;
+       try {
+           for (int i = 0, block = _property.getStartBlock(); i < blockCount; i++) {
+               if (block < 0) {
+                   // broken chain, leave it to the stream to report it
+                   return null;
+               }
+               if (runCount > 0 && runStarts[runCount - 1] + runLengths[runCount - 1] == block) {
+                   runLengths[runCount - 1]++;
+               } else {
+                   if (runCount == runStarts.length) {
+                       runStarts = Arrays.copyOf(runStarts, runCount * 2);
+                       runLengths = Arrays.copyOf(runLengths, runCount * 2);
+                   }
+                   runStarts[runCount] = block;
+                   runLengths[runCount] = 1;
+                   runCount++;
+               }
+               minBlock = Math.min(minBlock, block);
+               maxBlock = Math.max(maxBlock, block);
+               if (i + 1 < blockCount) {
+                   block = _filesystem.getNextBlock(block);
+               }
+           }
+       } catch (IndexOutOfBoundsException e) {
+           return null;
+       }
+
+       long span = (maxBlock - minBlock + 1L) * blockSize;
+       if (span > Integer.MAX_VALUE) {
+           return null;
+       }
+       ByteBuffer region = _filesystem.mapBlocks(minBlock, (int)span);
+       if (region == null) {
+           return null;
+       }
+       ByteBuffer[] runs = new ByteBuffer[runCount];
+       int left = size;
+       for (int i = 0; i < runCount; i++) {
+           int len = (int)Math.min((long)runLengths[i] * blockSize, left);
+           ByteBuffer run = region.duplicate();
+           run.position((runStarts[i] - minBlock) * blockSize);
+           run.limit(run.position() + len);
+           runs[i] = run.slice();
+           left -= len;
+       }
+       return runs;
+   }
+
    /**
     * @return size of the document
     */
@@ -191,7 +292,6 @@ public final class POIFSDocument implements POIFSViewable, Iterable<ByteBuffer>
    }
    
    public void replaceContents(InputStream stream) throws IOException {
-       free();
        int size = store(stream);
        _property.setStartBlock(_stream.getStartBlock()); 
        _property.updateSize(size);
@@ -161,6 +161,10 @@ public class POIFSFileSystem extends BlockStore
      * when you're done to have the underlying file closed, as the file is
      * kept open during normal operation to read the data out.</p>
      *
+     * <p>A read-only file system can be used by several threads at the same time,
+     * as long as each thread reads its own {@link DocumentInputStream}s. The file
+     * is read with positional reads, which don't share the channel position.</p>
+     *
      * @param file     the File from which to read or read/write the data
      * @param readOnly whether the POIFileSystem will only be used in read-only mode
      * @throws IOException on errors reading, or on invalid data
@@ -195,6 +199,9 @@ public class POIFSFileSystem extends BlockStore
      * when you're done to have the underlying Channel closed, as the channel is
      * kept open during normal operation to read the data out.</p>
      *
+     * <p>A read-only file system can be used by several threads at the same time,
+     * as long as each thread reads its own {@link DocumentInputStream}s.</p>
+     *
      * @param channel  the FileChannel from which to read or read/write the data
      * @param readOnly whether the POIFileSystem will only be used in read-only mode
      * @throws IOException on errors reading, or on invalid data
@@ -432,6 +439,26 @@ public class POIFSFileSystem extends BlockStore
         }
     }
 
+    /**
+     * Maps consecutive big blocks of a file backed filesystem into memory
+     *
+     * @param startBlock the first block
+     * @param length the number of bytes to map
+     * @return the mapped region, or {@code null} if the filesystem isn't file backed
+     *  or the region isn't within the file
+     */
+    ByteBuffer mapBlocks(int startBlock, int length) throws IOException {
+        if (!(_data instanceof FileBackedDataSource)) {
+            return null;
+        }
+        // The header block doesn't count, so add one
+        long startAt = (startBlock + 1L) * bigBlockSize.getBigBlockSize();
+        if (startBlock < 0 || startAt + length > _data.size()) {
+            return null;
+        }
+        return ((FileBackedDataSource)_data).map(startAt, length);
+    }
+
     /**
      * Load the block at the given offset,
      * extending the file if needed
@@ -739,19 +766,42 @@ public class POIFSFileSystem extends BlockStore
                 _header.getBigBlockSize().getBigBlockSize()
         );
         _header.writeData(baos);
-        getBlockAt(-1).put(baos.toByteArray());
+        writeBlockIfChanged(-1, ByteBuffer.wrap(baos.toByteArray()));
 
 
         // BATs
         for (BATBlock bat : _bat_blocks) {
-            ByteBuffer block = getBlockAt(bat.getOurBlockIndex());
-            bat.writeData(block);
+            writeBATBlock(bat);
         }
         // XBats
         for (BATBlock bat : _xbat_blocks) {
-            ByteBuffer block = getBlockAt(bat.getOurBlockIndex());
-            bat.writeData(block);
+            writeBATBlock(bat);
+        }
+    }
+
+    /**
+     * Writes the allocation table block to its backing block
+     */
+    void writeBATBlock(BATBlock bat) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(getBigBlockSize());
+        bat.writeData(data);
+        data.flip();
+        writeBlockIfChanged(bat.getOurBlockIndex(), data);
+    }
+
+    /**
+     * Writes the data to the start of the block, unless the block already
+     *  holds it. This way, saving a file in place only touches the blocks
+     *  which have changed.
+     */
+    private void writeBlockIfChanged(int offset, ByteBuffer data) throws IOException {
+        ByteBuffer block = getBlockAt(offset);
+        ByteBuffer existing = block.duplicate();
+        existing.limit(existing.position() + data.remaining());
+        if (!existing.equals(data)) {
+            block.put(data);
         }
+        releaseBuffer(block);
     }
 
     /**
@@ -791,7 +841,7 @@ public class POIFSFileSystem extends BlockStore
      *
      * @return the root entry
      */
-    public DirectoryNode getRoot() {
+    public synchronized DirectoryNode getRoot() {
         if (_root == null) {
             _root = new DirectoryNode(_property_table.getRoot(), this, null);
         }
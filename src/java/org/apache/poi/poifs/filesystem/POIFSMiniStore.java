@@ -21,7 +21,7 @@ package org.apache.poi.poifs.filesystem;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -39,6 +39,7 @@ public class POIFSMiniStore extends BlockStore
 {
     private final POIFSFileSystem _filesystem;
     private POIFSStream _mini_stream;
+    private volatile int[] _mini_stream_blocks;
     private final List<BATBlock>   _sbat_blocks;
     private final HeaderBlock      _header;
     private final RootProperty     _root;
@@ -64,12 +65,16 @@ public class POIFSMiniStore extends BlockStore
        int bigBlockOffset = byteOffset % _filesystem.getBigBlockSize();
 
        // Now locate the data block for it
-       Iterator<ByteBuffer> it = _mini_stream.getBlockIterator();
-       for(int i=0; i<bigBlockNumber; i++) {
-          it.next();
+       int[] blocks = getMiniStreamBlocks();
+       if (bigBlockNumber >= blocks.length) {
+          throw new NoSuchElementException("Can't read past the end of the stream");
+       }
+       ByteBuffer dataBlock;
+       try {
+          dataBlock = _filesystem.getBlockAt(blocks[bigBlockNumber]);
+       } catch (IOException e) {
+          throw new RuntimeException(e);
        }
-       ByteBuffer dataBlock = it.next();
-       assert(dataBlock != null);
 
        // Position ourselves, and take a slice
        dataBlock.position(
@@ -80,6 +85,41 @@ public class POIFSMiniStore extends BlockStore
        return miniBuffer;
     }
 
+    /**
+     * Returns the big blocks of the mini stream in chain order. The chain is only
+     *  followed once and then cached until the mini stream is extended. The table
+     *  is replaced as a whole, so concurrent readers see either table.
+     */
+    private int[] getMiniStreamBlocks() {
+       int[] blocks = _mini_stream_blocks;
+       if (blocks == null) {
+          if (_mini_stream.getStartBlock() == POIFSConstants.END_OF_CHAIN) {
+             throw new IllegalStateException(
+                   "Can't read from a new stream before it has been written to"
+             );
+          }
+          ChainLoopDetector loopDetector;
+          try {
+             loopDetector = _filesystem.getChainLoopDetector();
+          } catch (IOException e) {
+             throw new RuntimeException(e);
+          }
+          blocks = new int[16];
+          int count = 0;
+          for (int block = _mini_stream.getStartBlock(); block != POIFSConstants.END_OF_CHAIN;
+               block = _filesystem.getNextBlock(block)) {
+             loopDetector.claim(block);
+             if (count == blocks.length) {
+                blocks = Arrays.copyOf(blocks, count * 2);
+             }
+             blocks[count++] = block;
+          }
+          blocks = Arrays.copyOf(blocks, count);
+          _mini_stream_blocks = blocks;
+       }
+       return blocks;
+    }
+
     /**
      * Load the block, extending the underlying stream if needed
      */
@@ -101,6 +141,7 @@ public class POIFSMiniStore extends BlockStore
        // For now, do the extending by hand...
 
        // Ask for another block
+       _mini_stream_blocks = null;
        int newBigBlock = _filesystem.getFreeBlock();
        _filesystem.createBlockIfNeeded(newBigBlock);
 
@@ -125,6 +166,7 @@ public class POIFSMiniStore extends BlockStore
 
        // This is now the new end
        _filesystem.setNextBlock(newBigBlock, POIFSConstants.END_OF_CHAIN);
+       _mini_stream_blocks = null;
 
        // Now try again, to get the real small block
        return createBlockIfNeeded(offset);
@@ -246,8 +288,7 @@ public class POIFSMiniStore extends BlockStore
     void syncWithDataSource() throws IOException {
        int blocksUsed = 0;
        for (BATBlock sbat : _sbat_blocks) {
-          ByteBuffer block = _filesystem.getBlockAt(sbat.getOurBlockIndex());
-          sbat.writeData(block);
+          _filesystem.writeBATBlock(sbat);
 
           if (!sbat.hasFreeSectors()) {
               blocksUsed += _filesystem.getBigBlockSizeDetails().getBATEntriesPerBlock();
@@ -257,7 +298,13 @@ public class POIFSMiniStore extends BlockStore
        }
        // Set the size on the root in terms of the number of SBAT blocks
        // RootProperty.setSize does the sbat -> bytes conversion for us
-       _filesystem._get_property_table().getRoot().setSize(blocksUsed);
+       // A size which already spans these blocks is kept, so that the
+       //  root property isn't changed needlessly on an in-place save
+       RootProperty root = _filesystem._get_property_table().getRoot();
+       long usedSize = (long)blocksUsed * POIFSConstants.SMALL_BLOCK_SIZE;
+       if (root.getSize() > usedSize || root.getSize() <= usedSize - POIFSConstants.SMALL_BLOCK_SIZE) {
+          root.setSize(blocksUsed);
+       }
     }
 
     @Override
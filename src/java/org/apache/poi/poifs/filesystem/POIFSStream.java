@@ -22,6 +22,7 @@ package org.apache.poi.poifs.filesystem;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -50,6 +51,9 @@ public class POIFSStream implements Iterable<ByteBuffer>
 	private final BlockStore blockStore;
 	private int startBlock;
 	private OutputStream outStream;
+	// block indexes of the chain, as far as it was followed
+	private int[] blockTable;
+	private boolean blockTableComplete;
 
 	/**
 	 * Constructor for an existing stream. It's up to you
@@ -96,6 +100,41 @@ public class POIFSStream implements Iterable<ByteBuffer>
       return new StreamBlockByteBufferIterator(startBlock);
    }
 
+   /**
+    * Returns the block indexes of the stream in chain order. The chain is only
+    *  followed once, so that the blocks can then be accessed in any order.
+    *
+    * @param maxBlocks the number of blocks needed, the chain isn't followed any further
+    * @return the block indexes, which may be less than requested if the chain ends before
+    */
+   int[] getBlockTable(int maxBlocks) throws IOException {
+      if (blockTable != null && (blockTableComplete || blockTable.length >= maxBlocks)) {
+         return blockTable;
+      }
+      ChainLoopDetector loopDetector = blockStore.getChainLoopDetector();
+      int[] table = new int[Math.max(Math.min(maxBlocks, 1024), 0)];
+      int count = 0;
+      int block = startBlock;
+      while (count < maxBlocks && block != POIFSConstants.END_OF_CHAIN) {
+         loopDetector.claim(block);
+         if (count == table.length) {
+            table = Arrays.copyOf(table, (int)Math.min(maxBlocks, count * 2L));
+         }
+         table[count++] = block;
+         block = blockStore.getNextBlock(block);
+      }
+      blockTableComplete = (block == POIFSConstants.END_OF_CHAIN);
+      blockTable = (count == table.length) ? table : Arrays.copyOf(table, count);
+      return blockTable;
+   }
+
+   /**
+    * @return the block store the stream is stored in
+    */
+   BlockStore getBlockStore() {
+      return blockStore;
+   }
+
    /**
     * Updates the contents of the stream to the new
     *  set of bytes.
@@ -109,6 +148,7 @@ public class POIFSStream implements Iterable<ByteBuffer>
    }
 
    public OutputStream getOutputStream() throws IOException {
+       blockTable = null;
        if (outStream == null) {
            outStream = new StreamBlockByteBuffer();
        }
@@ -135,6 +175,7 @@ public class POIFSStream implements Iterable<ByteBuffer>
          blockStore.setNextBlock(thisBlock, POIFSConstants.UNUSED_BLOCK);
       }
       this.startBlock = POIFSConstants.END_OF_CHAIN;
+      this.blockTable = null;
    }
 
    /**
@@ -184,6 +225,8 @@ public class POIFSStream implements Iterable<ByteBuffer>
        // the existing blocks
        ChainLoopDetector loopDetector;
        int prevBlock, nextBlock;
+       // Is the current block one of the existing blocks of the stream?
+       boolean existingBlock;
 
        StreamBlockByteBuffer() throws IOException {
            loopDetector = blockStore.getChainLoopDetector();
@@ -193,6 +236,7 @@ public class POIFSStream implements Iterable<ByteBuffer>
 
        void createBlockIfNeeded() throws IOException {
            if (buffer != null && buffer.hasRemaining()) return;
+           blockTable = null;
 
            int thisBlock = nextBlock;
 
@@ -216,9 +260,11 @@ public class POIFSStream implements Iterable<ByteBuffer>
               if(startBlock == POIFSConstants.END_OF_CHAIN) {
                  startBlock = thisBlock;
               }
+              existingBlock = false;
            } else {
               loopDetector.claim(thisBlock);
               nextBlock = blockStore.getNextBlock(thisBlock);
+              existingBlock = true;
            }
 
            if (buffer != null) {
@@ -248,13 +294,31 @@ public class POIFSStream implements Iterable<ByteBuffer>
             do {
                 createBlockIfNeeded();
                 int writeBytes = Math.min(buffer.remaining(), len);
-                buffer.put(b, off, writeBytes);
+                if (existingBlock && isUnchanged(b, off, writeBytes)) {
+                    // Don't dirty blocks which already hold the data,
+                    //  so that saving a file in place only writes the changes
+                    buffer.position(buffer.position() + writeBytes);
+                } else {
+                    buffer.put(b, off, writeBytes);
+                }
                 off += writeBytes;
                 len -= writeBytes;
             } while (len > 0);
         }
 
+        private boolean isUnchanged(byte[] b, int off, int len) {
+            int pos = buffer.position();
+            for (int i = 0; i < len; i++) {
+                if (buffer.get(pos + i) != b[off + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         public void close() throws IOException {
+            blockTable = null;
+
             // If we're overwriting, free any remaining blocks
             POIFSStream toFree = new POIFSStream(blockStore, nextBlock);
             toFree.free(loopDetector);
@@ -0,0 +1,454 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.poifs.filesystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.poifs.common.POIFSBigBlockSize;
+import org.apache.poi.poifs.common.POIFSConstants;
+import org.apache.poi.poifs.property.DirectoryProperty;
+import org.apache.poi.poifs.property.DocumentProperty;
+import org.apache.poi.poifs.property.Property;
+import org.apache.poi.poifs.property.PropertyTable;
+import org.apache.poi.poifs.storage.HeaderBlock;
+import org.apache.poi.poifs.storage.HeaderBlockConstants;
+import org.apache.poi.util.IOUtils;
+
+/**
+ * Writes a new OLE2 container sequentially to a {@link FileChannel}.
+ * <p>
+ * In contrast to {@link POIFSFileSystem}, which keeps the whole filesystem in its
+ * data source and copies it block by block when it is written, the big block documents
+ * are streamed directly to the channel in consecutive blocks. Only the small documents,
+ * which are stored in the mini stream, and the directory entries are kept in memory.
+ * When the writer is closed, the mini stream, the small and big block allocation tables
+ * and the property table are appended with gathering writes and the header is written
+ * at the start of the container.
+ * <p>
+ * The writer is meant for creating large containers in one go - entries can't be read,
+ * replaced or removed once they were written. Use {@link POIFSFileSystem} for that.
+ *
+ * @since POI 5.0.0
+ */
+public final class POIFSStreamingWriter implements Closeable {
+    /** size of the copy buffer for documents given as streams, a multiple of both block sizes */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel _channel;
+    private final boolean _closeChannel;
+    private final long _start;
+    private final POIFSBigBlockSize _bigBlockSize;
+    private final int _blockSize;
+    private final HeaderBlock _header;
+    private final PropertyTable _propertyTable;
+    /** the properties in the order of the property table */
+    private final List<Property> _properties = new ArrayList<>();
+    private final Map<POIFSDocumentPath, DirectoryProperty> _directories = new HashMap<>();
+
+    /** number of big blocks written so far */
+    private int _blockCount;
+    /** the last block of each big block chain */
+    private final BitSet _chainEnds = new BitSet();
+
+    private byte[] _miniStream = new byte[POIFSConstants.BIG_BLOCK_MINIMUM_DOCUMENT_SIZE];
+    private int _miniSize;
+    /** the last mini block of each mini block chain */
+    private final BitSet _miniChainEnds = new BitSet();
+
+    private final ByteBuffer _padding;
+    private byte[] _buffer;
+    private boolean _closed;
+
+    /**
+     * Creates a writer for the given file, which is created or truncated, using 512 byte blocks
+     *
+     * @param file the file to write to
+     * @throws IOException if the file can't be opened
+     */
+    public POIFSStreamingWriter(File file) throws IOException {
+        this(FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+            true, POIFSConstants.SMALLER_BIG_BLOCK_SIZE_DETAILS);
+    }
+
+    /**
+     * Creates a writer, which starts the container at the current position of the channel.
+     * The channel is not closed by the writer.
+     *
+     * @param channel the channel to write to
+     * @param bigBlockSize the block size of the container
+     * @throws IOException if the channel position can't be changed
+     */
+    public POIFSStreamingWriter(FileChannel channel, POIFSBigBlockSize bigBlockSize) throws IOException {
+        this(channel, false, bigBlockSize);
+    }
+
+    private POIFSStreamingWriter(FileChannel channel, boolean closeChannel, POIFSBigBlockSize bigBlockSize)
+    throws IOException {
+        _channel = channel;
+        _closeChannel = closeChannel;
+        _bigBlockSize = bigBlockSize;
+        _blockSize = bigBlockSize.getBigBlockSize();
+        _header = new HeaderBlock(bigBlockSize);
+        _propertyTable = new PropertyTable(_header);
+        _properties.add(_propertyTable.getRoot());
+        _directories.put(new POIFSDocumentPath(), _propertyTable.getRoot());
+
+        byte[] padding = new byte[_blockSize];
+        Arrays.fill(padding, (byte)0xFF);
+        _padding = ByteBuffer.wrap(padding);
+
+        // the header is written last, the documents start at the first block
+        _start = channel.position();
+        channel.position(_start + _blockSize);
+    }
+
+    /**
+     * Creates a directory
+     *
+     * @param parent the path of the parent directory
+     * @param name the name of the new directory
+     * @return the path of the new directory
+     * @throws IOException if the parent directory doesn't exist or already has an entry with that name
+     */
+    public POIFSDocumentPath createDirectory(POIFSDocumentPath parent, String name) throws IOException {
+        DirectoryProperty directory = new DirectoryProperty(name);
+        addProperty(parent, directory);
+        POIFSDocumentPath path = new POIFSDocumentPath(parent, new String[]{name});
+        _directories.put(path, directory);
+        return path;
+    }
+
+    /**
+     * Creates a document in the root directory from a stream
+     *
+     * @param name the name of the new document
+     * @param stream the content of the document, which is read until its end, but not closed
+     * @throws IOException if the stream can't be read or written
+     */
+    public void createDocument(String name, InputStream stream) throws IOException {
+        createDocument(new POIFSDocumentPath(), name, stream);
+    }
+
+    /**
+     * Creates a document from a stream. The content is only buffered up to the size of
+     * the mini stream documents, larger documents are copied to the channel in chunks.
+     *
+     * @param parent the path of the parent directory
+     * @param name the name of the new document
+     * @param stream the content of the document, which is read until its end, but not closed
+     * @throws IOException if the stream can't be read or written
+     */
+    public void createDocument(POIFSDocumentPath parent, String name, InputStream stream) throws IOException {
+        DocumentProperty document = new DocumentProperty(name, 0);
+        addProperty(parent, document);
+
+        if (_buffer == null) {
+            _buffer = new byte[BUFFER_SIZE];
+        }
+        int count = IOUtils.readFully(stream, _buffer, 0, POIFSConstants.BIG_BLOCK_MINIMUM_DOCUMENT_SIZE);
+        if (count < POIFSConstants.BIG_BLOCK_MINIMUM_DOCUMENT_SIZE) {
+            storeSmall(document, ByteBuffer.wrap(_buffer, 0, Math.max(count, 0)));
+            return;
+        }
+
+        // fill up the first chunk, any further chunk is a multiple of the block sizes too
+        int more = IOUtils.readFully(stream, _buffer, count, BUFFER_SIZE - count);
+        count += Math.max(more, 0);
+        long size = 0;
+        int startBlock = _blockCount;
+        while (count > 0) {
+            size += count;
+            checkSize(size);
+            writeBlocks(ByteBuffer.wrap(_buffer, 0, count));
+            count = (count < BUFFER_SIZE) ? 0 : Math.max(IOUtils.readFully(stream, _buffer), 0);
+        }
+        endChain(document, startBlock, size);
+    }
+
+    /**
+     * Creates a document from the remaining content of the buffers. Large documents are
+     * written with a single gathering write, i.e. direct or memory mapped buffers are
+     * not copied. The positions of the buffers are advanced to their limits.
+     *
+     * @param parent the path of the parent directory
+     * @param name the name of the new document
+     * @param content the content of the document
+     * @throws IOException if the document can't be written
+     */
+    public void createDocument(POIFSDocumentPath parent, String name, ByteBuffer... content) throws IOException {
+        DocumentProperty document = new DocumentProperty(name, 0);
+        addProperty(parent, document);
+
+        long size = 0;
+        for (ByteBuffer bb : content) {
+            size += bb.remaining();
+        }
+        checkSize(size);
+        if (Property.isSmall((int)size)) {
+            storeSmall(document, content);
+            return;
+        }
+
+        int startBlock = _blockCount;
+        writeBlocks(content);
+        endChain(document, startBlock, size);
+    }
+
+    /**
+     * Writes the mini stream, the allocation tables, the property table and the header.
+     * If the writer was created for a file, the file is closed.
+     *
+     * @throws IOException if the container can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (_closed) {
+            return;
+        }
+        _closed = true;
+        try {
+            writeTrailer();
+        } finally {
+            if (_closeChannel) {
+                _channel.close();
+            }
+        }
+    }
+
+    private void addProperty(POIFSDocumentPath parent, Property property) throws IOException {
+        if (_closed) {
+            throw new IllegalStateException("The writer is already closed");
+        }
+        DirectoryProperty directory = _directories.get(parent);
+        if (directory == null) {
+            throw new IOException("Unknown directory " + parent);
+        }
+        directory.addChild(property);
+        _propertyTable.addProperty(property);
+        _properties.add(property);
+    }
+
+    private static void checkSize(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Documents larger than 2GB are not supported");
+        }
+    }
+
+    private void storeSmall(DocumentProperty document, ByteBuffer... content) {
+        int size = 0;
+        for (ByteBuffer bb : content) {
+            size += bb.remaining();
+        }
+        document.updateSize(size);
+        if (size == 0) {
+            document.setStartBlock(POIFSConstants.END_OF_CHAIN);
+            return;
+        }
+
+        int blocks = (size + POIFSConstants.SMALL_BLOCK_SIZE - 1) / POIFSConstants.SMALL_BLOCK_SIZE;
+        int newSize = _miniSize + blocks * POIFSConstants.SMALL_BLOCK_SIZE;
+        if (newSize > _miniStream.length) {
+            _miniStream = Arrays.copyOf(_miniStream, Math.max(newSize, _miniStream.length * 2));
+        }
+        int pos = _miniSize;
+        for (ByteBuffer bb : content) {
+            int len = bb.remaining();
+            bb.get(_miniStream, pos, len);
+            pos += len;
+        }
+        Arrays.fill(_miniStream, pos, newSize, (byte)0xFF);
+
+        int startBlock = _miniSize / POIFSConstants.SMALL_BLOCK_SIZE;
+        document.setStartBlock(startBlock);
+        _miniChainEnds.set(startBlock + blocks - 1);
+        _miniSize = newSize;
+    }
+
+    private void endChain(DocumentProperty document, int startBlock, long size) {
+        document.updateSize((int)size);
+        document.setStartBlock(startBlock);
+        _chainEnds.set(_blockCount - 1);
+    }
+
+    /**
+     * Appends the content and pads it to the next block boundary
+     */
+    private void writeBlocks(ByteBuffer... content) throws IOException {
+        long size = 0;
+        for (ByteBuffer bb : content) {
+            size += bb.remaining();
+        }
+        int used = (int)(size % _blockSize);
+        ByteBuffer[] buffers = content;
+        if (used != 0) {
+            buffers = Arrays.copyOf(content, content.length + 1);
+            ByteBuffer padding = _padding.duplicate();
+            padding.limit(_blockSize - used);
+            buffers[content.length] = padding;
+        }
+        writeFully(buffers);
+        _blockCount = Math.toIntExact(_blockCount + (size + _blockSize - 1) / _blockSize);
+    }
+
+    private void writeFully(ByteBuffer... buffers) throws IOException {
+        int first = 0;
+        while (first < buffers.length) {
+            if (buffers[first].hasRemaining()) {
+                _channel.write(buffers, first, buffers.length - first);
+            } else {
+                first++;
+            }
+        }
+    }
+
+    private void writeTrailer() throws IOException {
+        final int batEntries = _bigBlockSize.getBATEntriesPerBlock();
+        final int xbatEntries = _bigBlockSize.getXBATEntriesPerBlock();
+        final int smallBlockCount = _miniSize / POIFSConstants.SMALL_BLOCK_SIZE;
+
+        // the mini stream
+        ByteBuffer miniStream = ByteBuffer.wrap(_miniStream, 0, _miniSize);
+        int miniStart = POIFSConstants.END_OF_CHAIN;
+        if (_miniSize > 0) {
+            miniStart = _blockCount;
+            writeChain(miniStream);
+        }
+        _propertyTable.getRoot().setStartBlock(miniStart);
+        _propertyTable.getRoot().setSize(smallBlockCount);
+
+        // the small block allocation table
+        ByteBuffer sbat = createTable(ceilDiv(smallBlockCount, batEntries));
+        for (int i = 0; i < smallBlockCount; i++) {
+            sbat.putInt(_miniChainEnds.get(i) ? POIFSConstants.END_OF_CHAIN : i + 1);
+        }
+        _header.setSBATBlockCount(sbat.capacity() / _blockSize);
+        _header.setSBATStart(sbat.capacity() == 0 ? POIFSConstants.END_OF_CHAIN : _blockCount);
+        fillUnused(sbat);
+        sbat.flip();
+        writeChain(sbat);
+
+        // the property table
+        _propertyTable.preWrite();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(_properties.size() * POIFSConstants.PROPERTY_SIZE);
+        for (Property property : _properties) {
+            property.writeData(bos);
+        }
+        // unused property slots are left empty
+        while (bos.size() % _blockSize != 0) {
+            bos.write(0);
+        }
+        _header.setPropertyStart(_blockCount);
+        _propertyTable.setStartBlock(_blockCount);
+        writeChain(ByteBuffer.wrap(bos.toByteArray()));
+
+        // the allocation table needs to cover itself and its extension blocks
+        final int dataBlocks = _blockCount;
+        int batCount = ceilDiv(dataBlocks, batEntries);
+        int xbatCount;
+        while (true) {
+            xbatCount = ceilDiv(Math.max(batCount - HeaderBlockConstants._max_bats_in_header, 0), xbatEntries);
+            int needed = ceilDiv(dataBlocks + batCount + xbatCount, batEntries);
+            if (needed <= batCount) {
+                break;
+            }
+            batCount = needed;
+        }
+
+        ByteBuffer bat = createTable(batCount);
+        for (int i = 0; i < dataBlocks; i++) {
+            bat.putInt(_chainEnds.get(i) ? POIFSConstants.END_OF_CHAIN : i + 1);
+        }
+        for (int i = 0; i < batCount; i++) {
+            bat.putInt(POIFSConstants.FAT_SECTOR_BLOCK);
+        }
+        for (int i = 0; i < xbatCount; i++) {
+            bat.putInt(POIFSConstants.DIFAT_SECTOR_BLOCK);
+        }
+        fillUnused(bat);
+
+        // the extension blocks list the allocation table blocks, which don't fit into the header
+        int[] batArray = new int[Math.min(batCount, HeaderBlockConstants._max_bats_in_header)];
+        for (int i = 0; i < batArray.length; i++) {
+            batArray[i] = dataBlocks + i;
+        }
+        ByteBuffer xbat = createTable(xbatCount);
+        for (int x = 0; x < xbatCount; x++) {
+            for (int i = 0; i < xbatEntries; i++) {
+                int index = batArray.length + x * xbatEntries + i;
+                xbat.putInt(index < batCount ? dataBlocks + index : POIFSConstants.UNUSED_BLOCK);
+            }
+            xbat.putInt(x + 1 < xbatCount ? dataBlocks + batCount + x + 1 : POIFSConstants.END_OF_CHAIN);
+        }
+
+        _header.setBATCount(batCount);
+        _header.setBATArray(batArray);
+        _header.setXBATCount(xbatCount);
+        _header.setXBATStart(xbatCount == 0 ? POIFSConstants.END_OF_CHAIN : dataBlocks + batCount);
+
+        bat.flip();
+        xbat.flip();
+        writeFully(bat, xbat);
+        _blockCount += batCount + xbatCount;
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream(_blockSize);
+        _header.writeData(header);
+        ByteBuffer hb = ByteBuffer.wrap(header.toByteArray());
+        for (long pos = _start; hb.hasRemaining(); ) {
+            pos += _channel.write(hb, pos);
+        }
+    }
+
+    private ByteBuffer createTable(int blocks) {
+        return ByteBuffer.allocate(blocks * _blockSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void fillUnused(ByteBuffer table) {
+        while (table.hasRemaining()) {
+            table.putInt(POIFSConstants.UNUSED_BLOCK);
+        }
+    }
+
+    /**
+     * Appends a chain of blocks, which is ended in the allocation table
+     */
+    private void writeChain(ByteBuffer content) throws IOException {
+        if (content.hasRemaining()) {
+            writeBlocks(content);
+            _chainEnds.set(_blockCount - 1);
+        }
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
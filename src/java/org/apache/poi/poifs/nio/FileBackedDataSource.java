@@ -28,12 +28,13 @@ import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.IdentityHashMap;
 
-import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.POILogFactory;
 import org.apache.poi.util.POILogger;
 
 /**
- * A POIFS {@link DataSource} backed by a File
+ * A POIFS {@link DataSource} backed by a File.
+ * <p>
+ * Read-only data sources use positional reads, so they can be read by several threads at the same time.
  */
 public class FileBackedDataSource extends DataSource {
     private final static POILogger logger = POILogFactory.getLogger(FileBackedDataSource.class);
@@ -97,16 +98,24 @@ public class FileBackedDataSource extends DataSource {
             dst = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
 
             // remember this buffer for cleanup
-            buffersToClean.put(dst,dst);
+            synchronized (buffersToClean) {
+                buffersToClean.put(dst,dst);
+            }
         } else {
-            channel.position(position);
-
             // allocate the buffer on the heap if we cannot map the data in directly
             dst = ByteBuffer.allocate(length);
 
-            // Read the contents and check that we could read some data
-            int worked = IOUtils.readFully(channel, dst);
-            if (worked == -1) {
+            // Read the contents with positional reads, which don't change the channel position
+            // and can therefore be used by several threads at the same time
+            int worked = 0;
+            while (dst.hasRemaining()) {
+                int got = channel.read(dst, position + worked);
+                if (got < 0) {
+                    break;
+                }
+                worked += got;
+            }
+            if (worked == 0) {
                 throw new IndexOutOfBoundsException("Position " + position + " past the end of the file");
             }
         }
@@ -118,6 +127,31 @@ public class FileBackedDataSource extends DataSource {
         return dst;
     }
 
+    /**
+     * Maps a region of the file read-only into memory. Unlike {@link #read(int, long)}, the
+     * region can span several blocks and is not copied, even if the data source is read-only.
+     * The buffer is unmapped when the data source is closed and must not be used afterwards.
+     *
+     * @param position the start of the region
+     * @param length the length of the region
+     * @return the mapped region
+     * @throws IOException if the region can't be mapped
+     *
+     * @since POI 5.0.0
+     */
+    public ByteBuffer map(long position, int length) throws IOException {
+        if (position < 0 || length < 0 || position + length > size()) {
+            throw new IndexOutOfBoundsException("Region " + position + "+" + length + " is not within the file");
+        }
+        ByteBuffer dst = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+        // remember this buffer for cleanup
+        synchronized (buffersToClean) {
+            buffersToClean.put(dst,dst);
+        }
+        return dst;
+    }
+
     @Override
     public void write(ByteBuffer src, long position) throws IOException {
         channel.write(src, position);
@@ -149,7 +183,10 @@ public class FileBackedDataSource extends DataSource {
     }
 
     public void releaseBuffer(ByteBuffer buffer) {
-        ByteBuffer previous = buffersToClean.remove(buffer);
+        ByteBuffer previous;
+        synchronized (buffersToClean) {
+            previous = buffersToClean.remove(buffer);
+        }
         if (previous != null) {
             unmap(previous);
         }
@@ -159,8 +196,10 @@ public class FileBackedDataSource extends DataSource {
     public void close() throws IOException {
         // also ensure that all buffers are unmapped so we do not keep files locked on Windows
         // We consider it a bug if a Buffer is still in use now!
-        buffersToClean.forEach((k,v) -> unmap(v));
-        buffersToClean.clear();
+        synchronized (buffersToClean) {
+            buffersToClean.forEach((k,v) -> unmap(v));
+            buffersToClean.clear();
+        }
 
         if (srcFile != null) {
             // see http://bugs.java.com/bugdatabase/view_bug.do?bug_id=4796385
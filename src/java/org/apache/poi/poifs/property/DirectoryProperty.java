@@ -38,6 +38,9 @@ public class DirectoryProperty extends Property implements Parent, Iterable<Prop
     /** set of children's names */
     private Set<String>  _children_names;
 
+    /** have the children changed since the tree was read? */
+    private boolean _children_modified = true;
+
     /**
      * Default constructor
      *
@@ -97,6 +100,7 @@ public class DirectoryProperty extends Property implements Parent, Iterable<Prop
         {
             _children_names.add(cleanNewName);
             _children_names.remove(oldName);
+            _children_modified = true;
             result = true;
         }
         return result;
@@ -116,6 +120,7 @@ public class DirectoryProperty extends Property implements Parent, Iterable<Prop
         if (result)
         {
             _children_names.remove(property.getName());
+            _children_modified = true;
         }
         return result;
     }
@@ -267,5 +272,24 @@ public class DirectoryProperty extends Property implements Parent, Iterable<Prop
         }
         _children_names.add(name);
         _children.add(property);
+        _children_modified = true;
+    }
+
+    /**
+     * @return true if children were added, removed or renamed since
+     *  the tree was read, so that it needs to be rebuilt on write
+     */
+    boolean isChildrenModified()
+    {
+        return _children_modified;
+    }
+
+    /**
+     * Marks the tree as read, so that an unchanged directory is written
+     *  with the links it was read with
+     */
+    void setChildrenModified(boolean modified)
+    {
+        _children_modified = modified;
     }
 }
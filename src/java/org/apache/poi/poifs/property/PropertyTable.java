@@ -109,6 +109,13 @@ public final class PropertyTable implements BATManaged {
         }
 
         populatePropertyTree( (DirectoryProperty)_properties.get(0));
+
+        // keep the tree as it was read, until a directory changes
+        for (Property property : _properties) {
+            if (property instanceof DirectoryProperty) {
+                ((DirectoryProperty)property).setChildrenModified(false);
+            }
+        }
     }
 
 
@@ -183,15 +190,24 @@ public final class PropertyTable implements BATManaged {
         List<Property> pList = new ArrayList<>();
         // give each property its index
         int i=0;
+        boolean reindexed = false;
         for (Property p : _properties) {
             // only handle non-null properties 
             if (p == null) continue;
+            reindexed |= (p.getIndex() != i);
             p.setIndex(i++);
             pList.add(p);
         }
 
-        // prepare each property for writing
-        for (Property p : pList) p.preWrite();
+        // prepare each property for writing. The tree of an unchanged
+        //  directory is still valid, so it's written unchanged, unless
+        //  the indexes have moved
+        for (Property p : pList) {
+            if (reindexed || !(p instanceof DirectoryProperty) ||
+                    ((DirectoryProperty)p).isChildrenModified()) {
+                p.preWrite();
+            }
+        }
     }    
     
     /**
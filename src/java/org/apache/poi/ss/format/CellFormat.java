@@ -22,7 +22,9 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -128,9 +130,15 @@ public class CellFormat {
         };
     }
 
-    /** Maps a format string to its parsed version for efficiencies sake. */
-    private static final Map<Locale, Map<String, CellFormat>> formatCache =
-            new WeakHashMap<>();
+    /** the number of formats to cache, before the cache is cleared */
+    private static final int MAX_CACHED_FORMATS = 1024;
+
+    /** Maps a locale and format string to its parsed version for efficiencies sake. */
+    private static final Map<FormatKey, CellFormat> formatCache = new ConcurrentHashMap<>();
+
+    private static final LongAdder cacheHits = new LongAdder();
+    private static final LongAdder cacheMisses = new LongAdder();
+    private static final LongAdder cacheEvictions = new LongAdder();
 
     /**
      * Returns a {@link CellFormat} that applies the given format.  Two calls
@@ -153,17 +161,71 @@ public class CellFormat {
      *
      * @return A {@link CellFormat} that applies the given format.
      */
-    public static synchronized CellFormat getInstance(Locale locale, String format) {
-        Map<String, CellFormat> formatMap = formatCache.computeIfAbsent(locale, k -> new WeakHashMap<>());
-        CellFormat fmt = formatMap.get(format);
-        if (fmt == null) {
-            if (format.equals("General") || format.equals("@"))
-                fmt = createGeneralFormat(locale);
-            else
-                fmt = new CellFormat(locale, format);
-            formatMap.put(format, fmt);
+    public static CellFormat getInstance(Locale locale, String format) {
+        FormatKey key = new FormatKey(locale, format);
+        CellFormat fmt = formatCache.get(key);
+        if (fmt != null) {
+            cacheHits.increment();
+            return fmt;
+        }
+        cacheMisses.increment();
+        if (formatCache.size() >= MAX_CACHED_FORMATS) {
+            int size = formatCache.size();
+            formatCache.clear();
+            cacheEvictions.add(size);
         }
-        return fmt;
+        return formatCache.computeIfAbsent(key, k -> createFormat(k.locale, k.format));
+    }
+
+    private static CellFormat createFormat(Locale locale, String format) {
+        if (format.equals("General") || format.equals("@"))
+            return createGeneralFormat(locale);
+        else
+            return new CellFormat(locale, format);
+    }
+
+    /**
+     * @return the number of formats, which are currently cached by {@link #getInstance(Locale, String)}
+     * @since POI 5.0.0
+     */
+    public static int getCacheSize() {
+        return formatCache.size();
+    }
+
+    /**
+     * @return the number of calls of {@link #getInstance(Locale, String)}, which found the format in the cache
+     * @since POI 5.0.0
+     */
+    public static long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * @return the number of calls of {@link #getInstance(Locale, String)}, which had to parse the format
+     * @since POI 5.0.0
+     */
+    public static long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * @return the number of cached formats, which have been dropped, because the cache was full
+     * @since POI 5.0.0
+     */
+    public static long getCacheEvictions() {
+        return cacheEvictions.sum();
+    }
+
+    /**
+     * Removes all cached formats and resets the cache statistics
+     *
+     * @since POI 5.0.0
+     */
+    public static void clearCache() {
+        formatCache.clear();
+        cacheHits.reset();
+        cacheMisses.reset();
+        cacheEvictions.reset();
     }
 
     /**
@@ -493,4 +555,28 @@ public class CellFormat {
     public int hashCode() {
         return format.hashCode();
     }
+
+    private static final class FormatKey {
+        private final Locale locale;
+        private final String format;
+
+        FormatKey(Locale locale, String format) {
+            this.locale = locale;
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FormatKey)) {
+                return false;
+            }
+            FormatKey other = (FormatKey)o;
+            return Objects.equals(locale, other.locale) && format.equals(other.format);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(locale, format);
+        }
+    }
 }
@@ -50,7 +50,7 @@ import static org.apache.poi.ss.format.CellFormatter.quote;
  */
 public class CellFormatPart {
     private final Color color;
-    private CellFormatCondition condition;
+    private final CellFormatCondition condition;
     private final CellFormatter format;
     private final CellFormatType type;
 
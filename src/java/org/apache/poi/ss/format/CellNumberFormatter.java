@@ -38,6 +38,9 @@ import org.apache.poi.util.POILogger;
 
 /**
  * This class implements printing out a value using a number format.
+ * <p>
+ * The format is parsed once by the constructor, so the formatter can be
+ * used by several threads at the same time.
  */
 public class CellNumberFormatter extends CellFormatter {
     private static final POILogger LOG = POILogFactory.getLogger(CellNumberFormatter.class);
@@ -63,6 +66,7 @@ public class CellNumberFormatter extends CellFormatter {
     private final String numeratorFmt;
     private final String denominatorFmt;
     private final boolean improperFraction;
+    /** the format of scientific numbers, which is cloned before use, as DecimalFormat isn't thread-safe */
     private final DecimalFormat decimalFmt;
 
     // The CellNumberFormatter.simpleValue() method uses the SIMPLE_NUMBER
@@ -560,7 +564,7 @@ public class CellNumberFormatter extends CellFormatter {
 
         StringBuffer result = new StringBuffer();
         FieldPosition fractionPos = new FieldPosition(NumberFormat.FRACTION_FIELD);
-        decimalFmt.format(value, result, fractionPos);
+        ((DecimalFormat)decimalFmt.clone()).format(value, result, fractionPos);
         writeInteger(result, output, integerSpecials, mods, showGroupingSeparator);
         writeFractional(result, output);
 
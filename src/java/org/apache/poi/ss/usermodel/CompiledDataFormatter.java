@@ -0,0 +1,264 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.usermodel;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.poi.util.LocaleUtil;
+
+/**
+ * A {@link DataFormatter} which can be shared by several threads, e.g. by the extractors
+ * of a server.
+ * <p>
+ * The format strings are compiled once per format index and string into a {@link CompiledFormat},
+ * which knows if it is a date format and formats whole numbers in the General format without
+ * any {@link java.text.Format}. All other values are formatted by a {@link DataFormatter} of the
+ * calling thread, so the results are the same as those of a {@link DataFormatter} with the same
+ * locale.
+ * <p>
+ * Callers which format many cells can look up the {@link CompiledFormat} of each cell style once
+ * and append the formatted values to a {@link StringBuilder}.
+ *
+ * @since POI 5.0.0
+ */
+public final class CompiledDataFormatter {
+    /** the number of formats to cache, before the cache is cleared */
+    private static final int MAX_FORMATS = 1024;
+
+    private final Locale locale;
+    private final boolean emulateCSV;
+    /** the digits of the locale are the ASCII digits, so whole numbers can be appended as they are */
+    private final boolean asciiDigits;
+    private final ThreadLocal<DataFormatter> formatters;
+    private final Map<FormatKey, CompiledFormat> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a formatter using the current {@link LocaleUtil#getUserLocale() user locale}.
+     */
+    public CompiledDataFormatter() {
+        this(LocaleUtil.getUserLocale());
+    }
+
+    /**
+     * Creates a formatter using the given locale.
+     */
+    public CompiledDataFormatter(Locale locale) {
+        this(locale, false);
+    }
+
+    /**
+     * Creates a formatter using the given locale.
+     *
+     * @param  emulateCSV whether to emulate CSV output.
+     */
+    public CompiledDataFormatter(Locale locale, boolean emulateCSV) {
+        this.locale = locale;
+        this.emulateCSV = emulateCSV;
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        asciiDigits = symbols.getZeroDigit() == '0' && symbols.getMinusSign() == '-';
+        formatters = ThreadLocal.withInitial(() -> new DataFormatter(locale, emulateCSV));
+    }
+
+    /**
+     * @return the locale of the formatted values
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * @return whether CSV output is emulated
+     */
+    public boolean isEmulateCSV() {
+        return emulateCSV;
+    }
+
+    /**
+     * Returns the compiled format of a format index and string, which is compiled on first use
+     *
+     * @param formatIndex the index of the format
+     * @param formatString the format string of the index
+     * @return the compiled format
+     */
+    public CompiledFormat getFormat(int formatIndex, String formatString) {
+        FormatKey key = new FormatKey(formatIndex, formatString);
+        CompiledFormat format = compiled.get(key);
+        if (format == null) {
+            if (compiled.size() >= MAX_FORMATS) {
+                compiled.clear();
+            }
+            format = compiled.computeIfAbsent(key, k -> new CompiledFormat(k.index, k.format));
+        }
+        return format;
+    }
+
+    /**
+     * Returns the compiled format of a cell style
+     *
+     * @param style the cell style
+     * @return the compiled format
+     */
+    public CompiledFormat getFormat(CellStyle style) {
+        return getFormat(style.getDataFormat(), style.getDataFormatString());
+    }
+
+    /**
+     * Formats the given raw cell value, like {@link DataFormatter#formatRawCellContents(double, int, String)}
+     */
+    public String formatRawCellContents(double value, int formatIndex, String formatString) {
+        return getFormat(formatIndex, formatString).formatRawCellContents(value, false);
+    }
+
+    /**
+     * Formats the given raw cell value, like {@link DataFormatter#formatRawCellContents(double, int, String, boolean)}
+     */
+    public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+        return getFormat(formatIndex, formatString).formatRawCellContents(value, use1904Windowing);
+    }
+
+    /**
+     * Formats the value of a cell, like {@link DataFormatter#formatCellValue(Cell)}
+     */
+    public String formatCellValue(Cell cell) {
+        StringBuilder sb = new StringBuilder();
+        formatCellValue(cell, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Formats the value of a cell, like {@link DataFormatter#formatCellValue(Cell)}
+     *
+     * @param cell the cell, may be {@code null}
+     * @param out the builder to append the formatted value to
+     */
+    public void formatCellValue(Cell cell, StringBuilder out) {
+        if (cell != null && cell.getCellType() == CellType.NUMERIC) {
+            CellStyle style = cell.getCellStyle();
+            if (style != null && getFormat(style).appendWholeNumber(cell.getNumericCellValue(), out)) {
+                return;
+            }
+        }
+        out.append(formatters.get().formatCellValue(cell));
+    }
+
+    /**
+     * A format string, which has been checked once for the shortcuts of the formatting
+     */
+    public final class CompiledFormat {
+        private final int formatIndex;
+        private final String formatString;
+        private final boolean date;
+        private final boolean general;
+
+        private CompiledFormat(int formatIndex, String formatString) {
+            this.formatIndex = formatIndex;
+            this.formatString = formatString;
+            this.date = DateUtil.isADateFormat(formatIndex, formatString);
+            this.general = !date && ("General".equalsIgnoreCase(formatString) || "@".equals(formatString));
+        }
+
+        /**
+         * @return the index of the format
+         */
+        public int getFormatIndex() {
+            return formatIndex;
+        }
+
+        /**
+         * @return the format string
+         */
+        public String getFormatString() {
+            return formatString;
+        }
+
+        /**
+         * @return true, if the format is a date format
+         */
+        public boolean isDateFormat() {
+            return date;
+        }
+
+        /**
+         * Formats the given raw cell value
+         *
+         * @see DataFormatter#formatRawCellContents(double, int, String, boolean)
+         */
+        public String formatRawCellContents(double value, boolean use1904Windowing) {
+            StringBuilder sb = new StringBuilder();
+            formatRawCellContents(value, use1904Windowing, sb);
+            return sb.toString();
+        }
+
+        /**
+         * Formats the given raw cell value
+         *
+         * @param value the value of the cell
+         * @param use1904Windowing whether dates are based on 1904
+         * @param out the builder to append the formatted value to
+         *
+         * @see DataFormatter#formatRawCellContents(double, int, String, boolean)
+         */
+        public void formatRawCellContents(double value, boolean use1904Windowing, StringBuilder out) {
+            if (!appendWholeNumber(value, out)) {
+                out.append(formatters.get().formatRawCellContents(value, formatIndex, formatString, use1904Windowing, date));
+            }
+        }
+
+        /**
+         * Whole numbers in the General format are the digits of the number, as long as
+         * they aren't shown in the scientific notation. Negative zero is left to the
+         * {@link DataFormatter}, as it isn't formatted the same way by all its methods.
+         */
+        private boolean appendWholeNumber(double value, StringBuilder out) {
+            if (general && asciiDigits && Math.abs(value) < 1E11 && Math.floor(value) == value
+                && (value != 0 || Double.doubleToRawLongBits(value) == 0)) {
+                out.append((long)value);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class FormatKey {
+        private final int index;
+        private final String format;
+
+        FormatKey(int index, String format) {
+            this.index = index;
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FormatKey)) {
+                return false;
+            }
+            FormatKey other = (FormatKey)o;
+            return index == other.index && Objects.equals(format, other.format);
+        }
+
+        @Override
+        public int hashCode() {
+            return index * 31 + Objects.hashCode(format);
+        }
+    }
+}
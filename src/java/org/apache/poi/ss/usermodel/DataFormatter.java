@@ -891,10 +891,20 @@ public class DataFormatter implements Observer {
      * @see #formatCellValue(Cell)
      */
     public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+        return formatRawCellContents(value, formatIndex, formatString, use1904Windowing,
+            DateUtil.isADateFormat(formatIndex, formatString));
+    }
+
+    /**
+     * Formats the given raw cell value, when it's already known if the format is a date format
+     *
+     * @see CompiledDataFormatter
+     */
+    String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing, boolean isDate) {
         localeChangedObservable.checkForLocaleChange();
 
         // Is it a date?
-        if(DateUtil.isADateFormat(formatIndex,formatString)) {
+        if(isDate) {
             if(DateUtil.isValidExcelDate(value)) {
                 Format dateFormat = getFormat(value, formatIndex, formatString, use1904Windowing);
                 if(dateFormat instanceof ExcelStyleDateFormatter) {
@@ -922,24 +932,35 @@ public class DataFormatter implements Observer {
         // would expand the values, which we do not want, so revert to
         // original method.
         String result;
-        final String textValue = NumberToTextConverter.toText(value);
-        if (textValue.indexOf('E') > -1) {
+        final char[] textValue = new char[NumberToTextConverter.MAX_TEXT_LENGTH];
+        final int textLength = NumberToTextConverter.toText(value, textValue, 0);
+        if (indexOf(textValue, textLength, 'E') > -1) {
             result = numberFormat.format(value);
         }
         else {
-            result = numberFormat.format(new BigDecimal(textValue));
+            result = numberFormat.format(new BigDecimal(textValue, 0, textLength));
         }
         
         // If they requested a non-abbreviated Scientific format,
         //  and there's an E## (but not E-##), add the missing '+' for E+##
-        String fslc = formatString.toLowerCase(Locale.ROOT);
-        if ((fslc.contains("general") || fslc.contains("e+0"))
-                && result.contains("E") && !result.contains("E-")) {
-            result = result.replaceFirst("E", "E+");
+        if (result.contains("E") && !result.contains("E-")) {
+            String fslc = formatString.toLowerCase(Locale.ROOT);
+            if (fslc.contains("general") || fslc.contains("e+0")) {
+                result = result.replaceFirst("E", "E+");
+            }
         }
         return result;
     }
 
+    private static int indexOf(char[] text, int length, char c) {
+        for (int i = 0; i < length; i++) {
+            if (text[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * <p>
      * Returns the formatted value of a cell as a <tt>String</tt> regardless
@@ -1184,7 +1205,11 @@ public class DataFormatter implements Observer {
 
         /** Format a number as an SSN */
         public static String format(Number num) {
-            String result = df.format(num);
+            String result;
+            // the format is shared by all formatters
+            synchronized (df) {
+                result = df.format(num);
+            }
             return result.substring(0, 3) + '-' +
                     result.substring(3, 5) + '-' +
                     result.substring(5, 9);
@@ -1216,7 +1241,11 @@ public class DataFormatter implements Observer {
 
         /** Format a number as Zip + 4 */
         public static String format(Number num) {
-            String result = df.format(num);
+            String result;
+            // the format is shared by all formatters
+            synchronized (df) {
+                result = df.format(num);
+            }
             return result.substring(0, 5) + '-' +
                     result.substring(5, 9);
         }
@@ -1247,7 +1276,11 @@ public class DataFormatter implements Observer {
 
         /** Format a number as a phone number */
         public static String format(Number num) {
-            String result = df.format(num);
+            String result;
+            // the format is shared by all formatters
+            synchronized (df) {
+                result = df.format(num);
+            }
             StringBuilder sb = new StringBuilder();
             String seg1, seg2, seg3;
             int len = result.length();
@@ -23,15 +23,18 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.ChronoField;
-import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalQueries;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.apache.poi.ss.formula.ConditionalFormattingEvaluator;
@@ -57,9 +60,20 @@ public class DateUtil {
 
 
 
-    private static final BigDecimal BD_NANOSEC_DAY = BigDecimal.valueOf(SECONDS_PER_DAY * 1e9);
-    private static final BigDecimal BD_MILISEC_RND = BigDecimal.valueOf(0.5 * 1e6);
-    private static final BigDecimal BD_SECOND_RND = BigDecimal.valueOf(0.5 * 1e9);
+    private static final BigDecimal BD_HALF = BigDecimal.valueOf(0.5);
+
+    /** the days from 1970/01/01 to the first day of the 1900 and 1904 date windowing */
+    private static final long EPOCH_DAY_1900 = LocalDate.of(1900, 1, 1).toEpochDay();
+    private static final long EPOCH_DAY_1904 = LocalDate.of(1904, 1, 1).toEpochDay();
+
+    /**
+     * the time zone offset is checked this far before and after a date, to tell if the
+     * local time is skipped or repeated by a daylight saving time change
+     */
+    private static final long OFFSET_CHECK_MILLIS = 2 * DAY_MILLISECONDS;
+
+    /** the locales, whose calendar is the gregorian calendar */
+    private static final Map<Locale, Boolean> gregorianLocales = new ConcurrentHashMap<>();
 
     private static final Pattern TIME_SEPARATOR_PATTERN = Pattern.compile(":");
 
@@ -324,8 +338,73 @@ public class DateUtil {
      *  @return Java representation of the date, or null if date is not a valid Excel date
      */
     public static Date getJavaDate(double date, boolean use1904windowing, TimeZone tz, boolean roundSeconds) {
-        Calendar calendar = getJavaCalendar(date, use1904windowing, tz, roundSeconds);
-        return calendar == null ? null : calendar.getTime();
+        return isValidExcelDate(date) ? new Date(getEpochMillis(date, use1904windowing, tz, roundSeconds)) : null;
+    }
+
+    /**
+     *  Given an Excel date with either 1900 or 1904 date windowing,
+     *  converts it to the milliseconds since 1970/01/01 00:00 UTC.
+     *
+     *  This is the time of {@link #getJavaDate(double, boolean, TimeZone, boolean)},
+     *  which is calculated without a {@link Calendar}, unless the date is close
+     *  to a change of the time zone offset or the user locale doesn't use the
+     *  gregorian calendar.
+     *
+     *  @param date  The Excel date.
+     *  @param use1904windowing  true if date uses 1904 windowing,
+     *   or false if using 1900 date windowing.
+     *  @param tz The TimeZone to evaluate the date in, or null for the user time zone
+     *  @param roundSeconds round to closest second
+     *  @return the milliseconds since 1970/01/01 00:00 UTC
+     *  @throws IllegalArgumentException if date is not a valid Excel date
+     *  @see #isValidExcelDate(double)
+     *  @since POI 5.0.0
+     */
+    public static long getEpochMillis(double date, boolean use1904windowing, TimeZone tz, boolean roundSeconds) {
+        if (!isValidExcelDate(date)) {
+            throw new IllegalArgumentException("Invalid Excel date: " + date);
+        }
+        TimeZone timeZone = (tz != null) ? tz : LocaleUtil.getUserTimeZone();
+        if (isGregorian(LocaleUtil.getUserLocale())) {
+            int wholeDays = (int)Math.floor(date);
+            int millisecondsInDay = (int)((date - wholeDays) * DAY_MILLISECONDS + 0.5);
+            long localMillis = getEpochDay(wholeDays, use1904windowing) * DAY_MILLISECONDS + millisecondsInDay;
+            if (roundSeconds) {
+                localMillis = Math.floorDiv(localMillis + 500, 1000) * 1000;
+            }
+            long utcMillis = localMillis - timeZone.getRawOffset();
+            int offset = timeZone.getOffset(utcMillis);
+            if (timeZone.getOffset(utcMillis - OFFSET_CHECK_MILLIS) == offset
+                && timeZone.getOffset(utcMillis + OFFSET_CHECK_MILLIS) == offset) {
+                return localMillis - offset;
+            }
+        }
+        // the calendar decides, which time is meant by a skipped or repeated local time
+        return getJavaCalendar(date, use1904windowing, timeZone, roundSeconds).getTimeInMillis();
+    }
+
+    private static boolean isGregorian(Locale locale) {
+        Boolean gregorian = gregorianLocales.get(locale);
+        if (gregorian == null) {
+            gregorian = gregorianLocales.computeIfAbsent(locale, l -> {
+                String type = Calendar.getInstance(l).getCalendarType();
+                return "gregory".equals(type) || "iso8601".equals(type);
+            });
+        }
+        return gregorian;
+    }
+
+    /**
+     * @return the days from 1970/01/01 to the day of an Excel date
+     */
+    private static long getEpochDay(int wholeDays, boolean use1904windowing) {
+        if (use1904windowing) {
+            // 1904 date windowing uses 1/2/1904 as the first day
+            return EPOCH_DAY_1904 + wholeDays;
+        }
+        // Excel thinks 2/29/1900 is a valid date, which it isn't, so the days
+        // from 3/1/1900 are one day less
+        return EPOCH_DAY_1900 + wholeDays - (wholeDays < 61 ? 1 : 2);
     }
 
     /**
@@ -411,35 +490,26 @@ public class DateUtil {
             return null;
         }
 
-        BigDecimal bd = new BigDecimal(date);
-
-        int wholeDays = bd.intValue();
-
-        int startYear = 1900;
-        int dayAdjust = -1; // Excel thinks 2/29/1900 is a valid date, which it isn't
-        if (use1904windowing) {
-            startYear = 1904;
-            dayAdjust = 1; // 1904 date windowing uses 1/2/1904 as the first day
-        }
-        else if (wholeDays < 61) {
-            // Date is prior to 3/1/1900, so adjust because Excel thinks 2/29/1900 exists
-            // If Excel date == 2/29/1900, will become 3/1/1900 in Java representation
-            dayAdjust = 0;
+        int wholeDays = (int)date;
+
+        // the time is rounded to the closest millisecond or second of the exact value of the date,
+        // which is only calculated with BigDecimal, if the double is too close to half a unit
+        long unitsPerDay = roundSeconds ? SECONDS_PER_DAY : DAY_MILLISECONDS;
+        double units = (date - wholeDays) * unitsPerDay + 0.5;
+        long wholeUnits = (long)Math.floor(units);
+        double fraction = units - wholeUnits;
+        if (fraction < 1e-6 || fraction > 1 - 1e-6) {
+            wholeUnits = new BigDecimal(date)
+                .subtract(BigDecimal.valueOf(wholeDays))
+                .multiply(BigDecimal.valueOf(unitsPerDay))
+                .add(BD_HALF)
+                .longValue();
         }
 
-        LocalDateTime ldt = LocalDateTime.of(startYear, 1, 1, 0, 0);
-        ldt = ldt.plusDays(wholeDays+dayAdjust-1L);
-
-        long nanosTime =
-            bd.subtract(BigDecimal.valueOf(wholeDays))
-            .multiply(BD_NANOSEC_DAY)
-            .add(roundSeconds ? BD_SECOND_RND : BD_MILISEC_RND)
-            .longValue();
-
-        ldt = ldt.plusNanos(nanosTime);
-        ldt = ldt.truncatedTo(roundSeconds ? ChronoUnit.SECONDS : ChronoUnit.MILLIS);
-
-        return ldt;
+        long millis = getEpochDay(wholeDays, use1904windowing) * DAY_MILLISECONDS
+            + wholeUnits * (roundSeconds ? 1000 : 1);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+            (int)Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
     }
 
     public static void setCalendar(Calendar calendar, int wholeDays,
@@ -540,32 +610,11 @@ public class DateUtil {
         return calendar;
     }
 
-    // variables for performance optimization:
-    // avoid re-checking DataUtil.isADateFormat(int, String) if a given format
-    // string represents a date format if the same string is passed multiple times.
+    // the format strings, which have been checked by isADateFormat(int, String), as the same
+    // formats are checked again and again for the cells of a sheet.
     // see https://issues.apache.org/bugzilla/show_bug.cgi?id=55611
-    private static ThreadLocal<Integer> lastFormatIndex = ThreadLocal.withInitial(() -> -1);
-    private static ThreadLocal<String> lastFormatString = new ThreadLocal<>();
-    private static ThreadLocal<Boolean> lastCachedResult = new ThreadLocal<>();
-
-    private static boolean isCached(String formatString, int formatIndex) {
-        return formatIndex == lastFormatIndex.get()
-                && formatString.equals(lastFormatString.get());
-    }
-
-    private static void cache(String formatString, int formatIndex, boolean cached) {
-        if (formatString == null || "".equals(formatString)) {
-            lastFormatString.remove();
-        } else {
-            lastFormatString.set(formatString);
-        }
-        if (formatIndex == -1) {
-            lastFormatIndex.remove();
-        } else {
-            lastFormatIndex.set(formatIndex);
-        }
-        lastCachedResult.set(cached);
-    }
+    private static final int MAX_CACHED_FORMATS = 1024;
+    private static final Map<String, Boolean> dateFormatStrings = new ConcurrentHashMap<>();
 
     /**
      * Given a format ID and its format String, will check to see if the
@@ -607,7 +656,6 @@ public class DateUtil {
 
         // First up, is this an internal date format?
         if(isInternalDateFormat(formatIndex)) {
-            cache(formatString, formatIndex, true);
             return true;
         }
 
@@ -616,11 +664,18 @@ public class DateUtil {
             return false;
         }
 
-        // check the cache first
-        if (isCached(formatString, formatIndex)) {
-            return lastCachedResult.get();
+        // check the cache first, the rest of the checks only depend on the format string
+        Boolean cached = dateFormatStrings.get(formatString);
+        if (cached == null) {
+            if (dateFormatStrings.size() >= MAX_CACHED_FORMATS) {
+                dateFormatStrings.clear();
+            }
+            cached = dateFormatStrings.computeIfAbsent(formatString, DateUtil::isADateFormatString);
         }
+        return cached;
+    }
 
+    private static boolean isADateFormatString(String formatString) {
         String fs = formatString;
         /*if (false) {
             // Normalize the format string. The code below is equivalent
@@ -670,7 +725,6 @@ public class DateUtil {
 
         // short-circuit if it indicates elapsed time: [h], [m] or [s]
         if(date_ptrn4.matcher(fs).matches()){
-            cache(formatString, formatIndex, true);
             return true;
         }
         // If it starts with [DBNum1] or [DBNum2] or [DBNum3]
@@ -700,9 +754,7 @@ public class DateUtil {
         //  y m d h s - \ / , . : [ ] T
         // optionally followed by AM/PM
 
-        boolean result = date_ptrn3b.matcher(fs).matches();
-        cache(formatString, formatIndex, result);
-        return result;
+        return date_ptrn3b.matcher(fs).matches();
     }
 
     /**
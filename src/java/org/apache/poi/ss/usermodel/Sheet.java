@@ -17,6 +17,7 @@
 
 package org.apache.poi.ss.usermodel;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -367,6 +368,26 @@ public interface Sheet extends Iterable<Row> {
      */
     List<CellRangeAddress> getMergedRegions();
 
+    /**
+     * Returns the merged regions, which contain the given cell.
+     * Sheets with many merged regions look them up without checking all of them.
+     *
+     * @param rowIndex the 0-based row of the cell
+     * @param columnIndex the 0-based column of the cell
+     * @return the merged regions containing the cell, in the order of the merged regions,
+     *  i.e. usually none or one region
+     * @since POI 5.0.0
+     */
+    default List<CellRangeAddress> getMergedRegionsContaining(int rowIndex, int columnIndex) {
+        List<CellRangeAddress> regions = new ArrayList<>();
+        for (CellRangeAddress region : getMergedRegions()) {
+            if (region.isInRange(rowIndex, columnIndex)) {
+                regions.add(region);
+            }
+        }
+        return regions;
+    }
+
     /**
      *  Returns an iterator of the physical rows
      *
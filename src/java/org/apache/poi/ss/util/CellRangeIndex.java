@@ -0,0 +1,326 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.poi.util.Internal;
+
+/**
+ * A list of cell ranges, e.g. the merged regions of a sheet, which can find the ranges
+ * intersecting a cell or another range without comparing it to all ranges.
+ * <p>
+ * The ranges are kept in an interval tree of their rows, i.e. a treap ordered by the first row,
+ * where each node knows the highest last row of its subtree. The coordinates of a range are
+ * copied when it is added, so the index isn't affected by later changes of the range object.
+ * Ranges which are changed by the caller have to be fetched by {@link #getMutable(int)}, so their
+ * coordinates are read again before the next lookup.
+ * <p>
+ * Ranges which are found are returned in the order of the list.
+ *
+ * @param <T> the type of the ranges
+ * @since POI 5.0.0
+ */
+@Internal
+public final class CellRangeIndex<T extends CellRangeAddressBase> {
+    private final List<Node<T>> nodes = new ArrayList<>();
+    /** the nodes whose ranges may have been changed since the last lookup */
+    private final List<Node<T>> mutable = new ArrayList<>();
+    /** more ranges may have been changed than there are ranges, so the whole tree is rebuilt */
+    private boolean allMutable;
+    private Node<T> root;
+    private long nextSeq;
+
+    /**
+     * Creates an empty index
+     */
+    public CellRangeIndex() {
+    }
+
+    /**
+     * Creates an index of the given ranges, in the order of the collection
+     */
+    public CellRangeIndex(Collection<? extends T> ranges) {
+        for (T range : ranges) {
+            add(range);
+        }
+    }
+
+    /**
+     * @return the number of ranges in this list
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @return the range at the given index of this list
+     */
+    public T get(int index) {
+        return nodes.get(index).range;
+    }
+
+    /**
+     * Returns the range at the given index of this list, which may be changed by the caller.
+     * The coordinates of the range are read again before the next lookup.
+     *
+     * @return the range at the given index of this list
+     */
+    public T getMutable(int index) {
+        Node<T> node = nodes.get(index);
+        if (!allMutable) {
+            if (mutable.size() < nodes.size()) {
+                mutable.add(node);
+            } else {
+                mutable.clear();
+                allMutable = true;
+            }
+        }
+        return node.range;
+    }
+
+    /**
+     * Appends a range to this list
+     *
+     * @param range the range to add
+     */
+    public void add(T range) {
+        Node<T> node = new Node<>(range, nextSeq++);
+        nodes.add(node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes the range at the given index of this list
+     *
+     * @param index the index of the range
+     * @return the removed range
+     */
+    public T remove(int index) {
+        Node<T> node = nodes.remove(index);
+        if (!allMutable) {
+            root = delete(root, node);
+        }
+        node.removed = true;
+        return node.range;
+    }
+
+    /**
+     * Removes all ranges from this list
+     */
+    public void clear() {
+        nodes.clear();
+        mutable.clear();
+        allMutable = false;
+        root = null;
+    }
+
+    /**
+     * @return the ranges which contain the given cell
+     */
+    public List<T> getContaining(int rowIndex, int columnIndex) {
+        return find(rowIndex, rowIndex, columnIndex, columnIndex);
+    }
+
+    /**
+     * @return the ranges which have at least one cell in common with the given range
+     * @see CellRangeAddressBase#intersects(CellRangeAddressBase)
+     */
+    public List<T> getIntersecting(CellRangeAddressBase range) {
+        return find(range.getFirstRow(), range.getLastRow(), range.getFirstColumn(), range.getLastColumn());
+    }
+
+    private List<T> find(int firstRow, int lastRow, int firstColumn, int lastColumn) {
+        refresh();
+        List<Node<T>> found = new ArrayList<>();
+        collect(root, firstRow, lastRow, firstColumn, lastColumn, found);
+        if (found.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (found.size() > 1) {
+            found.sort((n1, n2) -> Long.compare(n1.seq, n2.seq));
+        }
+        List<T> ranges = new ArrayList<>(found.size());
+        for (Node<T> node : found) {
+            ranges.add(node.range);
+        }
+        return ranges;
+    }
+
+    /**
+     * Moves the nodes of the ranges, which may have been changed, to their current place in the tree
+     */
+    private void refresh() {
+        if (allMutable) {
+            root = null;
+            for (Node<T> node : nodes) {
+                node.load();
+                root = insert(root, node);
+            }
+            allMutable = false;
+        } else if (!mutable.isEmpty()) {
+            for (Node<T> node : mutable) {
+                if (!node.removed && node.isChanged()) {
+                    root = delete(root, node);
+                    node.load();
+                    root = insert(root, node);
+                }
+            }
+            mutable.clear();
+        }
+    }
+
+    private static <T extends CellRangeAddressBase> void collect(Node<T> node, int firstRow, int lastRow,
+            int firstColumn, int lastColumn, List<Node<T>> found) {
+        // nodes without a row of the range in their subtree are skipped
+        while (node != null && node.maxLastRow >= firstRow) {
+            collect(node.left, firstRow, lastRow, firstColumn, lastColumn, found);
+            if (node.firstRow > lastRow) {
+                // so do all nodes on the right
+                return;
+            }
+            if (node.lastRow >= firstRow && node.firstColumn <= lastColumn && node.lastColumn >= firstColumn) {
+                found.add(node);
+            }
+            node = node.right;
+        }
+    }
+
+    private static <T extends CellRangeAddressBase> Node<T> insert(Node<T> parent, Node<T> node) {
+        if (parent == null) {
+            node.left = node.right = null;
+            node.update();
+            return node;
+        }
+        if (node.isBefore(parent)) {
+            parent.left = insert(parent.left, node);
+            if (parent.left.priority > parent.priority) {
+                parent = rotateRight(parent);
+            }
+        } else {
+            parent.right = insert(parent.right, node);
+            if (parent.right.priority > parent.priority) {
+                parent = rotateLeft(parent);
+            }
+        }
+        parent.update();
+        return parent;
+    }
+
+    private static <T extends CellRangeAddressBase> Node<T> delete(Node<T> parent, Node<T> node) {
+        if (parent == node) {
+            return merge(node.left, node.right);
+        }
+        if (node.isBefore(parent)) {
+            parent.left = delete(parent.left, node);
+        } else {
+            parent.right = delete(parent.right, node);
+        }
+        parent.update();
+        return parent;
+    }
+
+    /**
+     * Merges two subtrees, where all nodes of the left one are before the nodes of the right one
+     */
+    private static <T extends CellRangeAddressBase> Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            right.update();
+            return right;
+        }
+    }
+
+    private static <T extends CellRangeAddressBase> Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        node.update();
+        left.right = node;
+        left.update();
+        return left;
+    }
+
+    private static <T extends CellRangeAddressBase> Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        node.update();
+        right.left = node;
+        right.update();
+        return right;
+    }
+
+    private static final class Node<T extends CellRangeAddressBase> {
+        private final T range;
+        /** the order of the ranges in the list */
+        private final long seq;
+        private final int priority;
+        private int firstRow, lastRow, firstColumn, lastColumn;
+        private Node<T> left, right;
+        /** the highest last row of this subtree */
+        private int maxLastRow;
+        private boolean removed;
+
+        Node(T range, long seq) {
+            this.range = range;
+            this.seq = seq;
+            // a pseudo random priority, which balances the tree
+            this.priority = Long.hashCode(seq * 0x9E3779B97F4A7C15L);
+            load();
+        }
+
+        void load() {
+            firstRow = range.getFirstRow();
+            lastRow = range.getLastRow();
+            firstColumn = range.getFirstColumn();
+            lastColumn = range.getLastColumn();
+        }
+
+        boolean isChanged() {
+            return firstRow != range.getFirstRow() || lastRow != range.getLastRow() ||
+                firstColumn != range.getFirstColumn() || lastColumn != range.getLastColumn();
+        }
+
+        boolean isBefore(Node<T> other) {
+            return firstRow < other.firstRow || (firstRow == other.firstRow && seq < other.seq);
+        }
+
+        void update() {
+            int max = lastRow;
+            if (left != null && left.maxLastRow > max) {
+                max = left.maxLastRow;
+            }
+            if (right != null && right.maxLastRow > max) {
+                max = right.maxLastRow;
+            }
+            maxLastRow = max;
+        }
+    }
+}
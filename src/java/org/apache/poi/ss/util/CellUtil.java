@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
@@ -107,6 +108,9 @@ public final class CellUtil {
 
     private static UnicodeMapping[] unicodeMappings;
 
+    /** The indexes of the cell styles of the workbooks, see {@link #findCellStyle(Workbook, Map)} */
+    private static final Map<Workbook, StyleIndex> styleIndexes = new WeakHashMap<>();
+
     private static final class UnicodeMapping {
 
         public final String entityName;
@@ -273,34 +277,72 @@ public final class CellUtil {
      * @since POI 3.14 beta 2
      */
     public static void setCellStyleProperties(Cell cell, Map<String, Object> properties) {
-        Workbook workbook = cell.getSheet().getWorkbook();
-        CellStyle originalStyle = cell.getCellStyle();
-        CellStyle newStyle = null;
-        Map<String, Object> values = getFormatProperties(originalStyle);
-        putAll(properties, values);
+        cell.setCellStyle(getCellStyle(cell.getSheet().getWorkbook(), cell.getCellStyle(), properties));
+    }
 
-        // index seems like what index the cellstyle is in the list of styles for a workbook.
-        // not good to compare on!
-        int numberCellStyles = workbook.getNumCellStyles();
+    /**
+     * <p>Sets the format properties of all cells of a range, like
+     * {@link #setCellStyleProperties(Cell, Map)} does for a single cell.
+     * Rows and cells of the range, which don't exist yet, are created.</p>
+     *
+     * <p>The new style of each distinct cell style of the range is only searched
+     * or created once, so this is much faster than setting the properties of each cell
+     * of a large range on its own.</p>
+     *
+     * @param sheet The sheet of the cells
+     * @param range The range of the cells to change the style of
+     * @param properties The properties to be added to the cell styles, as {propertyName: propertyValue}.
+     * @since POI 5.0.0
+     */
+    public static void setCellStyleProperties(Sheet sheet, CellRangeAddress range, Map<String, Object> properties) {
+        CellStyleChanges changes = new CellStyleChanges(sheet.getWorkbook());
+        for (int rowIndex = range.getFirstRow(); rowIndex <= range.getLastRow(); rowIndex++) {
+            Row row = getRow(rowIndex, sheet);
+            for (int column = range.getFirstColumn(); column <= range.getLastColumn(); column++) {
+                changes.setCellStyleProperties(getCell(row, column), properties);
+            }
+        }
+    }
 
-        for (int i = 0; i < numberCellStyles; i++) {
-            CellStyle wbStyle = workbook.getCellStyleAt(i);
-            Map<String, Object> wbStyleMap = getFormatProperties(wbStyle);
+    /**
+     * Changes the styles of many cells of a workbook, like {@link #setCellStyleProperties(Cell, Map)}.
+     * The new style of a cell only depends on the old style and the properties,
+     * so the new style of each combination of them is only searched or created once.
+     */
+    static final class CellStyleChanges {
+        private final Workbook workbook;
+        private final Map<Map<String, Object>, Map<Short, CellStyle>> newStyles = new HashMap<>();
 
-            // the desired style already exists in the workbook. Use the existing style.
-            if (wbStyleMap.equals(values)) {
-                newStyle = wbStyle;
-                break;
-            }
+        CellStyleChanges(Workbook workbook) {
+            this.workbook = workbook;
+        }
+
+        void setCellStyleProperties(Cell cell, Map<String, Object> properties) {
+            CellStyle originalStyle = cell.getCellStyle();
+            CellStyle newStyle = newStyles
+                .computeIfAbsent(properties, k -> new HashMap<>())
+                .computeIfAbsent(originalStyle.getIndex(), k -> getCellStyle(workbook, originalStyle, properties));
+            cell.setCellStyle(newStyle);
         }
+    }
+
+    /**
+     * @return the cell style with the properties of the original style and the given properties,
+     *  which is created if the workbook doesn't contain such a style yet
+     */
+    private static CellStyle getCellStyle(Workbook workbook, CellStyle originalStyle, Map<String, Object> properties) {
+        Map<String, Object> values = getFormatProperties(originalStyle);
+        putAll(properties, values);
+
+        // use the desired style, if it already exists in the workbook
+        CellStyle newStyle = findCellStyle(workbook, values);
 
         // the desired style does not exist in the workbook. Create a new style with desired properties.
         if (newStyle == null) {
             newStyle = workbook.createCellStyle();
             setFormatProperties(newStyle, workbook, values);
         }
-
-        cell.setCellStyle(newStyle);
+        return newStyle;
     }
 
     /**
@@ -325,6 +367,62 @@ public final class CellUtil {
         setCellStyleProperties(cell, property);
     }
 
+    /**
+     * Finds the first cell style of the workbook with the given format properties.
+     *
+     * @param workbook the workbook of the cell styles
+     * @param values the format properties
+     * @return the cell style, or {@code null} if there is no such cell style
+     */
+    private static CellStyle findCellStyle(Workbook workbook, Map<String, Object> values) {
+        StyleIndex index;
+        synchronized (styleIndexes) {
+            index = styleIndexes.computeIfAbsent(workbook, k -> new StyleIndex());
+        }
+        synchronized (index) {
+            return index.find(workbook, values);
+        }
+    }
+
+    /**
+     * Maps the format properties of the cell styles of a workbook to their indexes, so that
+     * a cell style doesn't need to be compared to all styles of the workbook.
+     * <p>
+     * The styles which have been added to the workbook since the last lookup are indexed
+     * before each lookup. A style which is found is compared again, as it may have been changed
+     * after it has been indexed. A style which has been changed to the properties of the lookup
+     * after it has been indexed isn't found, so an equal style is created instead.
+     */
+    private static final class StyleIndex {
+        private final Map<Map<String, Object>, Integer> styles = new HashMap<>();
+        private int numberCellStyles;
+
+        CellStyle find(Workbook workbook, Map<String, Object> values) {
+            int count = workbook.getNumCellStyles();
+            if (count < numberCellStyles) {
+                // styles have been removed, e.g. by the HSSFOptimiser
+                styles.clear();
+                numberCellStyles = 0;
+            }
+            for (; numberCellStyles < count; numberCellStyles++) {
+                styles.putIfAbsent(getFormatProperties(workbook.getCellStyleAt(numberCellStyles)), numberCellStyles);
+            }
+
+            Integer idx = styles.get(values);
+            if (idx == null) {
+                return null;
+            }
+            CellStyle style = workbook.getCellStyleAt(idx);
+            Map<String, Object> current = getFormatProperties(style);
+            if (current.equals(values)) {
+                return style;
+            }
+            styles.remove(values);
+            styles.putIfAbsent(current, idx);
+            return null;
+        }
+    }
+
     /**
      * Returns a map containing the format properties of the given cell style.
      * The returned map is not tied to <code>style</code>, so subsequent changes
@@ -0,0 +1,192 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.util;
+
+import java.awt.font.GlyphVector;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.awt.geom.Rectangle2D;
+import java.text.AttributedString;
+import java.text.Bidi;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.poi.ss.usermodel.Font;
+
+/**
+ * Caches the glyph advances of a font, which is used to auto-size columns.
+ * <p>
+ * The width of simple text is the sum of the advances of its characters, which is
+ * the same as the bounds of its {@link TextLayout}, but doesn't need a layout per cell.
+ * Text which needs a layout, e.g. complex scripts or characters which the font can't
+ * display, isn't measured here and has to be laid out by the caller.
+ * <p>
+ * The advances are looked up in pages of 256 characters on first use. The cache is
+ * shared by all workbooks and can be used concurrently.
+ */
+final class GlyphAdvanceCache {
+    /** the number of fonts to cache, before the cache is cleared */
+    private static final int MAX_FONTS = 256;
+
+    private static final int PAGE_SHIFT = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+    /**
+     * the scripts whose characters are neither reordered, shaped nor combined, when they
+     * are laid out; combining marks belong to the inherited script and aren't included
+     */
+    private static final Set<Character.UnicodeScript> SIMPLE_SCRIPTS = EnumSet.of(
+            Character.UnicodeScript.COMMON, Character.UnicodeScript.LATIN, Character.UnicodeScript.GREEK,
+            Character.UnicodeScript.CYRILLIC, Character.UnicodeScript.HAN, Character.UnicodeScript.HIRAGANA,
+            Character.UnicodeScript.KATAKANA);
+
+    private static final Map<FontKey, GlyphAdvanceCache> CACHE = new ConcurrentHashMap<>();
+
+    private final Map<TextAttribute, Object> attributes;
+    private final java.awt.Font awtFont;
+    private final AtomicReferenceArray<float[]> pages = new AtomicReferenceArray<>(Character.MAX_VALUE + 1 >> PAGE_SHIFT);
+    /** the advance of the default character, i.e. its width in a column */
+    private final double defaultCharAdvance;
+    /** the right edge of the default character, which ends each measured text */
+    private final double defaultCharFrame;
+
+    private GlyphAdvanceCache(FontKey key) {
+        attributes = new HashMap<>();
+        attributes.put(TextAttribute.FAMILY, key.name);
+        attributes.put(TextAttribute.SIZE, (float)key.heightInPoints);
+        if (key.bold) attributes.put(TextAttribute.WEIGHT, TextAttribute.WEIGHT_BOLD);
+        if (key.italic) attributes.put(TextAttribute.POSTURE, TextAttribute.POSTURE_OBLIQUE);
+        if (key.underline) attributes.put(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON);
+        awtFont = java.awt.Font.getFont(attributes);
+
+        TextLayout layout = createLayout(String.valueOf(SheetUtil.defaultChar));
+        Rectangle2D bounds = layout.getBounds();
+        defaultCharAdvance = layout.getAdvance();
+        defaultCharFrame = bounds.getX() + bounds.getWidth();
+    }
+
+    /**
+     * @return the glyph advances of the given font
+     */
+    static GlyphAdvanceCache forFont(Font font) {
+        FontKey key = new FontKey(font);
+        GlyphAdvanceCache cache = CACHE.get(key);
+        if (cache == null) {
+            if (CACHE.size() >= MAX_FONTS) {
+                CACHE.clear();
+            }
+            cache = CACHE.computeIfAbsent(key, GlyphAdvanceCache::new);
+        }
+        return cache;
+    }
+
+    /**
+     * @return the advance of the default character, which is the unit of column widths
+     */
+    double getDefaultCharAdvance() {
+        return defaultCharAdvance;
+    }
+
+    /**
+     * Measures the text followed by the default character, like a column width is measured
+     *
+     * @param text the text to measure
+     * @return the distance from the origin to the right edge of the text, or {@link Double#NaN}
+     *  if the text needs to be laid out to measure it
+     */
+    double getFrameWidth(String text) {
+        // summed up as float, like the glyph positions of a layout
+        float width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            float[] page = pages.get(c >>> PAGE_SHIFT);
+            if (page == null) {
+                page = loadPage(c >>> PAGE_SHIFT);
+            }
+            float advance = page[c & (PAGE_SIZE - 1)];
+            if (Float.isNaN(advance)) {
+                return Double.NaN;
+            }
+            width += advance;
+        }
+        return width + defaultCharFrame;
+    }
+
+    /**
+     * @return a layout of the text in this font, for the text which can't be measured by its advances
+     */
+    TextLayout createLayout(String text) {
+        return new TextLayout(new AttributedString(text, attributes).getIterator(), SheetUtil.fontRenderContext);
+    }
+
+    private float[] loadPage(int index) {
+        char[] chars = new char[PAGE_SIZE];
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            chars[i] = (char)((index << PAGE_SHIFT) | i);
+        }
+        // no layout is done here, the characters are just mapped to their glyphs
+        GlyphVector glyphs = awtFont.createGlyphVector(SheetUtil.fontRenderContext, chars);
+        float[] page = new float[PAGE_SIZE];
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page[i] = isSimple(chars, i) ? glyphs.getGlyphMetrics(i).getAdvance() : Float.NaN;
+        }
+        pages.compareAndSet(index, null, page);
+        return pages.get(index);
+    }
+
+    private boolean isSimple(char[] chars, int index) {
+        char c = chars[index];
+        return !Character.isISOControl(c) && !Character.isSurrogate(c) &&
+            Character.getType(c) != Character.FORMAT && SIMPLE_SCRIPTS.contains(Character.UnicodeScript.of(c)) &&
+            !Bidi.requiresBidi(chars, index, index + 1) && awtFont.canDisplay(c);
+    }
+
+    private static final class FontKey {
+        private final String name;
+        private final short heightInPoints;
+        private final boolean bold, italic, underline;
+
+        FontKey(Font font) {
+            name = font.getFontName();
+            heightInPoints = font.getFontHeightInPoints();
+            bold = font.getBold();
+            italic = font.getItalic();
+            underline = (font.getUnderline() == Font.U_SINGLE);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FontKey)) {
+                return false;
+            }
+            FontKey other = (FontKey)o;
+            return Objects.equals(name, other.name) && heightInPoints == other.heightInPoints &&
+                bold == other.bold && italic == other.italic && underline == other.underline;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, heightInPoints, bold, italic, underline);
+        }
+    }
+}
@@ -17,6 +17,12 @@
 
 package org.apache.poi.ss.util;
 
+import static org.apache.poi.ss.util.IEEEDouble.BIASED_EXPONENT_SPECIAL_VALUE;
+import static org.apache.poi.ss.util.IEEEDouble.EXPONENT_BIAS;
+import static org.apache.poi.ss.util.IEEEDouble.FRAC_ASSUMED_HIGH_BIT;
+import static org.apache.poi.ss.util.IEEEDouble.FRAC_MASK;
+
+import java.math.BigInteger;
 
 /**
  * Excel converts numbers to text with different rules to those of java, so
@@ -111,9 +117,59 @@ package org.apache.poi.ss.util;
  */
 public final class NumberToTextConverter {
 
+	/**
+	 * The maximum number of characters of a converted number, e.g.
+	 * <tt>-1.23456789012346E+100</tt>
+	 *
+	 * @since POI 5.0.0
+	 */
+	public static final int MAX_TEXT_LENGTH = 22;
+
 	private static final long EXCEL_NAN_BITS = 0xFFFF0420003C0000L;
 	private static final int MAX_TEXT_LEN = 20;
 
+	/** the range of the decimal exponents k, which scale a double to 15 digits by 10<sup>-k</sup> */
+	private static final int MIN_SCALE = -342;
+	private static final int MAX_SCALE = 296;
+	/**
+	 * 10<sup>-k</sup> as 128 bit significands (rounded down) and binary exponents, i.e.
+	 * <tt>(hi &times; 2<sup>64</sup> + lo) &times; 2<sup>exp</sup></tt>
+	 */
+	private static final long[] SCALE_HI = new long[MAX_SCALE - MIN_SCALE + 1];
+	private static final long[] SCALE_LO = new long[MAX_SCALE - MIN_SCALE + 1];
+	private static final int[] SCALE_EXP = new int[MAX_SCALE - MIN_SCALE + 1];
+
+	private static final long TEN_POW_14 = 100_000_000_000_000L;
+	private static final long TEN_POW_15 = 1_000_000_000_000_000L;
+	/**
+	 * Values closer than 2<sup>-12</sup> to the rounding point of the 15th digit are converted
+	 * with the exact arithmetic of {@link NormalisedDecimal}, because its rounding depends on
+	 * its intermediate precision there.
+	 */
+	private static final long ROUNDING_MARGIN = 1L << 52;
+
+	static {
+		BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+		for (int k = MIN_SCALE; k <= MAX_SCALE; k++) {
+			BigInteger significand;
+			int exp;
+			if (k <= 0) {
+				BigInteger pow = BigInteger.TEN.pow(-k);
+				exp = pow.bitLength() - 128;
+				significand = exp > 0 ? pow.shiftRight(exp) : pow.shiftLeft(-exp);
+			} else {
+				BigInteger pow = BigInteger.TEN.pow(k);
+				int shift = 127 + pow.bitLength();
+				significand = BigInteger.ONE.shiftLeft(shift).divide(pow);
+				exp = -shift;
+			}
+			int idx = k - MIN_SCALE;
+			SCALE_HI[idx] = significand.shiftRight(64).longValue();
+			SCALE_LO[idx] = significand.and(mask).longValue();
+			SCALE_EXP[idx] = exp;
+		}
+	}
+
 	private NumberToTextConverter() {
 		// no instances of this class
 	}
@@ -128,7 +184,240 @@ public final class NumberToTextConverter {
 	public static String toText(double value) {
 		return rawDoubleBitsToText(Double.doubleToLongBits(value));
 	}
+
+	/**
+	 * Converts the supplied <tt>value</tt> like {@link #toText(double)}, but writes the text
+	 * into the given buffer, so no objects are created for most values.
+	 *
+	 * @param value the value to convert
+	 * @param buf the buffer, which needs to have {@link #MAX_TEXT_LENGTH} characters after the offset
+	 * @param offset the offset of the text in the buffer
+	 * @return the number of characters written
+	 *
+	 * @since POI 5.0.0
+	 */
+	public static int toText(double value, char[] buf, int offset) {
+		return rawDoubleBitsToText(Double.doubleToLongBits(value), buf, offset);
+	}
+
 	/* package */ static String rawDoubleBitsToText(long pRawBits) {
+		char[] buf = new char[MAX_TEXT_LENGTH];
+		int len = rawDoubleBitsToText(pRawBits, buf, 0);
+		return new String(buf, 0, len);
+	}
+
+	/* package */ static int rawDoubleBitsToText(long pRawBits, char[] buf, int offset) {
+		long rawBits = pRawBits & 0x7FFFFFFFFFFFFFFFL;
+		int biasedExp = (int)(rawBits >>> 52);
+		int pos = offset;
+		if (biasedExp == 0) {
+			// zero or 'denormalised', which excel displays as zero
+			if (pRawBits < 0) {
+				buf[pos++] = '-';
+			}
+			buf[pos++] = '0';
+			return pos - offset;
+		}
+		if (biasedExp == BIASED_EXPONENT_SPECIAL_VALUE) {
+			return copy(exactRawDoubleBitsToText(pRawBits), buf, offset);
+		}
+
+		int binExp = biasedExp - EXPONENT_BIAS;
+		long m = (rawBits & FRAC_MASK) | FRAC_ASSUMED_HIGH_BIT;
+		if (binExp >= 0 && binExp <= 52 && (m & ((1L << (52 - binExp)) - 1)) == 0) {
+			// whole numbers of up to 15 digits are written as they are
+			long value = m >>> (52 - binExp);
+			if (value < TEN_POW_15) {
+				if (pRawBits < 0) {
+					buf[pos++] = '-';
+				}
+				return writeDigits(buf, pos, value, countDigits(value)) - offset;
+			}
+		}
+
+		// scale the value m * 2^(binExp-52) to 15 whole decimal digits by multiplying with 10^-k
+		// floor(binExp * log10(2)) - 14
+		int k = ((binExp * 78913) >> 18) - 14;
+		long whole, frac;
+		boolean scaledDown = false;
+		while (true) {
+			int idx = k - MIN_SCALE;
+			long hi = SCALE_HI[idx], lo = SCALE_LO[idx];
+			// the 192 bit product m * (hi:lo) as w2:w1:w0
+			long w0 = m * lo;
+			long pl = multiplyHigh(m, lo);
+			long ph = m * hi;
+			long w1 = pl + ph;
+			long w2 = multiplyHigh(m, hi) + (Long.compareUnsigned(w1, pl) < 0 ? 1 : 0);
+			int shift = 52 - binExp - SCALE_EXP[idx];
+			whole = bits(w0, w1, w2, shift);
+			frac = bits(w0, w1, w2, shift - 64);
+			if (whole >= TEN_POW_15) {
+				k++;
+				scaledDown = true;
+			} else if (whole < TEN_POW_14 && !scaledDown) {
+				k--;
+			} else {
+				// after scaling down, 10^14 may be a little less, as 10^-k is rounded down
+				break;
+			}
+		}
+
+		long distance = frac ^ Long.MIN_VALUE;
+		if (distance > -ROUNDING_MARGIN && distance < ROUNDING_MARGIN) {
+			return copy(exactRawDoubleBitsToText(pRawBits), buf, offset);
+		}
+
+		long digits = whole + (frac < 0 ? 1 : 0);
+		int decExponent = k + 14;
+		if (digits >= TEN_POW_15) {
+			digits /= 10;
+			decExponent++;
+		}
+		if (Math.abs(decExponent) > 98) {
+			// rounds the last digit too
+			digits = (digits + 5) / 10;
+			if (digits >= TEN_POW_14) {
+				// rounding caused carry
+				digits /= 10;
+				decExponent++;
+			}
+		}
+		while (digits % 10 == 0) {
+			digits /= 10;
+		}
+		int countSigDigits = countDigits(digits);
+
+		if (pRawBits < 0) {
+			buf[pos++] = '-';
+		}
+		if (decExponent < 0) {
+			pos = formatLessThanOne(buf, pos, digits, countSigDigits, decExponent);
+		} else {
+			pos = formatGreaterThanOne(buf, pos, digits, countSigDigits, decExponent);
+		}
+		return pos - offset;
+	}
+
+	private static int formatLessThanOne(char[] buf, int pos, long digits, int countSigDigits, int decExponent) {
+		int nLeadingZeros = -decExponent - 1;
+		int normalLength = 2 + nLeadingZeros + countSigDigits; // 2 == "0.".length()
+
+		if (needsScientificNotation(normalLength)) {
+			pos = writeScientificDigits(buf, pos, digits, countSigDigits);
+			buf[pos++] = 'E';
+			buf[pos++] = '-';
+			return writeExp(buf, pos, -decExponent);
+		}
+		buf[pos++] = '0';
+		buf[pos++] = '.';
+		for (int i=nLeadingZeros; i>0; i--) {
+			buf[pos++] = '0';
+		}
+		return writeDigits(buf, pos, digits, countSigDigits);
+	}
+
+	private static int formatGreaterThanOne(char[] buf, int pos, long digits, int countSigDigits, int decExponent) {
+		if (decExponent > 19) {
+			// scientific notation
+			pos = writeScientificDigits(buf, pos, digits, countSigDigits);
+			buf[pos++] = 'E';
+			buf[pos++] = '+';
+			return writeExp(buf, pos, decExponent);
+		}
+		int nFractionalDigits = countSigDigits - decExponent - 1;
+		if (nFractionalDigits > 0) {
+			// the digits are shifted by one for the decimal point
+			int point = pos + decExponent + 1;
+			writeDigits(buf, pos, digits, countSigDigits);
+			System.arraycopy(buf, point, buf, point + 1, nFractionalDigits);
+			buf[point] = '.';
+			return pos + countSigDigits + 1;
+		}
+		pos = writeDigits(buf, pos, digits, countSigDigits);
+		for (int i=-nFractionalDigits; i>0; i--) {
+			buf[pos++] = '0';
+		}
+		return pos;
+	}
+
+	private static int writeScientificDigits(char[] buf, int pos, long digits, int countSigDigits) {
+		if (countSigDigits == 1) {
+			buf[pos] = (char)('0' + digits);
+			return pos + 1;
+		}
+		writeDigits(buf, pos + 1, digits, countSigDigits);
+		buf[pos] = buf[pos + 1];
+		buf[pos + 1] = '.';
+		return pos + countSigDigits + 1;
+	}
+
+	private static int writeDigits(char[] buf, int pos, long digits, int count) {
+		long d = digits;
+		for (int i = pos + count - 1; i >= pos; i--) {
+			buf[i] = (char)('0' + d % 10);
+			d /= 10;
+		}
+		return pos + count;
+	}
+
+	private static int writeExp(char[] buf, int pos, int val) {
+		if (val >= 100) {
+			buf[pos++] = (char)('0' + val / 100);
+		}
+		buf[pos++] = (char)('0' + val / 10 % 10);
+		buf[pos++] = (char)('0' + val % 10);
+		return pos;
+	}
+
+	private static int countDigits(long value) {
+		int count = 1;
+		for (long v = value; v >= 10; v /= 10) {
+			count++;
+		}
+		return count;
+	}
+
+	private static int copy(String text, char[] buf, int offset) {
+		text.getChars(0, text.length(), buf, offset);
+		return text.length();
+	}
+
+	/**
+	 * @return the upper 64 bits of the unsigned product of a (which is less than 2<sup>63</sup>) and b
+	 */
+	private static long multiplyHigh(long a, long b) {
+		long aLo = a & 0xFFFFFFFFL, aHi = a >>> 32;
+		long bLo = b & 0xFFFFFFFFL, bHi = b >>> 32;
+		long lh = aLo * bHi;
+		long hl = aHi * bLo;
+		long mid = ((aLo * bLo) >>> 32) + (lh & 0xFFFFFFFFL) + (hl & 0xFFFFFFFFL);
+		return aHi * bHi + (lh >>> 32) + (hl >>> 32) + (mid >>> 32);
+	}
+
+	/**
+	 * @return the 64 bits of the 192 bit number w2:w1:w0, which start at the given bit
+	 */
+	private static long bits(long w0, long w1, long w2, int start) {
+		if (start >= 128) {
+			return w2 >>> (start - 128);
+		} else if (start > 64) {
+			return (w1 >>> (start - 64)) | (w2 << (128 - start));
+		} else if (start == 64) {
+			return w1;
+		} else if (start > 0) {
+			return (w0 >>> start) | (w1 << (64 - start));
+		} else {
+			return w0;
+		}
+	}
+
+	/**
+	 * Converts the raw bits with the exact decimal arithmetic of {@link ExpandedDouble} and
+	 * {@link NormalisedDecimal}, which is used for the values close to a rounding point and as
+	 * reference in the tests.
+	 */
+	/* package */ static String exactRawDoubleBitsToText(long pRawBits) {
 
 		long rawBits = pRawBits;
 		boolean isNegative = rawBits < 0; // sign bit is in the same place for long and double
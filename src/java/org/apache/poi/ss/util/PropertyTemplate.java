@@ -435,6 +435,7 @@ public final class PropertyTemplate {
      */
     public void applyBorders(Sheet sheet) {
         Workbook wb = sheet.getWorkbook();
+        CellUtil.CellStyleChanges changes = new CellUtil.CellStyleChanges(wb);
         for (Map.Entry<CellAddress, Map<String, Object>> entry : _propertyTemplate
                 .entrySet()) {
             CellAddress cellAddress = entry.getKey();
@@ -444,7 +445,7 @@ public final class PropertyTemplate {
                 Map<String, Object> properties = entry.getValue();
                 Row row = CellUtil.getRow(cellAddress.getRow(), sheet);
                 Cell cell = CellUtil.getCell(row, cellAddress.getColumn());
-                CellUtil.setCellStyleProperties(cell, properties);
+                changes.setCellStyleProperties(cell, properties);
             }
         }
     }
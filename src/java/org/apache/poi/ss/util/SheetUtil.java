@@ -23,10 +23,13 @@ import java.awt.font.TextLayout;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
 import java.text.AttributedString;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.stream.IntStream;
 
+import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CellType;
@@ -54,7 +57,7 @@ public class SheetUtil {
      * but the docs say nothing about what particular character is used.
      * '0' looks to be a good choice.
      */
-    private static final char defaultChar = '0';
+    static final char defaultChar = '0';
 
     /**
      * This is the multiple that the font height is scaled by when determining the
@@ -107,7 +110,7 @@ public class SheetUtil {
     /**
      * drawing context to measure text
      */
-    private static final FontRenderContext fontRenderContext = new FontRenderContext(null, true, true);
+    static final FontRenderContext fontRenderContext = new FontRenderContext(null, true, true);
 
     /**
      * Compute width of a single cell
@@ -119,7 +122,7 @@ public class SheetUtil {
      * @return  the width in pixels or -1 if cell is empty
      */
     public static double getCellWidth(Cell cell, int defaultCharWidth, DataFormatter formatter, boolean useMergedCells) {
-        List<CellRangeAddress> mergedRegions = cell.getSheet().getMergedRegions();
+        List<CellRangeAddress> mergedRegions = cell.getSheet().getMergedRegionsContaining(cell.getRowIndex(), cell.getColumnIndex());
         return getCellWidth(cell, defaultCharWidth, formatter, useMergedCells, mergedRegions);
     }
 
@@ -166,22 +169,33 @@ public class SheetUtil {
             cellType = cell.getCachedFormulaResultType();
 
         Font font = wb.getFontAt(style.getFontIndexAsInt());
+        GlyphAdvanceCache advances = GlyphAdvanceCache.forFont(font);
 
         double width = -1;
         if (cellType == CellType.STRING) {
             RichTextString rt = cell.getRichStringCellValue();
-            String[] lines = rt.getString().split("\\n");
-            for (String line : lines) {
-                String txt = line + defaultChar;
-
-                AttributedString str = new AttributedString(txt);
-                copyAttributes(font, str, 0, txt.length());
+            String text = rt.getString();
+            // measure each line, trailing empty lines are ignored
+            int end = text.length();
+            while (end > 0 && text.charAt(end - 1) == '\n') {
+                end--;
+            }
+            if (end == 0 && !text.isEmpty()) {
+                return width;
+            }
+            for (int start = 0; start <= end; ) {
+                int lineEnd = text.indexOf('\n', start);
+                if (lineEnd == -1 || lineEnd > end) {
+                    lineEnd = end;
+                }
+                String line = text.substring(start, lineEnd);
 
                 /*if (rt.numFormattingRuns() > 0) {
                     // TODO: support rich text fragments
                 }*/
 
-                width = getCellWidth(defaultCharWidth, colspan, style, width, str);
+                width = getCellWidth(defaultCharWidth, colspan, style, width, advances, line);
+                start = lineEnd + 1;
             }
         } else {
             String sval = null;
@@ -196,11 +210,7 @@ public class SheetUtil {
                 sval = String.valueOf(cell.getBooleanCellValue()).toUpperCase(Locale.ROOT);
             }
             if(sval != null) {
-                String txt = sval + defaultChar;
-                AttributedString str = new AttributedString(txt);
-                copyAttributes(font, str, 0, txt.length());
-
-                width = getCellWidth(defaultCharWidth, colspan, style, width, str);
+                width = getCellWidth(defaultCharWidth, colspan, style, width, advances, sval);
             }
         }
         return width;
@@ -214,14 +224,24 @@ public class SheetUtil {
      * @param colspan the number of columns that is spanned by the cell (1 if the cell is not part of a merged region)
      * @param style the cell style, which contains text rotation and indention information needed to compute the cell width
      * @param minWidth the minimum best-fit width. This algorithm will only return values greater than or equal to the minimum width.
-     * @param str the text contained in the cell
+     * @param advances the cached glyph advances of the cell font
+     * @param text the text contained in the cell
      * @return the best fit cell width
      */
     private static double getCellWidth(int defaultCharWidth, int colspan,
-            CellStyle style, double minWidth, AttributedString str) {
-        TextLayout layout = new TextLayout(str.getIterator(), fontRenderContext);
+            CellStyle style, double minWidth, GlyphAdvanceCache advances, String text) {
+        short rotation = style.getRotation();
+        if (rotation == 0) {
+            // simple text is measured by its advances, instead of laying it out
+            double frameWidth = advances.getFrameWidth(text);
+            if (!Double.isNaN(frameWidth)) {
+                return Math.max(minWidth, ((frameWidth / colspan) / defaultCharWidth) + style.getIndention());
+            }
+        }
+
+        TextLayout layout = advances.createLayout(text + defaultChar);
         final Rectangle2D bounds;
-        if(style.getRotation() != 0){
+        if(rotation != 0){
             /*
              * Transform the text using a scale so that it's height is increased by a multiple of the leading,
              * and then rotate the text before computing the bounds. The scale results in some whitespace around
@@ -229,7 +249,7 @@ public class SheetUtil {
              * is added by the standard Excel autosize.
              */
             AffineTransform trans = new AffineTransform();
-            trans.concatenate(AffineTransform.getRotateInstance(style.getRotation()*2.0*Math.PI/360.0));
+            trans.concatenate(AffineTransform.getRotateInstance(rotation*2.0*Math.PI/360.0));
             trans.concatenate(
             AffineTransform.getScaleInstance(1, fontHeightMultiple)
             );
@@ -265,15 +285,64 @@ public class SheetUtil {
      * @return  the width in pixels or -1 if cell is empty
      */
     public static double getColumnWidth(Sheet sheet, int column, boolean useMergedCells, int firstRow, int lastRow){
-        DataFormatter formatter = new DataFormatter();
         int defaultCharWidth = getDefaultCharWidth(sheet.getWorkbook());
+        return getColumnWidth(sheet, column, useMergedCells, firstRow, lastRow, -1,
+                defaultCharWidth, sheet.getMergedRegions());
+    }
 
+    /**
+     * Compute the widths of several columns and return the result
+     * <p>
+     * For large sheets, the widths can be estimated from a sample of the rows, which are spread
+     * evenly over the sheet. The columns can also be computed in parallel, in which case the
+     * sheet must not be modified until this method returns. HSSF sheets are always measured
+     * serially, even if <code>parallel</code> is true, as reading them creates cells and fonts on demand.
+     *
+     * @param sheet the sheet to calculate
+     * @param columns   0-based indexes of the columns
+     * @param useMergedCells    whether to use merged cells
+     * @param maxRows   the maximum number of rows to measure per column, or 0 to measure all rows
+     * @param parallel  whether to compute the columns in parallel, which is ignored for HSSF sheets
+     * @return  the widths in the order of the given columns, -1 for columns whose cells are all empty
+     * @since POI 5.0.0
+     */
+    public static double[] getColumnWidths(Sheet sheet, int[] columns, boolean useMergedCells, int maxRows, boolean parallel) {
+        int defaultCharWidth = getDefaultCharWidth(sheet.getWorkbook());
         List<CellRangeAddress> mergedRegions = sheet.getMergedRegions();
+        int firstRow = sheet.getFirstRowNum();
+        int lastRow = sheet.getLastRowNum();
+
+        double[] widths = new double[columns.length];
+        IntStream indexes = IntStream.range(0, columns.length);
+        (parallel && !(sheet instanceof HSSFSheet) ? indexes.parallel() : indexes).forEach(i ->
+            widths[i] = getColumnWidth(sheet, columns[i], useMergedCells, firstRow, lastRow, maxRows,
+                    defaultCharWidth, mergedRegions)
+        );
+        return widths;
+    }
+
+    private static double getColumnWidth(Sheet sheet, int column, boolean useMergedCells, int firstRow, int lastRow,
+            int maxRows, int defaultCharWidth, List<CellRangeAddress> mergedRegions) {
+        // the formatter isn't thread-safe, so each column has its own
+        DataFormatter formatter = new DataFormatter();
+
+        // only the regions which span the column are of interest, and of those only the ones of the row
+        CellRangeIndex<CellRangeAddress> columnRegions = new CellRangeIndex<>();
+        for (CellRangeAddress region : mergedRegions) {
+            if (region.containsColumn(column)) {
+                columnRegions.add(region);
+            }
+        }
+
+        long rowCount = (long)lastRow - firstRow + 1;
+        double step = (maxRows > 0 && rowCount > maxRows) ? (double)rowCount / maxRows : 1;
         double width = -1;
-        for (int rowIdx = firstRow; rowIdx <= lastRow; ++rowIdx) {
-            Row row = sheet.getRow(rowIdx);
+        for (double pos = firstRow; pos <= lastRow; pos += step) {
+            Row row = sheet.getRow((int)pos);
             if( row != null ) {
-                double cellWidth = getColumnWidthForRow(row, column, defaultCharWidth, formatter, useMergedCells, mergedRegions);
+                List<CellRangeAddress> rowRegions = columnRegions.size() == 0
+                        ? Collections.emptyList() : columnRegions.getContaining(row.getRowNum(), column);
+                double cellWidth = getColumnWidthForRow(row, column, defaultCharWidth, formatter, useMergedCells, rowRegions);
                 width = Math.max(width, cellWidth);
             }
         }
@@ -289,11 +358,7 @@ public class SheetUtil {
     @Internal
     public static int getDefaultCharWidth(final Workbook wb) {
         Font defaultFont = wb.getFontAt( 0);
-
-        AttributedString str = new AttributedString(String.valueOf(defaultChar));
-        copyAttributes(defaultFont, str, 0, 1);
-        TextLayout layout = new TextLayout(str.getIterator(), fontRenderContext);
-        return (int) layout.getAdvance();
+        return (int) GlyphAdvanceCache.forFont(defaultFont).getDefaultCharAdvance();
     }
 
     /**
@@ -399,14 +464,12 @@ public class SheetUtil {
         final Cell c = getCell(sheet, rowIx, colIx);
         if (c != null) return c;
 
-        for (CellRangeAddress mergedRegion : sheet.getMergedRegions()) {
-            if (mergedRegion.isInRange(rowIx, colIx)) {
-                // The cell wanted is in this merged range
-                // Return the primary (top-left) cell for the range
-                Row r = sheet.getRow(mergedRegion.getFirstRow());
-                if (r != null) {
-                    return r.getCell(mergedRegion.getFirstColumn());
-                }
+        for (CellRangeAddress mergedRegion : sheet.getMergedRegionsContaining(rowIx, colIx)) {
+            // The cell wanted is in this merged range
+            // Return the primary (top-left) cell for the range
+            Row r = sheet.getRow(mergedRegion.getFirstRow());
+            if (r != null) {
+                return r.getCell(mergedRegion.getFirstColumn());
             }
         }
 
@@ -0,0 +1,228 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.util;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Adapts a sequence of {@link ByteBuffer}s, e.g. memory mapped file regions, to {@link LittleEndianInput}.
+ * <p>
+ * The values are read directly from the buffers, without copying them through an intermediate
+ * array. Only values which span two buffers are assembled from their parts.
+ * The positions and byte orders of the given buffers are not changed.
+ *
+ * @since POI 5.0.0
+ */
+public class LittleEndianByteBufferInputStream extends InputStream implements LittleEndianInput {
+    private final ByteBuffer[] buffers;
+    private int index;
+    private ByteBuffer current;
+    private int remaining;
+
+    private int markIndex;
+    private int markPosition;
+    private int markRemaining;
+
+    /** holds values which span two buffers */
+    private final byte[] split = new byte[LittleEndianConsts.LONG_SIZE];
+    private final ByteBuffer splitBuffer = ByteBuffer.wrap(split).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Creates a stream over the remaining bytes of the buffers
+     *
+     * @param buffers the buffers, which are read in order and are not copied
+     */
+    public LittleEndianByteBufferInputStream(ByteBuffer... buffers) {
+        this.buffers = new ByteBuffer[buffers.length];
+        long total = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            this.buffers[i] = buffers[i].slice().order(ByteOrder.LITTLE_ENDIAN);
+            total += buffers[i].remaining();
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The buffers exceed the maximum stream size");
+        }
+        remaining = (int)total;
+        current = (buffers.length == 0) ? ByteBuffer.allocate(0) : this.buffers[0];
+    }
+
+    protected void checkPosition(int i) {
+        if (i > remaining) {
+            throw new RuntimeException("Buffer overrun, having " + remaining + " bytes left in the stream, " +
+                "but trying to increment position by " + i);
+        }
+    }
+
+    /**
+     * Moves to the next buffer, if the current one is exhausted
+     */
+    private void nextBuffer() {
+        while (!current.hasRemaining() && index + 1 < buffers.length) {
+            current = buffers[++index];
+        }
+    }
+
+    /**
+     * @return the buffer to read a value of the given size from
+     */
+    private ByteBuffer buffer(int size) {
+        checkPosition(size);
+        remaining -= size;
+        nextBuffer();
+        if (current.remaining() >= size) {
+            return current;
+        }
+        // the value spans two buffers
+        readSplit(split, 0, size);
+        splitBuffer.clear();
+        return splitBuffer;
+    }
+
+    private void readSplit(byte[] b, int off, int len) {
+        while (len > 0) {
+            nextBuffer();
+            int count = Math.min(len, current.remaining());
+            current.get(b, off, count);
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public int available() {
+        return remaining;
+    }
+
+    @Override
+    public int read() {
+        return (remaining == 0) ? -1 : (buffer(1).get() & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (remaining == 0) {
+            return -1;
+        }
+        int count = Math.min(len, remaining);
+        readFully(b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        int count = (int)Math.min(Math.max(n, 0), remaining);
+        remaining -= count;
+        for (int left = count; left > 0; ) {
+            nextBuffer();
+            int step = Math.min(left, current.remaining());
+            current.position(current.position() + step);
+            left -= step;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        markIndex = index;
+        markPosition = current.position();
+        markRemaining = remaining;
+    }
+
+    @Override
+    public synchronized void reset() {
+        for (int i = markIndex + 1; i <= index; i++) {
+            buffers[i].position(0);
+        }
+        index = markIndex;
+        current = (buffers.length == 0) ? current : buffers[index];
+        current.position(markPosition);
+        remaining = markRemaining;
+    }
+
+    @Override
+    public byte readByte() {
+        return buffer(LittleEndianConsts.BYTE_SIZE).get();
+    }
+
+    @Override
+    public int readUByte() {
+        return readByte() & 0x00FF;
+    }
+
+    @Override
+    public short readShort() {
+        return buffer(LittleEndianConsts.SHORT_SIZE).getShort();
+    }
+
+    @Override
+    public int readUShort() {
+        return readShort() & 0x00FFFF;
+    }
+
+    @Override
+    public int readInt() {
+        return buffer(LittleEndianConsts.INT_SIZE).getInt();
+    }
+
+    public long readUInt() {
+        return readInt() & 0x00FFFFFFFFL;
+    }
+
+    @Override
+    public long readLong() {
+        return buffer(LittleEndianConsts.LONG_SIZE).getLong();
+    }
+
+    @Override
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    @Override
+    public void readFully(byte[] buffer) {
+        readFully(buffer, 0, buffer.length);
+    }
+
+    @Override
+    public void readFully(byte[] buffer, int off, int len) {
+        if (off < 0 || len < 0 || len > buffer.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        checkPosition(len);
+        remaining -= len;
+        readSplit(buffer, off, len);
+    }
+
+    @Override
+    public void readPlain(byte[] buffer, int off, int len) {
+        readFully(buffer, off, len);
+    }
+}
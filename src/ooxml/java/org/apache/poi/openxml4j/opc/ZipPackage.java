@@ -27,7 +27,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
@@ -44,6 +46,7 @@ import org.apache.poi.openxml4j.opc.internal.ContentTypeManager;
 import org.apache.poi.openxml4j.opc.internal.FileHelper;
 import org.apache.poi.openxml4j.opc.internal.MemoryPackagePart;
 import org.apache.poi.openxml4j.opc.internal.PartMarshaller;
+import org.apache.poi.openxml4j.opc.internal.TempFilePackagePart;
 import org.apache.poi.openxml4j.opc.internal.ZipContentTypeManager;
 import org.apache.poi.openxml4j.opc.internal.ZipHelper;
 import org.apache.poi.openxml4j.opc.internal.marshallers.ZipPartMarshaller;
@@ -65,12 +68,49 @@ public final class ZipPackage extends OPCPackage {
 
     private static final POILogger LOG = POILogFactory.getLogger(ZipPackage.class);
 
+    /** size in bytes, from which on new parts are stored in temporary files - negative values disable this */
+    private static long TEMP_FILE_PART_THRESHOLD = -1;
+
+    /**
+     * Sets the size of part data, from which on new or modified parts are stored in temporary files
+     * instead of a byte array. This allows to write parts which would otherwise exceed the heap or
+     * the 2GB array limit.<p>
+     *
+     * It defaults to -1, i.e. all parts are kept in memory. A value of 0 stores all
+     * non-empty parts in temporary files.
+     *
+     * @param threshold the size in bytes or -1 to keep all parts in memory
+     *
+     * @since POI 5.0.0
+     */
+    public static void setTempFilePackagePartThreshold(long threshold) {
+        TEMP_FILE_PART_THRESHOLD = threshold;
+    }
+
+    /**
+     * Returns the current threshold for storing parts in temporary files.
+     *
+     * See setTempFilePackagePartThreshold() for details.
+     *
+     * @return the size in bytes, or a negative value if all parts are kept in memory
+     *
+     * @since POI 5.0.0
+     */
+    public static long getTempFilePackagePartThreshold() {
+        return TEMP_FILE_PART_THRESHOLD;
+    }
+
     /**
      * Zip archive, as either a file on disk,
      *  or a stream
      */
     private final ZipEntrySource zipArchive;
 
+    /**
+     * Parts which might hold temporary files, which need to be removed on revert
+     */
+    private final Map<PackagePartName, TempFilePackagePart> tempFileParts = new HashMap<>();
+
     /**
      * Constructor. Creates a new, empty ZipPackage.
      */
@@ -368,7 +408,13 @@ public final class ZipPackage extends OPCPackage {
         }
 
         try {
-            return new MemoryPackagePart(this, partName, contentType, loadRelationships);
+            final long threshold = TEMP_FILE_PART_THRESHOLD;
+            if (threshold < 0) {
+                return new MemoryPackagePart(this, partName, contentType, loadRelationships);
+            }
+            TempFilePackagePart part = new TempFilePackagePart(this, partName, contentType, loadRelationships, threshold);
+            tempFileParts.put(partName, part);
+            return part;
         } catch (InvalidFormatException e) {
             LOG.log(POILogger.WARN, e);
             return null;
@@ -386,6 +432,12 @@ public final class ZipPackage extends OPCPackage {
         if (partName == null) {
             throw new IllegalArgumentException("partUri");
         }
+
+        // free the temporary file of a spilled part
+        PackagePart part = tempFileParts.remove(partName);
+        if (part != null) {
+            part.clear();
+        }
     }
 
     /**
@@ -465,6 +517,12 @@ public final class ZipPackage extends OPCPackage {
 	 */
 	@Override
 	protected void revertImpl() {
+		// free the temporary files of spilled parts
+		for (PackagePart part : tempFileParts.values()) {
+			part.clear();
+		}
+		tempFileParts.clear();
+
 		try {
 			if (this.zipArchive != null) {
                 this.zipArchive.close();
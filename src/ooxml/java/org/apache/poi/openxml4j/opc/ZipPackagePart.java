@@ -107,6 +107,22 @@ public class ZipPackagePart extends PackagePart {
 				.getInputStream(zipEntry);
 	}
 
+	/**
+	 * Get the raw, still compressed content of this part's zip entry.
+	 * As a zip part is replaced by a memory part as soon as it's written to,
+	 * the returned data always reflects the unmodified part.
+	 *
+	 * @return the compressed stream of this part zip entry, or {@code null}
+	 *         if the package source doesn't provide raw access (e.g. when the
+	 *         package was opened from an InputStream)
+	 *
+	 * @since POI 5.0.0
+	 */
+	public InputStream getRawInputStream() throws IOException {
+		return ((ZipPackage) _container).getZipArchive()
+				.getRawInputStream(zipEntry);
+	}
+
 	/**
 	 * Implementation of the getOutputStream(). Return <b>null</b>. Normally
 	 * will never be called since the MemoryPackage is use instead.
@@ -0,0 +1,223 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.openxml4j.opc.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackagePartName;
+import org.apache.poi.openxml4j.opc.internal.marshallers.ZipPartMarshaller;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.POILogFactory;
+import org.apache.poi.util.POILogger;
+import org.apache.poi.util.TempFile;
+
+/**
+ * Package part, which keeps its data in memory until it grows beyond a given
+ * threshold and then spills it into a temporary file.<p>
+ *
+ * This allows to generate parts which are too big for a byte array or
+ * would otherwise need a multiple of their size in heap.
+ *
+ * @see org.apache.poi.openxml4j.opc.ZipPackage#setTempFilePackagePartThreshold(long)
+ * @since POI 5.0.0
+ */
+public final class TempFilePackagePart extends PackagePart {
+    private static final POILogger LOG = POILogFactory.getLogger(TempFilePackagePart.class);
+
+    /** size in bytes, from which on the data is stored in a temporary file */
+    private final long threshold;
+
+    /** Storage for the part data, as long as it's below the threshold */
+    private byte[] data;
+
+    /** Storage for the part data, once the threshold was exceeded */
+    private File tempFile;
+
+    /**
+     * Constructor.
+     *
+     * @param pack
+     *            The owner package.
+     * @param partName
+     *            The part name.
+     * @param contentType
+     *            The content type.
+     * @param loadRelationships
+     *            Specify if the relationships will be loaded.
+     * @param threshold
+     *            The size in bytes from which on the data is stored in a temporary file.
+     * @throws InvalidFormatException
+     *             If the specified URI is not OPC compliant.
+     */
+    public TempFilePackagePart(OPCPackage pack, PackagePartName partName,
+            String contentType, boolean loadRelationships, long threshold)
+            throws InvalidFormatException {
+        super(pack, partName, new ContentType(contentType), loadRelationships);
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected InputStream getInputStreamImpl() throws IOException {
+        if (tempFile != null) {
+            return new FileInputStream(tempFile);
+        }
+        return new ByteArrayInputStream(data == null ? new byte[0] : data);
+    }
+
+    @Override
+    protected OutputStream getOutputStreamImpl() {
+        return new SpillingOutputStream();
+    }
+
+    @Override
+    public long getSize() {
+        if (tempFile != null) {
+            return tempFile.length();
+        }
+        return data == null ? 0 : data.length;
+    }
+
+    /**
+     * @return true, if the part data is stored in a temporary file
+     */
+    public boolean isFileBacked() {
+        return tempFile != null;
+    }
+
+    @Override
+    public void clear() {
+        data = null;
+        if (tempFile != null) {
+            if (!tempFile.delete()) {
+                LOG.log(POILogger.WARN, "The temporary file: '" + tempFile.getAbsolutePath() + "' cannot be deleted.");
+            }
+            tempFile = null;
+        }
+    }
+
+    @Override
+    public boolean save(OutputStream os) throws OpenXML4JException {
+        return new ZipPartMarshaller().marshall(this, os);
+    }
+
+    @Override
+    public boolean load(InputStream ios) throws InvalidFormatException {
+        clear();
+        try (OutputStream os = getOutputStreamImpl()) {
+            IOUtils.copy(ios, os);
+        } catch (IOException e) {
+            throw new InvalidFormatException(e.getMessage());
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        // Do nothing
+    }
+
+    @Override
+    public void flush() {
+        // Do nothing
+    }
+
+    /**
+     * Appends to the part data and moves it into a temporary file,
+     * as soon as the threshold is exceeded
+     */
+    private final class SpillingOutputStream extends OutputStream {
+        private ByteArrayOutputStream buff;
+        private OutputStream fileOut;
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureCapacity(1).write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureCapacity(len).write(b, off, len);
+        }
+
+        /**
+         * Close this stream and flush the content.
+         */
+        @Override
+        public void close() throws IOException {
+            flush();
+            if (fileOut != null) {
+                fileOut.close();
+                fileOut = null;
+            }
+        }
+
+        /**
+         * Flush this output stream and make the written data available to the part.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (fileOut != null) {
+                fileOut.flush();
+            } else if (buff != null) {
+                data = buff.toByteArray();
+            }
+        }
+
+        private OutputStream ensureCapacity(int len) throws IOException {
+            if (fileOut != null) {
+                return fileOut;
+            }
+
+            if (buff == null) {
+                if (tempFile != null) {
+                    // continue a previously spilled part
+                    fileOut = new BufferedOutputStream(new FileOutputStream(tempFile, true));
+                    return fileOut;
+                }
+                buff = new ByteArrayOutputStream();
+                if (data != null) {
+                    buff.write(data);
+                }
+            }
+
+            if (buff.size() + (long)len <= threshold) {
+                return buff;
+            }
+
+            // spill the buffered bytes into the temporary file and continue there
+            tempFile = TempFile.createTempFile("poi-package-part", ".tmp");
+            fileOut = new BufferedOutputStream(new FileOutputStream(tempFile));
+            buff.writeTo(fileOut);
+            buff = null;
+            data = null;
+            return fileOut;
+        }
+    }
+}
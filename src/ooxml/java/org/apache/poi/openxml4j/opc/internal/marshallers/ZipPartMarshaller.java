@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.zip.ZipEntry;
 
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
@@ -33,6 +34,7 @@ import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
 import org.apache.poi.openxml4j.opc.PackagingURIHelper;
 import org.apache.poi.openxml4j.opc.StreamHelper;
 import org.apache.poi.openxml4j.opc.TargetMode;
+import org.apache.poi.openxml4j.opc.ZipPackagePart;
 import org.apache.poi.openxml4j.opc.internal.PartMarshaller;
 import org.apache.poi.openxml4j.opc.internal.ZipHelper;
 import org.apache.poi.ooxml.util.DocumentHelper;
@@ -81,14 +83,17 @@ public final class ZipPartMarshaller implements PartMarshaller {
 				.getZipItemNameFromOPCName(part.getPartName().getURI()
 						.getPath()));
 		try {
-			// Create next zip entry
-			zos.putArchiveEntry(partEntry);
-
-			// Saving data in the ZIP file
-			try (final InputStream ins = part.getInputStream()) {
-				IOUtils.copy(ins, zos);
-			} finally {
-				zos.closeArchiveEntry();
+			// Unmodified parts of a file based package are copied without re-compressing them
+			if (!(part instanceof ZipPackagePart) || !copyRawEntry((ZipPackagePart)part, partEntry, zos)) {
+				// Create next zip entry
+				zos.putArchiveEntry(partEntry);
+
+				// Saving data in the ZIP file
+				try (final InputStream ins = part.getInputStream()) {
+					IOUtils.copy(ins, zos);
+				} finally {
+					zos.closeArchiveEntry();
+				}
 			}
 		} catch (IOException ioe) {
 			logger.log(POILogger.ERROR,"Cannot write: " + part.getPartName() + ": in ZIP",
@@ -108,6 +113,39 @@ public final class ZipPartMarshaller implements PartMarshaller {
 		return true;
 	}
 
+	/**
+	 * Copy the compressed data of an unmodified zip part directly into the target stream.
+	 *
+	 * @param part the source part
+	 * @param partEntry the target entry, which will receive the compression properties of the source entry
+	 * @param zos the target stream
+	 * @return true if the raw data was copied, false if the part needs to be saved via its uncompressed data
+	 * @throws IOException if the raw data can't be read or written
+	 */
+	private static boolean copyRawEntry(ZipPackagePart part, ZipArchiveEntry partEntry, ZipArchiveOutputStream zos)
+	throws IOException {
+		final ZipArchiveEntry srcEntry = part.getZipArchive();
+		final int method = srcEntry.getMethod();
+		if ((method != ZipEntry.STORED && method != ZipEntry.DEFLATED) || srcEntry.getCrc() == -1 ||
+			srcEntry.getSize() == -1 || srcEntry.getCompressedSize() == -1 ||
+			srcEntry.getGeneralPurposeBit().usesEncryption()) {
+			return false;
+		}
+
+		try (final InputStream raw = part.getRawInputStream()) {
+			if (raw == null) {
+				return false;
+			}
+			partEntry.setMethod(method);
+			partEntry.setCrc(srcEntry.getCrc());
+			partEntry.setSize(srcEntry.getSize());
+			partEntry.setCompressedSize(srcEntry.getCompressedSize());
+			partEntry.setTime(srcEntry.getTime());
+			zos.addRawArchiveEntry(partEntry, raw);
+		}
+		return true;
+	}
+
 	/**
 	 * Save relationships into the part.
 	 *
@@ -50,6 +50,20 @@ public interface ZipEntrySource extends Closeable {
 	 *  data that makes up the entry
 	 */
 	InputStream getInputStream(ZipArchiveEntry entry) throws IOException;
+
+	/**
+	 * Returns an InputStream of the raw, still compressed data
+	 *  that makes up the entry, so it can be copied to another
+	 *  archive without inflating and deflating it again
+	 *
+	 * @return the raw stream or {@code null} if this source
+	 *  doesn't provide access to the compressed data
+	 *
+	 * @since POI 5.0.0
+	 */
+	default InputStream getRawInputStream(ZipArchiveEntry entry) throws IOException {
+		return null;
+	}
 	
 	/**
 	 * Indicates we are done with reading, and 
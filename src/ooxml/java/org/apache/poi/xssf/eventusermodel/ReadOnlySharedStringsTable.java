@@ -78,6 +78,8 @@ import org.xml.sax.helpers.DefaultHandler;
 &lt;/sst>
 * </pre>
  *
+ * <p>Once parsed, the table isn't modified anymore, so an instance can be
+ *  shared by multiple threads, e.g. via {@link XSSFReader#processSheets}.
  */
 public class ReadOnlySharedStringsTable extends DefaultHandler implements SharedStrings {
 
@@ -0,0 +1,476 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.eventusermodel;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.POILogFactory;
+import org.apache.poi.util.POILogger;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.Styles;
+
+/**
+ * Reads a single sheet part with multiple threads.<p>
+ *
+ * The sheet part is inflated once into a temporary file. The content of the sheetData
+ * element is then split at &lt;row&gt; boundaries into chunks, which are parsed concurrently
+ * by {@link XSSFSheetRowReader}s - each chunk is framed by the original document header and trailer,
+ * so namespace declarations stay intact.<p>
+ *
+ * Limitations: the sheet part needs to be UTF-8 encoded - otherwise the sheet is read by one thread -
+ * and all rows need the "r" attribute with the row number, which Excel always writes.
+ *
+ * @since POI 5.0.0
+ */
+public class XSSFParallelSheetReader implements Closeable {
+    private static final POILogger LOG = POILogFactory.getLogger(XSSFParallelSheetReader.class);
+
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+    private static final int QUEUE_SIZE = 1024;
+    private static final byte[] SHEET_DATA = "sheetData".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ROW = "row".getBytes(StandardCharsets.US_ASCII);
+
+    /** marker for the end of a chunk in ordered mode */
+    private static final Object END_OF_CHUNK = new Object();
+
+    /**
+     * Callback for the parsed rows
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+        /**
+         * Receives a parsed row. In ordered mode the rows are detached copies,
+         * in unordered mode the row view is reused after this method returns.
+         *
+         * @param row the row
+         * @throws IOException to abort the processing
+         */
+        void accept(XSSFSheetRowReader.RowView row) throws IOException;
+    }
+
+    private final SharedStrings strings;
+    private final Styles styles;
+    private final File tempFile;
+    private final FileChannel channel;
+    private final long fileSize;
+
+    /** end of the sheetData start tag - or -1, if the sheet can't be split */
+    private long contentStart = -1;
+    /** start of the sheetData end tag */
+    private long contentEnd = -1;
+
+    /**
+     * Creates a reader for a sheet part. The sheet data is copied into a temporary file,
+     * which is removed on {@link #close()}
+     *
+     * @param sheetData the sheet data, e.g. from {@link XSSFReader.SheetIterator#next()} - it will be closed
+     * @param strings the shared strings table, which is shared by all threads
+     * @param styles the styles table, which is shared by all threads - may be {@code null}
+     * @throws IOException if the sheet data can't be copied
+     */
+    public XSSFParallelSheetReader(InputStream sheetData, SharedStrings strings, Styles styles) throws IOException {
+        this.strings = strings;
+        this.styles = styles;
+        tempFile = TempFile.createTempFile("poi-sheet", ".xml");
+        try (InputStream is = sheetData; OutputStream os = new FileOutputStream(tempFile)) {
+            IOUtils.copy(is, os);
+        }
+        channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.READ);
+        fileSize = channel.size();
+        findSheetData();
+    }
+
+    /**
+     * Parses the sheet with the given parallelism and delivers the rows to the consumer.<p>
+     *
+     * In ordered mode, the consumer is called by the calling thread in document order, while
+     * the following chunks are parsed in the background into bounded queues. The executor needs
+     * to start its tasks in submission order, like a {@link java.util.concurrent.ThreadPoolExecutor}.<p>
+     *
+     * In unordered mode, the consumer is called concurrently by the threads of the executor,
+     * i.e. it needs to be thread-safe. Within a chunk, the rows are still delivered in document order.
+     *
+     * @param executor the executor for the parsing tasks
+     * @param parallelism the maximum number of chunks
+     * @param ordered if true, the rows are delivered in document order
+     * @param consumer the consumer of the rows
+     * @throws IOException if parsing fails or the consumer throws an IOException
+     */
+    public void readRows(Executor executor, int parallelism, boolean ordered, RowConsumer consumer) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism needs to be positive, but was " + parallelism);
+        }
+        final long[] bounds = findChunkBounds(parallelism);
+        if (ordered) {
+            readOrdered(executor, bounds, consumer);
+        } else {
+            readUnordered(executor, bounds, consumer);
+        }
+    }
+
+    private void readUnordered(Executor executor, long[] bounds, RowConsumer consumer) throws IOException {
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < bounds.length - 1; i++) {
+            final InputStream chunk = openChunk(bounds[i], bounds[i + 1]);
+            tasks.add(CompletableFuture.runAsync(() -> {
+                try (XSSFSheetRowReader reader = new XSSFSheetRowReader(chunk, strings, styles)) {
+                    XSSFSheetRowReader.RowView row;
+                    while ((row = reader.nextRow()) != null) {
+                        consumer.accept(row);
+                    }
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private void readOrdered(Executor executor, long[] bounds, RowConsumer consumer) throws IOException {
+        final int chunkCnt = bounds.length - 1;
+        final List<BlockingQueue<Object>> queues = new ArrayList<>(chunkCnt);
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>(chunkCnt);
+
+        try {
+            for (int i = 0; i < chunkCnt; i++) {
+                final InputStream chunk = openChunk(bounds[i], bounds[i + 1]);
+                final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+                queues.add(queue);
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    Object last = END_OF_CHUNK;
+                    try (XSSFSheetRowReader reader = new XSSFSheetRowReader(chunk, strings, styles)) {
+                        XSSFSheetRowReader.RowView row;
+                        while ((row = reader.nextRow()) != null) {
+                            if (!offer(queue, row.copy(), cancelled)) {
+                                return;
+                            }
+                        }
+                    } catch (Throwable e) {
+                        // errors are passed on too, otherwise the caller would wait for the end of the chunk forever
+                        last = e;
+                    }
+                    offer(queue, last, cancelled);
+                }, executor));
+            }
+
+            for (BlockingQueue<Object> queue : queues) {
+                for (;;) {
+                    Object item = queue.take();
+                    if (item == END_OF_CHUNK) {
+                        break;
+                    }
+                    if (item instanceof Throwable) {
+                        throw unwrap((Throwable)item);
+                    }
+                    consumer.accept((XSSFSheetRowReader.RowView)item);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for parsed rows", e);
+        } finally {
+            cancelled.set(true);
+            queues.forEach(BlockingQueue::clear);
+            // the workers stop at their next row, so the chunks aren't read anymore, when the caller closes the file
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).handle((v, t) -> null).join();
+        }
+    }
+
+    private static boolean offer(BlockingQueue<Object> queue, Object item, AtomicBoolean cancelled) {
+        try {
+            for (;;) {
+                if (cancelled.get()) {
+                    return false;
+                }
+                if (queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static IOException unwrap(Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException)cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException)cause;
+        } else if (cause instanceof Error) {
+            throw (Error)cause;
+        }
+        throw new POIXMLException(cause);
+    }
+
+    /**
+     * Determines the start offsets of the chunks within the sheetData content
+     *
+     * @return the chunk offsets, the last entry is the end of the last chunk
+     */
+    long[] findChunkBounds(int parallelism) throws IOException {
+        if (contentStart == -1) {
+            // can't split, parse the whole file as one chunk
+            return new long[]{ 0, fileSize };
+        }
+
+        final long[] bounds = new long[parallelism + 1];
+        int cnt = 0;
+        bounds[cnt++] = contentStart;
+        final long chunkSize = (contentEnd - contentStart) / parallelism;
+        for (int i = 1; i < parallelism; i++) {
+            long target = Math.max(contentStart + i * chunkSize, bounds[cnt - 1] + 1);
+            long rowStart = findTag(target, contentEnd, ROW, false);
+            if (rowStart == -1) {
+                break;
+            }
+            if (rowStart > bounds[cnt - 1]) {
+                bounds[cnt++] = rowStart;
+            }
+        }
+        bounds[cnt++] = contentEnd;
+        return Arrays.copyOf(bounds, cnt);
+    }
+
+    /**
+     * Opens a stream consisting of the document header up to the sheetData start tag,
+     * the chunk and the document trailer starting with the sheetData end tag
+     */
+    private InputStream openChunk(long start, long end) {
+        if (contentStart == -1) {
+            return new ChannelInputStream(channel, start, end);
+        }
+        return new SequenceInputStream(
+            new SequenceInputStream(
+                new ChannelInputStream(channel, 0, contentStart),
+                new ChannelInputStream(channel, start, end)),
+            new ChannelInputStream(channel, contentEnd, fileSize));
+    }
+
+    private void findSheetData() throws IOException {
+        if (!isUTF8()) {
+            LOG.log(POILogger.INFO, "Sheet part isn't UTF-8 encoded - it will be parsed in one chunk");
+            return;
+        }
+
+        long openTag = findTag(0, fileSize, SHEET_DATA, false);
+        if (openTag == -1) {
+            return;
+        }
+        // find the end of the start tag
+        long pos = openTag;
+        int prev = -1;
+        ByteBuffer bb = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        outer:
+        while (pos < fileSize) {
+            bb.clear();
+            int read = channel.read(bb, pos);
+            if (read <= 0) {
+                return;
+            }
+            for (int i = 0; i < read; i++) {
+                int b = bb.get(i);
+                if (b == '>') {
+                    if (prev == '/') {
+                        // empty sheetData element
+                        return;
+                    }
+                    pos += i + 1;
+                    break outer;
+                }
+                prev = b;
+            }
+            pos += read;
+        }
+
+        long closeTag = findTag(pos, fileSize, SHEET_DATA, true);
+        if (closeTag == -1) {
+            return;
+        }
+        contentStart = pos;
+        contentEnd = closeTag;
+    }
+
+    private boolean isUTF8() throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(128);
+        int read = Math.max(channel.read(bb, 0), 0);
+        byte[] head = bb.array();
+        if (read >= 2 && (head[0] == 0 || head[1] == 0 || (head[0] & 0xFE) == 0xFE)) {
+            // UTF-16 / UTF-32 byte order marks or zero bytes
+            return false;
+        }
+        String decl = new String(head, 0, read, StandardCharsets.US_ASCII);
+        int end = decl.indexOf("?>");
+        if (!decl.contains("<?xml") || end == -1) {
+            // without declaration, UTF-8 is the default
+            return true;
+        }
+        decl = decl.substring(0, end).toUpperCase(Locale.ROOT);
+        int enc = decl.indexOf("ENCODING");
+        return enc == -1 || decl.indexOf("UTF-8", enc) != -1;
+    }
+
+    /**
+     * Finds the next start or end tag with the given local name, which can have any namespace prefix
+     *
+     * @return the offset of the '&lt;' of the tag or -1 if not found
+     */
+    private long findTag(long from, long to, byte[] localName, boolean endTag) throws IOException {
+        // the overlap needs to cover a tag name incl. prefix, so a match across buffer boundaries isn't missed
+        final int overlap = 256;
+        final ByteBuffer bb = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        final byte[] buf = bb.array();
+        long pos = from;
+        while (pos < to) {
+            bb.clear();
+            if (to - pos < buf.length) {
+                bb.limit((int)(to - pos));
+            }
+            int read = channel.read(bb, pos);
+            if (read <= 0) {
+                return -1;
+            }
+            boolean last = pos + read >= to;
+            int scanEnd = last ? read : Math.max(read - overlap, 1);
+            for (int i = 0; i < scanEnd; i++) {
+                if (buf[i] == '<' && matchTag(buf, i + 1, read, localName, endTag)) {
+                    return pos + i;
+                }
+            }
+            if (last) {
+                return -1;
+            }
+            pos += scanEnd;
+        }
+        return -1;
+    }
+
+    private static boolean matchTag(byte[] buf, int pos, int len, byte[] localName, boolean endTag) {
+        if (pos < len && buf[pos] == '/') {
+            if (!endTag) {
+                return false;
+            }
+            pos++;
+        } else if (endTag) {
+            return false;
+        }
+        // skip a namespace prefix
+        int nameStart = pos;
+        for (int i = pos; i < len; i++) {
+            byte b = buf[i];
+            if (b == ':') {
+                nameStart = i + 1;
+                break;
+            }
+            if (b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '>' || b == '/') {
+                break;
+            }
+        }
+        int end = nameStart + localName.length;
+        if (end >= len) {
+            return false;
+        }
+        for (int i = 0; i < localName.length; i++) {
+            if (buf[nameStart + i] != localName[i]) {
+                return false;
+            }
+        }
+        byte b = buf[end];
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '>' || b == '/';
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            if (!tempFile.delete()) {
+                LOG.log(POILogger.WARN, "The temporary file: '" + tempFile.getAbsolutePath() + "' cannot be deleted.");
+            }
+        }
+    }
+
+    /**
+     * Thread-safe stream of a file region, using positional reads
+     */
+    private static final class ChannelInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long pos;
+
+        ChannelInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.pos = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : (b[0] & 0xFF);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (pos >= end) {
+                return -1;
+            }
+            int toRead = (int)Math.min(len, end - pos);
+            int read = channel.read(ByteBuffer.wrap(b, off, toRead), pos);
+            if (read > 0) {
+                pos += read;
+            }
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return (int)Math.min(Integer.MAX_VALUE, end - pos);
+        }
+    }
+}
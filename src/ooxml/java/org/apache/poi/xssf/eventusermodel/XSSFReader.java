@@ -24,10 +24,16 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 import javax.xml.parsers.ParserConfigurationException;
 
@@ -41,11 +47,16 @@ import org.apache.poi.openxml4j.opc.PackageRelationship;
 import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
 import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
 import org.apache.poi.openxml4j.opc.PackagingURIHelper;
+import org.apache.poi.ss.usermodel.CompiledDataFormatter;
 import org.apache.poi.util.POILogFactory;
 import org.apache.poi.util.POILogger;
 import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.Comments;
 import org.apache.poi.xssf.model.CommentsTable;
+import org.apache.poi.xssf.model.SharedStrings;
 import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.model.Styles;
 import org.apache.poi.xssf.model.StylesTable;
 import org.apache.poi.xssf.model.ThemesTable;
 import org.apache.poi.xssf.usermodel.XSSFDrawing;
@@ -196,6 +207,90 @@ public class XSSFReader {
         return new SheetIterator(workbookPart);
     }
 
+    /**
+     * Parses all worksheets concurrently, with one {@link XSSFSheetXMLHandler} per sheet.
+     * The shared strings and styles are only read while parsing and are used by all sheets,
+     * so they need to be immutable, e.g. a {@link ReadOnlySharedStringsTable} and the
+     * {@link StylesTable} returned by {@link #getStylesTable()}.<p>
+     *
+     * The handlers are created by the calling thread in sheet order, but their callbacks are
+     * invoked by the threads of the executor. Each sheet is processed by one task, so a handler
+     * doesn't need to be thread-safe as long as it isn't shared between sheets.
+     *
+     * @param executor the executor for the sheet parsing tasks
+     * @param strings the shared strings of the workbook
+     * @param styles the styles of the workbook, may be {@code null}
+     * @param handlerFactory creates the contents handler for the sheet with the given name
+     * @param formulasNotResults should formulas be output instead of their cached values
+     * @param <T> the type of the contents handlers
+     * @return the contents handlers keyed by sheet name and in sheet order,
+     *  after all sheets have been processed
+     *
+     * @throws IOException if reading a sheet fails
+     * @throws SAXException if parsing a sheet fails
+     *
+     * @since POI 5.0.0
+     */
+    public <T extends SheetContentsHandler> Map<String, T> processSheets(
+        Executor executor, SharedStrings strings, Styles styles,
+        Function<String, T> handlerFactory, boolean formulasNotResults)
+    throws IOException, SAXException {
+        final Map<String, T> handlers = new LinkedHashMap<>();
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        // the formatter is shared by all sheets, but the XML parsers aren't thread-safe, so each sheet uses its own
+        final CompiledDataFormatter formatter = new CompiledDataFormatter();
+        final SheetIterator iter = new SheetIterator(workbookPart);
+        // the sheets, which haven't been started, are skipped, if not all sheets could be submitted
+        final AtomicBoolean aborted = new AtomicBoolean();
+        try {
+            while (iter.hasNext()) {
+                // the sheet is only opened by its task, so no stream is left open, if submitting fails
+                final PackagePart sheetPart = iter.nextSheetPart();
+                final String sheetName = iter.getSheetName();
+                final Comments comments = iter.getSheetComments();
+                final T sheetHandler = handlerFactory.apply(sheetName);
+                handlers.put(sheetName, sheetHandler);
+
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    if (aborted.get()) {
+                        return;
+                    }
+                    XSSFSheetXMLHandler handler = new XSSFSheetXMLHandler(
+                        styles, comments, strings, sheetHandler, formatter, formulasNotResults);
+                    try (InputStream is = sheetPart.getInputStream()) {
+                        XMLReader xmlReader = XMLHelper.newXMLReader();
+                        xmlReader.setContentHandler(handler);
+                        xmlReader.parse(new InputSource(is));
+                    } catch (IOException | SAXException | ParserConfigurationException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+        } catch (RuntimeException | Error e) {
+            aborted.set(true);
+            // wait for the sheets, which are already parsed, so no handler is called after returning
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).handle((v, t) -> null).join();
+            throw e;
+        }
+
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            } else if (cause instanceof SAXException) {
+                throw (SAXException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new POIXMLException(cause);
+        }
+
+        return handlers;
+    }
+
     /**
      * Iterator over sheet data.
      */
@@ -304,17 +399,23 @@ public class XSSFReader {
          */
         @Override
         public InputStream next() {
-            xssfSheetRef = sheetIterator.next();
-
-            String sheetId = xssfSheetRef.getId();
             try {
-                PackagePart sheetPkg = sheetMap.get(sheetId);
-                return sheetPkg.getInputStream();
+                return nextSheetPart().getInputStream();
             } catch (IOException e) {
                 throw new POIXMLException(e);
             }
         }
 
+        /**
+         * Moves to the next sheet without opening its input stream
+         *
+         * @return the part of the next sheet
+         */
+        PackagePart nextSheetPart() {
+            xssfSheetRef = sheetIterator.next();
+            return getSheetPart();
+        }
+
         /**
          * Returns name of the current sheet
          *
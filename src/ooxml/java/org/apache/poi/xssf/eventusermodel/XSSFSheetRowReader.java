@@ -0,0 +1,603 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.eventusermodel;
+
+import static org.apache.poi.xssf.usermodel.XSSFRelation.NS_SPREADSHEETML;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.Styles;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+/**
+ * Pull based reader for the sheet#.xml part of a XSSF .xlsx file.<p>
+ *
+ * In contrast to the {@link XSSFSheetXMLHandler}, the caller asks for the next row,
+ * which makes it easy to process rows in batches or to stop early.
+ * The returned {@link RowView} is reused for all rows, i.e. its content is only valid
+ * until the next call to {@link #nextRow()}. Numeric values are parsed without creating
+ * intermediate strings and shared strings are only looked up, when their value is requested.
+ *
+ * <pre>
+ * XSSFReader r = new XSSFReader(pkg);
+ * ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+ * XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator)r.getSheetsData();
+ * while (iter.hasNext()) {
+ *     try (XSSFSheetRowReader reader = new XSSFSheetRowReader(iter.next(), strings, r.getStylesTable())) {
+ *         XSSFSheetRowReader.RowView row;
+ *         while ((row = reader.nextRow()) != null) {
+ *             for (int i = 0; i &lt; row.getCellCount(); i++) {
+ *                 ...
+ *             }
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * @since POI 5.0.0
+ */
+public class XSSFSheetRowReader implements Closeable {
+    /** exactly representable powers of ten */
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** the largest mantissa, which can be converted to double without loss */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private enum TextTarget { NONE, VALUE, FORMULA }
+
+    private final InputStream sheetData;
+    private final XMLStreamReader reader;
+    private final RowView row;
+
+    private int nextRowNum;
+    private boolean done;
+
+    /**
+     * Creates a reader for a sheet part
+     *
+     * @param sheetData the sheet data, e.g. from {@link XSSFReader.SheetIterator#next()}
+     * @param strings the shared strings table, may be {@code null} if the sheet doesn't use shared strings
+     * @param styles the styles table, may be {@code null} if no formatting is needed
+     * @throws IOException if the XML parser can't be created
+     */
+    public XSSFSheetRowReader(InputStream sheetData, SharedStrings strings, Styles styles) throws IOException {
+        this.sheetData = sheetData;
+        try {
+            reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheetData);
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to create XML reader for sheet data", e);
+        }
+        row = new RowView(strings, styles);
+    }
+
+    /**
+     * Advances to the next row of the sheet.
+     *
+     * @return the reused row view, filled with the content of the next row,
+     *  or {@code null} if the end of the sheet data was reached
+     * @throws IOException if the sheet data can't be parsed
+     */
+    public RowView nextRow() throws IOException {
+        if (done) {
+            return null;
+        }
+        try {
+            return parseRow() ? row : null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to parse sheet data", e);
+        }
+    }
+
+    private boolean parseRow() throws XMLStreamException {
+        boolean inRow = false, inInlineString = false;
+        TextTarget target = TextTarget.NONE;
+
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT: {
+                    if (!NS_SPREADSHEETML.equals(reader.getNamespaceURI())) {
+                        break;
+                    }
+                    String name = reader.getLocalName();
+                    if ("row".equals(name)) {
+                        String r = reader.getAttributeValue(null, "r");
+                        row.reset(r != null ? Integer.parseInt(r) - 1 : nextRowNum);
+                        inRow = true;
+                    } else if (!inRow) {
+                        break;
+                    } else if ("c".equals(name)) {
+                        row.startCell(reader.getAttributeValue(null, "r"),
+                            reader.getAttributeValue(null, "t"),
+                            reader.getAttributeValue(null, "s"));
+                    } else if ("v".equals(name)) {
+                        row.startText(false);
+                        target = TextTarget.VALUE;
+                    } else if ("f".equals(name)) {
+                        row.startText(true);
+                        target = TextTarget.FORMULA;
+                    } else if ("is".equals(name)) {
+                        row.startText(false);
+                        inInlineString = true;
+                    } else if ("t".equals(name) && inInlineString) {
+                        target = TextTarget.VALUE;
+                    }
+                    break;
+                }
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (target != TextTarget.NONE) {
+                        row.appendText(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT: {
+                    if (!NS_SPREADSHEETML.equals(reader.getNamespaceURI())) {
+                        break;
+                    }
+                    String name = reader.getLocalName();
+                    if ("row".equals(name)) {
+                        nextRowNum = row.rowNum + 1;
+                        return true;
+                    } else if ("sheetData".equals(name)) {
+                        done = true;
+                        return false;
+                    } else if ("c".equals(name) && inRow) {
+                        row.endCell();
+                    } else if ("v".equals(name) || "f".equals(name) || "t".equals(name)) {
+                        target = TextTarget.NONE;
+                    } else if ("is".equals(name)) {
+                        inInlineString = false;
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+
+        done = true;
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            sheetData.close();
+        }
+    }
+
+    /**
+     * Tries to convert a decimal number without going through a String.
+     * This only succeeds, if the result is exact, i.e. if both the mantissa
+     * and the power of ten are exactly representable as double.
+     *
+     * Otherwise the conversion falls back to {@link Double#parseDouble(String)}.
+     */
+    static double parseDouble(char[] buf, int start, int len) {
+        int pos = start, end = start + len;
+        boolean negative = false;
+        if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+            negative = buf[pos++] == '-';
+        }
+
+        long mantissa = 0;
+        int exp10 = 0, digits = 0;
+        boolean seenDot = false, exact = true;
+        for (; pos < end; pos++) {
+            char c = buf[pos];
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (mantissa <= (MAX_EXACT_MANTISSA - 9) / 10) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (seenDot) {
+                        exp10--;
+                    }
+                } else {
+                    exact = false;
+                    break;
+                }
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                break;
+            }
+        }
+
+        if (exact && digits > 0 && pos < end && (buf[pos] == 'E' || buf[pos] == 'e')) {
+            pos++;
+            boolean negExp = false;
+            if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+                negExp = buf[pos++] == '-';
+            }
+            int exp = 0, expDigits = 0;
+            while (pos < end && buf[pos] >= '0' && buf[pos] <= '9' && exp < 1000) {
+                exp = exp * 10 + (buf[pos++] - '0');
+                expDigits++;
+            }
+            exact = expDigits > 0;
+            exp10 += negExp ? -exp : exp;
+        }
+
+        if (!exact || digits == 0 || pos != end || exp10 < -22 || exp10 > 22) {
+            return Double.parseDouble(new String(buf, start, len).trim());
+        }
+
+        double d = (double)mantissa;
+        if (exp10 > 0) {
+            d *= POW10[exp10];
+        } else if (exp10 < 0) {
+            d /= POW10[-exp10];
+        }
+        return negative ? -d : d;
+    }
+
+    /**
+     * Reusable view on the current row. All index based accessors refer to the
+     * n-th cell, which is present in the sheet data, use {@link #getColumnIndex(int)}
+     * to map it to the column.
+     */
+    public static final class RowView {
+        private final SharedStrings strings;
+        private final Styles styles;
+
+        private int rowNum;
+        private int cellCount;
+
+        private int[] columns = new int[16];
+        private CellType[] types = new CellType[16];
+        private CellType[] resultTypes = new CellType[16];
+        private double[] numbers = new double[16];
+        private int[] styleIdx = new int[16];
+        private int[] textStart = new int[16];
+        private int[] textLen = new int[16];
+        private int[] formulaStart = new int[16];
+        private int[] formulaLen = new int[16];
+
+        /** buffer for the raw text of all cells of the row */
+        private char[] text = new char[256];
+        private int textPos;
+
+        private String currentType;
+        private boolean inFormula;
+
+        private RowView(SharedStrings strings, Styles styles) {
+            this.strings = strings;
+            this.styles = styles;
+        }
+
+        /**
+         * Creates a detached copy of this row, which isn't modified by subsequent
+         * calls to {@link XSSFSheetRowReader#nextRow()}
+         *
+         * @return the copied row
+         */
+        public RowView copy() {
+            RowView rv = new RowView(strings, styles);
+            int len = Math.max(cellCount, 1);
+            rv.rowNum = rowNum;
+            rv.cellCount = cellCount;
+            rv.columns = Arrays.copyOf(columns, len);
+            rv.types = Arrays.copyOf(types, len);
+            rv.resultTypes = Arrays.copyOf(resultTypes, len);
+            rv.numbers = Arrays.copyOf(numbers, len);
+            rv.styleIdx = Arrays.copyOf(styleIdx, len);
+            rv.textStart = Arrays.copyOf(textStart, len);
+            rv.textLen = Arrays.copyOf(textLen, len);
+            rv.formulaStart = Arrays.copyOf(formulaStart, len);
+            rv.formulaLen = Arrays.copyOf(formulaLen, len);
+            rv.text = Arrays.copyOf(text, Math.max(textPos, 1));
+            rv.textPos = textPos;
+            return rv;
+        }
+
+        /**
+         * @return the (zero based) row number
+         */
+        public int getRowNum() {
+            return rowNum;
+        }
+
+        /**
+         * @return the number of cells, which are present in the sheet data of this row
+         */
+        public int getCellCount() {
+            return cellCount;
+        }
+
+        /**
+         * @param cell the index of the cell within this row
+         * @return the (zero based) column index of the cell
+         */
+        public int getColumnIndex(int cell) {
+            return columns[checkCell(cell)];
+        }
+
+        /**
+         * @param cell the index of the cell within this row
+         * @return the cell type - formula cells return {@link CellType#FORMULA}
+         */
+        public CellType getCellType(int cell) {
+            return types[checkCell(cell)];
+        }
+
+        /**
+         * @param cell the index of the cell within this row
+         * @return the type of the cached value, i.e. for non-formula cells the cell type
+         */
+        public CellType getCachedFormulaResultType(int cell) {
+            return resultTypes[checkCell(cell)];
+        }
+
+        /**
+         * @param cell the index of the cell within this row
+         * @return the style index of the cell
+         */
+        public int getStyleIndex(int cell) {
+            return styleIdx[checkCell(cell)];
+        }
+
+        /**
+         * @param cell the index of the cell within this row
+         * @return the numeric value or 0, if the cell value is not numeric
+         */
+        public double getNumericCellValue(int cell) {
+            return resultTypes[checkCell(cell)] == CellType.NUMERIC ? numbers[cell] : 0;
+        }
+
+        /**
+         * @param cell the index of the cell within this row
+         * @return the boolean value or false, if the cell value is not boolean
+         */
+        public boolean getBooleanCellValue(int cell) {
+            return resultTypes[checkCell(cell)] == CellType.BOOLEAN && numbers[cell] != 0;
+        }
+
+        /**
+         * @param cell the index of the cell within this row
+         * @return the index into the shared strings table, or -1 if the cell is not a shared string
+         */
+        public int getSharedStringIndex(int cell) {
+            return textLen[checkCell(cell)] == -1 ? (int)numbers[cell] : -1;
+        }
+
+        /**
+         * Returns the string value of the cell. Shared strings are looked up at this point,
+         * other values are created from the raw cell content.
+         *
+         * @param cell the index of the cell within this row
+         * @return the string value or an empty string, if the cell is blank
+         */
+        public String getStringCellValue(int cell) {
+            checkCell(cell);
+            if (textLen[cell] == -1) {
+                return strings == null ? "" : strings.getItemAt((int)numbers[cell]).getString();
+            }
+            return new String(text, textStart[cell], textLen[cell]);
+        }
+
+        /**
+         * Appends the raw content of the cell, i.e. without looking up shared strings
+         *
+         * @param cell the index of the cell within this row
+         * @param sb the target buffer
+         * @return the target buffer
+         */
+        public StringBuilder appendRawValue(int cell, StringBuilder sb) {
+            checkCell(cell);
+            if (textLen[cell] == -1) {
+                return sb.append((int)numbers[cell]);
+            }
+            return sb.append(text, textStart[cell], textLen[cell]);
+        }
+
+        /**
+         * @param cell the index of the cell within this row
+         * @return the formula of the cell or {@code null} if it's not a formula cell
+         */
+        public String getCellFormula(int cell) {
+            checkCell(cell);
+            return types[cell] == CellType.FORMULA ? new String(text, formulaStart[cell], formulaLen[cell]) : null;
+        }
+
+        /**
+         * Formats the cell value like {@link XSSFSheetXMLHandler} does
+         *
+         * @param cell the index of the cell within this row
+         * @param formatter the formatter for numeric values
+         * @return the formatted value
+         */
+        public String formatCellValue(int cell, DataFormatter formatter) {
+            switch (resultTypes[checkCell(cell)]) {
+                case BOOLEAN:
+                    return numbers[cell] != 0 ? "TRUE" : "FALSE";
+                case ERROR:
+                    return "ERROR:" + getStringCellValue(cell);
+                case NUMERIC:
+                    XSSFCellStyle style = null;
+                    if (styles != null) {
+                        if (styleIdx[cell] >= 0) {
+                            style = styles.getStyleAt(styleIdx[cell]);
+                        } else if (styles.getNumCellStyles() > 0) {
+                            style = styles.getStyleAt(0);
+                        }
+                    }
+                    if (style != null) {
+                        short formatIndex = style.getDataFormat();
+                        String formatString = style.getDataFormatString();
+                        if (formatString == null) {
+                            formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+                        }
+                        if (formatString != null) {
+                            return formatter.formatRawCellContents(numbers[cell], formatIndex, formatString);
+                        }
+                    }
+                    return new String(text, textStart[cell], textLen[cell]);
+                case BLANK:
+                    return "";
+                default:
+                    return getStringCellValue(cell);
+            }
+        }
+
+        private int checkCell(int cell) {
+            if (cell < 0 || cell >= cellCount) {
+                throw new IndexOutOfBoundsException("Cell index " + cell + " is not in the range 0.." + (cellCount-1));
+            }
+            return cell;
+        }
+
+        private void reset(int rowNum) {
+            this.rowNum = rowNum;
+            cellCount = 0;
+            textPos = 0;
+        }
+
+        private void startCell(String ref, String type, String style) {
+            if (cellCount == columns.length) {
+                int len = cellCount * 2;
+                columns = Arrays.copyOf(columns, len);
+                types = Arrays.copyOf(types, len);
+                resultTypes = Arrays.copyOf(resultTypes, len);
+                numbers = Arrays.copyOf(numbers, len);
+                styleIdx = Arrays.copyOf(styleIdx, len);
+                textStart = Arrays.copyOf(textStart, len);
+                textLen = Arrays.copyOf(textLen, len);
+                formulaStart = Arrays.copyOf(formulaStart, len);
+                formulaLen = Arrays.copyOf(formulaLen, len);
+            }
+
+            int col = 0;
+            if (ref != null) {
+                for (int i = 0; i < ref.length(); i++) {
+                    char c = ref.charAt(i);
+                    if (c < 'A' || c > 'Z') {
+                        break;
+                    }
+                    col = col * 26 + (c - 'A' + 1);
+                }
+                col--;
+            } else {
+                col = (cellCount == 0) ? 0 : columns[cellCount - 1] + 1;
+            }
+
+            int c = cellCount;
+            columns[c] = col;
+            styleIdx[c] = style != null ? Integer.parseInt(style) : -1;
+            types[c] = CellType.BLANK;
+            resultTypes[c] = CellType.BLANK;
+            numbers[c] = 0;
+            textStart[c] = textPos;
+            textLen[c] = 0;
+            formulaStart[c] = textPos;
+            formulaLen[c] = 0;
+            currentType = type;
+        }
+
+        private void startText(boolean formula) {
+            int c = cellCount;
+            inFormula = formula;
+            if (formula) {
+                types[c] = CellType.FORMULA;
+                formulaStart[c] = textPos;
+                formulaLen[c] = 0;
+            } else {
+                textStart[c] = textPos;
+                textLen[c] = 0;
+                // an empty value element still denotes a value
+                resultTypes[c] = CellType.STRING;
+            }
+        }
+
+        private void appendText(char[] ch, int start, int length) {
+            if (textPos + length > text.length) {
+                text = Arrays.copyOf(text, Math.max(text.length * 2, textPos + length));
+            }
+            System.arraycopy(ch, start, text, textPos, length);
+            textPos += length;
+            if (inFormula) {
+                formulaLen[cellCount] += length;
+            } else {
+                textLen[cellCount] += length;
+            }
+        }
+
+        private void endCell() {
+            int c = cellCount;
+            inFormula = false;
+            boolean hasValue = resultTypes[c] != CellType.BLANK;
+            CellType resultType;
+            if (!hasValue) {
+                resultType = CellType.BLANK;
+            } else if ("s".equals(currentType)) {
+                resultType = CellType.STRING;
+                numbers[c] = parseInt(text, textStart[c], textLen[c]);
+                // marks the shared string index in numbers[c]
+                textLen[c] = -1;
+            } else if ("inlineStr".equals(currentType) || "str".equals(currentType) || "d".equals(currentType)) {
+                resultType = CellType.STRING;
+            } else if ("b".equals(currentType)) {
+                resultType = CellType.BOOLEAN;
+                numbers[c] = (textLen[c] > 0 && text[textStart[c]] != '0') ? 1 : 0;
+            } else if ("e".equals(currentType)) {
+                resultType = CellType.ERROR;
+            } else if (textLen[c] == 0) {
+                resultType = CellType.BLANK;
+            } else {
+                resultType = CellType.NUMERIC;
+                numbers[c] = parseDouble(text, textStart[c], textLen[c]);
+            }
+
+            resultTypes[c] = resultType;
+            if (types[c] != CellType.FORMULA) {
+                types[c] = resultType;
+            }
+            cellCount++;
+        }
+
+        private static int parseInt(char[] buf, int start, int len) {
+            int val = 0;
+            for (int i = start, end = start + len; i < end; i++) {
+                char c = buf[i];
+                if (c < '0' || c > '9') {
+                    return Integer.parseInt(new String(buf, start, len).trim());
+                }
+                val = val * 10 + (c - '0');
+            }
+            return val;
+        }
+    }
+}
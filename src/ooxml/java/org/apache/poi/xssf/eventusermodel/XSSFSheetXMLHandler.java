@@ -18,11 +18,14 @@ package org.apache.poi.xssf.eventusermodel;
 
 import static org.apache.poi.xssf.usermodel.XSSFRelation.NS_SPREADSHEETML;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
 
 import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.CompiledDataFormatter;
+import org.apache.poi.ss.usermodel.CompiledDataFormatter.CompiledFormat;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.RichTextString;
 import org.apache.poi.ss.util.CellAddress;
@@ -102,6 +105,11 @@ public class XSSFSheetXMLHandler extends DefaultHandler {
    private short formatIndex;
    private String formatString;
    private final DataFormatter formatter;
+   private final CompiledDataFormatter compiledFormatter;
+   // the compiled formats of the cell styles, looked up once per style
+   private CompiledFormat[] styleFormats = new CompiledFormat[0];
+   private CompiledFormat cellFormat;
+   private final StringBuilder formatted = new StringBuilder(64);
    private int rowNum;
    private int nextRowNum;      // some sheets do not have rowNums, Excel can read them so we should try to handle them correctly as well
    private String cellRef;
@@ -127,6 +135,36 @@ public class XSSFSheetXMLHandler extends DefaultHandler {
            SheetContentsHandler sheetContentsHandler,
            DataFormatter dataFormatter,
            boolean formulasNotResults) {
+       this(styles, comments, strings, sheetContentsHandler, dataFormatter, null, formulasNotResults);
+   }
+
+   /**
+    * Accepts objects needed while parsing.
+    *
+    * @param styles  Table of styles
+    * @param strings Table of shared strings
+    * @param dataFormatter the formatter of the numeric values, which can be shared with other handlers
+    *
+    * @since POI 5.0.0
+    */
+   public XSSFSheetXMLHandler(
+           Styles styles,
+           Comments comments,
+           SharedStrings strings,
+           SheetContentsHandler sheetContentsHandler,
+           CompiledDataFormatter dataFormatter,
+           boolean formulasNotResults) {
+       this(styles, comments, strings, sheetContentsHandler, null, dataFormatter, formulasNotResults);
+   }
+
+   private XSSFSheetXMLHandler(
+           Styles styles,
+           Comments comments,
+           SharedStrings strings,
+           SheetContentsHandler sheetContentsHandler,
+           DataFormatter dataFormatter,
+           CompiledDataFormatter compiledFormatter,
+           boolean formulasNotResults) {
        this.stylesTable = styles;
        this.comments = comments;
        this.sharedStringsTable = strings;
@@ -134,6 +172,7 @@ public class XSSFSheetXMLHandler extends DefaultHandler {
        this.formulasNotResults = formulasNotResults;
        this.nextDataType = xssfDataType.NUMBER;
        this.formatter = dataFormatter;
+       this.compiledFormatter = compiledFormatter;
        init(comments);
    }
    
@@ -163,7 +202,7 @@ public class XSSFSheetXMLHandler extends DefaultHandler {
            SharedStrings strings,
            SheetContentsHandler sheetContentsHandler,
            boolean formulasNotResults) {
-       this(styles, strings, sheetContentsHandler, new DataFormatter(), formulasNotResults);
+       this(styles, null, strings, sheetContentsHandler, new CompiledDataFormatter(), formulasNotResults);
    }
    
    private void init(Comments commentsTable) {
@@ -265,6 +304,7 @@ public class XSSFSheetXMLHandler extends DefaultHandler {
            this.nextDataType = xssfDataType.NUMBER;
            this.formatIndex = -1;
            this.formatString = null;
+           this.cellFormat = null;
            cellRef = attributes.getValue("r");
            String cellType = attributes.getValue("t");
            String cellStyleStr = attributes.getValue("s");
@@ -280,25 +320,65 @@ public class XSSFSheetXMLHandler extends DefaultHandler {
                nextDataType = xssfDataType.FORMULA;
            else {
                // Number, but almost certainly with a special style or format
-               XSSFCellStyle style = null;
+               int styleIndex = -1;
                if (stylesTable != null) {
                    if (cellStyleStr != null) {
-                       int styleIndex = Integer.parseInt(cellStyleStr);
-                       style = stylesTable.getStyleAt(styleIndex);
+                       styleIndex = Integer.parseInt(cellStyleStr);
                    } else if (stylesTable.getNumCellStyles() > 0) {
-                       style = stylesTable.getStyleAt(0);
+                       styleIndex = 0;
                    }
                }
-               if (style != null) {
-                   this.formatIndex = style.getDataFormat();
-                   this.formatString = style.getDataFormatString();
-                   if (this.formatString == null)
-                       this.formatString = BuiltinFormats.getBuiltinFormat(this.formatIndex);
+               if (styleIndex >= 0) {
+                   if (compiledFormatter != null) {
+                       cellFormat = getStyleFormat(styleIndex);
+                       this.formatIndex = (short)cellFormat.getFormatIndex();
+                       this.formatString = cellFormat.getFormatString();
+                   } else {
+                       XSSFCellStyle style = stylesTable.getStyleAt(styleIndex);
+                       if (style != null) {
+                           this.formatIndex = style.getDataFormat();
+                           this.formatString = style.getDataFormatString();
+                           if (this.formatString == null)
+                               this.formatString = BuiltinFormats.getBuiltinFormat(this.formatIndex);
+                       }
+                   }
                }
            }
        }
    }
 
+   private CompiledFormat getStyleFormat(int styleIndex) {
+       if (styleIndex >= stylesTable.getNumCellStyles()) {
+           // unknown styles are unformatted
+           return compiledFormatter.getFormat(-1, null);
+       }
+       if (styleIndex >= styleFormats.length) {
+           styleFormats = Arrays.copyOf(styleFormats, Math.max(styleIndex + 1, styleFormats.length * 2));
+       }
+       CompiledFormat format = styleFormats[styleIndex];
+       if (format == null) {
+           XSSFCellStyle style = stylesTable.getStyleAt(styleIndex);
+           if (style == null) {
+               format = compiledFormatter.getFormat(-1, null);
+           } else {
+               short idx = style.getDataFormat();
+               String str = style.getDataFormatString();
+               format = compiledFormatter.getFormat(idx, str != null ? str : BuiltinFormats.getBuiltinFormat(idx));
+           }
+           styleFormats[styleIndex] = format;
+       }
+       return format;
+   }
+
+   private String formatRawCellContents(double value) {
+       if (cellFormat == null) {
+           return formatter.formatRawCellContents(value, this.formatIndex, this.formatString);
+       }
+       formatted.setLength(0);
+       cellFormat.formatRawCellContents(value, false, formatted);
+       return formatted.toString();
+   }
+
    @Override
    public void endElement(String uri, String localName, String qName)
            throws SAXException {
@@ -334,7 +414,7 @@ public class XSSFSheetXMLHandler extends DefaultHandler {
                          try {
                             // Try to use the value as a formattable number
                             double d = Double.parseDouble(fv);
-                            thisStr = formatter.formatRawCellContents(d, this.formatIndex, this.formatString);
+                            thisStr = formatRawCellContents(d);
                          } catch(NumberFormatException e) {
                             // Formula is a String result not a Numeric one
                             thisStr = fv;
@@ -367,7 +447,7 @@ public class XSSFSheetXMLHandler extends DefaultHandler {
                case NUMBER:
                    String n = value.toString();
                    if (this.formatString != null && n.length() > 0)
-                       thisStr = formatter.formatRawCellContents(Double.parseDouble(n), this.formatIndex, this.formatString);
+                       thisStr = formatRawCellContents(Double.parseDouble(n));
                    else
                        thisStr = n;
                    break;
@@ -33,7 +33,7 @@ import org.apache.poi.ooxml.POIXMLProperties.ExtendedProperties;
 import org.apache.poi.ooxml.extractor.POIXMLTextExtractor;
 import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
-import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.CompiledDataFormatter;
 import org.apache.poi.util.POILogFactory;
 import org.apache.poi.util.POILogger;
 import org.apache.poi.util.XMLHelper;
@@ -228,11 +228,11 @@ public class XSSFEventBasedExcelExtractor
             InputStream sheetInputStream)
             throws IOException, SAXException {
 
-        DataFormatter formatter;
+        CompiledDataFormatter formatter;
         if (locale == null) {
-            formatter = new DataFormatter();
+            formatter = new CompiledDataFormatter();
         } else {
-            formatter = new DataFormatter(locale);
+            formatter = new CompiledDataFormatter(locale);
         }
 
         InputSource sheetSource = new InputSource(sheetInputStream);
@@ -24,11 +24,12 @@ import org.apache.poi.hssf.extractor.ExcelExtractor;
 import org.apache.poi.ooxml.extractor.POIXMLTextExtractor;
 import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Comment;
-import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.CompiledDataFormatter;
 import org.apache.poi.ss.usermodel.HeaderFooter;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
@@ -113,11 +114,11 @@ public class XSSFExcelExtractor
      * Retrieves the text contents of the file
      */
     public String getText() {
-        DataFormatter formatter;
+        CompiledDataFormatter formatter;
         if(locale == null) {
-            formatter = new DataFormatter();
+            formatter = new CompiledDataFormatter();
         } else  {
-            formatter = new DataFormatter(locale);
+            formatter = new CompiledDataFormatter(locale);
         }
 
         StringBuilder text = new StringBuilder(64);
@@ -220,7 +221,7 @@ public class XSSFExcelExtractor
         text.append(contents);
     }
 
-    private void handleNonStringCell(StringBuilder text, Cell cell, DataFormatter formatter) {
+    private void handleNonStringCell(StringBuilder text, Cell cell, CompiledDataFormatter formatter) {
         CellType type = cell.getCellType();
         if (type == CellType.FORMULA) {
             type = cell.getCachedFormulaResultType();
@@ -230,10 +231,13 @@ public class XSSFExcelExtractor
             CellStyle cs = cell.getCellStyle();
 
             if (cs != null && cs.getDataFormatString() != null) {
-                String contents = formatter.formatRawCellContents(
-                        cell.getNumericCellValue(), cs.getDataFormat(), cs.getDataFormatString());
-                checkMaxTextSize(text, contents);
-                text.append(contents);
+                int start = text.length();
+                formatter.getFormat(cs).formatRawCellContents(cell.getNumericCellValue(), false, text);
+                if (text.length() > ZipSecureFile.getMaxTextSize()) {
+                    String contents = text.substring(start);
+                    text.setLength(start);
+                    checkMaxTextSize(text, contents);
+                }
                 return;
             }
         }
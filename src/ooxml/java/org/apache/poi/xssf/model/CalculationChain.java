@@ -21,6 +21,9 @@ import static org.apache.poi.ooxml.POIXMLTypeLoader.DEFAULT_XML_OPTIONS;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
 
 import org.apache.poi.ooxml.POIXMLDocumentPart;
 import org.apache.poi.openxml4j.opc.PackagePart;
@@ -102,4 +105,37 @@ public class CalculationChain extends POIXMLDocumentPart {
             }
         }
     }
+
+    /**
+     * Remove all formula references of a sheet, which match the filter, from the calculation chain.
+     * This is faster than removing the references one by one, as the chain is only read once.
+     *
+     * @param sheetId  the sheet Id of a sheet the formulas belong to.
+     * @param filter  tests the A1 style references to the cells containing the formulas
+     * @since POI 5.0.0
+     */
+    public void removeItems(int sheetId, Predicate<String> filter){
+        CTCalcCell[] c = chain.getCArray();
+        List<CTCalcCell> kept = new ArrayList<>(c.length);
+        //sheet Id of the cells, and of the last cell which is kept
+        int id = -1;
+        int keptId = -1;
+
+        for (CTCalcCell cell : c) {
+            //If sheet Id  is omitted, it is assumed to be the same as the value of the previous cell.
+            if(cell.isSetI()) id = cell.getI();
+
+            if(id == sheetId && filter.test(cell.getR())) {
+                continue;
+            }
+            if(!cell.isSetI() && id != keptId) {
+                cell.setI(id);
+            }
+            keptId = id;
+            kept.add(cell);
+        }
+        if(kept.size() < c.length) {
+            chain.setCArray(kept.toArray(new CTCalcCell[0]));
+        }
+    }
 }
\ No newline at end of file
@@ -221,6 +221,22 @@ public class SharedStringsTable extends POIXMLDocumentPart implements SharedStri
         return addEntry(((XSSFRichTextString) string).getCTRst());
     }
 
+    /**
+     * Counts another use of an existing entry of this Shared String table, e.g. by a copied cell.
+     * Unlike {@link #addSharedStringItem(RichTextString)}, the entry isn't looked up by its content.
+     *
+     * @param idx the index of the entry
+     * @throws IndexOutOfBoundsException if there is no entry at the index
+     * @since POI 5.0.0
+     */
+    @Internal
+    public void addSharedStringReference(int idx) {
+        if (idx < 0 || idx >= strings.size()) {
+            throw new IndexOutOfBoundsException("Invalid shared string index: " + idx);
+        }
+        count++;
+    }
+
     /**
      * Provide access to the strings in the SharedStringsTable
      *
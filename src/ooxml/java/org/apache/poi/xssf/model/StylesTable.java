@@ -26,12 +26,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 import org.apache.poi.ooxml.POIXMLDocumentPart;
 import org.apache.poi.openxml4j.opc.PackagePart;
@@ -43,12 +47,14 @@ import org.apache.poi.xssf.usermodel.DefaultIndexedColorMap;
 import org.apache.poi.xssf.usermodel.IndexedColorMap;
 import org.apache.poi.xssf.usermodel.XSSFBuiltinTableStyle;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
 import org.apache.poi.xssf.usermodel.XSSFFactory;
 import org.apache.poi.xssf.usermodel.XSSFFont;
 import org.apache.poi.xssf.usermodel.XSSFRelation;
 import org.apache.poi.xssf.usermodel.XSSFTableStyle;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.xssf.usermodel.extensions.XSSFCellBorder;
+import org.apache.poi.xssf.usermodel.extensions.XSSFCellBorder.BorderSide;
 import org.apache.poi.xssf.usermodel.extensions.XSSFCellFill;
 import org.apache.xmlbeans.XmlException;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.*;
@@ -66,6 +72,21 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
 
     private final List<CTDxf> dxfs = new ArrayList<>();
     private final Map<String, TableStyle> tableStyles = new HashMap<>();
+
+    // Indexes of the entries above by their content, so that adding an entry doesn't
+    // need to search the whole list. They are updated by all methods changing the lists,
+    // and fonts, fills and borders report their own changes to the table they are part of.
+    private final Map<String, Short> numberFormatIds = new HashMap<>();
+    private final ContentIndex<XSSFFont> fontIndex =
+            new ContentIndex<>(fonts, StylesTable::fontHash, f -> f.setStylesSource(this));
+    private final ContentIndex<XSSFCellFill> fillIndex =
+            new ContentIndex<>(fills, StylesTable::fillHash, f -> f.setStylesSource(this));
+    private final ContentIndex<XSSFCellBorder> borderIndex =
+            new ContentIndex<>(borders, StylesTable::borderHash, b -> b.setStylesSource(this));
+    /** the CTXf beans of xfs, which are compared by identity like in {@link List#indexOf(Object)} */
+    private final Map<CTXf, Integer> xfIndex = new IdentityHashMap<>();
+    /** true if a CTXf bean has been added more than once to xfs */
+    private boolean duplicateXfs;
     
     private IndexedColorMap indexedColors = new DefaultIndexedColorMap();
     
@@ -238,6 +259,8 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
             CTDxfs styleDxfs = styleSheet.getDxfs();
             if(styleDxfs != null) dxfs.addAll(Arrays.asList(styleDxfs.getDxfArray()));
 
+            rebuildIndexes();
+
             CTTableStyles ctTableStyles = styleSheet.getTableStyles();
             if (ctTableStyles != null && styleDxfs != null) {
                 int idx = 0;
@@ -269,12 +292,26 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
     
     private short getNumberFormatId(String fmt) {
         // Find the key, and return that
-        for (Entry<Short,String> numFmt : numberFormats.entrySet()) {
-            if(numFmt.getValue().equals(fmt)) {
-                return numFmt.getKey();
+        Short id = numberFormatIds.get(fmt);
+        if (id == null) {
+            throw new IllegalStateException("Number format not in style table: " + fmt);
+        }
+        return id;
+    }
+
+    /**
+     * Updates the index of the number formats after the given format has been removed or replaced
+     */
+    private void removeNumberFormatId(String fmt, short index) {
+        if (numberFormatIds.remove(fmt, index)) {
+            // the format might still be used by a higher id
+            for (Entry<Short,String> numFmt : numberFormats.entrySet()) {
+                if (numFmt.getValue().equals(fmt)) {
+                    numberFormatIds.put(fmt, numFmt.getKey());
+                    break;
+                }
             }
         }
-        throw new IllegalStateException("Number format not in style table: " + fmt);
     }
 
     /**
@@ -290,12 +327,9 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
     @Override
     public int putNumberFormat(String fmt) {
         // Check if number format already exists
-        if (numberFormats.containsValue(fmt)) {
-            try {
-                return getNumberFormatId(fmt);
-            } catch (final IllegalStateException e) {
-                throw new IllegalStateException("Found the format, but couldn't figure out where - should never happen!");
-            }
+        Short existing = numberFormatIds.get(fmt);
+        if (existing != null) {
+            return existing;
         }
         
         
@@ -324,6 +358,7 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
         }
         
         numberFormats.put(formatIndex, fmt);
+        numberFormatIds.put(fmt, formatIndex);
         return formatIndex;
     }
     
@@ -339,7 +374,11 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
      */
     @Override
     public void putNumberFormat(short index, String fmt) {
-        numberFormats.put(index, fmt);
+        String old = numberFormats.put(index, fmt);
+        if (old != null) {
+            removeNumberFormatId(old, index);
+        }
+        numberFormatIds.merge(fmt, index, (id1, id2) -> id1 < id2 ? id1 : id2);
     }
     
     /**
@@ -354,6 +393,7 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
         String fmt = numberFormats.remove(index);
         boolean removed = (fmt != null);
         if (removed) {
+            removeNumberFormatId(fmt, index);
             for (final CTXf style : xfs) {
                 if (style.isSetNumFmtId() && style.getNumFmtId() == index) {
                     style.unsetApplyNumberFormat();
@@ -396,7 +436,7 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
     public int putFont(XSSFFont font, boolean forceRegistration) {
         int idx = -1;
         if(!forceRegistration) {
-            idx = fonts.indexOf(font);
+            idx = fontIndex.indexOf(font);
         }
 
         if (idx != -1) {
@@ -405,6 +445,7 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
 
         idx = fonts.size();
         fonts.add(font);
+        fontIndex.add(idx);
         return idx;
     }
 
@@ -438,10 +479,13 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
     public int putStyle(XSSFCellStyle style) {
         CTXf mainXF = style.getCoreXf();
 
-        if(! xfs.contains(mainXF)) {
+        Integer idx = xfIndex.get(mainXF);
+        if (idx == null) {
+            idx = xfs.size();
             xfs.add(mainXF);
+            xfIndex.put(mainXF, idx);
         }
-        return xfs.indexOf(mainXF);
+        return idx;
     }
 
     @Override
@@ -458,13 +502,15 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
      */
     @Override
     public int putBorder(XSSFCellBorder border) {
-        int idx = borders.indexOf(border);
+        int idx = borderIndex.indexOf(border);
         if (idx != -1) {
             return idx;
         }
         borders.add(border);
         border.setThemesTable(theme);
-        return borders.size() - 1;
+        idx = borders.size() - 1;
+        borderIndex.add(idx);
+        return idx;
     }
 
     @Override
@@ -472,6 +518,39 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
         return fills.get(idx);
     }
 
+    /**
+     * Indexes a font of this table again, after it has been changed
+     *
+     * @param font the changed font
+     * @since POI 5.0.0
+     */
+    @Internal
+    public void onFontChanged(XSSFFont font) {
+        fontIndex.update(font);
+    }
+
+    /**
+     * Indexes a fill of this table again, after it has been changed
+     *
+     * @param fill the changed fill
+     * @since POI 5.0.0
+     */
+    @Internal
+    public void onFillChanged(XSSFCellFill fill) {
+        fillIndex.update(fill);
+    }
+
+    /**
+     * Indexes a border of this table again, after it has been changed
+     *
+     * @param border the changed border
+     * @since POI 5.0.0
+     */
+    @Internal
+    public void onBorderChanged(XSSFCellBorder border) {
+        borderIndex.update(border);
+    }
+
     public List<XSSFCellBorder> getBorders(){
         return Collections.unmodifiableList(borders);
     }
@@ -497,12 +576,14 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
      */
     @Override
     public int putFill(XSSFCellFill fill) {
-        int idx = fills.indexOf(fill);
+        int idx = fillIndex.indexOf(fill);
         if (idx != -1) {
             return idx;
         }
         fills.add(fill);
-        return fills.size() - 1;
+        idx = fills.size() - 1;
+        fillIndex.add(idx);
+        return idx;
     }
 
     @Internal
@@ -520,12 +601,34 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
     @Internal
     public int putCellXf(CTXf cellXf) {
         xfs.add(cellXf);
+        if (xfIndex.putIfAbsent(cellXf, xfs.size() - 1) != null) {
+            duplicateXfs = true;
+        }
         return xfs.size();
     }
     
     @Internal
     public void replaceCellXfAt(int idx, CTXf cellXf) {
-        xfs.set(idx, cellXf);
+        CTXf old = xfs.set(idx, cellXf);
+        if (old == cellXf) {
+            return;
+        }
+        if (xfIndex.remove(old, idx) && duplicateXfs) {
+            // the bean might still be used by a higher index
+            for (int i = idx + 1; i < xfs.size(); i++) {
+                if (xfs.get(i) == old) {
+                    xfIndex.put(old, i);
+                    break;
+                }
+            }
+        }
+        Integer existing = xfIndex.get(cellXf);
+        if (existing == null || idx < existing) {
+            xfIndex.put(cellXf, idx);
+        }
+        if (existing != null) {
+            duplicateXfs = true;
+        }
     }
 
     @Internal
@@ -729,6 +832,147 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
         CTXf xf = createDefaultXf();
         xf.setXfId(0);
         xfs.add(xf);
+
+        rebuildIndexes();
+    }
+
+    private void rebuildIndexes() {
+        numberFormatIds.clear();
+        for (Entry<Short,String> numFmt : numberFormats.entrySet()) {
+            numberFormatIds.putIfAbsent(numFmt.getValue(), numFmt.getKey());
+        }
+        fontIndex.rebuild();
+        fillIndex.rebuild();
+        borderIndex.rebuild();
+        xfIndex.clear();
+        duplicateXfs = false;
+        for (int i = 0; i < xfs.size(); i++) {
+            if (xfIndex.putIfAbsent(xfs.get(i), i) != null) {
+                duplicateXfs = true;
+            }
+        }
+    }
+
+    // The hashes of the content indexes only use properties, which are compared by the
+    // equals() methods of the entries. Other than their hashCode() methods, they are the
+    // same for entries which are equal, but not serialized the same way (see bug 60845).
+    // Colors are hashed without the RGB values of their themes, which may be set later.
+
+    private static int fontHash(XSSFFont font) {
+        return Objects.hash(font.getBold(), font.getItalic(), font.getFontHeight(), font.getFontName(), font.getColor());
+    }
+
+    private static int fillHash(XSSFCellFill fill) {
+        return Objects.hash(fill.getPatternType(), colorHash(fill.getFillForegroundColor()), colorHash(fill.getFillBackgroundColor()));
+    }
+
+    private static int borderHash(XSSFCellBorder border) {
+        int hash = 0;
+        for (BorderSide side : BorderSide.values()) {
+            hash = 31 * hash + Objects.hashCode(border.getBorderStyle(side));
+            hash = 31 * hash + colorHash(border.getBorderColor(side));
+        }
+        return hash;
+    }
+
+    private static int colorHash(XSSFColor color) {
+        if (color == null) {
+            return 0;
+        } else if (color.isThemed()) {
+            return color.getTheme();
+        } else if (color.isIndexed()) {
+            return 31 * color.getIndexed();
+        } else {
+            return Arrays.hashCode(color.getARGB());
+        }
+    }
+
+    /**
+     * Finds the entries of a list by their content, without comparing them to all entries.
+     * The indexes of the entries are grouped by a hash, which is the same for equal entries,
+     * and the entries of a group are compared with {@link Object#equals(Object)}.
+     * An entry which has been changed since it was indexed is grouped by its old hash, until
+     * it is {@link #update(Object) updated}, so that it isn't found by its new content.
+     */
+    private static final class ContentIndex<T> {
+        private final List<T> list;
+        private final ToIntFunction<T> hash;
+        private final Consumer<T> onAdd;
+        private final Map<Integer, List<Integer>> groups = new HashMap<>();
+        /** the hash each entry of the list is grouped by */
+        private final List<Integer> hashes = new ArrayList<>();
+        /** the first index of each entry, by identity like in {@link List#indexOf(Object)} */
+        private final Map<T, Integer> positions = new IdentityHashMap<>();
+
+        ContentIndex(List<T> list, ToIntFunction<T> hash, Consumer<T> onAdd) {
+            this.list = list;
+            this.hash = hash;
+            this.onAdd = onAdd;
+        }
+
+        /**
+         * @return the first index of an entry equal to the given one, like {@link List#indexOf(Object)}
+         */
+        int indexOf(T entry) {
+            List<Integer> group = groups.get(hash.applyAsInt(entry));
+            if (group != null) {
+                for (int idx : group) {
+                    if (entry.equals(list.get(idx))) {
+                        return idx;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Adds the entry at the given index, which must be the index following the ones added before
+         */
+        void add(int idx) {
+            T entry = list.get(idx);
+            int entryHash = hash.applyAsInt(entry);
+            groups.computeIfAbsent(entryHash, k -> new ArrayList<>(1)).add(idx);
+            hashes.add(entryHash);
+            positions.putIfAbsent(entry, idx);
+            onAdd.accept(entry);
+        }
+
+        /**
+         * Groups a changed entry by its current content. If the entry has been added more than once,
+         * only its first index is updated, and the others stay grouped by their old content until
+         * the index is rebuilt.
+         */
+        void update(T entry) {
+            Integer idx = positions.get(entry);
+            if (idx == null) {
+                return;
+            }
+            int oldHash = hashes.get(idx);
+            int newHash = hash.applyAsInt(entry);
+            if (oldHash == newHash) {
+                return;
+            }
+
+            List<Integer> oldGroup = groups.get(oldHash);
+            oldGroup.remove(idx);
+            if (oldGroup.isEmpty()) {
+                groups.remove(oldHash);
+            }
+
+            // keep the group in ascending order, so that the first equal entry is found
+            List<Integer> group = groups.computeIfAbsent(newHash, k -> new ArrayList<>(1));
+            group.add(-Collections.binarySearch(group, idx) - 1, idx);
+            hashes.set(idx, newHash);
+        }
+
+        void rebuild() {
+            groups.clear();
+            hashes.clear();
+            positions.clear();
+            for (int i = 0; i < list.size(); i++) {
+                add(i);
+            }
+        }
     }
 
     private static CTXf createDefaultXf() {
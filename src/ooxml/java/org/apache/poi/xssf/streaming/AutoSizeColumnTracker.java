@@ -21,6 +21,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -31,6 +32,7 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.SheetUtil;
 import org.apache.poi.util.Internal;
 
@@ -296,6 +298,9 @@ import org.apache.poi.util.Internal;
     public void updateColumnWidths(Row row) {
         // track new columns
         implicitlyTrackColumnsInRow(row);
+
+        // the merged regions are looked up once for all cells of the row
+        final List<CellRangeAddress> mergedRegions = row.getSheet().getMergedRegions();
         
         // update the widths
         // for-loop over the shorter of the number of cells in the row and the number of tracked columns
@@ -309,12 +314,9 @@ import org.apache.poi.util.Internal;
                 // FIXME: if cell belongs to a merged region, some of the merged region may have fallen outside of the random access window
                 // In this case, getting the column width may result in an error. Need to gracefully handle this.
 
-                // FIXME: Most cells are not merged, so calling getCellWidth twice re-computes the same value twice.
-                // Need to rewrite this to avoid unnecessary computation if this proves to be a performance bottleneck.
-
                 if (cell != null) {
                     final ColumnWidthPair pair = e.getValue();
-                    updateColumnWidth(cell, pair);
+                    updateColumnWidth(cell, pair, mergedRegions);
                 }
             }
         }
@@ -326,12 +328,9 @@ import org.apache.poi.util.Internal;
                 // FIXME: if cell belongs to a merged region, some of the merged region may have fallen outside of the random access window
                 // In this case, getting the column width may result in an error. Need to gracefully handle this.
 
-                // FIXME: Most cells are not merged, so calling getCellWidth twice re-computes the same value twice.
-                // Need to rewrite this to avoid unnecessary computation if this proves to be a performance bottleneck.
-
                 if (maxColumnWidths.containsKey(column)) {
                     final ColumnWidthPair pair = maxColumnWidths.get(column);
-                    updateColumnWidth(cell, pair);
+                    updateColumnWidth(cell, pair, mergedRegions);
                 }
             }
         }
@@ -362,11 +361,14 @@ import org.apache.poi.util.Internal;
      *
      * @param cell the cell to compute the best fit width on
      * @param pair the column width pair to update
+     * @param mergedRegions the merged regions of the sheet
      * @since 3.14beta1
      */
-    private void updateColumnWidth(final Cell cell, final ColumnWidthPair pair) {
-        final double unmergedWidth = SheetUtil.getCellWidth(cell, defaultCharWidth, dataFormatter, false);
-        final double mergedWidth = SheetUtil.getCellWidth(cell, defaultCharWidth, dataFormatter, true);
+    private void updateColumnWidth(final Cell cell, final ColumnWidthPair pair, final List<CellRangeAddress> mergedRegions) {
+        final double unmergedWidth = SheetUtil.getCellWidth(cell, defaultCharWidth, dataFormatter, false, mergedRegions);
+        // without merged regions, both widths are the same
+        final double mergedWidth = mergedRegions.isEmpty() ? unmergedWidth :
+            SheetUtil.getCellWidth(cell, defaultCharWidth, dataFormatter, true, mergedRegions);
         pair.setMaxColumnWidths(unmergedWidth, mergedWidth);
     }
 }
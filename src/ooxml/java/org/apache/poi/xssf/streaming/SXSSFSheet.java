@@ -515,6 +515,19 @@ public class SXSSFSheet implements Sheet
         return _sh.getMergedRegions();
     }
 
+    /**
+     * Returns the merged regions, which contain the given cell
+     *
+     * @param rowIndex the 0-based row of the cell
+     * @param columnIndex the 0-based column of the cell
+     * @return the merged regions containing the cell, in the order of the merged regions
+     * @since POI 5.0.0
+     */
+    @Override
+    public List<CellRangeAddress> getMergedRegionsContaining(int rowIndex, int columnIndex) {
+        return _sh.getMergedRegionsContaining(rowIndex, columnIndex);
+    }
+
     /**
      *  Returns an iterator of the physical rows
      *
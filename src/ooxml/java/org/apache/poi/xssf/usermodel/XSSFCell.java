@@ -160,7 +160,8 @@ public final class XSSFCell extends CellBase {
                 switch (copyCellType) {
                     case NUMERIC:
                         // DataFormat is not copied unless policy.isCopyCellStyle is true
-                        if (DateUtil.isCellDateFormatted(srcCell)) {
+                        // the dates of the same workbook are based on the same date system
+                        if (!isSameWorkbook(srcCell) && DateUtil.isCellDateFormatted(srcCell)) {
                             setCellValue(srcCell.getDateCellValue());
                         }
                         else {
@@ -168,7 +169,9 @@ public final class XSSFCell extends CellBase {
                         }
                         break;
                     case STRING:
-                        setCellValue(srcCell.getStringCellValue());
+                        if (!copySharedString(srcCell)) {
+                            setCellValue(srcCell.getStringCellValue());
+                        }
                         break;
                     case FORMULA:
                         setCellFormula(srcCell.getCellFormula());
@@ -210,6 +213,37 @@ public final class XSSFCell extends CellBase {
         }
     }
 
+    private boolean isSameWorkbook(Cell srcCell) {
+        return srcCell instanceof XSSFCell && srcCell.getSheet().getWorkbook() == getSheet().getWorkbook();
+    }
+
+    /**
+     * Copies a plain string of the same workbook by the index of its shared string entry,
+     * instead of looking up the entry by the content of the string
+     *
+     * @return true, if the string has been copied
+     */
+    private boolean copySharedString(Cell srcCell) {
+        if (!isSameWorkbook(srcCell) || _sharedStringSource == null) {
+            return false;
+        }
+        CTCell src = ((XSSFCell)srcCell).getCTCell();
+        // formula cells keep their formula and inline strings their type, see setCellValueImpl
+        if (src.getT() != STCellType.S || getCellType() == CellType.FORMULA || _cell.getT() == STCellType.INLINE_STR) {
+            return false;
+        }
+        int idx = Integer.parseInt(src.getV());
+        XSSFRichTextString rt = (XSSFRichTextString)_sharedStringSource.getItemAt(idx);
+        if (rt.numFormattingRuns() > 0 || rt.getCTRst().sizeOfRPhArray() > 0) {
+            // only the text of formatted strings is copied
+            return false;
+        }
+        _sharedStringSource.addSharedStringReference(idx);
+        _cell.setT(STCellType.S);
+        _cell.setV(Integer.toString(idx));
+        return true;
+    }
+
     /**
      * @return table of strings shared across this workbook
      */
@@ -602,6 +636,7 @@ public final class XSSFCell extends CellBase {
      * @return A1 style reference to the location of this cell
      */
     public String getReference() {
+        _row.updateCellReferences();
         String ref = _cell.getR();
         if(ref == null) {
             return getAddress().formatAsString();
@@ -879,6 +914,7 @@ public final class XSSFCell extends CellBase {
      */
     private void setBlankPrivate(){
         CTCell blank = CTCell.Factory.newInstance();
+        _row.updateCellReferences();
         blank.setR(_cell.getR());
         if(_cell.isSetS()) {
             blank.setS(_cell.getS());
@@ -1123,6 +1159,7 @@ public final class XSSFCell extends CellBase {
      */
     @Internal
     public CTCell getCTCell(){
+        _row.updateCellReferences();
         return _cell;
     }
     
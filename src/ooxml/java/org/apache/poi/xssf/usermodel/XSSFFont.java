@@ -64,6 +64,7 @@ public class XSSFFont implements Font {
 
     private IndexedColorMap _indexedColorMap;
     private ThemesTable _themes;
+    private StylesTable _stylesSource;
     private CTFont _ctFont;
     private int _index;
 
@@ -305,6 +306,7 @@ public class XSSFFont implements Font {
         } else {
             _ctFont.setBArray(null);
         }
+        contentChanged();
     }
 
     /**
@@ -347,6 +349,7 @@ public class XSSFFont implements Font {
        // We know that FontCharset only has valid entries in it,
        //  so we can just set the int value from it
        charsetProperty.setVal( charSet.getValue() );
+       contentChanged();
     }
 
     /**
@@ -370,6 +373,7 @@ public class XSSFFont implements Font {
             default:
                 ctColor.setIndexed(color);
         }
+        contentChanged();
     }
 
     /**
@@ -386,6 +390,7 @@ public class XSSFFont implements Font {
             }
             ctColor.setRgb(color.getRGB());
         }
+        contentChanged();
     }
 
     /**
@@ -405,6 +410,7 @@ public class XSSFFont implements Font {
     public void setFontHeight(double height) {
         CTFontSize fontSize = _ctFont.sizeOfSzArray() == 0 ? _ctFont.addNewSz() : _ctFont.getSzArray(0);
         fontSize.setVal(height);
+        contentChanged();
     }
 
     /**
@@ -424,6 +430,7 @@ public class XSSFFont implements Font {
     public void setThemeColor(short theme) {
         CTColor ctColor = _ctFont.sizeOfColorArray() == 0 ? _ctFont.addNewColor() : _ctFont.getColorArray(0);
         ctColor.setTheme(theme);
+        contentChanged();
     }
 
     /**
@@ -440,6 +447,7 @@ public class XSSFFont implements Font {
     public void setFontName(String name) {
         CTFontName fontName = _ctFont.sizeOfNameArray() == 0 ? _ctFont.addNewName() : _ctFont.getNameArray(0);
         fontName.setVal(name == null ? DEFAULT_FONT_NAME : name);
+        contentChanged();
     }
 
 
@@ -456,6 +464,7 @@ public class XSSFFont implements Font {
         } else {
             _ctFont.setIArray(null);
         }
+        contentChanged();
     }
 
 
@@ -472,6 +481,7 @@ public class XSSFFont implements Font {
         } else {
             _ctFont.setStrikeArray(null);
         }
+        contentChanged();
     }
 
     /**
@@ -503,6 +513,7 @@ public class XSSFFont implements Font {
                     throw new IllegalStateException("Invalid type offset: " + offset);
             }
         }
+        contentChanged();
     }
 
     /**
@@ -531,6 +542,7 @@ public class XSSFFont implements Font {
             STUnderlineValues.Enum val = STUnderlineValues.Enum.forInt(underline.getValue());
             ctUnderline.setVal(val);
         }
+        contentChanged();
     }
 
 
@@ -563,6 +575,23 @@ public class XSSFFont implements Font {
        this._themes = themes;
     }
 
+    /**
+     * Records the Styles Table which this font is part of,
+     *  which is told about changes of the font.
+     *
+     * @since POI 5.0.0
+     */
+    @Internal
+    public void setStylesSource(StylesTable stylesSource) {
+        this._stylesSource = stylesSource;
+    }
+
+    private void contentChanged() {
+        if (_stylesSource != null) {
+            _stylesSource.onFontChanged(this);
+        }
+    }
+
     /**
      * get the font scheme property.
      * is used only in StylesTable to create the default instance of font
@@ -586,6 +615,7 @@ public class XSSFFont implements Font {
         CTFontScheme ctFontScheme = _ctFont.sizeOfSchemeArray() == 0 ? _ctFont.addNewScheme() : _ctFont.getSchemeArray(0);
         STFontScheme.Enum val = STFontScheme.Enum.forInt(scheme.getValue());
         ctFontScheme.setVal(val);
+        contentChanged();
     }
 
     /**
@@ -610,6 +640,7 @@ public class XSSFFont implements Font {
     public void setFamily(int value) {
         CTIntProperty family = _ctFont.sizeOfFamilyArray() == 0 ? _ctFont.addNewFamily() : _ctFont.getFamilyArray(0);
         family.setVal(value);
+        contentChanged();
     }
 
     /**
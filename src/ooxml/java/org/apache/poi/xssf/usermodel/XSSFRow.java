@@ -58,6 +58,11 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
      */
     private final TreeMap<Integer, XSSFCell> _cells;
 
+    /**
+     * the row has been moved, but the references of its cells haven't been renumbered yet
+     */
+    private boolean _cellReferencesOutdated;
+
     /**
      * the parent sheet
      */
@@ -544,6 +549,7 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
      */
     @Internal
     public CTRow getCTRow(){
+        updateCellReferences();
         return _row;
     }
 
@@ -553,6 +559,8 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
      * @see org.apache.poi.xssf.usermodel.XSSFSheet#write(java.io.OutputStream) ()
      */
     protected void onDocumentWrite() {
+        updateCellReferences();
+
         // _row.cArray and _cells.getCTCell might be out of sync after adding/removing cells,
         // thus we need to re-order it here to make the resulting file correct
 
@@ -618,6 +626,7 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
      */
     @Override
     public String toString(){
+        updateCellReferences();
         return _row.toString();
     }
 
@@ -637,6 +646,31 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
 
     }
 
+    /**
+     * Moves this row by n rows, as part of a block of rows moved by the sheet.
+     * The references of the cells are renumbered, when they are read or the row is written,
+     * so a moved row costs the same, regardless of its number of cells.
+     * The array formulas and the calculation chain are handled by the sheet.
+     *
+     * @param n the number of rows to move
+     */
+    void moveBy(int n) {
+        setRowNum(getRowNum() + n);
+        _cellReferencesOutdated = !_cells.isEmpty();
+    }
+
+    /**
+     * Renumbers the references of the cells, after this row has been moved
+     */
+    void updateCellReferences() {
+        if (_cellReferencesOutdated) {
+            _cellReferencesOutdated = false;
+            for (XSSFCell cell : _cells.values()) {
+                cell.getCTCell().setR(cell.getAddress().formatAsString());
+            }
+        }
+    }
+
     /**
      * Copy the cells from srcRow to this row
      * If this row is not a blank row, this will merge the two rows, overwriting
@@ -648,6 +682,17 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
      */
     @Beta
     public void copyRowFrom(Row srcRow, CellCopyPolicy policy) {
+        copyRowFrom(srcRow, policy, true);
+    }
+
+    /**
+     * Copy the cells from srcRow to this row, see {@link #copyRowFrom(Row, CellCopyPolicy)}
+     *
+     * @param srcRow the rows to copy from
+     * @param policy the policy to determine what gets copied
+     * @param shiftFormulas false, if the formulas are shifted by the caller, e.g. for several rows at once
+     */
+    /*package*/ void copyRowFrom(Row srcRow, CellCopyPolicy policy, boolean shiftFormulas) {
         if (srcRow == null) {
             // srcRow is blank. Overwrite cells with blank values, blank styles, etc per cell copy policy
             for (Cell destCell : this) {
@@ -683,15 +728,18 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
                 destCell.copyCellFrom(srcCell, policy);
             }
 
-            final int sheetIndex = _sheet.getWorkbook().getSheetIndex(_sheet);
-            final String sheetName = _sheet.getWorkbook().getSheetName(sheetIndex);
             final int srcRowNum = srcRow.getRowNum();
             final int destRowNum = getRowNum();
-            final int rowDifference = destRowNum - srcRowNum;
 
-            final FormulaShifter formulaShifter = FormulaShifter.createForRowCopy(sheetIndex, sheetName, srcRowNum, srcRowNum, rowDifference, SpreadsheetVersion.EXCEL2007);
-            final XSSFRowShifter rowShifter = new XSSFRowShifter(_sheet);
-            rowShifter.updateRowFormulas(this, formulaShifter);
+            if (shiftFormulas) {
+                final int sheetIndex = _sheet.getWorkbook().getSheetIndex(_sheet);
+                final String sheetName = _sheet.getWorkbook().getSheetName(sheetIndex);
+                final int rowDifference = destRowNum - srcRowNum;
+
+                final FormulaShifter formulaShifter = FormulaShifter.createForRowCopy(sheetIndex, sheetName, srcRowNum, srcRowNum, rowDifference, SpreadsheetVersion.EXCEL2007);
+                final XSSFRowShifter rowShifter = new XSSFRowShifter(_sheet);
+                rowShifter.updateRowFormulas(this, formulaShifter);
+            }
 
             // Copy merged regions that are fully contained on the row
             // FIXME: is this something that rowShifter could be doing?
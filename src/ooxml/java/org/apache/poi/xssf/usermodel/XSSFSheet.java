@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -72,6 +73,7 @@ import org.apache.poi.ss.util.AreaReference;
 import org.apache.poi.ss.util.CellAddress;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellRangeAddressList;
+import org.apache.poi.ss.util.CellRangeIndex;
 import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.ss.util.PaneInformation;
 import org.apache.poi.ss.util.SSCellRange;
@@ -82,6 +84,7 @@ import org.apache.poi.util.POILogFactory;
 import org.apache.poi.util.POILogger;
 import org.apache.poi.util.Removal;
 import org.apache.poi.util.Units;
+import org.apache.poi.xssf.model.CalculationChain;
 import org.apache.poi.xssf.model.CommentsTable;
 import org.apache.poi.xssf.usermodel.XSSFPivotTable.PivotTableReferenceConfigurator;
 import org.apache.poi.xssf.usermodel.helpers.ColumnHelper;
@@ -136,6 +139,9 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
     private Map<Integer, CTCellFormula> sharedFormulas;
     private SortedMap<String,XSSFTable> tables;
     private List<CellRangeAddress> arrayFormulas;
+    /** the merged regions by their position, built on first use from {@link #mergedRegionsSource} */
+    private CellRangeIndex<CellRangeAddress> mergedRegions;
+    private CTMergeCells mergedRegionsSource;
     private XSSFDataValidationHelper dataValidationHelper;
 
     /**
@@ -190,6 +196,22 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         } catch (XmlException e){
             throw new POIXMLException(e);
         }
+        initWorksheet();
+    }
+
+    /**
+     * Initialize worksheet data from a copy of the worksheet of another sheet.
+     * This is used to clone a sheet without writing and parsing its xml.
+     *
+     * @see #copyWorksheet()
+     */
+    /*package*/ void read(CTWorksheet worksheetCopy) {
+        worksheet = worksheetCopy;
+        initWorksheet();
+    }
+
+    private void initWorksheet() {
+        mergedRegions = null;
 
         initRows(worksheet);
         columnHelper = new ColumnHelper(worksheet);
@@ -338,7 +360,7 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
      * with this formula, which may result in a corrupt workbook.
      *
      * To check for merged regions overlapping array formulas or other merged regions
-     * after addMergedRegionUnsafe has been called, call {@link #validateMergedRegions()}, which runs in O(n^2) time.
+     * after addMergedRegionUnsafe has been called, call {@link #validateMergedRegions()}, which runs in O(n log n) time.
      *
      * @param region to merge
      * @return index of this region
@@ -381,6 +403,9 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         CTMergeCell ctMergeCell = ctMergeCells.addNewMergeCell();
         ctMergeCell.setRef(region.formatAsString());
         final int numMergeRegions=ctMergeCells.sizeOfMergeCellArray();
+        if (mergedRegions != null) {
+            mergedRegions.add(CellRangeAddress.valueOf(ctMergeCell.getRef()));
+        }
 
         // also adjust the number of merged regions overall
         ctMergeCells.setCount(numMergeRegions);
@@ -444,11 +469,10 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
      * @throws IllegalStateException if candidate region intersects an existing merged region in this sheet (or candidateRegion is already merged in this sheet)
      */
     private void validateMergedRegions(CellRangeAddress candidateRegion) {
-        for (final CellRangeAddress existingRegion : getMergedRegions()) {
-            if (existingRegion.intersects(candidateRegion)) {
-                throw new IllegalStateException("Cannot add merged region " + candidateRegion.formatAsString() +
-                        " to sheet because it overlaps with an existing merged region (" + existingRegion.formatAsString() + ").");
-            }
+        final List<CellRangeAddress> existingRegions = getMergedRegionIndex().getIntersecting(candidateRegion);
+        if (!existingRegions.isEmpty()) {
+            throw new IllegalStateException("Cannot add merged region " + candidateRegion.formatAsString() +
+                    " to sheet because it overlaps with an existing merged region (" + existingRegions.get(0).formatAsString() + ").");
         }
     }
 
@@ -458,17 +482,22 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
      * @throws IllegalStateException if at least one region intersects with another merged region in this sheet
      */
     private void checkForIntersectingMergedRegions() {
-        final List<CellRangeAddress> regions = getMergedRegions();
+        final CellRangeIndex<CellRangeAddress> regions = getMergedRegionIndex();
         final int size = regions.size();
         for (int i=0; i < size; i++) {
             final CellRangeAddress region = regions.get(i);
-            for (final CellRangeAddress other : regions.subList(i+1, regions.size())) {
-                if (region.intersects(other)) {
-                    String msg = "The range " + region.formatAsString() +
-                            " intersects with another merged region " +
-                            other.formatAsString() + " in this sheet";
-                    throw new IllegalStateException(msg);
-                }
+            // the regions are found in their order, so the region itself is followed by the later ones
+            final List<CellRangeAddress> intersecting = regions.getIntersecting(region);
+            int self = 0;
+            while (intersecting.get(self) != region) {
+                self++;
+            }
+            if (self + 1 < intersecting.size()) {
+                final CellRangeAddress other = intersecting.get(self + 1);
+                String msg = "The range " + region.formatAsString() +
+                        " intersects with another merged region " +
+                        other.formatAsString() + " in this sheet";
+                throw new IllegalStateException(msg);
             }
         }
     }
@@ -1287,9 +1316,7 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
             throw new IllegalStateException("This worksheet does not contain merged regions");
         }
 
-        CTMergeCell ctMergeCell = ctMergeCells.getMergeCellArray(index);
-        String ref = ctMergeCell.getRef();
-        return CellRangeAddress.valueOf(ref);
+        return getMergedRegionIndex().get(index).copy();
     }
 
     /**
@@ -1306,13 +1333,50 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
             return addresses;
         }
 
-        for(CTMergeCell ctMergeCell : ctMergeCells.getMergeCellArray()) {
-            String ref = ctMergeCell.getRef();
-            addresses.add(CellRangeAddress.valueOf(ref));
+        CellRangeIndex<CellRangeAddress> regions = getMergedRegionIndex();
+        for (int i = 0; i < regions.size(); i++) {
+            addresses.add(regions.get(i).copy());
         }
         return addresses;
     }
 
+    /**
+     * Returns the merged regions, which contain the given cell
+     *
+     * @param rowIndex the 0-based row of the cell
+     * @param columnIndex the 0-based column of the cell
+     * @return the merged regions containing the cell, in the order of the merged regions,
+     *  i.e. usually none or one region
+     * @since POI 5.0.0
+     */
+    @Override
+    public List<CellRangeAddress> getMergedRegionsContaining(int rowIndex, int columnIndex) {
+        List<CellRangeAddress> addresses = new ArrayList<>();
+        for (CellRangeAddress region : getMergedRegionIndex().getContaining(rowIndex, columnIndex)) {
+            addresses.add(region.copy());
+        }
+        return addresses;
+    }
+
+    /**
+     * @return the index of the merged regions, which is (re)built from the merged cells
+     *  of the worksheet when they have been replaced
+     */
+    private CellRangeIndex<CellRangeAddress> getMergedRegionIndex() {
+        CTMergeCells ctMergeCells = worksheet.getMergeCells();
+        int size = ctMergeCells == null ? 0 : ctMergeCells.sizeOfMergeCellArray();
+        if (mergedRegions == null || mergedRegionsSource != ctMergeCells || mergedRegions.size() != size) {
+            mergedRegions = new CellRangeIndex<>();
+            mergedRegionsSource = ctMergeCells;
+            if (ctMergeCells != null) {
+                for (CTMergeCell ctMergeCell : ctMergeCells.getMergeCellArray()) {
+                    mergedRegions.add(CellRangeAddress.valueOf(ctMergeCell.getRef()));
+                }
+            }
+        }
+        return mergedRegions;
+    }
+
     /**
      * Returns the number of merged regions defined in this worksheet
      *
@@ -1927,6 +1991,9 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         CTMergeCells ctMergeCells = worksheet.getMergeCells();
         int size = ctMergeCells.sizeOfMergeCellArray();
         assert(0 <= index && index < size);
+        if (mergedRegions != null && mergedRegionsSource == ctMergeCells && mergedRegions.size() == size) {
+            mergedRegions.remove(index);
+        }
         if (size > 1) {
             ctMergeCells.removeMergeCell(index);
         } else {
@@ -1951,13 +2018,22 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
 
         CTMergeCells ctMergeCells = worksheet.getMergeCells();
         List<CTMergeCell> newMergeCells = new ArrayList<>(ctMergeCells.sizeOfMergeCellArray());
+        // the index is rebuilt from the remaining regions, which is faster than removing them one by one
+        boolean indexed = (mergedRegions != null && mergedRegionsSource == ctMergeCells &&
+                mergedRegions.size() == ctMergeCells.sizeOfMergeCellArray());
+        CellRangeIndex<CellRangeAddress> newMergedRegions = new CellRangeIndex<>();
 
         int idx = 0;
         for (CTMergeCell mc : ctMergeCells.getMergeCellArray()) {
-            if (!indices.contains(idx++)) {
+            if (!indices.contains(idx)) {
                 newMergeCells.add(mc);
+                if (indexed) {
+                    newMergedRegions.add(mergedRegions.get(idx));
+                }
             }
+            idx++;
         }
+        mergedRegions = indexed ? newMergedRegions : null;
 
         if (newMergeCells.isEmpty()) {
             worksheet.unsetMergeCells();
@@ -2904,6 +2980,13 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         // FIXME: if srcRows contains gaps or null values, clear out those rows that will be overwritten
         // how will this work with merging (copy just values, leave cell styles in place?)
 
+        // unless the rows are condensed, the formulas of all rows are shifted by the same number of rows,
+        // so they are shifted at once - as long as no row is overwritten before it is copied itself
+        final int rowDifference = destStartRow - srcStartRowNum;
+        final boolean shiftFormulasAtOnce = !policy.isCondenseRows() && (srcStartRow.getSheet() != this
+                || srcEndRowNum + rowDifference < srcStartRowNum || destStartRow > srcEndRowNum);
+        final List<XSSFRow> destRows = new ArrayList<>(size);
+
         int r = destStartRow;
         for (Row srcRow : srcRows) {
             int destRowNum;
@@ -2915,7 +2998,15 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
             }
             //removeRow(destRowNum); //this probably clears all external formula references to destRow, causing unwanted #REF! errors
             final XSSFRow destRow = createRow(destRowNum);
-            destRow.copyRowFrom(srcRow, options);
+            destRow.copyRowFrom(srcRow, options, !shiftFormulasAtOnce);
+            destRows.add(destRow);
+        }
+
+        if (shiftFormulasAtOnce) {
+            final int sheetIndex = getWorkbook().getSheetIndex(this);
+            final FormulaShifter formulaShifter = FormulaShifter.createForRowCopy(sheetIndex, getSheetName(),
+                    srcStartRowNum, srcEndRowNum, rowDifference, SpreadsheetVersion.EXCEL2007);
+            new XSSFRowShifter(this).updateRowFormulas(destRows, formulaShifter);
         }
 
         // ======================
@@ -3008,7 +3099,8 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         rowShifter.updateConditionalFormatting(formulaShifter);
         rowShifter.updateHyperlinks(formulaShifter);
 
-        rebuildRows();
+        // the rows have been moved in place, only the shared and array formulas are collected again
+        reindexFormulas();
     }
 
     /**
@@ -3037,6 +3129,11 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
     }
 
     private void rebuildRows() {
+        //the rows are read again from their XML, so the references of moved cells have to be written first
+        for (XSSFRow row : _rows.values()) {
+            row.updateCellReferences();
+        }
+
         //rebuild the CTSheetData CTRow order
         SortedMap<Long, CTRow> ctRows = new TreeMap<>();
         CTSheetData sheetData = getCTWorksheet().getSheetData();
@@ -3060,50 +3157,50 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
 
     // remove all rows which will be overwritten
     private void removeOverwritten(XSSFVMLDrawing vml, int startRow, int endRow, final int n){
-        for (Iterator<Row> it = rowIterator() ; it.hasNext() ; ) {
-            XSSFRow row = (XSSFRow)it.next();
-            int rownum = row.getRowNum();
+        if (startRow > endRow) {
+            return;
+        }
 
+        // only the rows in the target-window where the moved rows will land can be overwritten
+        List<XSSFRow> removed = new ArrayList<>();
+        for (XSSFRow row : _rows.subMap(startRow + n, endRow + n + 1).values()) {
             // check if we should remove this row as it will be overwritten by the data later
-            if (shouldRemoveRow(startRow, endRow, n, rownum)) {
-                // remove row from worksheet.getSheetData row array
-                // Performance optimization: explicit boxing is slightly faster than auto-unboxing, though may use more memory
-                //noinspection UnnecessaryBoxing
-                final Integer rownumI = Integer.valueOf(row.getRowNum()); // NOSONAR
-                int idx = _rows.headMap(rownumI).size();
-                worksheet.getSheetData().removeRow(idx);
+            if (shouldRemoveRow(startRow, endRow, n, row.getRowNum())) {
+                removed.add(row);
+            }
+        }
+        if (removed.isEmpty()) {
+            return;
+        }
 
-                // remove row from _rows
-                it.remove();
+        // the removed rows follow each other, so they are removed from the
+        // worksheet.getSheetData row array at the index of the first one
+        int idx = _rows.headMap(removed.get(0).getRowNum()).size();
+        Set<Integer> removedRownums = new HashSet<>();
+        for (XSSFRow row : removed) {
+            worksheet.getSheetData().removeRow(idx);
+            _rows.remove(row.getRowNum());
+            removedRownums.add(row.getRowNum());
+        }
 
-                // FIXME: (performance optimization) this should be moved outside the for-loop so that comments only needs to be iterated over once.
-                // also remove any comments associated with this row
-                if(sheetComments != null){
-                    CTCommentList lst = sheetComments.getCTComments().getCommentList();
-                    for (CTComment comment : lst.getCommentArray()) {
-                        String strRef = comment.getRef();
-                        CellAddress ref = new CellAddress(strRef);
-
-                        // is this comment part of the current row?
-                        if(ref.getRow() == rownum) {
-                            sheetComments.removeComment(ref);
-                            vml.removeCommentShape(ref.getRow(), ref.getColumn());
-                        }
-                    }
-                }
-                // FIXME: (performance optimization) this should be moved outside the for-loop so that hyperlinks only needs to be iterated over once.
-                // also remove any hyperlinks associated with this row
-                if (hyperlinks != null) {
-                    for (XSSFHyperlink link : new ArrayList<>(hyperlinks)) {
-                        CellReference ref = new CellReference(link.getCellRef());
-                        if (ref.getRow() == rownum) {
-                            hyperlinks.remove(link);
-                        }
-                    }
+        // also remove any comments associated with these rows
+        if(sheetComments != null){
+            CTCommentList lst = sheetComments.getCTComments().getCommentList();
+            for (CTComment comment : lst.getCommentArray()) {
+                String strRef = comment.getRef();
+                CellAddress ref = new CellAddress(strRef);
+
+                // is this comment part of a removed row?
+                if(removedRownums.contains(ref.getRow())) {
+                    sheetComments.removeComment(ref);
+                    vml.removeCommentShape(ref.getRow(), ref.getColumn());
                 }
             }
         }
-
+        // also remove any hyperlinks associated with these rows
+        if (hyperlinks != null) {
+            hyperlinks.removeIf(link -> removedRownums.contains(new CellReference(link.getCellRef()).getRow()));
+        }
     }
 
     private void shiftCommentsAndRows(XSSFVMLDrawing vml, int startRow, int endRow, final int n){
@@ -3130,47 +3227,133 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         });
 
 
-        for (Iterator<Row> it = rowIterator() ; it.hasNext() ; ) {
-            XSSFRow row = (XSSFRow)it.next();
-            int rownum = row.getRowNum();
+        if(sheetComments != null){
+            CTCommentList lst = sheetComments.getCTComments().getCommentList();
+            for (CTComment comment : lst.getCommentArray()) {
+                String oldRef = comment.getRef();
+                CellReference ref = new CellReference(oldRef);
+                int rownum = ref.getRow();
 
-            if(sheetComments != null){
                 // calculate the new rownum
                 int newrownum = shiftedRowNum(startRow, endRow, n, rownum);
 
-                // is there a change necessary for the current row?
-                if(newrownum != rownum) {
-                    CTCommentList lst = sheetComments.getCTComments().getCommentList();
-                    for (CTComment comment : lst.getCommentArray()) {
-                        String oldRef = comment.getRef();
-                        CellReference ref = new CellReference(oldRef);
-
-                        // is this comment part of the current row?
-                        if(ref.getRow() == rownum) {
-                            XSSFComment xssfComment = new XSSFComment(sheetComments, comment,
-                                    vml == null ? null : vml.findCommentShape(rownum, ref.getCol()));
-
-                            // we should not perform the shifting right here as we would then find
-                            // already shifted comments and would shift them again...
-                            commentsToShift.put(xssfComment, newrownum);
-                        }
-                    }
-                }
-            }
+                // is there a change necessary for the row of the comment?
+                if(newrownum != rownum && _rows.containsKey(rownum)) {
+                    XSSFComment xssfComment = new XSSFComment(sheetComments, comment,
+                            vml == null ? null : vml.findCommentShape(rownum, ref.getCol()));
 
-            if(rownum < startRow || rownum > endRow) {
-                continue;
+                    // we should not perform the shifting right here as we would then find
+                    // already shifted comments and would shift them again...
+                    commentsToShift.put(xssfComment, newrownum);
+                }
             }
-            row.shift(n);
         }
+
+        moveRows(startRow, endRow, n);
+
         // adjust all the affected comment-structures now
         // the Map is sorted and thus provides them in the order that we need here,
         // i.e. from down to up if shifting down, vice-versa otherwise
         for(Map.Entry<XSSFComment, Integer> entry : commentsToShift.entrySet()) {
             entry.getKey().setRow(entry.getValue());
         }
+    }
 
-        rebuildRows();
+    /**
+     * Moves the rows between startRow and endRow by n rows, after the rows at their destination
+     * have been removed. The rows keep their objects and the XML of the moved rows is moved as a
+     * block, so the other rows of the sheet aren't touched.
+     */
+    private void moveRows(int startRow, int endRow, final int n) {
+        if (startRow > endRow) {
+            return;
+        }
+        SortedMap<Integer, XSSFRow> movedRows = _rows.subMap(startRow, endRow + 1);
+        if (movedRows.isEmpty()) {
+            return;
+        }
+        List<XSSFRow> block = new ArrayList<>(movedRows.values());
+
+        // fail before anything is moved, if a row would end up outside the sheet
+        int maxrow = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+        for (int rownum : new int[]{ movedRows.firstKey() + n, movedRows.lastKey() + n }) {
+            if (rownum < 0 || rownum > maxrow) {
+                throw new IllegalArgumentException("Invalid row number (" + rownum
+                        + ") outside allowable range (0.." + maxrow + ")");
+            }
+        }
+
+        // the XML of the block is followed by the first row after the block, and it has to be
+        // followed by the first row after the destination, which is not part of the block
+        XSSFRow nextBefore = firstRowFrom(endRow + 1);
+        XSSFRow nextAfter = firstRowFrom(endRow + n + 1);
+        if (nextAfter != null && nextAfter.getRowNum() >= startRow && nextAfter.getRowNum() <= endRow) {
+            nextAfter = nextBefore;
+        }
+        if (nextAfter != nextBefore) {
+            CTSheetData sheetData = worksheet.getSheetData();
+            for (XSSFRow row : block) {
+                XmlCursor from = row.getCTRow().newCursor();
+                XmlCursor to;
+                if (nextAfter != null) {
+                    to = nextAfter.getCTRow().newCursor();
+                } else {
+                    to = sheetData.newCursor();
+                    to.toEndToken();
+                }
+                from.moveXml(to);
+                from.dispose();
+                to.dispose();
+            }
+        }
+
+        // remove the references to the moved cells from the calculation chain
+        CalculationChain calcChain = getWorkbook().getCalculationChain();
+        if (calcChain != null) {
+            Set<String> refs = new HashSet<>();
+            for (XSSFRow row : block) {
+                for (Cell cell : row) {
+                    refs.add(((XSSFCell)cell).getReference());
+                }
+            }
+            calcChain.removeItems(Math.toIntExact(sheet.getSheetId()), refs::contains);
+        }
+
+        // the references of the cells are renumbered by the rows, when they are needed
+        for (XSSFRow row : block) {
+            int rownum = row.getRowNum();
+            row.moveBy(n);
+            if (!arrayFormulas.isEmpty()) {
+                for (Cell cell : row) {
+                    if (cell.isPartOfArrayFormulaGroup()) {
+                        ((XSSFCell)cell).tryToDeleteArrayFormula("Row[rownum=" + rownum + "] contains cell(s) " +
+                                "included in a multi-cell array formula. You cannot change part of an array.");
+                    }
+                }
+            }
+        }
+
+        movedRows.clear();
+        for (XSSFRow row : block) {
+            _rows.put(row.getRowNum(), row);
+        }
+    }
+
+    private XSSFRow firstRowFrom(int rownum) {
+        SortedMap<Integer, XSSFRow> tail = _rows.tailMap(rownum);
+        return tail.isEmpty() ? null : tail.get(tail.firstKey());
+    }
+
+    /**
+     * Collects the shared and array formulas of all cells again, after their formulas have been shifted,
+     * like the rows do, when they are read
+     */
+    private void reindexFormulas() {
+        for (XSSFRow row : _rows.values()) {
+            for (Cell cell : row) {
+                onReadCell((XSSFCell)cell);
+            }
+        }
     }
 
     private int shiftedRowNum(int startRow, int endRow, int n, int rownum) {
@@ -3245,8 +3428,6 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         for(Map.Entry<XSSFComment, Integer> entry : commentsToShift.entrySet()) {
             entry.getKey().setColumn(entry.getValue());
         }
-
-        rebuildRows();
     }
 
     /**
@@ -3567,6 +3748,44 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
     }
 
     protected void write(OutputStream out) throws IOException {
+        boolean setToNull = prepareWorksheet();
+
+        XmlOptions xmlOptions = new XmlOptions(DEFAULT_XML_OPTIONS);
+        xmlOptions.setSaveSyntheticDocumentElement(new QName(CTWorksheet.type.getName().getNamespaceURI(), "worksheet"));
+
+        worksheet.save(out, xmlOptions);
+
+        // Bug 52233: Ensure that we have a col-array even if write() removed it
+        if(setToNull) {
+            worksheet.addNewCols();
+        }
+    }
+
+    /**
+     * Copies the xml of this worksheet, as it would be written. The copy is made in memory,
+     * so it's faster than writing and parsing the xml again.
+     *
+     * @return a copy of the worksheet
+     * @see #read(CTWorksheet)
+     */
+    /*package*/ CTWorksheet copyWorksheet() {
+        boolean setToNull = prepareWorksheet();
+
+        CTWorksheet copy = (CTWorksheet)worksheet.copy();
+
+        // Bug 52233: Ensure that we have a col-array even if write() removed it
+        if(setToNull) {
+            worksheet.addNewCols();
+        }
+        return copy;
+    }
+
+    /**
+     * Brings the worksheet xml up to date with the rows, cells and hyperlinks of this sheet
+     *
+     * @return true, if an empty col-array has been removed and has to be added again afterwards
+     */
+    private boolean prepareWorksheet() {
         boolean setToNull = false;
         if(worksheet.sizeOfColsArray() == 1) {
             CTCols col = worksheet.getColsArray(0);
@@ -3637,16 +3856,7 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
                 worksheet.addNewDimension().setRef(ref);
             }
         }
-
-        XmlOptions xmlOptions = new XmlOptions(DEFAULT_XML_OPTIONS);
-        xmlOptions.setSaveSyntheticDocumentElement(new QName(CTWorksheet.type.getName().getNamespaceURI(), "worksheet"));
-
-        worksheet.save(out, xmlOptions);
-
-        // Bug 52233: Ensure that we have a col-array even if write() removed it
-        if(setToNull) {
-            worksheet.addNewCols();
-        }
+        return setToNull;
     }
 
     /**
@@ -649,13 +649,18 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
         }
 
 
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            srcSheet.write(out);
-            try (ByteArrayInputStream bis = new ByteArrayInputStream(out.toByteArray())) {
-                clonedSheet.read(bis);
+        if (srcSheet.getClass() == XSSFSheet.class) {
+            // the xml is copied in memory, the styles and shared strings are referenced by their index anyway
+            clonedSheet.read(srcSheet.copyWorksheet());
+        } else {
+            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                srcSheet.write(out);
+                try (ByteArrayInputStream bis = new ByteArrayInputStream(out.toByteArray())) {
+                    clonedSheet.read(bis);
+                }
+            } catch (IOException e){
+                throw new POIXMLException("Failed to clone sheet", e);
             }
-        } catch (IOException e){
-            throw new POIXMLException("Failed to clone sheet", e);
         }
         CTWorksheet ct = clonedSheet.getCTWorksheet();
         if(ct.isSetLegacyDrawing()) {
@@ -20,6 +20,7 @@ package org.apache.poi.xssf.usermodel.extensions;
 import java.util.Objects;
 
 import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.xssf.model.StylesTable;
 import org.apache.poi.xssf.model.ThemesTable;
 import org.apache.poi.xssf.usermodel.IndexedColorMap;
 import org.apache.poi.xssf.usermodel.XSSFColor;
@@ -36,6 +37,7 @@ import org.openxmlformats.schemas.spreadsheetml.x2006.main.STBorderStyle;
 public class XSSFCellBorder {
     private final IndexedColorMap _indexedColorMap;
     private ThemesTable _theme;
+    private StylesTable _stylesSource;
     private final CTBorder border;
 
     /**
@@ -84,6 +86,23 @@ public class XSSFCellBorder {
        this._theme = themes;
     }
 
+    /**
+     * Records the Styles Table which this border is part of,
+     *  which is told about changes of the border.
+     *
+     * @since POI 5.0.0
+     */
+    @Internal
+    public void setStylesSource(StylesTable stylesSource) {
+       this._stylesSource = stylesSource;
+    }
+
+    private void contentChanged() {
+        if (_stylesSource != null) {
+            _stylesSource.onBorderChanged(this);
+        }
+    }
+
     /**
      * The enumeration value indicating the side being used for a cell border.
      */
@@ -123,6 +142,7 @@ public class XSSFCellBorder {
      */
     public void setBorderStyle(BorderSide side, BorderStyle style) {
         getBorder(side, true).setStyle(STBorderStyle.Enum.forInt(style.ordinal() + 1));
+        contentChanged();
     }
 
     /**
@@ -157,6 +177,7 @@ public class XSSFCellBorder {
         if (color == null) borderPr.unsetColor();
         else
             borderPr.setColor(color.getCTColor());
+        contentChanged();
     }
 
     private CTBorderPr getBorder(BorderSide side) {
@@ -20,6 +20,7 @@ import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTColor;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTFill;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTPatternFill;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.STPatternType;
+import org.apache.poi.xssf.model.StylesTable;
 import org.apache.poi.xssf.usermodel.IndexedColorMap;
 import org.apache.poi.xssf.usermodel.XSSFColor;
 
@@ -34,6 +35,7 @@ import org.apache.poi.util.Internal;
 public final class XSSFCellFill {
 
     private IndexedColorMap _indexedColorMap;
+    private StylesTable _stylesSource;
     private CTFill _fill;
 
     /**
@@ -75,6 +77,7 @@ public final class XSSFCellFill {
         CTPatternFill ptrn = ensureCTPatternFill();
         CTColor ctColor = ptrn.isSetBgColor() ? ptrn.getBgColor() : ptrn.addNewBgColor();
         ctColor.setIndexed(index);
+        contentChanged();
     }
 
     /**
@@ -89,6 +92,7 @@ public final class XSSFCellFill {
         } else {
             ptrn.setBgColor(color.getCTColor());
         }
+        contentChanged();
     }
 
     /**
@@ -113,6 +117,7 @@ public final class XSSFCellFill {
         CTPatternFill ptrn = ensureCTPatternFill();
         CTColor ctColor = ptrn.isSetFgColor() ? ptrn.getFgColor() : ptrn.addNewFgColor();
         ctColor.setIndexed(index);
+        contentChanged();
     }
 
     /**
@@ -127,6 +132,7 @@ public final class XSSFCellFill {
         } else {
             ptrn.setFgColor(color.getCTColor());
         }
+        contentChanged();
     }
 
     /**
@@ -147,6 +153,24 @@ public final class XSSFCellFill {
     public void setPatternType(STPatternType.Enum patternType) {
         CTPatternFill ptrn = ensureCTPatternFill();
         ptrn.setPatternType(patternType);
+        contentChanged();
+    }
+
+    /**
+     * Records the styles table which this fill is part of, which is told about changes of the fill.
+     *
+     * @param stylesSource the styles table
+     * @since POI 5.0.0
+     */
+    @Internal
+    public void setStylesSource(StylesTable stylesSource) {
+        _stylesSource = stylesSource;
+    }
+
+    private void contentChanged() {
+        if (_stylesSource != null) {
+            _stylesSource.onFillChanged(this);
+        }
     }
 
     private CTPatternFill ensureCTPatternFill() {
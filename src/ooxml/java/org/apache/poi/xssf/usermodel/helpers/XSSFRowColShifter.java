@@ -33,7 +33,9 @@ import org.apache.poi.xssf.usermodel.*;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.*;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Class for code common to {@link XSSFRowShifter} and {@link XSSFColumnShifter}
@@ -73,19 +75,34 @@ import java.util.List;
         //update formulas on the parent sheet
         updateSheetFormulas(sheet,formulaShifter);
 
-        //update formulas on other sheets
+        //update formulas on other sheets, only their references to the parent sheet are shifted
         Workbook wb = sheet.getWorkbook();
+        String sheetName = sheet.getSheetName();
         for(Sheet sh : wb)
         {
             if (sheet == sh) continue;
-            updateSheetFormulas(sh, formulaShifter);
+            updateSheetFormulas(sh, formulaShifter, sheetName);
         }
     }
 
     /*package*/ static void updateSheetFormulas(Sheet sh, FormulaShifter formulashifter) {
+        updateSheetFormulas(sh, formulashifter, null);
+    }
+
+    /**
+     * Update the formulas of a sheet. The same formula text is shifted to the same text on a sheet,
+     * so each distinct formula is only parsed once.
+     *
+     * @param sh the sheet to update the formulas on
+     * @param formulashifter the formula shifting policy
+     * @param referencedSheet the name of the sheet, which the formulas have to mention to be shifted,
+     *  or <code>null</code> to shift all formulas
+     */
+    private static void updateSheetFormulas(Sheet sh, FormulaShifter formulashifter, String referencedSheet) {
+        Map<String, String> shiftedFormulas = new HashMap<>();
         for (Row r : sh) {
             XSSFRow row = (XSSFRow) r;
-            updateRowFormulas(row, formulashifter);
+            updateRowFormulas(row, formulashifter, referencedSheet, shiftedFormulas);
         }
     }
 
@@ -96,6 +113,24 @@ import java.util.List;
      * @param formulaShifter the formula shifting policy
      */
     /*package*/ static void updateRowFormulas(XSSFRow row, FormulaShifter formulaShifter) {
+        updateRowFormulas(row, formulaShifter, null, null);
+    }
+
+    /**
+     * Update the formulas in the specified rows of the same sheet, each distinct formula is only parsed once
+     *
+     * @param rows the rows to update the formulas on
+     * @param formulaShifter the formula shifting policy
+     */
+    /*package*/ static void updateRowFormulas(List<XSSFRow> rows, FormulaShifter formulaShifter) {
+        Map<String, String> shiftedFormulas = new HashMap<>();
+        for (XSSFRow row : rows) {
+            updateRowFormulas(row, formulaShifter, null, shiftedFormulas);
+        }
+    }
+
+    private static void updateRowFormulas(XSSFRow row, FormulaShifter formulaShifter,
+            String referencedSheet, Map<String, String> shiftedFormulas) {
         XSSFSheet sheet = row.getSheet();
         for (Cell c : row) {
             XSSFCell cell = (XSSFCell) c;
@@ -104,22 +139,26 @@ import java.util.List;
             if (ctCell.isSetF()) {
                 CTCellFormula f = ctCell.getF();
                 String formula = f.getStringValue();
+                if (referencedSheet != null && !mentionsSheet(formula, referencedSheet)) {
+                    // formulas on other sheets are only changed by references to the shifted sheet
+                    continue;
+                }
                 if (formula.length() > 0) {
-                    String shiftedFormula = shiftFormula(row, formula, formulaShifter);
+                    String shiftedFormula = shiftFormula(row, formula, formulaShifter, shiftedFormulas);
                     if (shiftedFormula != null) {
                         f.setStringValue(shiftedFormula);
                         if(f.getT() == STCellFormulaType.SHARED){
                             int si = Math.toIntExact(f.getSi());
                             CTCellFormula sf = sheet.getSharedFormula(si);
                             sf.setStringValue(shiftedFormula);
-                            updateRefInCTCellFormula(row, formulaShifter, sf);
+                            updateRefInCTCellFormula(row, formulaShifter, sf, shiftedFormulas);
                         }
                     }
 
                 }
 
                 //Range of cells which the formula applies to.
-                updateRefInCTCellFormula(row, formulaShifter, f);
+                updateRefInCTCellFormula(row, formulaShifter, f, shiftedFormulas);
             }
 
         }
@@ -156,11 +195,51 @@ import java.util.List;
         }
     }
 
+    /**
+     * Shift a formula using the supplied FormulaShifter and remember the result for the other cells
+     * of the sheet. Formulas with structured references depend on the row and aren't remembered.
+     *
+     * @param shiftedFormulas the shifted formulas of the sheet, or <code>null</code>
+     */
+    private static String shiftFormula(Row row, String formula, FormulaShifter formulaShifter,
+            Map<String, String> shiftedFormulas) {
+        if (shiftedFormulas == null || formula.indexOf('[') >= 0) {
+            return shiftFormula(row, formula, formulaShifter);
+        }
+        // the formula may stay unchanged, so null is a result as well
+        if (shiftedFormulas.containsKey(formula)) {
+            return shiftedFormulas.get(formula);
+        }
+        String shiftedFmla = shiftFormula(row, formula, formulaShifter);
+        shiftedFormulas.put(formula, shiftedFmla);
+        return shiftedFmla;
+    }
+
+    /**
+     * Checks if a formula may reference a sheet, i.e. if it contains the name of the sheet,
+     * quoted or not. The formula shifter compares sheet names ignoring their case.
+     */
+    private static boolean mentionsSheet(String formula, String sheetName) {
+        String name = sheetName.replace("'", "''");
+        int last = formula.length() - name.length();
+        for (int i = 0; i <= last; i++) {
+            if (formula.regionMatches(true, i, name, 0, name.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /*package*/
     static void updateRefInCTCellFormula(Row row, FormulaShifter formulaShifter, CTCellFormula f) {
+        updateRefInCTCellFormula(row, formulaShifter, f, null);
+    }
+
+    private static void updateRefInCTCellFormula(Row row, FormulaShifter formulaShifter, CTCellFormula f,
+            Map<String, String> shiftedFormulas) {
         if (f.isSetRef()) { //Range of cells which the formula applies to.
             String ref = f.getRef();
-            String shiftedRef = shiftFormula(row, ref, formulaShifter);
+            String shiftedRef = shiftFormula(row, ref, formulaShifter, shiftedFormulas);
             if (shiftedRef != null) f.setRef(shiftedRef);
         }
     }
@@ -17,6 +17,8 @@
 
 package org.apache.poi.xssf.usermodel.helpers;
 
+import java.util.List;
+
 import org.apache.poi.ss.formula.FormulaShifter;
 import org.apache.poi.ss.usermodel.helpers.RowShifter;
 import org.apache.poi.util.Internal;
@@ -57,6 +59,19 @@ public final class XSSFRowShifter extends RowShifter {
         XSSFRowColShifter.updateRowFormulas(row, formulaShifter);
     }
 
+    /**
+     * Update the formulas in the specified rows of the same sheet using the formula shifting policy
+     * specified by shifter. The same formula is only shifted once.
+     *
+     * @param rows the rows to update the formulas on
+     * @param formulaShifter the formula shifting policy
+     * @since POI 5.0.0
+     */
+    @Internal
+    public void updateRowFormulas(List<XSSFRow> rows, FormulaShifter formulaShifter) {
+        XSSFRowColShifter.updateRowFormulas(rows, formulaShifter);
+    }
+
     @Override
     public void updateConditionalFormatting(FormulaShifter formulaShifter) {
         XSSFRowColShifter.updateConditionalFormatting(sheet, formulaShifter);
@@ -0,0 +1,128 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.benchmark;
+
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.text.AttributedString;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.SheetUtil;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares auto-sizing columns with the cached glyph advances against
+ * laying out the text of every cell, as it was done before
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class AutoSizeColumnBench {
+    private static final int ROWS = 10_000;
+    private static final int COLUMNS = 10;
+    private static final FontRenderContext FRC = new FontRenderContext(null, true, true);
+
+    private Workbook wb;
+    private Sheet sheet;
+    private int[] columns;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        wb = new XSSFWorkbook();
+        sheet = wb.createSheet();
+        for (int r = 0; r < ROWS; r++) {
+            Row row = sheet.createRow(r);
+            for (int c = 0; c < COLUMNS; c++) {
+                Cell cell = row.createCell(c);
+                if (c % 2 == 0) {
+                    cell.setCellValue("Row " + r + " column " + c);
+                } else {
+                    cell.setCellValue(r * 1234.5678 / (c + 1));
+                }
+            }
+        }
+        columns = new int[COLUMNS];
+        for (int c = 0; c < COLUMNS; c++) {
+            columns[c] = c;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        wb.close();
+    }
+
+    @Benchmark
+    public double textLayoutPerCell() {
+        DataFormatter formatter = new DataFormatter();
+        Font font = wb.getFontAt(0);
+        double width = 0;
+        for (int c = 0; c < COLUMNS; c++) {
+            for (Row row : sheet) {
+                String txt = formatter.formatCellValue(row.getCell(c)) + "0";
+                AttributedString str = new AttributedString(txt);
+                str.addAttribute(TextAttribute.FAMILY, font.getFontName(), 0, txt.length());
+                str.addAttribute(TextAttribute.SIZE, (float)font.getFontHeightInPoints());
+                Rectangle2D bounds = new TextLayout(str.getIterator(), FRC).getBounds();
+                width = Math.max(width, bounds.getX() + bounds.getWidth());
+            }
+        }
+        return width;
+    }
+
+    @Benchmark
+    public double getColumnWidth() {
+        double width = 0;
+        for (int c = 0; c < COLUMNS; c++) {
+            width = Math.max(width, SheetUtil.getColumnWidth(sheet, c, false));
+        }
+        return width;
+    }
+
+    @Benchmark
+    public double[] getColumnWidthsParallel() {
+        return SheetUtil.getColumnWidths(sheet, columns, false, 0, true);
+    }
+
+    @Benchmark
+    public double[] getColumnWidthsSampled() {
+        return SheetUtil.getColumnWidths(sheet, columns, false, 1000, false);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + AutoSizeColumnBench.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,105 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.CellCopyPolicy;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures cloning a template sheet and copying its rows, like a templating engine does
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class CloneSheetBench {
+    private static final int ROWS = 20_000;
+    private static final int COPIED_ROWS = 1_000;
+
+    private XSSFWorkbook wb;
+    private XSSFSheet template;
+    private final List<XSSFRow> copiedRows = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        wb = new XSSFWorkbook();
+        template = wb.createSheet("Template");
+        XSSFCellStyle dateStyle = wb.createCellStyle();
+        dateStyle.setDataFormat(wb.createDataFormat().getFormat("yyyy-mm-dd"));
+        for (int r = 0; r < ROWS; r++) {
+            XSSFRow row = template.createRow(r);
+            row.createCell(0).setCellValue("Item " + (r % 100));
+            row.createCell(1).setCellValue(r * 1.5);
+            row.createCell(2).setCellValue(43000 + r % 365);
+            row.getCell(2).setCellStyle(dateStyle);
+            row.createCell(3).setCellFormula("B" + (r + 1) + "*2");
+            if (r < COPIED_ROWS) {
+                copiedRows.add(row);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        wb.close();
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeCopies() {
+        while (wb.getNumberOfSheets() > 1) {
+            wb.removeSheetAt(1);
+        }
+    }
+
+    @Benchmark
+    public XSSFSheet cloneSheet() {
+        return wb.cloneSheet(0);
+    }
+
+    @Benchmark
+    public XSSFSheet copyRows() {
+        XSSFSheet sheet = wb.createSheet();
+        sheet.copyRows(copiedRows, 0, new CellCopyPolicy());
+        return sheet;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + CloneSheetBench.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -23,6 +23,7 @@ import static org.apache.poi.openxml4j.OpenXML4JTestDataSamples.getSampleFileNam
 import static org.apache.poi.openxml4j.OpenXML4JTestDataSamples.openSampleStream;
 import static org.apache.poi.openxml4j.opc.PackagingURIHelper.createPartName;
 import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -1198,4 +1199,47 @@ public final class TestPackage {
 		}
 
 	}
+
+	@Test
+	public void unmodifiedPartsAreCopiedRaw() throws IOException, InvalidFormatException {
+		File originalFile = getSampleFile("TestPackageCommon.docx");
+		File targetFile = getOutputFile("TestPackageRawCopyTMP.docx");
+
+		try (OPCPackage p = OPCPackage.open(originalFile, PackageAccess.READ_WRITE)) {
+			try {
+				// modify one part, which will be recompressed
+				PackagePart docPart = p.getPart(createPartName("/word/document.xml"));
+				byte[] docBytes;
+				try (InputStream is = docPart.getInputStream()) {
+					docBytes = IOUtils.toByteArray(is);
+				}
+				try (OutputStream os = docPart.getOutputStream()) {
+					os.write(docBytes);
+				}
+				p.save(targetFile);
+			} finally {
+				p.revert();
+			}
+		}
+
+		try (ZipFile zipSrc = new ZipFile(originalFile);
+			 ZipFile zipTrg = new ZipFile(targetFile)) {
+			for (String name : new String[]{"word/media/image1.gif", "docProps/thumbnail.wmf", "word/styles.xml"}) {
+				ZipArchiveEntry src = zipSrc.getEntry(name);
+				ZipArchiveEntry trg = zipTrg.getEntry(name);
+				assertNotNull(trg);
+				assertEquals(src.getMethod(), trg.getMethod());
+				assertEquals(src.getCrc(), trg.getCrc());
+				assertEquals(src.getCompressedSize(), trg.getCompressedSize());
+				try (InputStream srcRaw = zipSrc.getRawInputStream(src);
+					 InputStream trgRaw = zipTrg.getRawInputStream(trg)) {
+					assertArrayEquals(IOUtils.toByteArray(srcRaw), IOUtils.toByteArray(trgRaw));
+				}
+			}
+
+			ZipFileAssert.assertEquals(originalFile, targetFile);
+		} finally {
+			assertTrue(targetFile.delete());
+		}
+	}
 }
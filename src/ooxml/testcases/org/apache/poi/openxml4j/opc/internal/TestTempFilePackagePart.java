@@ -0,0 +1,113 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.openxml4j.opc.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackagePartName;
+import org.apache.poi.openxml4j.opc.PackagingURIHelper;
+import org.apache.poi.openxml4j.opc.ZipPackage;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class TestTempFilePackagePart {
+    private long oldThreshold;
+
+    @Before
+    public void setUp() {
+        oldThreshold = ZipPackage.getTempFilePackagePartThreshold();
+        ZipPackage.setTempFilePackagePartThreshold(1024);
+    }
+
+    @After
+    public void tearDown() {
+        ZipPackage.setTempFilePackagePartThreshold(oldThreshold);
+    }
+
+    @Test
+    public void spillToFile() throws Exception {
+        try (OPCPackage pkg = new ZipPackage()) {
+            PackagePartName name = PackagingURIHelper.createPartName("/poi/test.bin");
+            PackagePart part = pkg.createPart(name, "application/octet-stream");
+            assertTrue(part instanceof TempFilePackagePart);
+            TempFilePackagePart tfpp = (TempFilePackagePart)part;
+
+            byte[] small = new byte[100];
+            try (OutputStream os = part.getOutputStream()) {
+                os.write(small);
+            }
+            assertFalse(tfpp.isFileBacked());
+            assertEquals(100, part.getSize());
+
+            // appending beyond the threshold moves the data into a file
+            byte[] big = new byte[2000];
+            for (int i=0; i<big.length; i++) {
+                big[i] = (byte)i;
+            }
+            try (OutputStream os = part.getOutputStream()) {
+                os.write(big);
+            }
+            assertTrue(tfpp.isFileBacked());
+            assertEquals(2100, part.getSize());
+
+            byte[] exp = new byte[2100];
+            System.arraycopy(big, 0, exp, 100, big.length);
+            try (InputStream is = part.getInputStream()) {
+                assertArrayEquals(exp, IOUtils.toByteArray(is));
+            }
+
+            part.clear();
+            assertFalse(tfpp.isFileBacked());
+            assertEquals(0, part.getSize());
+        }
+    }
+
+    @Test
+    public void writeWorkbook() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet();
+            for (int i=0; i<1000; i++) {
+                sheet.createRow(i).createCell(0).setCellValue("row " + i);
+            }
+            wb.write(bos);
+            assertTrue(wb.getSheetAt(0).getPackagePart() instanceof TempFilePackagePart);
+            assertTrue(((TempFilePackagePart)wb.getSheetAt(0).getPackagePart()).isFileBacked());
+        }
+
+        try (XSSFWorkbook wb = new XSSFWorkbook(new ByteArrayInputStream(bos.toByteArray()))) {
+            Sheet sheet = wb.getSheetAt(0);
+            assertEquals(999, sheet.getLastRowNum());
+            assertEquals("row 999", sheet.getRow(999).getCell(0).getStringCellValue());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.eventusermodel;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests for {@link XSSFParallelSheetReader}
+ */
+public final class TestXSSFParallelSheetReader {
+    private static final int ROWS = 5000;
+
+    private static byte[] data;
+
+    private static ExecutorService executor;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet();
+            for (int r = 0; r < ROWS; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue(r);
+                row.createCell(1).setCellValue("text " + (r % 100));
+            }
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            wb.write(bos);
+            data = bos.toByteArray();
+        }
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testChunks() throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(data))) {
+            XSSFReader r = new XSSFReader(pkg);
+            try (XSSFParallelSheetReader reader = new XSSFParallelSheetReader(r.getSheetsData().next(), null, null)) {
+                assertEquals(2, reader.findChunkBounds(1).length);
+                assertEquals(9, reader.findChunkBounds(8).length);
+            }
+        }
+    }
+
+    @Test
+    public void testOrdered() throws Exception {
+        List<String> rows = readRows(true, 8);
+        assertRows(rows);
+    }
+
+    @Test
+    public void testUnordered() throws Exception {
+        List<String> rows = readRows(false, 8);
+        rows.sort(Comparator.comparingInt(s -> Integer.parseInt(s.substring(0, s.indexOf(':')))));
+        assertRows(rows);
+    }
+
+    private static List<String> readRows(boolean ordered, int parallelism) throws Exception {
+        List<String> rows = Collections.synchronizedList(new ArrayList<>());
+        try (OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(data))) {
+            XSSFReader r = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            try (XSSFParallelSheetReader reader =
+                     new XSSFParallelSheetReader(r.getSheetsData().next(), strings, r.getStylesTable())) {
+                reader.readRows(executor, parallelism, ordered, row ->
+                    rows.add(row.getRowNum() + ":" + (int)row.getNumericCellValue(0) + ":" + row.getStringCellValue(1)));
+            }
+        }
+        return rows;
+    }
+
+    private static void assertRows(List<String> rows) {
+        assertEquals(ROWS, rows.size());
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(i + ":" + i + ":text " + (i % 100), rows.get(i));
+        }
+    }
+}
@@ -26,23 +26,37 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.poi.POIDataSamples;
 import org.apache.poi.ooxml.POIXMLException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.xssf.XSSFTestDataSamples;
 import org.apache.poi.xssf.model.CommentsTable;
 import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.apache.poi.xssf.usermodel.XSSFShape;
 import org.apache.poi.xssf.usermodel.XSSFSimpleShape;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -346,4 +360,120 @@ public final class TestXSSFReader {
             }
         }
     }
+
+    @Test
+    public void testProcessSheetsConcurrently() throws Exception {
+        final byte[] data;
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            for (int s = 0; s < 10; s++) {
+                Sheet sheet = wb.createSheet("Sheet " + s);
+                for (int r = 0; r < 200; r++) {
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue("text " + (r % 20));
+                    row.createCell(1).setCellValue(r * s);
+                }
+            }
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            wb.write(bos);
+            data = bos.toByteArray();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(data))) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Map<String, CollectingHandler> result =
+                reader.processSheets(executor, strings, styles, name -> new CollectingHandler(), false);
+
+            assertEquals(10, result.size());
+            int s = 0;
+            for (Map.Entry<String, CollectingHandler> me : result.entrySet()) {
+                assertEquals("Sheet " + s, me.getKey());
+                List<String> cells = me.getValue().cells;
+                assertEquals(400, cells.size());
+                assertEquals("A200=text 19", cells.get(398));
+                assertEquals("B200=" + (199 * s), cells.get(399));
+                s++;
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testProcessSheetsRejected() throws Exception {
+        final byte[] data;
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            for (int s = 0; s < 5; s++) {
+                wb.createSheet("Sheet " + s).createRow(0).createCell(0).setCellValue(s);
+            }
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            wb.write(bos);
+            data = bos.toByteArray();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        AtomicInteger submitted = new AtomicInteger();
+        // only the first two sheets are accepted
+        Executor executor = task -> {
+            if (submitted.incrementAndGet() > 2) {
+                throw new RejectedExecutionException();
+            }
+            pool.execute(task);
+        };
+        try (OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(data))) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            List<CollectingHandler> handlers = new ArrayList<>();
+            try {
+                reader.processSheets(executor, strings, reader.getStylesTable(), name -> {
+                    CollectingHandler handler = new CollectingHandler();
+                    handlers.add(handler);
+                    return handler;
+                }, false);
+                fail("RejectedExecutionException expected");
+            } catch (RejectedExecutionException e) {
+                // the submitted sheets have been parsed or skipped, before the exception is thrown
+                List<Integer> sizes = new ArrayList<>();
+                for (CollectingHandler handler : handlers) {
+                    sizes.add(handler.cells.size());
+                }
+                pool.awaitTermination(100, TimeUnit.MILLISECONDS);
+                for (int i = 0; i < handlers.size(); i++) {
+                    assertEquals(sizes.get(i).intValue(), handlers.get(i).cells.size());
+                }
+            }
+
+            try {
+                reader.processSheets(pool, strings, reader.getStylesTable(), name -> {
+                    if (name.equals("Sheet 3")) {
+                        throw new IllegalStateException(name);
+                    }
+                    return new CollectingHandler();
+                }, false);
+                fail("IllegalStateException expected");
+            } catch (IllegalStateException e) {
+                assertEquals("Sheet 3", e.getMessage());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static class CollectingHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final List<String> cells = new ArrayList<>();
+
+        @Override
+        public void startRow(int rowNum) {}
+
+        @Override
+        public void endRow(int rowNum) {}
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            cells.add(cellReference + "=" + formattedValue);
+        }
+    }
 }
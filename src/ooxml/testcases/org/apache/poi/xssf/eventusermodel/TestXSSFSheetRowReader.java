@@ -0,0 +1,174 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.eventusermodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+/**
+ * Tests for {@link XSSFSheetRowReader}
+ */
+public final class TestXSSFSheetRowReader {
+
+    @Test
+    public void testCellValues() throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(createWorkbook()))) {
+            XSSFReader r = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator)r.getSheetsData();
+            assertTrue(iter.hasNext());
+
+            try (XSSFSheetRowReader reader = new XSSFSheetRowReader(iter.next(), strings, r.getStylesTable())) {
+                XSSFSheetRowReader.RowView row = reader.nextRow();
+                assertNotNull(row);
+                assertEquals(0, row.getRowNum());
+                assertEquals(6, row.getCellCount());
+
+                assertEquals(0, row.getColumnIndex(0));
+                assertEquals(CellType.NUMERIC, row.getCellType(0));
+                assertEquals(1.5, row.getNumericCellValue(0), 0);
+
+                assertEquals(CellType.STRING, row.getCellType(1));
+                assertEquals(0, row.getSharedStringIndex(1));
+                assertEquals("text", row.getStringCellValue(1));
+
+                assertEquals(CellType.BOOLEAN, row.getCellType(2));
+                assertTrue(row.getBooleanCellValue(2));
+
+                assertEquals(CellType.FORMULA, row.getCellType(3));
+                assertEquals(CellType.NUMERIC, row.getCachedFormulaResultType(3));
+                assertEquals("A1*2", row.getCellFormula(3));
+                assertEquals(3, row.getNumericCellValue(3), 0);
+
+                // cells can be sparse
+                assertEquals(5, row.getColumnIndex(4));
+                assertEquals(CellType.NUMERIC, row.getCellType(4));
+                assertEquals("12.35%", row.formatCellValue(4, new DataFormatter()));
+
+                assertEquals(7, row.getColumnIndex(5));
+                assertEquals(CellType.BLANK, row.getCellType(5));
+
+                row = reader.nextRow();
+                assertNotNull(row);
+                assertEquals(2, row.getRowNum());
+                assertEquals(1, row.getCellCount());
+                assertEquals(-1, row.getSharedStringIndex(0));
+                assertEquals(-1e-7, row.getNumericCellValue(0), 0);
+
+                assertNull(reader.nextRow());
+                assertNull(reader.nextRow());
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsHandler() throws Exception {
+        byte[] data = createWorkbook();
+        DataFormatter formatter = new DataFormatter();
+
+        List<String> exp = new ArrayList<>();
+        try (OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(data))) {
+            XSSFReader r = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFSheetXMLHandler.SheetContentsHandler sch = new XSSFSheetXMLHandler.SheetContentsHandler() {
+                @Override
+                public void startRow(int rowNum) {}
+
+                @Override
+                public void endRow(int rowNum) {}
+
+                @Override
+                public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+                    exp.add(cellReference + "=" + formattedValue);
+                }
+            };
+            XSSFSheetXMLHandler handler = new XSSFSheetXMLHandler(r.getStylesTable(), strings, sch, formatter, false);
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(handler);
+            parser.parse(new InputSource(r.getSheetsData().next()));
+        }
+
+        List<String> act = new ArrayList<>();
+        try (OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(data))) {
+            XSSFReader r = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            try (XSSFSheetRowReader reader = new XSSFSheetRowReader(r.getSheetsData().next(), strings, r.getStylesTable())) {
+                XSSFSheetRowReader.RowView row;
+                while ((row = reader.nextRow()) != null) {
+                    for (int i=0; i<row.getCellCount(); i++) {
+                        if (row.getCellType(i) == CellType.BLANK) {
+                            // the handler doesn't report blank cells
+                            continue;
+                        }
+                        String ref = new CellReference(row.getRowNum(), row.getColumnIndex(i)).formatAsString();
+                        act.add(ref + "=" + row.formatCellValue(i, formatter));
+                    }
+                }
+            }
+        }
+
+        assertFalse(exp.isEmpty());
+        assertEquals(exp, act);
+    }
+
+    private static byte[] createWorkbook() throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet();
+            CellStyle percent = wb.createCellStyle();
+            percent.setDataFormat(wb.createDataFormat().getFormat("0.00%"));
+
+            Row row = sheet.createRow(0);
+            row.createCell(0).setCellValue(1.5);
+            row.createCell(1).setCellValue("text");
+            row.createCell(2).setCellValue(true);
+            row.createCell(3).setCellFormula("A1*2");
+            wb.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            row.createCell(5).setCellValue(0.12345);
+            row.getCell(5).setCellStyle(percent);
+            row.createCell(7).setCellStyle(percent);
+
+            sheet.createRow(2).createCell(0).setCellValue(-1e-7);
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            wb.write(bos);
+            return bos.toByteArray();
+        }
+    }
+}
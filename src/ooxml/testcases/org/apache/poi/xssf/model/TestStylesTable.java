@@ -22,6 +22,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -29,12 +30,21 @@ import static org.junit.Assert.fail;
 import java.io.IOException;
 import java.util.Map;
 
+import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.BuiltinFormats;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.xssf.XSSFTestDataSamples;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFFont;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.usermodel.extensions.XSSFCellBorder;
+import org.apache.poi.xssf.usermodel.extensions.XSSFCellBorder.BorderSide;
+import org.apache.poi.xssf.usermodel.extensions.XSSFCellFill;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTBorder;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTFill;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTXf;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STPatternType;
 
 public final class TestStylesTable {
     private static final String testFile = "Formatting.xlsx";
@@ -273,6 +283,129 @@ public final class TestStylesTable {
         }
     }
     
+    @Test
+    public void findNumberFormats() {
+        StylesTable st = new StylesTable();
+        int idx = st.putNumberFormat(customDataFormat);
+        assertEquals(idx, st.putNumberFormat(customDataFormat));
+
+        // the lowest id of a format is used
+        st.putNumberFormat((short)200, "0.000");
+        st.putNumberFormat((short)190, "0.000");
+        assertEquals(190, st.putNumberFormat("0.000"));
+        assertTrue(st.removeNumberFormat((short)190));
+        assertEquals(200, st.putNumberFormat("0.000"));
+
+        // a replaced format isn't found anymore
+        st.putNumberFormat((short)200, "0.0000");
+        assertEquals(201, st.putNumberFormat("0.000"));
+        assertEquals(200, st.putNumberFormat("0.0000"));
+        assertEquals(idx, st.putNumberFormat(customDataFormat));
+    }
+
+    @Test
+    public void findFillsAndBorders() throws Exception {
+        StylesTable st = new StylesTable();
+        int fills = st.getFills().size();
+        int borders = st.getBorders().size();
+        for (int i = 0; i < 50; i++) {
+            XSSFCellFill fill = new XSSFCellFill();
+            fill.setPatternType(STPatternType.SOLID);
+            fill.setFillForegroundColor(8 + i);
+            int fillIdx = st.putFill(fill);
+            assertEquals(fills + i, fillIdx);
+
+            XSSFCellBorder border = new XSSFCellBorder();
+            border.setBorderStyle(BorderSide.TOP, BorderStyle.THIN);
+            border.setBorderStyle(BorderSide.BOTTOM, BorderStyle.values()[i % BorderStyle.values().length]);
+            border.setBorderColor(BorderSide.TOP, fill.getFillForegroundColor());
+            int borderIdx = st.putBorder(border);
+            assertEquals(borders + i, borderIdx);
+
+            // equal entries are found, even if they are serialized differently (bug 60845)
+            CTFill ctFill = CTFill.Factory.parse(fill.getCTFill().toString());
+            assertEquals(fillIdx, st.putFill(new XSSFCellFill(ctFill, st.getIndexedColors())));
+            CTBorder ctBorder = CTBorder.Factory.parse(border.getCTBorder().toString());
+            assertEquals(borderIdx, st.putBorder(new XSSFCellBorder(ctBorder, st.getIndexedColors())));
+        }
+        assertEquals(fills + 50, st.getFills().size());
+        assertEquals(borders + 50, st.getBorders().size());
+    }
+
+    @Test
+    public void findFontsAndStyles() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            StylesTable st = wb.getStylesSource();
+
+            // fonts can be customised after they have been registered
+            XSSFFont registered = wb.createFont();
+            registered.setBold(true);
+            registered.setFontName("Cambria");
+            XSSFFont font = new XSSFFont();
+            font.setBold(true);
+            font.setFontName("Cambria");
+            assertEquals(registered.getIndexAsInt(), st.putFont(font));
+            assertNotEquals(registered.getIndexAsInt(), st.putFont(font, true));
+
+            XSSFCellStyle style = wb.createCellStyle();
+            int idx = st.putStyle(style);
+            assertEquals(style.getIndex(), idx);
+            assertEquals(idx, st.putStyle(style));
+
+            // the replaced bean isn't part of the table anymore
+            CTXf xf = st.getCellXfAt(idx);
+            st.replaceCellXfAt(idx, (CTXf)xf.copy());
+            assertEquals(idx, st.putStyle(st.getStyleAt(idx)));
+            assertEquals(idx + 1, st.putStyle(style));
+        }
+    }
+
+    @Test
+    public void findChangedEntries() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            StylesTable st = wb.getStylesSource();
+
+            XSSFCellFill fill = new XSSFCellFill();
+            fill.setPatternType(STPatternType.SOLID);
+            fill.setFillForegroundColor(10);
+            int fillIdx = st.putFill(fill);
+            XSSFCellBorder border = new XSSFCellBorder();
+            border.setBorderStyle(BorderSide.TOP, BorderStyle.THIN);
+            int borderIdx = st.putBorder(border);
+            XSSFFont font = wb.createFont();
+            font.setFontName("Cambria");
+
+            // the entries of the table are found by their new content
+            st.getFillAt(fillIdx).setFillForegroundColor(20);
+            st.getBorderAt(borderIdx).setBorderStyle(BorderSide.TOP, BorderStyle.THICK);
+            font.setItalic(true);
+
+            XSSFCellFill changedFill = new XSSFCellFill();
+            changedFill.setPatternType(STPatternType.SOLID);
+            changedFill.setFillForegroundColor(20);
+            assertEquals(fillIdx, st.putFill(changedFill));
+            XSSFCellBorder changedBorder = new XSSFCellBorder();
+            changedBorder.setBorderStyle(BorderSide.TOP, BorderStyle.THICK);
+            assertEquals(borderIdx, st.putBorder(changedBorder));
+            XSSFFont changedFont = new XSSFFont();
+            changedFont.setFontName("Cambria");
+            changedFont.setItalic(true);
+            assertEquals(font.getIndexAsInt(), st.putFont(changedFont));
+
+            // and not by their old content anymore
+            XSSFCellFill oldFill = new XSSFCellFill();
+            oldFill.setPatternType(STPatternType.SOLID);
+            oldFill.setFillForegroundColor(10);
+            assertEquals(st.getFills().size(), st.putFill(oldFill));
+            XSSFCellBorder oldBorder = new XSSFCellBorder();
+            oldBorder.setBorderStyle(BorderSide.TOP, BorderStyle.THIN);
+            assertEquals(st.getBorders().size(), st.putBorder(oldBorder));
+            XSSFFont oldFont = new XSSFFont();
+            oldFont.setFontName("Cambria");
+            assertEquals(st.getFonts().size(), st.putFont(oldFont));
+        }
+    }
+
     @Test
     public void maxNumberOfDataFormats() throws IOException {
         try (XSSFWorkbook wb = new XSSFWorkbook()) {
@@ -82,6 +82,17 @@ public final class TestSXSSFSheet extends BaseTestXSheet {
         super.shiftMerged();
     }
 
+    /**
+     * shifting rows is not supported in SXSSF
+     */
+    @Override
+    @Test
+    public void manyMergedRegions() throws IOException {
+        thrown.expect(RuntimeException.class);
+        thrown.expectMessage("Not Implemented");
+        super.manyMergedRegions();
+    }
+
     /**
      *  Bug 35084: cloning cells with formula
      *
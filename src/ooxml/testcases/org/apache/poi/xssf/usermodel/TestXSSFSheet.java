@@ -1817,6 +1817,58 @@ public final class TestXSSFSheet extends BaseTestXSheet {
         testCopyMultipleRows("XSSFSheet.copyRows.xlsx");
     }
 
+    @Test
+    public void testCloneSheetAndCopyRows() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            XSSFSheet template = wb.createSheet("Template");
+            XSSFCellStyle dateStyle = wb.createCellStyle();
+            dateStyle.setDataFormat(wb.createDataFormat().getFormat("yyyy-mm-dd"));
+            for (int i = 0; i < 3; i++) {
+                XSSFRow row = template.createRow(i);
+                row.createCell(0).setCellValue("Item");
+                XSSFCell date = row.createCell(1);
+                date.setCellValue(43000 + i);
+                date.setCellStyle(dateStyle);
+                row.createCell(2).setCellFormula("B" + (i + 1) + "+1");
+            }
+            template.addMergedRegion(new CellRangeAddress(0, 0, 3, 4));
+            template.setColumnWidth(0, 5000);
+
+            XSSFSheet clone = wb.cloneSheet(0, "Clone");
+            assertEquals(3, clone.getPhysicalNumberOfRows());
+            assertEquals("Item", clone.getRow(2).getCell(0).getStringCellValue());
+            assertEquals("B3+1", clone.getRow(2).getCell(2).getCellFormula());
+            assertEquals(dateStyle.getIndex(), clone.getRow(2).getCell(1).getCellStyle().getIndex());
+            assertEquals(1, clone.getNumMergedRegions());
+            assertEquals(5000, clone.getColumnWidth(0));
+
+            // the clone doesn't share its xml with the template
+            clone.getRow(0).getCell(0).setCellValue("Changed");
+            assertEquals("Item", template.getRow(0).getCell(0).getStringCellValue());
+
+            // the copied strings reference the existing entries of the shared strings table
+            int count = wb.getSharedStringSource().getCount();
+            int uniqueCount = wb.getSharedStringSource().getUniqueCount();
+            clone.copyRows(0, 2, 10, new CellCopyPolicy());
+            assertEquals(count + 3, wb.getSharedStringSource().getCount());
+            assertEquals(uniqueCount, wb.getSharedStringSource().getUniqueCount());
+            assertEquals("Changed", clone.getRow(10).getCell(0).getStringCellValue());
+            assertEquals("Item", clone.getRow(12).getCell(0).getStringCellValue());
+            assertEquals(43002, clone.getRow(12).getCell(1).getNumericCellValue(), 0);
+            assertEquals(dateStyle.getIndex(), clone.getRow(12).getCell(1).getCellStyle().getIndex());
+            assertEquals("B11+1", clone.getRow(10).getCell(2).getCellFormula());
+            assertEquals("B13+1", clone.getRow(12).getCell(2).getCellFormula());
+
+            try (XSSFWorkbook wb2 = writeOutAndReadBack(wb)) {
+                XSSFSheet clone2 = wb2.getSheet("Clone");
+                assertEquals("Changed", clone2.getRow(0).getCell(0).getStringCellValue());
+                assertEquals("Item", clone2.getRow(12).getCell(0).getStringCellValue());
+                assertEquals("B13+1", clone2.getRow(12).getCell(2).getCellFormula());
+                assertEquals("Item", wb2.getSheet("Template").getRow(0).getCell(0).getStringCellValue());
+            }
+        }
+    }
+
     @Test
     public void testIgnoredErrors() throws IOException {
         XSSFWorkbook workbook = new XSSFWorkbook();
@@ -17,8 +17,18 @@
 
 package org.apache.poi.xssf.usermodel;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
 import org.apache.poi.ss.usermodel.BaseTestSheetAutosizeColumn;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.SheetUtil;
 import org.apache.poi.xssf.XSSFITestDataProvider;
+import org.apache.poi.xssf.XSSFTestDataSamples;
+import org.junit.Test;
 
 /**
  * @author Yegor Kozlov
@@ -28,4 +38,48 @@ public final class TestXSSFSheetAutosizeColumn extends BaseTestSheetAutosizeColu
     public TestXSSFSheetAutosizeColumn(){
         super(XSSFITestDataProvider.instance);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getColumnWidthsInParallel() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            XSSFSheet sheet = wb.createSheet();
+            XSSFFont bold = wb.createFont();
+            bold.setBold(true);
+            XSSFCellStyle boldStyle = wb.createCellStyle();
+            boldStyle.setFont(bold);
+            for (int r = 0; r < 500; r++) {
+                XSSFRow row = sheet.createRow(r);
+                row.createCell(0).setCellValue("text " + r);
+                row.createCell(1).setCellValue(r * 1234.5678);
+                XSSFCell boldCell = row.createCell(2);
+                boldCell.setCellValue("bold " + r * 7);
+                boldCell.setCellStyle(boldStyle);
+                row.createCell(4).setCellValue(r % 3 == 0);
+            }
+            sheet.getRow(250).createCell(5).setCellValue("merged over two columns");
+            sheet.addMergedRegion(new CellRangeAddress(250, 250, 5, 6));
+
+            int[] columns = {0, 1, 2, 3, 4, 5};
+
+            // measure a freshly loaded sheet, which hasn't been read before
+            double[] parallel;
+            try (XSSFWorkbook wbBack = XSSFTestDataSamples.writeOutAndReadBack(wb)) {
+                parallel = SheetUtil.getColumnWidths(wbBack.getSheetAt(0), columns, false, 0, true);
+            }
+            double[] serial = SheetUtil.getColumnWidths(sheet, columns, false, 0, false);
+            assertArrayEquals(serial, parallel, 0);
+            assertArrayEquals(serial, SheetUtil.getColumnWidths(sheet, columns, false, 0, true), 0);
+            assertEquals(-1.0, parallel[3], 0);
+
+            // the widths are the ones autoSizeColumn sets
+            for (int i = 0; i < columns.length; i++) {
+                if (parallel[i] == -1) {
+                    continue;
+                }
+                assertTrue(parallel[i] > 0);
+                sheet.autoSizeColumn(columns[i]);
+                assertEquals(Math.round(parallel[i] * 256), sheet.getColumnWidth(columns[i]));
+            }
+        }
+    }
+}
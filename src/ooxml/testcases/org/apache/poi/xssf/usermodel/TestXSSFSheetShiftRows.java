@@ -24,6 +24,7 @@ import org.apache.poi.util.IOUtils;
 import org.apache.poi.xssf.XSSFITestDataProvider;
 import org.apache.poi.xssf.XSSFTestDataSamples;
 import org.junit.Test;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTRow;
 
 import java.io.IOException;
 
@@ -511,4 +512,60 @@ public final class TestXSSFSheetShiftRows extends BaseTestSheetShiftRows {
 
         wb.close();
     }
+
+    @Test
+    public void shiftRowsAsBlock() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            XSSFSheet sheet = wb.createSheet("Data");
+            for (int i = 0; i < 10; i++) {
+                XSSFRow row = sheet.createRow(i);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellFormula("A" + (i + 1) + "*2");
+            }
+            XSSFSheet other = wb.createSheet("Other");
+            other.createRow(0).createCell(0).setCellFormula("SUM(Data!A2:A3)");
+            other.getRow(0).createCell(1).setCellFormula("SUM(A2:A3)");
+
+            XSSFRow moved = sheet.getRow(1);
+            XSSFRow kept = sheet.getRow(4);
+
+            // the moved rows pass rows 3 to 6, and overwrite rows 7 and 8
+            sheet.shiftRows(1, 2, 6);
+
+            assertSame(moved, sheet.getRow(7));
+            assertSame(kept, sheet.getRow(4));
+            assertNull(sheet.getRow(1));
+            assertEquals(8, sheet.getPhysicalNumberOfRows());
+            // the beans of the moved cells have their new references
+            assertEquals("A8", moved.getCell(0).getCTCell().getR());
+            assertEquals("A8", moved.getCell(0).getReference());
+            assertEquals("A8*2", moved.getCell(1).getCellFormula());
+            assertEquals("SUM(Data!A8:A9)", other.getRow(0).getCell(0).getCellFormula());
+            assertEquals("SUM(A2:A3)", other.getRow(0).getCell(1).getCellFormula());
+
+            // the XML of the rows is in the order of the rows
+            long last = 0;
+            for (CTRow ctRow : sheet.getCTWorksheet().getSheetData().getRowArray()) {
+                assertTrue(ctRow.getR() > last);
+                last = ctRow.getR();
+            }
+
+            sheet.shiftRows(7, 8, -7);
+            assertSame(moved, sheet.getRow(0));
+            assertEquals("B1", moved.getCell(1).getCTCell().getR());
+            assertEquals(9, sheet.getRow(9).getRowNum());
+            assertEquals(7, sheet.getPhysicalNumberOfRows());
+
+            try (XSSFWorkbook wb2 = XSSFTestDataSamples.writeOutAndReadBack(wb)) {
+                XSSFSheet sheet2 = wb2.getSheet("Data");
+                assertEquals(7, sheet2.getPhysicalNumberOfRows());
+                assertEquals(1.0, sheet2.getRow(0).getCell(0).getNumericCellValue(), 0);
+                assertEquals("A1*2", sheet2.getRow(0).getCell(1).getCellFormula());
+                assertEquals(2.0, sheet2.getRow(1).getCell(0).getNumericCellValue(), 0);
+                assertEquals("A2", sheet2.getRow(1).getCell(0).getReference());
+                assertEquals(5.0, sheet2.getRow(5).getCell(0).getNumericCellValue(), 0);
+                assertEquals("SUM(Data!A1:A2)", wb2.getSheet("Other").getRow(0).getCell(0).getCellFormula());
+            }
+        }
+    }
 }
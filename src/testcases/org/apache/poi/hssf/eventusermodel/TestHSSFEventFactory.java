@@ -20,6 +20,7 @@ package org.apache.poi.hssf.eventusermodel;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -35,11 +36,13 @@ import org.apache.poi.hssf.record.DVALRecord;
 import org.apache.poi.hssf.record.DVRecord;
 import org.apache.poi.hssf.record.EOFRecord;
 import org.apache.poi.hssf.record.FeatHdrRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
 import org.apache.poi.hssf.record.NumberRecord;
 import org.apache.poi.hssf.record.SelectionRecord;
 import org.apache.poi.hssf.record.WindowTwoRecord;
 import org.apache.poi.hssf.record.crypto.Biff8EncryptionKey;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.CellType;
 import org.junit.Test;
 
 /**
@@ -165,4 +168,44 @@ public final class TestHSSFEventFactory {
             Biff8EncryptionKey.setCurrentUserPassword(null);
         }
     }
+
+    @Test
+    public void testCursorListener() throws Exception {
+        // legacy events, with MulRK records expanded into NumberRecords
+        openSample("45365.xls");
+        List<String> exp = new ArrayList<>();
+        for (org.apache.poi.hssf.record.Record r : records) {
+            if (r instanceof NumberRecord) {
+                NumberRecord nr = (NumberRecord) r;
+                exp.add(nr.getRow() + "/" + nr.getColumn() + "/" + nr.getXFIndex() + "=" + nr.getValue());
+            } else if (r instanceof LabelSSTRecord) {
+                LabelSSTRecord lr = (LabelSSTRecord) r;
+                exp.add(lr.getRow() + "/" + lr.getColumn() + "/" + lr.getXFIndex() + "=#" + lr.getSSTIndex());
+            } else if (r instanceof BoundSheetRecord) {
+                exp.add(((BoundSheetRecord) r).getSheetname());
+            }
+        }
+
+        List<String> act = new ArrayList<>();
+        try (InputStream is = HSSFTestDataSamples.openSampleFileStream("45365.xls");
+             POIFSFileSystem fs = new POIFSFileSystem(is)) {
+            new HSSFEventFactory().processWorkbookEvents(cursor -> {
+                if (cursor.isCellValue()) {
+                    assertNull(cursor.getRecord());
+                    String cell = cursor.getRow() + "/" + cursor.getColumn() + "/" + cursor.getXFIndex() + "=";
+                    if (cursor.getCellType() == CellType.NUMERIC) {
+                        act.add(cell + cursor.getNumericValue());
+                    } else if (cursor.getCellType() == CellType.STRING) {
+                        act.add(cell + "#" + cursor.getSSTIndex());
+                    }
+                } else if (cursor.getRecord() instanceof BoundSheetRecord) {
+                    assertEquals(BoundSheetRecord.sid, cursor.getSid());
+                    act.add(((BoundSheetRecord) cursor.getRecord()).getSheetname());
+                }
+            }, fs);
+        }
+
+        assertTrue(exp.size() > 3000);
+        assertEquals(exp, act);
+    }
 }
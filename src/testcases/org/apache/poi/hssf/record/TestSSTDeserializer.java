@@ -23,9 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 
 import org.apache.poi.hssf.HSSFTestDataSamples;
-import org.apache.poi.hssf.record.common.UnicodeString;
 import org.apache.poi.util.HexRead;
-import org.apache.poi.util.IntMapper;
 import org.junit.Test;
 
 /**
@@ -59,7 +57,7 @@ public final class TestSSTDeserializer {
         RecordInputStream in = TestcaseRecordInputStream.create(concat(header, continueBytes));
       
 
-        IntMapper<UnicodeString> strings = new IntMapper<>();
+        SSTStringTable strings = new SSTStringTable();
         SSTDeserializer deserializer = new SSTDeserializer( strings );
         deserializer.manufactureStrings(1, in );
 
@@ -72,7 +70,7 @@ public final class TestSSTDeserializer {
         byte[] continueBytes = readSampleHexData("evencontinuation.txt", "continue1", ContinueRecord.sid);
         RecordInputStream in = TestcaseRecordInputStream.create(concat(header, continueBytes));
 
-        IntMapper<UnicodeString> strings = new IntMapper<>();
+        SSTStringTable strings = new SSTStringTable();
         SSTDeserializer deserializer = new SSTDeserializer( strings );
         deserializer.manufactureStrings( 2, in);
 
@@ -91,7 +89,7 @@ public final class TestSSTDeserializer {
         
         RecordInputStream in = TestcaseRecordInputStream.create(concat(header, concat(continue1, continue2)));
 
-        IntMapper<UnicodeString> strings = new IntMapper<>();
+        SSTStringTable strings = new SSTStringTable();
         SSTDeserializer deserializer = new SSTDeserializer( strings );
         deserializer.manufactureStrings( 2, in);
 
@@ -105,7 +103,7 @@ public final class TestSSTDeserializer {
         byte[] continueBytes = readSampleHexData("extendedtextstrings.txt", "rich-continue1", ContinueRecord.sid);
         RecordInputStream in = TestcaseRecordInputStream.create(concat(header, continueBytes));
         
-        IntMapper<UnicodeString> strings = new IntMapper<>();
+        SSTStringTable strings = new SSTStringTable();
         SSTDeserializer deserializer = new SSTDeserializer( strings );
         deserializer.manufactureStrings( 1, in);
 
@@ -116,7 +114,7 @@ public final class TestSSTDeserializer {
         continueBytes = readSampleHexData("extendedtextstrings.txt", "norich-continue1", ContinueRecord.sid);
         in = TestcaseRecordInputStream.create(concat(header, continueBytes));
         
-        strings = new IntMapper<>();
+        strings = new SSTStringTable();
         deserializer = new SSTDeserializer( strings );
         deserializer.manufactureStrings( 1, in);
 
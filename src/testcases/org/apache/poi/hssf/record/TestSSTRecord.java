@@ -20,6 +20,7 @@ package org.apache.poi.hssf.record;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 import java.io.BufferedReader;
@@ -32,6 +33,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 
 import org.apache.poi.hssf.HSSFTestDataSamples;
+import org.apache.poi.hssf.record.common.FormatRun;
 import org.apache.poi.hssf.record.common.UnicodeString;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
@@ -413,4 +415,41 @@ public final class TestSSTRecord {
         assertEquals(0, src.getNumUniqueStrings());
 
     }
+
+    @Test
+    public void testCompactStringTable() {
+        SSTRecord src = new SSTRecord();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, src.addString(new UnicodeString("string " + i)));
+        }
+        UnicodeString rich = new UnicodeString("rich");
+        rich.setOptionFlags((byte)0x08);
+        rich.addFormatRun(new FormatRun((short)0, (short)1));
+        assertEquals(1000, src.addString(rich));
+        assertEquals(1001, src.addString(new UnicodeString("\u2122 unicode")));
+        assertEquals(17, src.addString(new UnicodeString("string 17")));
+
+        RecordInputStream in = TestcaseRecordInputStream.create(src.serialize());
+        SSTRecord dst = new SSTRecord(in);
+        assertRecordEquals(src, dst);
+
+        assertEquals(1, dst.getString(1000).getFormatRunCount());
+        assertEquals("\u2122 unicode", dst.getString(1001).getString());
+        // materialized strings are kept
+        assertSame(dst.getString(5), dst.getString(5));
+
+        // the lookup index is built on the first added string
+        assertEquals(999, dst.addString(new UnicodeString("string 999")));
+        assertEquals(1000, dst.addString(rich.copy()));
+        assertEquals(1002, dst.addString(new UnicodeString("new")));
+        assertEquals(1003, dst.countStrings());
+
+        // 16-bit encoded latin strings are different from compressed ones
+        UnicodeString wide = new UnicodeString("wide");
+        wide.setOptionFlags((byte)1);
+        assertEquals(1003, dst.addString(wide));
+        assertEquals(1004, dst.addString(new UnicodeString("wide")));
+        assertEquals(1003, dst.addString(wide));
+        assertEquals((byte)1, dst.getString(1003).getOptionFlags());
+    }
 }
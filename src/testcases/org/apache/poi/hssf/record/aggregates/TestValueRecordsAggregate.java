@@ -19,6 +19,7 @@ package org.apache.poi.hssf.record.aggregates;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -27,6 +28,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.zip.CRC32;
 
@@ -36,7 +38,9 @@ import org.apache.poi.hssf.model.RowBlocksReader;
 import org.apache.poi.hssf.record.BlankRecord;
 import org.apache.poi.hssf.record.CellValueRecordInterface;
 import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
 import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.NumberRecord;
 import org.apache.poi.hssf.record.Record;
 import org.apache.poi.hssf.record.SharedFormulaRecord;
 import org.apache.poi.hssf.record.WindowTwoRecord;
@@ -377,6 +381,70 @@ public final class TestValueRecordsAggregate {
 		confirmMulBlank(4, 1, 2);
 	}
 
+	/**
+	 * Number, string and blank cells read from a file are kept packed until they are accessed
+	 */
+	@Test
+	public void testPackedCells() {
+		NumberRecord nr = new NumberRecord();
+		nr.setRow(1);
+		nr.setColumn((short) 1);
+		nr.setXFIndex((short) 21);
+		nr.setValue(2.5);
+		LabelSSTRecord lr = new LabelSSTRecord();
+		lr.setRow(1);
+		lr.setColumn((short) 2);
+		lr.setSSTIndex(7);
+		List<org.apache.poi.hssf.record.Record> records = new ArrayList<>();
+		records.add(nr);
+		records.add(lr);
+		records.add(newBlankRecord(3, 1));
+		records.add(new WindowTwoRecord());
+		constructValueRecord(records);
+		valueRecord.addMultipleBlanks(new MulBlankRecord(3, 4, new short[] { 15, 16 }));
+		valueRecord.insertCell(newBlankRecord(4, 1));
+
+		assertEquals(6, valueRecord.getPhysicalNumberOfCells());
+		assertEquals(1, valueRecord.getNextRowWithCells(0));
+		assertEquals(3, valueRecord.getNextRowWithCells(2));
+		assertEquals(-1, valueRecord.getNextRowWithCells(4));
+		assertEquals(1, valueRecord.getFirstCellInRow(1));
+		assertEquals(4, valueRecord.getLastCellInRow(1));
+		assertEquals(-1, valueRecord.getFirstCellInRow(2));
+
+		// the packed blank and the inserted blank are written as one MulBlank record
+		byte[] expected = HexRead.readFromString(""
+				+ "03 02 0E 00 " // Number
+				+ "01 00 01 00 15 00 00 00 00 00 00 00 04 40 "
+				+ "FD 00 0A 00 " // LabelSST
+				+ "01 00 02 00 00 00 07 00 00 00 "
+				+ "BE 00 0A 00 " // MulBlank
+				+ "01 00 03 00 00 00 00 00 04 00 ");
+		byte[] actual = new byte[expected.length];
+		SerializerVisitor sv = new SerializerVisitor(actual);
+		valueRecord.visitCellsForRow(1, sv);
+		assertEquals(expected.length, valueRecord.getRowCellBlockSize(1, 1));
+		assertEquals(expected.length, sv.getWriteIndex());
+		assertArrayEquals(expected, actual);
+
+		// changes to the unpacked records are kept
+		Iterator<CellValueRecordInterface> iter = valueRecord.getRowCellIterator(1);
+		NumberRecord unpacked = (NumberRecord) iter.next();
+		assertEquals(21, unpacked.getXFIndex());
+		assertEquals(2.5, unpacked.getValue(), 0);
+		unpacked.setValue(3.5);
+		assertEquals(7, ((LabelSSTRecord) iter.next()).getSSTIndex());
+		assertTrue(iter.next() instanceof BlankRecord);
+		assertTrue(iter.next() instanceof BlankRecord);
+		assertFalse(iter.hasNext());
+		assertEquals(3.5, ((NumberRecord) getValueRecords().get(0)).getValue(), 0);
+		assertEquals(6, valueRecord.getPhysicalNumberOfCells());
+
+		valueRecord.removeAllCellsValuesForRow(3);
+		assertFalse(valueRecord.rowHasCells(3));
+		assertEquals(4, getValueRecords().size());
+	}
+
 	private void confirmMulBlank(int expectedTotalBlankCells,
 			int expectedNumberOfMulBlankRecords, int expectedNumberOfSingleBlankRecords) {
 		// assumed row ranges set-up by caller:
@@ -1124,4 +1124,82 @@ public final class TestHSSFSheet extends BaseTestSheet {
             }
         }
     }
+
+    @Test
+    public void flushRows() throws IOException {
+        byte[] expected;
+        try (HSSFWorkbook wb = new HSSFWorkbook()) {
+            fillRows(wb.createSheet(), 0, 1000);
+            expected = wb.getBytes();
+        }
+
+        try (HSSFWorkbook wb1 = new HSSFWorkbook()) {
+            HSSFSheet sheet = wb1.createSheet();
+            sheet.setRandomAccessWindowSize(100);
+            fillRows(sheet, 0, 1000);
+
+            // rows are flushed in complete blocks of 32 rows
+            assertEquals(895, sheet.getLastFlushedRowNum());
+            assertNull(sheet.getRow(0));
+            assertNotNull(sheet.getRow(896));
+            assertEquals(0, sheet.getFirstRowNum());
+            assertEquals(999, sheet.getLastRowNum());
+
+            try {
+                sheet.createRow(10);
+                fail("flushed rows can't be replaced");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+
+            // the flushed row blocks are serialized exactly like the in-memory ones
+            assertArrayEquals(expected, wb1.getBytes());
+
+            try (HSSFWorkbook wb2 = writeOutAndReadBack(wb1)) {
+                HSSFSheet sheet2 = wb2.getSheetAt(0);
+                assertEquals(1000, sheet2.getPhysicalNumberOfRows());
+                for (int i = 0; i < 1000; i++) {
+                    HSSFRow row = sheet2.getRow(i);
+                    assertEquals(i, row.getCell(0).getNumericCellValue(), 0);
+                    assertEquals("row " + i, row.getCell(1).getStringCellValue());
+                    assertEquals("A" + (i+1) + "*2", row.getCell(2).getCellFormula());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void flushedRowsPreventSheetChanges() throws IOException {
+        try (HSSFWorkbook wb = new HSSFWorkbook()) {
+            HSSFSheet sheet = wb.createSheet();
+            wb.createSheet("other");
+            sheet.setRandomAccessWindowSize(100);
+            fillRows(sheet, 0, 200);
+
+            // the formulas of the flushed rows can't be updated anymore
+            try {
+                wb.setSheetOrder("other", 0);
+                fail("sheets can't be reordered after rows were flushed");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            try {
+                wb.removeSheetAt(1);
+                fail("sheets can't be removed after rows were flushed");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            assertEquals(2, wb.getNumberOfSheets());
+            assertEquals(0, wb.getSheetIndex(sheet));
+        }
+    }
+
+    private static void fillRows(HSSFSheet sheet, int firstRow, int lastRow) {
+        for (int i = firstRow; i < lastRow; i++) {
+            HSSFRow row = sheet.createRow(i);
+            row.createCell(0).setCellValue(i);
+            row.createCell(1).setCellValue("row " + i);
+            row.createCell(2).setCellFormula("A" + (i+1) + "*2");
+        }
+    }
 }
@@ -19,6 +19,7 @@ package org.apache.poi.hssf.usermodel;
 
 import static org.apache.poi.POITestCase.assertContains;
 import static org.apache.poi.hssf.HSSFTestDataSamples.openSampleWorkbook;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -37,6 +38,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 
 import org.apache.poi.POIDataSamples;
@@ -1268,6 +1271,35 @@ public final class TestHSSFWorkbook extends BaseTestWorkbook {
         wb.close();
     }
 
+    @Test
+    public void readSheetsConcurrently() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (String name : new String[]{"SampleSS.xls", "SimpleMultiCell.xls", "45365.xls", "WithChart.xls"}) {
+                try (POIFSFileSystem fs = new POIFSFileSystem(HSSFTestDataSamples.openSampleFileStream(name));
+                     HSSFWorkbook expected = new HSSFWorkbook(fs.getRoot(), true);
+                     HSSFWorkbook actual = new HSSFWorkbook(fs.getRoot(), true, executor)) {
+                    assertEquals(expected.getNumberOfSheets(), actual.getNumberOfSheets());
+                    for (int i = 0; i < expected.getNumberOfSheets(); i++) {
+                        HSSFSheet expectedSheet = expected.getSheetAt(i);
+                        HSSFSheet actualSheet = actual.getSheetAt(i);
+                        assertEquals(expectedSheet.getSheetName(), actualSheet.getSheetName());
+                        assertEquals(expectedSheet.getPhysicalNumberOfRows(), actualSheet.getPhysicalNumberOfRows());
+                        for (Row row : expectedSheet) {
+                            for (Cell cell : row) {
+                                Cell actualCell = actualSheet.getRow(row.getRowNum()).getCell(cell.getColumnIndex());
+                                assertEquals(cell.toString(), actualCell.toString());
+                            }
+                        }
+                    }
+                    assertArrayEquals(expected.getBytes(), actual.getBytes());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Ignore
     @Test
     @Override
@@ -17,6 +17,7 @@
 
 package org.apache.poi.poifs.filesystem;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
@@ -24,12 +25,18 @@ import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
 
 import org.apache.poi.POIDataSamples;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.LittleEndianByteBufferInputStream;
 import org.apache.poi.util.SuppressForbidden;
+import org.apache.poi.util.TempFile;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -429,6 +436,88 @@ public final class TestDocumentInputStream {
         assertEquals(0, available(stream));
     }
 
+    /**
+     * Test seek and positional reads, which don't need to follow the chain
+     */
+    @Test
+    public void testSeekAndPositionalRead() throws IOException {
+        POIFSFileSystem poifs = ((DirectoryNode) _workbook_n.getParent()).getFileSystem();
+        DocumentNode small = (DocumentNode) poifs.createDocument(
+                new ByteArrayInputStream(_workbook_data, 100, 3000), "Small");
+
+        for (DocumentNode node : new DocumentNode[]{_workbook_n, small}) {
+            try (DocumentInputStream stream = new DocumentInputStream(node)) {
+                int size = node.getSize();
+                int base = (node == small) ? 100 : 0;
+                for (int offset : new int[]{size - 1, 0, 513, 64, 2999, 1, size}) {
+                    stream.seek(offset);
+                    assertEquals(size - offset, available(stream));
+                    if (offset < size) {
+                        assertEquals(_workbook_data[base + offset] & 0xFF, stream.read());
+                    } else {
+                        assertEquals(-1, stream.read());
+                    }
+                }
+
+                stream.seek(10);
+                byte[] buffer = new byte[1000];
+                assertEquals(1000, stream.read(1000, buffer, 0, 1000));
+                assertArrayEquals(Arrays.copyOfRange(_workbook_data, base + 1000, base + 2000), buffer);
+                assertEquals(3, stream.read(size - 3, buffer, 0, 1000));
+                assertEquals(-1, stream.read(size, buffer, 0, 1000));
+                // positional reads don't move the stream
+                assertEquals(size - 10, available(stream));
+                assertEquals(_workbook_data[base + 10] & 0xFF, stream.read());
+            }
+        }
+
+        try (DocumentInputStream stream = new DocumentInputStream(_workbook_n)) {
+            stream.seek(_workbook_size + 1);
+            fail("expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Documents of file backed filesystems are read from the mapped file,
+     * also if their blocks are interrupted by FAT blocks
+     */
+    @Test
+    public void testMappedStream() throws IOException {
+        byte[] large = new byte[300_000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) (i * 7 + i / 512);
+        }
+        File file = TempFile.createTempFile("mapped", ".ole2");
+        try {
+            try (POIFSFileSystem poifs = new POIFSFileSystem(); OutputStream os = new FileOutputStream(file)) {
+                poifs.createDocument(new ByteArrayInputStream(_workbook_data, 0, _workbook_size), "Workbook");
+                poifs.createDocument(new ByteArrayInputStream(large), "Large");
+                poifs.createDocument(new ByteArrayInputStream(large, 0, 100), "Small");
+                poifs.writeFilesystem(os);
+            }
+
+            try (POIFSFileSystem poifs = new POIFSFileSystem(file, true)) {
+                DirectoryNode root = poifs.getRoot();
+                for (String name : new String[]{"Workbook", "Large"}) {
+                    InputStream stream = root.createMappedDocumentInputStream(name);
+                    assertTrue(stream instanceof LittleEndianByteBufferInputStream);
+                    assertArrayEquals(IOUtils.toByteArray(root.createDocumentInputStream(name)), IOUtils.toByteArray(stream));
+                }
+                // mini stream documents can't be mapped
+                assertTrue(root.createMappedDocumentInputStream("Small") instanceof DocumentInputStream);
+            }
+
+            // nor can documents of filesystems read from a stream
+            try (InputStream is = new FileInputStream(file); POIFSFileSystem poifs = new POIFSFileSystem(is)) {
+                assertTrue(poifs.getRoot().createMappedDocumentInputStream("Large") instanceof DocumentInputStream);
+            }
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
     /**
      * Test that we can read files at multiple levels down the tree
      */
@@ -18,6 +18,7 @@
 package org.apache.poi.poifs.filesystem;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -25,11 +26,21 @@ import static org.junit.Assert.fail;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.poi.POIDataSamples;
 import org.apache.poi.hpsf.NoPropertySetStreamException;
@@ -42,6 +53,7 @@ import org.apache.poi.poifs.common.POIFSConstants;
 import org.apache.poi.poifs.storage.BATBlock;
 import org.apache.poi.poifs.storage.HeaderBlock;
 import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.TempFile;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -321,6 +333,181 @@ public final class TestPOIFSFileSystem {
 		}
 	}
 
+	@Test
+	public void testConcurrentReadOnlyAccess() throws Exception {
+		final List<DocumentNode> docs = new ArrayList<>();
+		final Map<String, byte[]> expected = new HashMap<>();
+		try (POIFSFileSystem fs = new POIFSFileSystem(_samples.openResourceAsStream("BlockSize512.zvi"))) {
+			collectDocuments(fs.getRoot(), docs);
+			for (DocumentNode doc : docs) {
+				try (DocumentInputStream dis = new DocumentInputStream(doc)) {
+					expected.put(doc.getName() + "@" + doc.getProperty().getStartBlock(), IOUtils.toByteArray(dis));
+				}
+			}
+		}
+		assertTrue(docs.size() > 3);
+
+		try (POIFSFileSystem fs = new POIFSFileSystem(_samples.getFile("BlockSize512.zvi"), true)) {
+			docs.clear();
+			collectDocuments(fs.getRoot(), docs);
+			final int threads = 4;
+			final int rounds = 50;
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				List<Future<Integer>> results = new ArrayList<>();
+				for (int t = 0; t < threads; t++) {
+					final int offset = t;
+					results.add(executor.submit(() -> {
+						int checked = 0;
+						for (int i = 0; i < docs.size() * rounds; i++) {
+							// each thread starts with a different document
+							DocumentNode doc = docs.get((i * threads + offset) % docs.size());
+							try (DocumentInputStream dis = new DocumentInputStream(doc)) {
+								assertArrayEquals(expected.get(doc.getName() + "@" + doc.getProperty().getStartBlock()),
+										IOUtils.toByteArray(dis));
+							}
+							checked++;
+						}
+						return checked;
+					}));
+				}
+				for (Future<Integer> result : results) {
+					assertEquals(docs.size() * rounds, (int)result.get());
+				}
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void testInPlaceSaveOnlyWritesChanges() throws Exception {
+		File file = TempFile.createTempFile("inplace", ".zvi");
+		try {
+			try (InputStream is = _samples.openResourceAsStream("BlockSize512.zvi");
+				 OutputStream os = new FileOutputStream(file)) {
+				IOUtils.copy(is, os);
+			}
+			byte[] before = Files.readAllBytes(file.toPath());
+
+			int bigIndex = -1, smallIndex = -1;
+			byte[] bigData, smallData;
+			try (POIFSFileSystem fs = new POIFSFileSystem(file, false)) {
+				List<DocumentNode> docs = new ArrayList<>();
+				collectDocuments(fs.getRoot(), docs);
+				for (int i = 0; i < docs.size(); i++) {
+					int size = docs.get(i).getSize();
+					if (size >= POIFSConstants.BIG_BLOCK_MINIMUM_DOCUMENT_SIZE) {
+						bigIndex = (bigIndex == -1 || size > docs.get(bigIndex).getSize()) ? i : bigIndex;
+					} else if (size > 100) {
+						smallIndex = i;
+					}
+				}
+				assertTrue(bigIndex != -1 && smallIndex != -1);
+				DocumentNode big = docs.get(bigIndex);
+				DocumentNode small = docs.get(smallIndex);
+
+				bigData = readDocument(big);
+				bigData[bigData.length / 2]++;
+				smallData = readDocument(small);
+				smallData[10]++;
+
+				// one changed block each, the rest is written unchanged
+				((DirectoryNode)big.getParent()).createOrUpdateDocument(big.getName(), new ByteArrayInputStream(bigData));
+				((DirectoryNode)small.getParent()).createOrUpdateDocument(small.getName(), new ByteArrayInputStream(smallData));
+				fs.writeFilesystem();
+			}
+
+			byte[] after = Files.readAllBytes(file.toPath());
+			assertEquals(before.length, after.length);
+			int changedBlocks = 0;
+			for (int i = 0; i < before.length; i += POIFSConstants.SMALLER_BIG_BLOCK_SIZE) {
+				int end = Math.min(before.length, i + POIFSConstants.SMALLER_BIG_BLOCK_SIZE);
+				if (!Arrays.equals(Arrays.copyOfRange(before, i, end), Arrays.copyOfRange(after, i, end))) {
+					changedBlocks++;
+				}
+			}
+			assertEquals(2, changedBlocks);
+
+			// grow the big document by one block, and move the small one to the big blocks
+			byte[] grownData = Arrays.copyOf(bigData, bigData.length + 100);
+			byte[] movedData = Arrays.copyOf(smallData, POIFSConstants.BIG_BLOCK_MINIMUM_DOCUMENT_SIZE);
+			try (POIFSFileSystem fs = new POIFSFileSystem(file, false)) {
+				List<DocumentNode> docs = new ArrayList<>();
+				collectDocuments(fs.getRoot(), docs);
+				DocumentNode big = docs.get(bigIndex);
+				DocumentNode small = docs.get(smallIndex);
+				((DirectoryNode)big.getParent()).createOrUpdateDocument(big.getName(), new ByteArrayInputStream(grownData));
+				((DirectoryNode)small.getParent()).createOrUpdateDocument(small.getName(), new ByteArrayInputStream(movedData));
+				fs.writeFilesystem();
+			}
+
+			try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+				List<DocumentNode> docs = new ArrayList<>();
+				collectDocuments(fs.getRoot(), docs);
+				assertArrayEquals(grownData, readDocument(docs.get(bigIndex)));
+				assertArrayEquals(movedData, readDocument(docs.get(smallIndex)));
+			}
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test
+	public void testReplaceWithEmptyContents() throws Exception {
+		byte[] smallData = new byte[100];
+		Arrays.fill(smallData, (byte) 1);
+		byte[] otherData = new byte[100];
+		Arrays.fill(otherData, (byte) 2);
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (POIFSFileSystem fs = new POIFSFileSystem()) {
+			fs.getRoot().createDocument("Small", new ByteArrayInputStream(smallData));
+			fs.writeFilesystem(bos);
+		}
+
+		try (POIFSFileSystem fs = new POIFSFileSystem(new ByteArrayInputStream(bos.toByteArray()))) {
+			// the emptied document must not keep its freed blocks
+			fs.getRoot().createOrUpdateDocument("Small", new ByteArrayInputStream(new byte[0]));
+			fs.getRoot().createDocument("Other", new ByteArrayInputStream(otherData));
+
+			bos.reset();
+			fs.writeFilesystem(bos);
+		}
+
+		try (POIFSFileSystem fs = new POIFSFileSystem(new ByteArrayInputStream(bos.toByteArray()))) {
+			assertArrayEquals(new byte[0], readDocument((DocumentNode) fs.getRoot().getEntry("Small")));
+			assertArrayEquals(otherData, readDocument((DocumentNode) fs.getRoot().getEntry("Other")));
+
+			// filling it again must not overwrite the blocks of the other document
+			fs.getRoot().createOrUpdateDocument("Small", new ByteArrayInputStream(smallData));
+
+			bos.reset();
+			fs.writeFilesystem(bos);
+		}
+
+		try (POIFSFileSystem fs = new POIFSFileSystem(new ByteArrayInputStream(bos.toByteArray()))) {
+			assertArrayEquals(smallData, readDocument((DocumentNode) fs.getRoot().getEntry("Small")));
+			assertArrayEquals(otherData, readDocument((DocumentNode) fs.getRoot().getEntry("Other")));
+		}
+	}
+
+	private static byte[] readDocument(DocumentNode doc) throws IOException {
+		try (DocumentInputStream dis = new DocumentInputStream(doc)) {
+			return IOUtils.toByteArray(dis);
+		}
+	}
+
+	private static void collectDocuments(DirectoryEntry dir, List<DocumentNode> docs) {
+		for (Entry entry : dir) {
+			if (entry instanceof DirectoryEntry) {
+				collectDocuments((DirectoryEntry) entry, docs);
+			} else {
+				docs.add((DocumentNode) entry);
+			}
+		}
+	}
+
 	private static int recurseDir(DirectoryEntry dir) throws IOException, NoPropertySetStreamException {
 		int count = 0;
 		for (Entry entry : dir) {
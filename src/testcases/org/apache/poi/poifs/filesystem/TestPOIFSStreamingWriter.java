@@ -0,0 +1,151 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.poifs.filesystem;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.poi.poifs.common.POIFSConstants;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.TempFile;
+import org.junit.Test;
+
+/**
+ * Tests for the sequential {@link POIFSStreamingWriter}
+ */
+public final class TestPOIFSStreamingWriter {
+
+    private static byte[] data(int size, int seed) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte)(i * 31 + seed);
+        }
+        return data;
+    }
+
+    private static void assertContent(byte[] expected, DirectoryNode dir, String name) throws IOException {
+        DocumentEntry entry = (DocumentEntry)dir.getEntry(name);
+        assertEquals(expected.length, entry.getSize());
+        try (InputStream is = dir.createDocumentInputStream(name)) {
+            assertArrayEquals(expected, IOUtils.toByteArray(is));
+        }
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        byte[] small = data(100, 1);
+        byte[] exact = data(POIFSConstants.BIG_BLOCK_MINIMUM_DOCUMENT_SIZE, 2);
+        byte[] big = data(200_001, 3);
+        byte[] nested = data(5_000, 4);
+        byte[] nestedSmall = data(64, 5);
+
+        File file = TempFile.createTempFile("streaming", ".ole2");
+        try {
+            try (POIFSStreamingWriter writer = new POIFSStreamingWriter(file)) {
+                writer.createDocument("Small", new ByteArrayInputStream(small));
+                writer.createDocument("Empty", new ByteArrayInputStream(new byte[0]));
+                writer.createDocument("Exact", new ByteArrayInputStream(exact));
+                writer.createDocument("Big", new SlowInputStream(new ByteArrayInputStream(big)));
+                POIFSDocumentPath dir = writer.createDirectory(new POIFSDocumentPath(), "Dir");
+                writer.createDocument(dir, "Nested", ByteBuffer.wrap(nested, 0, 3000), ByteBuffer.wrap(nested, 3000, 2000));
+                writer.createDocument(dir, "NestedSmall", ByteBuffer.wrap(nestedSmall));
+
+                try {
+                    writer.createDocument("Small", new ByteArrayInputStream(small));
+                    fail("duplicate names are not allowed");
+                } catch (IOException e) {
+                    // expected
+                }
+            }
+
+            try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+                DirectoryNode root = fs.getRoot();
+                assertEquals(5, root.getEntryCount());
+                assertContent(small, root, "Small");
+                assertContent(new byte[0], root, "Empty");
+                assertContent(exact, root, "Exact");
+                assertContent(big, root, "Big");
+                DirectoryNode dir = (DirectoryNode)root.getEntry("Dir");
+                assertEquals(2, dir.getEntryCount());
+                assertContent(nested, dir, "Nested");
+                assertContent(nestedSmall, dir, "NestedSmall");
+            }
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testExtendedAllocationTable() throws IOException {
+        // more than 109 allocation table blocks need extension blocks
+        byte[] big = data(9 * 1024 * 1024, 7);
+        byte[] small = data(1000, 8);
+
+        File file = TempFile.createTempFile("streaming", ".ole2");
+        try {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                try (POIFSStreamingWriter writer = new POIFSStreamingWriter(channel, POIFSConstants.SMALLER_BIG_BLOCK_SIZE_DETAILS)) {
+                    writer.createDocument("Big", new ByteArrayInputStream(big));
+                    writer.createDocument("Small", new ByteArrayInputStream(small));
+                }
+            }
+
+            try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+                assertEquals(1, fs.getHeaderBlock().getXBATCount());
+                assertContent(big, fs.getRoot(), "Big");
+                assertContent(small, fs.getRoot(), "Small");
+            }
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testLargeBlocks() throws IOException {
+        byte[] big = data(10_000, 9);
+        byte[] small = data(10, 10);
+
+        File file = TempFile.createTempFile("streaming", ".ole2");
+        try {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                try (POIFSStreamingWriter writer = new POIFSStreamingWriter(channel, POIFSConstants.LARGER_BIG_BLOCK_SIZE_DETAILS)) {
+                    writer.createDocument("Big", new ByteArrayInputStream(big));
+                    writer.createDocument("Small", new ByteArrayInputStream(small));
+                }
+            }
+
+            try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+                assertEquals(POIFSConstants.LARGER_BIG_BLOCK_SIZE, fs.getBigBlockSize());
+                assertContent(big, fs.getRoot(), "Big");
+                assertContent(small, fs.getRoot(), "Small");
+            }
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+}
@@ -18,14 +18,20 @@ package org.apache.poi.ss.format;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 
 import javax.swing.JLabel;
@@ -1026,4 +1032,62 @@ public class TestCellFormat {
                 .map(CellFormatPart.NAMED_COLORS::get)
                 .forEach(Assert::assertNotNull);
     }
+
+    @Test
+    public void testCacheStatistics() {
+        CellFormat.clearCache();
+        CellFormat cf = CellFormat.getInstance(Locale.US, "0.00");
+        assertSame(cf, CellFormat.getInstance(Locale.US, new String("0.00")));
+        CellFormat.getInstance(Locale.GERMANY, "0.00");
+        assertEquals(2, CellFormat.getCacheSize());
+        assertEquals(1, CellFormat.getCacheHits());
+        assertEquals(2, CellFormat.getCacheMisses());
+        assertEquals(0, CellFormat.getCacheEvictions());
+
+        // the cache is bounded
+        for (int i = 0; i < 2000; i++) {
+            CellFormat.getInstance(Locale.US, "0." + i);
+        }
+        assertTrue(CellFormat.getCacheSize() <= 1024);
+        assertTrue(CellFormat.getCacheEvictions() > 0);
+        assertEquals("1.50", CellFormat.getInstance(Locale.US, "0.00").apply(1.5).text);
+    }
+
+    @Test
+    public void testConcurrentFormatting() throws Exception {
+        String[] formats = { "0.00", "#,##0.00", "0.00E+00", "##0.0E+0", "# ?/?", "0%", "[>100]0;[<=100]0.0" };
+        double[] values = { 0, 1, -1, 1.5, 123456.789, 0.001234, 1E10, -98765.4321 };
+        List<String> expected = new ArrayList<>();
+        for (String format : formats) {
+            for (double value : values) {
+                expected.add(CellFormat.getInstance(Locale.US, format).apply(value).text);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(executor.submit(() -> {
+                    for (int n = 0; n < 200; n++) {
+                        int i = 0;
+                        for (String format : formats) {
+                            CellFormat cf = CellFormat.getInstance(Locale.US, format);
+                            for (double value : values) {
+                                if (!expected.get(i++).equals(cf.apply(value).text)) {
+                                    return false;
+                                }
+                            }
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> task : tasks) {
+                assertTrue(task.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
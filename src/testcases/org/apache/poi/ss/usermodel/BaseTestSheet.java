@@ -478,6 +478,59 @@ public abstract class BaseTestSheet {
         wb.close();
     }
 
+    @Test
+    public void manyMergedRegions() throws IOException {
+        try (Workbook wb = _testDataProvider.createWorkbook()) {
+            Sheet sheet = wb.createSheet();
+            // 2x3 regions in rows 0..199 and columns 0..29
+            for (int r = 0; r < 200; r += 2) {
+                for (int c = 0; c < 30; c += 3) {
+                    sheet.addMergedRegion(new CellRangeAddress(r, r + 1, c, c + 2));
+                }
+            }
+            assertEquals(1000, sheet.getNumMergedRegions());
+
+            assertEquals(Collections.singletonList(CellRangeAddress.valueOf("D7:F8")),
+                    sheet.getMergedRegionsContaining(7, 4));
+            assertEquals(Collections.emptyList(), sheet.getMergedRegionsContaining(200, 4));
+            assertEquals(Collections.emptyList(), sheet.getMergedRegionsContaining(7, 30));
+
+            // the returned regions are copies, changing them doesn't change the sheet
+            sheet.getMergedRegionsContaining(7, 4).get(0).setLastColumn(29);
+            assertEquals(Collections.singletonList(CellRangeAddress.valueOf("D7:F8")),
+                    sheet.getMergedRegionsContaining(7, 4));
+
+            try {
+                sheet.addMergedRegion(CellRangeAddress.valueOf("F8:G9"));
+                fail("Should not be able to add a merged region overlapping D7:F8 and G9:I10");
+            } catch (final IllegalStateException e) {
+                // the first overlapping region is reported
+                assertTrue(e.getMessage(), e.getMessage().contains("(D7:F8)"));
+            }
+            sheet.validateMergedRegions();
+
+            sheet.removeMergedRegion(sheet.getMergedRegions().indexOf(CellRangeAddress.valueOf("D7:F8")));
+            assertEquals(Collections.emptyList(), sheet.getMergedRegionsContaining(7, 4));
+            assertEquals(999, sheet.addMergedRegion(CellRangeAddress.valueOf("D7:E8")));
+            assertEquals(CellRangeAddress.valueOf("D7:E8"), sheet.getMergedRegionsContaining(6, 4).get(0));
+
+            sheet.shiftRows(100, 199, 10);
+            assertEquals(1000, sheet.getNumMergedRegions());
+            assertEquals(Collections.emptyList(), sheet.getMergedRegionsContaining(105, 0));
+            assertEquals(Collections.singletonList(CellRangeAddress.valueOf("A111:C112")),
+                    sheet.getMergedRegionsContaining(110, 0));
+            sheet.validateMergedRegions();
+
+            sheet.addMergedRegionUnsafe(CellRangeAddress.valueOf("C200:D200"));
+            try {
+                sheet.validateMergedRegions();
+                fail("Expected validation to fail, as C200:D200 overlaps with A199:C200");
+            } catch (final IllegalStateException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("A199:C200"));
+            }
+        }
+    }
+
     /**
      * bug 58885: checking for overlapping merged regions when
      * adding a merged region is safe, but runs in O(n).
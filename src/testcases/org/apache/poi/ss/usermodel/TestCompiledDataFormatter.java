@@ -0,0 +1,177 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.usermodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CompiledDataFormatter.CompiledFormat;
+import org.junit.Test;
+
+/**
+ * Tests of {@link CompiledDataFormatter}
+ */
+public final class TestCompiledDataFormatter {
+    private static final String[] FORMATS = {
+        "General", "@", "0", "0.00", "#,##0.00", "0%", "0.00E+00", "# ?/?", "m/d/yy", "h:mm:ss",
+        "yyyy-mm-dd hh:mm", "[h]:mm:ss", "\"$\"#,##0.00_);[Red]\\(\"$\"#,##0.00\\)", "00000\\-0000",
+        "000-00-0000", "0.00;-0.00;\"zero\"", "[>100]0;[<=100]0.0"
+    };
+
+    private static final double[] VALUES = {
+        0, -0.0, 1, -1, 42, 1234567, -98765432, 1E10, 9_999_999_999.0, 99_999_999_999.0,
+        1E11, -1E11, 1.5, -2.25, 0.1 + 0.2, 1.23456789012345, 1E-11, 123456789012345678.0,
+        43_000.5, 25569, 60, 61, 2_958_465
+    };
+
+    @Test
+    public void testSameAsDataFormatter() {
+        for (Locale locale : new Locale[]{ Locale.US, Locale.GERMANY, new Locale("ar", "SA") }) {
+            for (boolean emulateCSV : new boolean[]{ false, true }) {
+                DataFormatter expected = new DataFormatter(locale, emulateCSV);
+                CompiledDataFormatter formatter = new CompiledDataFormatter(locale, emulateCSV);
+                for (String format : FORMATS) {
+                    int index = BuiltinFormats.getBuiltinFormat(format);
+                    CompiledFormat compiled = formatter.getFormat(index, format);
+                    for (double value : VALUES) {
+                        for (boolean use1904 : new boolean[]{ false, true }) {
+                            String msg = locale + " " + format + " " + value;
+                            assertEquals(msg, expected.formatRawCellContents(value, index, format, use1904),
+                                compiled.formatRawCellContents(value, use1904));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWholeNumbers() {
+        DataFormatter expected = new DataFormatter(Locale.ROOT);
+        CompiledFormat general = new CompiledDataFormatter(Locale.ROOT).getFormat(0, "General");
+        Random rnd = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            double value = (double)(rnd.nextLong() % (long)Math.pow(10, rnd.nextInt(12)));
+            sb.setLength(0);
+            general.formatRawCellContents(value, false, sb);
+            assertEquals(expected.formatRawCellContents(value, 0, "General"), sb.toString());
+        }
+    }
+
+    @Test
+    public void testCellValues() throws IOException {
+        try (Workbook wb = new HSSFWorkbook()) {
+            DataFormat df = wb.createDataFormat();
+            Sheet sheet = wb.createSheet();
+            int rowNum = 0;
+            for (String format : FORMATS) {
+                CellStyle style = wb.createCellStyle();
+                style.setDataFormat(df.getFormat(format));
+                Row row = sheet.createRow(rowNum++);
+                int col = 0;
+                for (double value : VALUES) {
+                    Cell cell = row.createCell(col++);
+                    cell.setCellStyle(style);
+                    cell.setCellValue(value);
+                }
+            }
+            Row row = sheet.createRow(rowNum);
+            row.createCell(0).setCellValue("text");
+            row.createCell(1).setCellValue(true);
+            row.createCell(2).setCellFormula("1+2");
+
+            DataFormatter expected = new DataFormatter(Locale.US);
+            CompiledDataFormatter formatter = new CompiledDataFormatter(Locale.US);
+            StringBuilder sb = new StringBuilder();
+            StringBuilder out = new StringBuilder();
+            for (Row r : sheet) {
+                for (Cell cell : r) {
+                    assertEquals(expected.formatCellValue(cell), formatter.formatCellValue(cell));
+                    sb.append(expected.formatCellValue(cell)).append(',');
+                    formatter.formatCellValue(cell, out);
+                    out.append(',');
+                }
+            }
+            assertEquals(sb.toString(), out.toString());
+            assertEquals("", formatter.formatCellValue(null));
+        }
+    }
+
+    @Test
+    public void testCompiledOnce() {
+        CompiledDataFormatter formatter = new CompiledDataFormatter(Locale.US);
+        CompiledFormat date = formatter.getFormat(14, "m/d/yy");
+        assertSame(date, formatter.getFormat(14, new String("m/d/yy")));
+        assertTrue(date.isDateFormat());
+        assertEquals("1/1/00", date.formatRawCellContents(1, false));
+        assertFalse(formatter.getFormat(0, "General").isDateFormat());
+        assertEquals("1.5", formatter.formatRawCellContents(1.5, 0, "General"));
+    }
+
+    @Test
+    public void testConcurrentFormatting() throws Exception {
+        CompiledDataFormatter formatter = new CompiledDataFormatter(Locale.US);
+        DataFormatter expected = new DataFormatter(Locale.US);
+        List<String> results = new ArrayList<>();
+        for (String format : FORMATS) {
+            int index = BuiltinFormats.getBuiltinFormat(format);
+            for (double value : VALUES) {
+                results.add(expected.formatRawCellContents(value, index, format));
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(executor.submit(() -> {
+                    for (int n = 0; n < 200; n++) {
+                        int i = 0;
+                        for (String format : FORMATS) {
+                            CompiledFormat compiled = formatter.getFormat(BuiltinFormats.getBuiltinFormat(format), format);
+                            for (double value : VALUES) {
+                                if (!results.get(i++).equals(compiled.formatRawCellContents(value, false))) {
+                                    return false;
+                                }
+                            }
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> task : tasks) {
+                assertTrue(task.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
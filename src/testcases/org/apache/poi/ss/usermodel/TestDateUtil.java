@@ -38,6 +38,7 @@ import java.time.LocalDateTime;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Random;
 import java.util.TimeZone;
 
 import org.apache.poi.hssf.usermodel.HSSFCell;
@@ -758,4 +759,55 @@ public class TestDateUtil {
         assertEquals(0, ldtRound.getMinute());
         assertEquals(0, ldtRound.getSecond());
     }
+
+    @Test
+    public void getEpochMillis() {
+        Random rnd = new Random(42);
+        for (String id : new String[]{ "UTC", "Europe/Berlin", "America/New_York", "Australia/Lord_Howe", "Asia/Kolkata" }) {
+            TimeZone tz = TimeZone.getTimeZone(id);
+            for (int i = 0; i < 20_000; i++) {
+                // every third date is in the first hours of a day, when the clocks are changed
+                double date = (i % 3 == 0) ? rnd.nextInt(50_000) + rnd.nextInt(16) / 96.0 : rnd.nextDouble() * 2_958_466;
+                boolean use1904windowing = rnd.nextBoolean();
+                boolean roundSeconds = rnd.nextBoolean();
+                Calendar expected = DateUtil.getJavaCalendar(date, use1904windowing, tz, roundSeconds);
+                assertEquals(id + " " + date, expected.getTimeInMillis(),
+                    DateUtil.getEpochMillis(date, use1904windowing, tz, roundSeconds));
+            }
+        }
+
+        // 2004-03-28 02:30 doesn't exist in Copenhagen, so the calendar moves it to 03:30 summer time
+        TimeZone cph = TimeZone.getTimeZone("Europe/Copenhagen");
+        double dstStart = 38074 + 2.5 / 24;
+        assertEquals(DateUtil.getJavaCalendar(dstStart, false, cph).getTimeInMillis(),
+            DateUtil.getEpochMillis(dstStart, false, cph, false));
+
+        try {
+            DateUtil.getEpochMillis(-1, false, null, false);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void getLocalDateTimeOfDateParts() {
+        assertEquals(LocalDateTime.of(1900, 1, 1, 0, 0), DateUtil.getLocalDateTime(1));
+        assertEquals(LocalDateTime.of(1900, 2, 28, 12, 0), DateUtil.getLocalDateTime(59.5));
+        assertEquals(LocalDateTime.of(1900, 3, 1, 0, 0), DateUtil.getLocalDateTime(61));
+        assertEquals(LocalDateTime.of(1904, 1, 2, 6, 0), DateUtil.getLocalDateTime(1.25, true));
+        assertEquals(LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_000_000), DateUtil.getLocalDateTime(2_958_465.99999999));
+        assertEquals(LocalDateTime.of(10000, 1, 1, 0, 0), DateUtil.getLocalDateTime(2_958_465.99999999, false, true));
+    }
+
+    @Test
+    public void isADateFormatOfAlternatingFormats() {
+        String[] formats = { "yyyy-mm-dd", "0.00", "[$-409]mmm d, yyyy", "#,##0", "[h]:mm", "\\-0.0" };
+        boolean[] expected = { true, false, true, false, true, false };
+        for (int n = 0; n < 3; n++) {
+            for (int i = 0; i < formats.length; i++) {
+                assertEquals(formats[i], expected[i], DateUtil.isADateFormat(200 + i, formats[i]));
+            }
+        }
+    }
 }
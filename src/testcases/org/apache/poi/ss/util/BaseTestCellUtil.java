@@ -21,6 +21,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
@@ -135,6 +136,72 @@ public abstract class BaseTestCellUtil {
         
     }
 
+    @Test
+    public void setCellStylePropertiesReusesChangedStyles() throws IOException {
+        try (Workbook wb = _testDataProvider.createWorkbook()) {
+            Row r = wb.createSheet().createRow(0);
+
+            // one style per indention, each found again by the second cell
+            for (int i = 0; i < 6; i++) {
+                CellUtil.setCellStyleProperty(r.createCell(2 * i), CellUtil.INDENTION, (short)i);
+                int styCnt = wb.getNumCellStyles();
+                CellUtil.setCellStyleProperty(r.createCell(2 * i + 1), CellUtil.INDENTION, (short)i);
+                assertEquals(styCnt, wb.getNumCellStyles());
+                assertEquals(r.getCell(2 * i).getCellStyle().getIndex(), r.getCell(2 * i + 1).getCellStyle().getIndex());
+            }
+
+            // a style which has been changed isn't found by its former properties
+            CellStyle changed = r.getCell(2).getCellStyle();
+            changed.setIndention((short)9);
+            int styCnt = wb.getNumCellStyles();
+            Cell c = r.createCell(20);
+            CellUtil.setCellStyleProperty(c, CellUtil.INDENTION, (short)1);
+            assertEquals(styCnt + 1, wb.getNumCellStyles());
+            assertEquals(1, c.getCellStyle().getIndention());
+
+            // but by its new ones
+            c = r.createCell(21);
+            CellUtil.setCellStyleProperty(c, CellUtil.INDENTION, (short)9);
+            assertEquals(styCnt + 1, wb.getNumCellStyles());
+            assertEquals(changed.getIndex(), c.getCellStyle().getIndex());
+        }
+    }
+
+    @Test
+    public void setCellStylePropertiesOfRange() throws IOException {
+        try (Workbook wb = _testDataProvider.createWorkbook()) {
+            Sheet s = wb.createSheet();
+            CellStyle red = wb.createCellStyle();
+            red.setFillForegroundColor(IndexedColors.RED.getIndex());
+            for (int i = 0; i < 100; i += 2) {
+                CellUtil.createCell(CellUtil.getRow(i, s), 1, "red", red);
+            }
+            short defaultColor = s.createRow(1000).createCell(0).getCellStyle().getFillForegroundColor();
+
+            Map<String, Object> props = new HashMap<>();
+            props.put(CellUtil.BORDER_TOP, BorderStyle.THIN);
+            props.put(CellUtil.WRAP_TEXT, true);
+            int styCnt = wb.getNumCellStyles();
+            CellUtil.setCellStyleProperties(s, new CellRangeAddress(0, 199, 0, 2), props);
+
+            // one new style for the cells with the default style, and one for the red cells
+            assertEquals(styCnt + 2, wb.getNumCellStyles());
+            for (int r = 0; r < 200; r++) {
+                for (int c = 0; c < 3; c++) {
+                    CellStyle style = s.getRow(r).getCell(c).getCellStyle();
+                    assertEquals(BorderStyle.THIN, style.getBorderTop());
+                    assertTrue(style.getWrapText());
+                    short color = (c == 1 && r < 100 && r % 2 == 0) ? IndexedColors.RED.getIndex() : defaultColor;
+                    assertEquals(color, style.getFillForegroundColor());
+                }
+            }
+
+            // applying the same properties again doesn't create more styles
+            CellUtil.setCellStyleProperties(s, new CellRangeAddress(200, 299, 0, 2), props);
+            assertEquals(styCnt + 2, wb.getNumCellStyles());
+        }
+    }
+
     @Test
     public void getRow() throws IOException {
         Workbook wb = _testDataProvider.createWorkbook();
@@ -0,0 +1,119 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link CellRangeIndex}
+ */
+public final class TestCellRangeIndex {
+
+    @Test
+    public void testLookup() {
+        CellRangeAddress a1b2 = CellRangeAddress.valueOf("A1:B2");
+        CellRangeAddress c1c10 = CellRangeAddress.valueOf("C1:C10");
+        CellRangeAddress a5z5 = CellRangeAddress.valueOf("A5:Z5");
+        CellRangeIndex<CellRangeAddress> index = new CellRangeIndex<>(Arrays.asList(a1b2, c1c10, a5z5));
+
+        assertEquals(3, index.size());
+        assertSame(c1c10, index.get(1));
+        assertEquals(Arrays.asList(a1b2), index.getContaining(1, 1));
+        assertEquals(Arrays.asList(c1c10, a5z5), index.getContaining(4, 2));
+        assertTrue(index.getContaining(2, 0).isEmpty());
+        assertEquals(Arrays.asList(a1b2, c1c10, a5z5), index.getIntersecting(CellRangeAddress.valueOf("B2:C5")));
+
+        assertSame(c1c10, index.remove(1));
+        assertEquals(Arrays.asList(a5z5), index.getContaining(4, 2));
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.getContaining(0, 0).isEmpty());
+    }
+
+    @Test
+    public void testMutableRanges() {
+        CellRangeAddress region = CellRangeAddress.valueOf("A1:B2");
+        CellRangeIndex<CellRangeAddress> index = new CellRangeIndex<>(Arrays.asList(region));
+
+        // changes are only seen for the ranges which have been fetched for it
+        region.setFirstRow(10);
+        region.setLastRow(11);
+        assertEquals(Arrays.asList(region), index.getContaining(0, 0));
+
+        index.getMutable(0).setFirstRow(20);
+        region.setLastRow(21);
+        assertTrue(index.getContaining(0, 0).isEmpty());
+        assertEquals(Arrays.asList(region), index.getContaining(21, 1));
+    }
+
+    @Test
+    public void testSameAsBruteForce() {
+        Random rnd = new Random(42);
+        CellRangeIndex<CellRangeAddress> index = new CellRangeIndex<>();
+        List<CellRangeAddress> expected = new ArrayList<>();
+        for (int n = 0; n < 20_000; n++) {
+            int op = rnd.nextInt(10);
+            if (op < 5 || expected.isEmpty()) {
+                CellRangeAddress range = randomRange(rnd);
+                index.add(range);
+                expected.add(range);
+            } else if (op < 7) {
+                int i = rnd.nextInt(expected.size());
+                assertSame(expected.remove(i), index.remove(i));
+            } else if (op < 8) {
+                CellRangeAddress range = index.getMutable(rnd.nextInt(expected.size()));
+                int row = rnd.nextInt(200);
+                range.setFirstRow(row);
+                range.setLastRow(row + rnd.nextInt(5));
+            } else {
+                CellRangeAddress query = randomRange(rnd);
+                assertEquals(bruteForce(expected, query), index.getIntersecting(query));
+                int row = rnd.nextInt(210), col = rnd.nextInt(60);
+                assertEquals(bruteForce(expected, new CellRangeAddress(row, row, col, col)),
+                        index.getContaining(row, col));
+            }
+            assertEquals(expected.size(), index.size());
+        }
+    }
+
+    private static CellRangeAddress randomRange(Random rnd) {
+        int row = rnd.nextInt(200), col = rnd.nextInt(50);
+        // mostly small ranges, and a few long ones
+        int rows = rnd.nextInt(10) == 0 ? rnd.nextInt(100) : rnd.nextInt(3);
+        return new CellRangeAddress(row, row + rows, col, col + rnd.nextInt(4));
+    }
+
+    private static List<CellRangeAddress> bruteForce(List<CellRangeAddress> ranges, CellRangeAddress query) {
+        List<CellRangeAddress> found = new ArrayList<>();
+        for (CellRangeAddress range : ranges) {
+            if (range.intersects(query)) {
+                found.add(range);
+            }
+        }
+        return found;
+    }
+}
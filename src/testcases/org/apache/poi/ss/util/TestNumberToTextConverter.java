@@ -20,6 +20,8 @@ package org.apache.poi.ss.util;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
+import java.util.Random;
+
 import org.apache.poi.hssf.record.FormulaRecord;
 import org.apache.poi.ss.formula.constant.ConstantValueParser;
 import org.apache.poi.ss.formula.ptg.NumberPtg;
@@ -83,6 +85,50 @@ public final class TestNumberToTextConverter {
 		assertEquals(excelRep, strExcel);
 	}
 
+	@Test
+	public void testBufferMatchesExactConversion() {
+		char[] buf = new char[NumberToTextConverter.MAX_TEXT_LENGTH + 3];
+		for (ExampleConversion example : NumberToTextConversionExamples.getExampleConversions()) {
+			confirmBuffer(buf, example.getRawDoubleBits());
+		}
+
+		// powers of ten and their neighbours, where the decimal exponent changes
+		for (int e = -330; e <= 310; e++) {
+			long bits = Double.doubleToLongBits(Double.parseDouble("1e" + e));
+			for (int i = -3; i <= 3; i++) {
+				confirmBuffer(buf, bits + i);
+			}
+			// rounding of the 15th digit and the carry into a new digit
+			for (String prefix : new String[]{"9.99999999999995e", "9.999999999999949e", "1.000000000000005e", "1.23456789012345e"}) {
+				bits = Double.doubleToLongBits(Double.parseDouble(prefix + e));
+				for (int i = -2; i <= 2; i++) {
+					confirmBuffer(buf, bits + i);
+				}
+			}
+		}
+
+		Random rnd = new Random(43);
+		for (int i = 0; i < 10_000; i++) {
+			confirmBuffer(buf, Double.doubleToLongBits(i));
+			confirmBuffer(buf, Double.doubleToLongBits(-i / 100.0));
+			confirmBuffer(buf, rnd.nextLong());
+			confirmBuffer(buf, Double.doubleToLongBits(rnd.nextDouble() * Math.pow(10, rnd.nextInt(40) - 20)));
+			// 16 digits ending in 5 are halfway between two 15 digit renderings
+			long tie = (rnd.nextLong() >>> 14) % 9_000_000_000_000_000L / 10 * 10 + 5;
+			confirmBuffer(buf, Double.doubleToLongBits(tie * Math.pow(10, rnd.nextInt(60) - 30)));
+		}
+	}
+
+	private static void confirmBuffer(char[] buf, long rawBits) {
+		String expected = NumberToTextConverter.exactRawDoubleBitsToText(rawBits);
+		int len = NumberToTextConverter.rawDoubleBitsToText(rawBits, buf, 3);
+		assertEquals(Long.toHexString(rawBits), expected, new String(buf, 3, len));
+		if (!Double.isNaN(Double.longBitsToDouble(rawBits))) {
+			len = NumberToTextConverter.toText(Double.longBitsToDouble(rawBits), buf, 0);
+			assertEquals(Long.toHexString(rawBits), expected, new String(buf, 0, len));
+		}
+	}
+
 	@Test
 	public void testSimpleRendering_bug56156() {
 		double dResult = 0.05+0.01; // values chosen to produce rounding anomaly
@@ -17,6 +17,7 @@
 
 package org.apache.poi.ss.util;
 
+import org.apache.poi.hssf.HSSFTestDataSamples;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
@@ -24,10 +25,13 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.junit.Test;
 
+import java.awt.geom.Rectangle2D;
 import java.io.IOException;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -156,4 +160,74 @@ public final class TestSheetUtil {
         
         wb.close();
     }
+
+    @Test
+    public void testGetColumnWidths() throws IOException {
+        try (HSSFWorkbook wb = new HSSFWorkbook()) {
+            Sheet sheet = wb.createSheet("sheet");
+            for (int i = 0; i < 100; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("text " + i);
+                row.createCell(1).setCellValue(i * 1000.5);
+                row.createCell(3).setCellValue(i % 2 == 0);
+            }
+            sheet.getRow(55).createCell(4).setCellValue("merged over two columns");
+            sheet.addMergedRegion(new CellRangeAddress(55, 55, 4, 5));
+
+            int[] columns = {0, 1, 2, 3, 4};
+
+            // the cells and fonts of a loaded workbook are only created when they are read,
+            //  so the parallel pass has to come first
+            double[] parallel;
+            try (HSSFWorkbook wbBack = HSSFTestDataSamples.writeOutAndReadBack(wb)) {
+                parallel = SheetUtil.getColumnWidths(wbBack.getSheetAt(0), columns, true, 0, true);
+            }
+
+            double[] expected = new double[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                expected[i] = SheetUtil.getColumnWidth(sheet, columns[i], true);
+            }
+            assertEquals(-1.0, expected[2], 0);
+            assertTrue(expected[4] > 0);
+
+            assertArrayEquals(expected, parallel, 0);
+            assertArrayEquals(expected, SheetUtil.getColumnWidths(sheet, columns, true, 0, false), 0);
+            assertArrayEquals(expected, SheetUtil.getColumnWidths(sheet, columns, true, 0, true), 0);
+
+            // the sample still has a value in each column, but not the merged cell
+            double[] sampled = SheetUtil.getColumnWidths(sheet, columns, true, 10, false);
+            for (int i = 0; i < 4; i++) {
+                assertTrue(sampled[i] <= expected[i]);
+                assertEquals(expected[i] == -1, sampled[i] == -1);
+            }
+            assertEquals(-1.0, sampled[4], 0);
+        }
+    }
+
+    @Test
+    public void testGlyphAdvancesMatchTextLayout() throws IOException {
+        try (Workbook wb = new HSSFWorkbook()) {
+            org.apache.poi.ss.usermodel.Font font = wb.createFont();
+            font.setFontName("Arial");
+            font.setFontHeightInPoints((short)11);
+            font.setBold(true);
+            GlyphAdvanceCache advances = GlyphAdvanceCache.forFont(font);
+            assertSame(advances, GlyphAdvanceCache.forFont(font));
+
+            for (String text : new String[]{"", "  leading", "trailing  ", "Some text", "12,345.68", "\u00c4\u00df\u20ac"}) {
+                double width = advances.getFrameWidth(text);
+                if (Double.isNaN(width)) {
+                    // the font can't display some of the characters
+                    continue;
+                }
+                Rectangle2D bounds = advances.createLayout(text + "0").getBounds();
+                assertEquals(text, bounds.getX() + bounds.getWidth(), width, 0.01);
+            }
+
+            // text which needs a layout isn't measured by its advances
+            assertTrue(Double.isNaN(advances.getFrameWidth("\u05e9\u05dc\u05d5\u05dd")));
+            assertTrue(Double.isNaN(advances.getFrameWidth("tab\t")));
+            assertTrue(Double.isNaN(advances.getFrameWidth("e\u0301")));
+        }
+    }
 }
@@ -24,6 +24,7 @@ import static org.junit.Assert.assertFalse;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -121,4 +122,39 @@ public final class TestLittleEndianStreams {
 		thrown.expectMessage("Buffer overrun");
 		lei.readFully(new byte[4]);
 	}
+
+	@Test
+	public void testByteBufferSplitValues() {
+		byte[] srcBuf = HexRead.readFromString("99 88 77 66 55 44 33 22 11 00 AA BB CC");
+		// the values cross the buffer boundaries
+		LittleEndianByteBufferInputStream lei = new LittleEndianByteBufferInputStream(
+			ByteBuffer.wrap(srcBuf, 0, 1), ByteBuffer.wrap(srcBuf, 1, 4), ByteBuffer.wrap(srcBuf, 5, 0),
+			ByteBuffer.wrap(srcBuf, 5, 8));
+		assertEquals(13, lei.available());
+		assertEquals(0x8899, lei.readUShort());
+		lei.mark(0);
+		assertEquals(0x44556677, lei.readInt());
+		lei.reset();
+		assertEquals(0x0011223344556677L, lei.readLong());
+		byte[] actBuf = new byte[2];
+		lei.readFully(actBuf);
+		assertArrayEquals(HexRead.readFromString("AA BB"), actBuf);
+		assertEquals(0xCC, lei.read());
+		assertEquals(-1, lei.read());
+		assertEquals(0, lei.available());
+	}
+
+	@Test
+	public void testByteBufferOverrun() {
+		byte[] srcBuf = HexRead.readFromString("99 88 77");
+		LittleEndianInput lei = new LittleEndianByteBufferInputStream(
+			ByteBuffer.wrap(srcBuf, 0, 1), ByteBuffer.wrap(srcBuf, 1, 2));
+
+		assertEquals(0x8899, lei.readUShort());
+
+		// only one byte left, so this should fail
+		thrown.expect(RuntimeException.class);
+		thrown.expectMessage("Buffer overrun");
+		lei.readFully(new byte[4]);
+	}
 }